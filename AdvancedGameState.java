@@ -1,27 +1,25 @@
 package com.space.ship.game;
 
-import android.content.Context;
-import android.content.SharedPreferences;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.List;
 
-public class GameState {
-    private static final String PREFS_NAME = "SpaceShipGameAdvanced";
+public class GameState implements SaveFile.Payload {
+    // مخزن کلید-مقدار قدیمی؛ فقط برای انتقال ذخیره‌های پیش از SaveFile خوانده می‌شود
+    public interface Storage {
+        long getLong(String key, long defaultValue);
+        int getInt(String key, int defaultValue);
+    }
+    
+    // شمارنده‌های آماری که شرط‌های دستاورد و مأموریت به آن‌ها وابسته‌اند در جدول آمار نگه داشته می‌شوند
+    private final StatTable stats = new StatTable();
     
     // آمار بازی
-    private long coins;
-    private int score;
-    private int currentLevel;
-    private int destroyedPlanets;
-    private int destroyedEnemies;
     private int lives;
     private int totalPlayTime;
     private long sessionStartTime;
     
     // آمار پیشرفته
-    private int totalShotsFired;
-    private int totalHits;
-    private int maxCombo;
     private int currentCombo;
     private long totalDistanceTraveled;
     private int planetsByType[];
@@ -36,21 +34,21 @@ public class GameState {
     // دستاوردها
     private List<Achievement> achievements;
     private List<Mission> activeMissions;
+    // هر نوع مأموریت حداکثر یک بار فعال است
+    private static final int MAX_ACTIVE_MISSIONS = 3;
+    // دقت پیش از این تعداد شلیک معنادار نیست (یک تیر موفق یعنی 100%)
+    private static final int ACCURACY_MIN_SHOTS = 50;
+    private static final String[] MISSION_TYPES = {"planets_5", "enemies_8", "coins_500k"};
+    private static final int START_LIVES = 3;
     
     public GameState() {
-        coins = 1000000; // شروع با 1 میلیون سکه
-        score = 0;
-        currentLevel = 1;
-        destroyedPlanets = 0;
-        destroyedEnemies = 0;
-        lives = 3;
+        stats.set(StatTable.COINS, 1000000); // شروع با 1 میلیون سکه
+        stats.set(StatTable.LEVEL, 1);
+        lives = START_LIVES;
         totalPlayTime = 0;
         sessionStartTime = System.currentTimeMillis();
         
         // آمار پیشرفته
-        totalShotsFired = 0;
-        totalHits = 0;
-        maxCombo = 0;
         currentCombo = 0;
         totalDistanceTraveled = 0;
         planetsByType = new int[5];
@@ -77,71 +75,97 @@ public class GameState {
         achievements.add(new Achievement("اسنایپر", "دقت 80% داشته باش", 7500, "accuracy_80"));
     }
     
+    // مأموریت‌های تکمیل شده دوباره اضافه می‌شوند؛ مأموریت فعال از همان نوع تکرار نمی‌شود
     private void generateMissions() {
-        activeMissions.add(new Mission("نابودی سیارات", "5 سیاره نابود کن", 5, 0, 2000, "planets_5"));
-        activeMissions.add(new Mission("شکار دشمنان", "8 دشمن نابود کن", 8, 0, 1500, "enemies_8"));
-        activeMissions.add(new Mission("جمع‌آوری ثروت", "500,000 سکه جمع کن", 500000, 0, 3000, "coins_500k"));
+        for (String type : MISSION_TYPES) {
+            addMission(newMission(type));
+        }
+    }
+    
+    // نوع مأموریت شناسه آن در فایل ذخیره هم هست
+    private Mission newMission(String type) {
+        switch (type) {
+            case "planets_5":
+                return new Mission("نابودی سیارات", "5 سیاره نابود کن", StatTable.PLANETS_DESTROYED, 5, 2000, type);
+            case "enemies_8":
+                return new Mission("شکار دشمنان", "8 دشمن نابود کن", StatTable.ENEMIES_DESTROYED, 8, 1500, type);
+            case "coins_500k":
+                return new Mission("جمع‌آوری ثروت", "500,000 سکه جمع کن", StatTable.COINS_EARNED, 500000, 3000, type);
+            default:
+                return null;
+        }
+    }
+    
+    private boolean addMission(Mission mission) {
+        if (mission == null || activeMissions.size() >= MAX_ACTIVE_MISSIONS) return false;
+        for (Mission active : activeMissions) {
+            if (active.type.equals(mission.type)) return false;
+        }
+        activeMissions.add(mission);
+        mission.watch();
+        return true;
+    }
+    
+    private void clearMissions() {
+        for (Mission mission : activeMissions) {
+            mission.cancel();
+        }
+        activeMissions.clear();
     }
     
     public void planetDestroyed(int planetType) {
-        destroyedPlanets++;
         planetsByType[planetType]++;
         
+        int currentLevel = getCurrentLevel();
         int baseScore = 100 * currentLevel;
         int typeBonus = getPlanetTypeBonus(planetType);
         int comboBonus = currentCombo * 10;
         
-        score += baseScore + typeBonus + comboBonus;
-        coins += (50000 * currentLevel) + (comboBonus * 100);
+        addScore(baseScore + typeBonus + comboBonus);
+        earnCoins((50000 * currentLevel) + (comboBonus * 100));
         
         currentCombo++;
-        if (currentCombo > maxCombo) {
-            maxCombo = currentCombo;
-        }
-        
-        // بررسی مأموریت‌ها
-        checkMissions();
+        stats.max(StatTable.MAX_COMBO, currentCombo);
         
-        // بررسی دستاوردها
-        checkAchievements();
+        // مأموریت‌ها و دستاوردهای وابسته به این شمارنده‌ها توسط جدول آمار بررسی می‌شوند
+        stats.add(StatTable.LEVEL_PLANETS, 1);
+        stats.add(StatTable.PLANETS_DESTROYED, 1);
     }
     
     public void enemyDestroyed(int enemyType) {
-        destroyedEnemies++;
         enemiesByType[enemyType]++;
         
+        int currentLevel = getCurrentLevel();
         int baseScore = 50 * currentLevel;
         int typeBonus = getEnemyTypeBonus(enemyType);
         
-        score += baseScore + typeBonus;
-        coins += 25000 * currentLevel;
+        addScore(baseScore + typeBonus);
+        earnCoins(25000 * currentLevel);
         
         currentCombo++;
-        if (currentCombo > maxCombo) {
-            maxCombo = currentCombo;
-        }
+        stats.max(StatTable.MAX_COMBO, currentCombo);
         
-        checkMissions();
-        checkAchievements();
+        stats.add(StatTable.ENEMIES_DESTROYED, 1);
     }
     
     public void shipDestroyed() {
         lives--;
         currentCombo = 0;
         
-        score = Math.max(0, score - 100);
-        coins = Math.max(1000000, coins - 100000);
+        stats.set(StatTable.SCORE, Math.max(0, stats.get(StatTable.SCORE) - 100));
+        stats.set(StatTable.COINS, Math.max(1000000, stats.get(StatTable.COINS) - 100000));
     }
     
     public void nextLevel() {
-        currentLevel++;
-        destroyedPlanets = 0;
+        stats.add(StatTable.LEVEL, 1);
+        stats.set(StatTable.LEVEL_PLANETS, 0);
         currentCombo = 0;
         
         // پاداش سطح
+        int currentLevel = getCurrentLevel();
         int levelBonus = currentLevel * 1000000;
-        coins += levelBonus;
-        score += currentLevel * 1000;
+        earnCoins(levelBonus);
+        addScore(currentLevel * 1000);
         
         // پاداش جان اضافی هر 5 سطح
         if (currentLevel % 5 == 0) {
@@ -150,8 +174,6 @@ public class GameState {
         
         // تولید مأموریت‌های جدید
         generateMissions();
-        
-        checkAchievements();
     }
     
     public void addDistance(float distance) {
@@ -159,11 +181,21 @@ public class GameState {
     }
     
     public void shotFired() {
-        totalShotsFired++;
+        stats.add(StatTable.SHOTS_FIRED, 1);
     }
     
     public void shotHit() {
-        totalHits++;
+        stats.add(StatTable.SHOTS_HIT, 1);
+    }
+    
+    private void addScore(long amount) {
+        stats.add(StatTable.SCORE, amount);
+    }
+    
+    // سکه به دست آمده (نه خرج شده) در شمارنده جداگانه هم جمع می‌شود
+    private void earnCoins(long amount) {
+        stats.add(StatTable.COINS, amount);
+        stats.add(StatTable.COINS_EARNED, amount);
     }
     
     private int getPlanetTypeBonus(int planetType) {
@@ -187,32 +219,42 @@ public class GameState {
         }
     }
     
-    private void checkMissions() {
-        for (int i = activeMissions.size() - 1; i >= 0; i--) {
-            Mission mission = activeMissions.get(i);
-            if (mission.checkCompletion(this)) {
-                coins += mission.getReward();
-                score += mission.getReward() / 10;
-                activeMissions.remove(i);
-            }
+    // تبدیل شرط دستاورد به ناظر جدول آمار: «آمار_عدد» با پسوند اختیاری k یا m، مثل enemy_10 یا coins_10m
+    // دقت به صورت درصد تیرهای برخورد کرده از تیرهای شلیک شده است
+    private int compileCondition(String condition, StatTable.Watcher owner) {
+        int split = condition.lastIndexOf('_');
+        if (split < 0) {
+            throw new IllegalArgumentException("bad condition " + condition);
         }
-    }
-    
-    private void checkAchievements() {
-        for (Achievement achievement : achievements) {
-            if (!achievement.isUnlocked() && achievement.checkCondition(this)) {
-                achievement.unlock();
-                coins += achievement.getReward();
-                score += achievement.getReward() * 2;
-            }
+        String name = condition.substring(0, split);
+        String amount = condition.substring(split + 1);
+        long scale = 1;
+        if (amount.endsWith("k")) {
+            scale = 1000;
+        } else if (amount.endsWith("m")) {
+            scale = 1000000;
+        }
+        long target = Long.parseLong(scale == 1 ? amount : amount.substring(0, amount.length() - 1)) * scale;
+        
+        switch (name) {
+            case "planet": return stats.watchAtLeast(StatTable.PLANETS_DESTROYED, target, owner);
+            case "enemy": return stats.watchAtLeast(StatTable.ENEMIES_DESTROYED, target, owner);
+            case "accuracy":
+                return stats.watchPercent(StatTable.SHOTS_HIT, StatTable.SHOTS_FIRED, target, ACCURACY_MIN_SHOTS, owner);
+            default:
+                int stat = StatTable.statForName(name);
+                if (stat < 0) {
+                    throw new IllegalArgumentException("unknown stat in condition " + condition);
+                }
+                return stats.watchAtLeast(stat, target, owner);
         }
     }
     
     // سیستم قدرت‌آپگرید
     public boolean upgradeShipSpeed() {
         int cost = getUpgradeCost(shipSpeedLevel);
-        if (coins >= cost) {
-            coins -= cost;
+        if (getCoins() >= cost) {
+            stats.add(StatTable.COINS, -cost);
             shipSpeedLevel++;
             return true;
         }
@@ -221,8 +263,8 @@ public class GameState {
     
     public boolean upgradeShipHealth() {
         int cost = getUpgradeCost(shipHealthLevel);
-        if (coins >= cost) {
-            coins -= cost;
+        if (getCoins() >= cost) {
+            stats.add(StatTable.COINS, -cost);
             shipHealthLevel++;
             return true;
         }
@@ -231,8 +273,8 @@ public class GameState {
     
     public boolean upgradeWeaponPower() {
         int cost = getUpgradeCost(weaponPowerLevel);
-        if (coins >= cost) {
-            coins -= cost;
+        if (getCoins() >= cost) {
+            stats.add(StatTable.COINS, -cost);
             weaponPowerLevel++;
             return true;
         }
@@ -241,8 +283,8 @@ public class GameState {
     
     public boolean upgradeShieldCapacity() {
         int cost = getUpgradeCost(shieldCapacityLevel);
-        if (coins >= cost) {
-            coins -= cost;
+        if (getCoins() >= cost) {
+            stats.add(StatTable.COINS, -cost);
             shieldCapacityLevel++;
             return true;
         }
@@ -253,51 +295,151 @@ public class GameState {
         return currentLevel * 500000;
     }
     
-    // محاسبه دقت
-    public float getAccuracy() {
-        if (totalShotsFired == 0) return 0;
-        return (float) totalHits / totalShotsFired * 100;
+    public void addCoins(long amount) {
+        earnCoins(amount);
     }
     
-    // ذخیره و بازیابی
-    public void saveGame(Context context) {
-        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        SharedPreferences.Editor editor = prefs.edit();
+    // ذخیره دودویی (سرآیند و CRC در SaveFile)؛ ترتیب فیلدها بخشی از نسخه قالب است
+    // و هر تغییر آن نیازمند افزایش SaveFile.GAME_VERSION و شاخه خواندن جدید در readSave است
+    @Override
+    public void writeSave(ByteBuffer out) {
+        out.putInt(lives);
+        out.putInt(totalPlayTime + (int)((System.currentTimeMillis() - sessionStartTime) / 1000));
+        out.putLong(totalDistanceTraveled);
+        out.putInt(shipSpeedLevel);
+        out.putInt(shipHealthLevel);
+        out.putInt(weaponPowerLevel);
+        out.putInt(shieldCapacityLevel);
+        putCounts(out, planetsByType);
+        putCounts(out, enemiesByType);
+        
+        out.putInt(StatTable.COUNT);
+        for (int stat = 0; stat < StatTable.COUNT; stat++) {
+            out.putLong(stats.get(stat));
+        }
         
-        editor.putLong("coins", coins);
-        editor.putInt("score", score);
-        editor.putInt("level", currentLevel);
-        editor.putInt("lives", lives);
-        editor.putInt("totalPlayTime", totalPlayTime + (int)(System.currentTimeMillis() - sessionStartTime) / 1000);
+        // دستاوردها با شرطشان شناخته می‌شوند تا جابجایی یا افزودن دستاورد ذخیره را خراب نکند
+        int unlocked = 0;
+        for (Achievement achievement : achievements) {
+            if (achievement.unlocked) unlocked++;
+        }
+        out.putInt(unlocked);
+        for (Achievement achievement : achievements) {
+            if (achievement.unlocked) SaveFile.putString(out, achievement.condition);
+        }
         
-        // آمار پیشرفته
-        editor.putInt("totalShots", totalShotsFired);
-        editor.putInt("totalHits", totalHits);
-        editor.putInt("maxCombo", maxCombo);
-        editor.putLong("totalDistance", totalDistanceTraveled);
+        out.putInt(activeMissions.size());
+        for (Mission mission : activeMissions) {
+            SaveFile.putString(out, mission.type);
+            out.putLong(mission.baseline);
+        }
+    }
+    
+    // فیلدهای ناشناخته (آمار یا انواع افزوده شده در نسخه بعد) نادیده و فیلدهای غایب پیش‌فرض می‌مانند
+    // کل بدنه اول در متغیرهای محلی خوانده می‌شود؛ بدنه کوتاه یا خراب (با CRC درست) استثنا می‌دهد
+    // و وضعیت فعلی دست نمی‌خورد
+    public void readSave(ByteBuffer in, int version) {
+        int savedLives = in.getInt();
+        int savedPlayTime = in.getInt();
+        long savedDistance = in.getLong();
+        int savedSpeedLevel = in.getInt();
+        int savedHealthLevel = in.getInt();
+        int savedWeaponLevel = in.getInt();
+        int savedShieldLevel = in.getInt();
+        int[] savedPlanets = planetsByType.clone();
+        int[] savedEnemies = enemiesByType.clone();
+        getCounts(in, savedPlanets);
+        getCounts(in, savedEnemies);
+        
+        int statCount = in.getInt();
+        if (statCount < 0 || statCount > in.remaining() / 8) {
+            throw new IllegalArgumentException("bad stat count " + statCount);
+        }
+        long[] values = new long[statCount];
+        for (int i = 0; i < statCount; i++) {
+            values[i] = in.getLong();
+        }
         
-        // قدرت‌آپگریدها
-        editor.putInt("speedLevel", shipSpeedLevel);
-        editor.putInt("healthLevel", shipHealthLevel);
-        editor.putInt("weaponLevel", weaponPowerLevel);
-        editor.putInt("shieldLevel", shieldCapacityLevel);
+        int unlocked = in.getInt();
+        List<String> unlockedConditions = new ArrayList<>();
+        for (int i = 0; i < unlocked; i++) {
+            unlockedConditions.add(SaveFile.getString(in));
+        }
+        
+        int missions = in.getInt();
+        List<String> missionTypes = new ArrayList<>();
+        List<Long> missionBaselines = new ArrayList<>();
+        for (int i = 0; i < missions; i++) {
+            missionTypes.add(SaveFile.getString(in));
+            missionBaselines.add(in.getLong());
+        }
+        
+        // از اینجا به بعد خطایی نیست و وضعیت یک‌جا جایگزین می‌شود
+        // مأموریت‌های پیش‌فرض با پایه صفر ساخته شده‌اند و نباید با مقدار آمار بارگذاری شده برقرار شوند
+        clearMissions();
+        lives = savedLives;
+        totalPlayTime = savedPlayTime;
+        totalDistanceTraveled = savedDistance;
+        shipSpeedLevel = savedSpeedLevel;
+        shipHealthLevel = savedHealthLevel;
+        weaponPowerLevel = savedWeaponLevel;
+        shieldCapacityLevel = savedShieldLevel;
+        System.arraycopy(savedPlanets, 0, planetsByType, 0, planetsByType.length);
+        System.arraycopy(savedEnemies, 0, enemiesByType, 0, enemiesByType.length);
+        
+        // دستاوردهای باز شده پیش از تنظیم آمار علامت می‌خورند تا پاداششان دوباره داده نشود
+        for (String condition : unlockedConditions) {
+            for (Achievement achievement : achievements) {
+                if (achievement.condition.equals(condition)) achievement.restoreUnlocked();
+            }
+        }
+        for (int stat = 0; stat < Math.min(statCount, StatTable.COUNT); stat++) {
+            stats.set(stat, values[stat]);
+        }
         
-        editor.apply();
+        for (int i = 0; i < missionTypes.size(); i++) {
+            Mission mission = newMission(missionTypes.get(i));
+            if (mission != null) {
+                mission.baseline = missionBaselines.get(i);
+                addMission(mission);
+            }
+        }
+        finishLoad();
     }
     
-    public void loadGame(Context context) {
-        SharedPreferences prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
-        
-        coins = prefs.getLong("coins", 1000000);
-        score = prefs.getInt("score", 0);
-        currentLevel = prefs.getInt("level", 1);
-        lives = prefs.getInt("lives", 3);
+    // ادامه دور از تصویر جهان: شمارنده‌های مرحله جاری که بارگذاری عادی صفر می‌کند
+    void resumeRun(long levelPlanets, int combo) {
+        stats.set(StatTable.LEVEL_PLANETS, levelPlanets);
+        currentCombo = combo;
+    }
+    
+    private static void putCounts(ByteBuffer out, int[] counts) {
+        out.putInt(counts.length);
+        for (int count : counts) {
+            out.putInt(count);
+        }
+    }
+    
+    private static void getCounts(ByteBuffer in, int[] counts) {
+        int length = in.getInt();
+        for (int i = 0; i < length; i++) {
+            int count = in.getInt();
+            if (i < counts.length) counts[i] = count;
+        }
+    }
+    
+    // انتقال از کلیدهای SharedPreferences نسخه‌های قبل
+    public void loadFrom(Storage prefs) {
+        stats.set(StatTable.COINS, prefs.getLong("coins", 1000000));
+        stats.set(StatTable.SCORE, prefs.getInt("score", 0));
+        stats.set(StatTable.LEVEL, prefs.getInt("level", 1));
+        lives = prefs.getInt("lives", START_LIVES);
         totalPlayTime = prefs.getInt("totalPlayTime", 0);
         
         // آمار پیشرفته
-        totalShotsFired = prefs.getInt("totalShots", 0);
-        totalHits = prefs.getInt("totalHits", 0);
-        maxCombo = prefs.getInt("maxCombo", 0);
+        stats.set(StatTable.SHOTS_FIRED, prefs.getInt("totalShots", 0));
+        stats.set(StatTable.SHOTS_HIT, prefs.getInt("totalHits", 0));
+        stats.set(StatTable.MAX_COMBO, prefs.getInt("maxCombo", 0));
         totalDistanceTraveled = prefs.getLong("totalDistance", 0);
         
         // قدرت‌آپگریدها
@@ -306,16 +448,30 @@ public class GameState {
         weaponPowerLevel = prefs.getInt("weaponLevel", 1);
         shieldCapacityLevel = prefs.getInt("shieldLevel", 1);
         
+        finishLoad();
+    }
+    
+    // ذخیره پس از پایان بازی (بدون جان) دور جدیدی را با حفظ سکه، آمار و آپگریدها شروع می‌کند
+    private void finishLoad() {
+        if (lives <= 0) {
+            lives = START_LIVES;
+            stats.set(StatTable.SCORE, 0);
+            stats.set(StatTable.LEVEL, 1);
+        }
+        stats.set(StatTable.LEVEL_PLANETS, 0);
+        currentCombo = 0;
         sessionStartTime = System.currentTimeMillis();
     }
     
     // کلاس‌های داخلی برای دستاوردها و مأموریت‌ها
-    class Achievement {
+    // شرط یک بار هنگام ساخت کامپایل می‌شود و جدول آمار فقط هنگام برقرار شدن آن را صدا می‌زند
+    class Achievement implements StatTable.Watcher {
         private String name;
         private String description;
         private int reward;
         private String condition;
         private boolean unlocked;
+        private int watcherId = -1;
         
         public Achievement(String name, String description, int reward, String condition) {
             this.name = name;
@@ -323,27 +479,28 @@ public class GameState {
             this.reward = reward;
             this.condition = condition;
             this.unlocked = false;
+            // شرطی که هنگام ساخت برقرار باشد همین‌جا اعلان شده و شناسه‌اش آزاد است
+            int id = compileCondition(condition, this);
+            if (!unlocked) watcherId = id;
         }
         
-        public boolean checkCondition(GameState gameState) {
-            switch (condition) {
-                case "planet_1":
-                    return gameState.destroyedPlanets >= 1;
-                case "enemy_10":
-                    return gameState.destroyedEnemies >= 10;
-                case "coins_10m":
-                    return gameState.coins >= 10000000;
-                case "level_10":
-                    return gameState.currentLevel >= 10;
-                case "accuracy_80":
-                    return gameState.getAccuracy() >= 80;
-                default:
-                    return false;
-            }
+        @Override
+        public void onConditionMet() {
+            if (unlocked) return;
+            unlock();
+            earnCoins(reward);
+            addScore(reward * 2);
         }
         
         public void unlock() {
             unlocked = true;
+            watcherId = -1;
+        }
+        
+        // باز شده در ذخیره قبلی: بدون پاداش و بدون ناظر
+        void restoreUnlocked() {
+            stats.cancel(watcherId);
+            unlock();
         }
         
         // Getter methods
@@ -353,62 +510,76 @@ public class GameState {
         public int getReward() { return reward; }
     }
     
-    class Mission {
+    // پیشرفت مأموریت از مقدار آمار در لحظه شروع آن شمرده می‌شود
+    class Mission implements StatTable.Watcher {
         private String name;
         private String description;
         private int target;
-        private int progress;
         private int reward;
         private String type;
+        private final int stat;
+        private long baseline;
+        private int watcherId = -1;
+        private boolean completed;
         
-        public Mission(String name, String description, int target, int progress, int reward, String type) {
+        public Mission(String name, String description, int stat, int target, int reward, String type) {
             this.name = name;
             this.description = description;
+            this.stat = stat;
             this.target = target;
-            this.progress = progress;
             this.reward = reward;
             this.type = type;
+            this.baseline = stats.get(stat);
         }
         
-        public boolean checkCompletion(GameState gameState) {
-            switch (type) {
-                case "planets_5":
-                    progress = gameState.destroyedPlanets;
-                    break;
-                case "enemies_8":
-                    progress = gameState.destroyedEnemies;
-                    break;
-                case "coins_500k":
-                    progress = (int) Math.min(gameState.coins, Integer.MAX_VALUE);
-                    break;
-            }
-            return progress >= target;
+        void watch() {
+            int id = stats.watchAtLeast(stat, baseline + target, this);
+            if (!completed) watcherId = id;
+        }
+        
+        void cancel() {
+            stats.cancel(watcherId);
+            watcherId = -1;
+        }
+        
+        @Override
+        public void onConditionMet() {
+            completed = true;
+            watcherId = -1;
+            earnCoins(reward);
+            addScore(reward / 10);
+            activeMissions.remove(this);
         }
         
         // Getter methods
         public String getName() { return name; }
         public String getDescription() { return description; }
-        public int getProgress() { return progress; }
+        public int getProgress() { return (int) Math.min(target, Math.max(0, stats.get(stat) - baseline)); }
         public int getTarget() { return target; }
         public int getReward() { return reward; }
     }
     
     // Getter methods
-    public long getCoins() { return coins; }
-    public int getScore() { return score; }
-    public int getCurrentLevel() { return currentLevel; }
+    public long getCoins() { return stats.get(StatTable.COINS); }
+    public int getScore() { return (int) stats.get(StatTable.SCORE); }
+    public int getCurrentLevel() { return (int) stats.get(StatTable.LEVEL); }
     public int getLives() { return lives; }
-    public int getDestroyedPlanets() { return destroyedPlanets; }
-    public int getDestroyedEnemies() { return destroyedEnemies; }
+    public int getDestroyedPlanets() { return (int) stats.get(StatTable.LEVEL_PLANETS); }
+    public int getDestroyedEnemies() { return (int) stats.get(StatTable.ENEMIES_DESTROYED); }
+    public int getTotalShotsFired() { return (int) stats.get(StatTable.SHOTS_FIRED); }
+    public int getTotalHits() { return (int) stats.get(StatTable.SHOTS_HIT); }
     public int getShipSpeedLevel() { return shipSpeedLevel; }
     public int getShipHealthLevel() { return shipHealthLevel; }
     public int getWeaponPowerLevel() { return weaponPowerLevel; }
     public int getShieldCapacityLevel() { return shieldCapacityLevel; }
+    // محاسبه دقت
     public float getAccuracy() { 
-        return totalShotsFired > 0 ? (float)totalHits / totalShotsFired * 100 : 0; 
+        long shots = stats.get(StatTable.SHOTS_FIRED);
+        return shots > 0 ? (float)stats.get(StatTable.SHOTS_HIT) / shots * 100 : 0; 
     }
-    public int getMaxCombo() { return maxCombo; }
+    public int getMaxCombo() { return (int) stats.get(StatTable.MAX_COMBO); }
     public int getCurrentCombo() { return currentCombo; }
     public List<Achievement> getAchievements() { return achievements; }
     public List<Mission> getActiveMissions() { return activeMissions; }
+    public StatTable getStats() { return stats; }
       }
@@ -1,25 +1,79 @@
 package com.space.ship.game;
 
-import android.graphics.Canvas;
-import android.graphics.Color;
-import android.graphics.Paint;
-import android.graphics.RadialGradient;
-import android.graphics.Shader;
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Random;
 
+// سیستم ذرات با آرایه‌های اولیه (SoA)؛ ظرفیت ثابت و بدون تخصیص پس از ساخت
 public class ParticleSystem {
-    private List<Particle> particles;
+    // بودجه پیش‌فرض هر نوع ذره
+    private static final int DEFAULT_ADVANCED_CAPACITY = 4096;
+    private static final int DEFAULT_EFFECT_CAPACITY = 512;
+
+    // رنگ‌های سیارات بر اساس نوع (یک بار ساخته می‌شوند)
+    private static final int[][] PLANET_COLORS = {
+        { // زمینی
+            Colors.argb(255, 100, 200, 100),
+            Colors.argb(255, 150, 150, 100),
+            Colors.argb(255, 80, 120, 80)
+        },
+        { // آتشی
+            Colors.argb(255, 255, 100, 0),
+            Colors.argb(255, 255, 50, 0),
+            Colors.argb(255, 200, 30, 0)
+        },
+        { // یخی
+            Colors.argb(255, 200, 230, 255),
+            Colors.argb(255, 150, 200, 240),
+            Colors.argb(255, 100, 170, 220)
+        },
+        { // گازی
+            Colors.argb(255, 255, 200, 100),
+            Colors.argb(255, 255, 150, 50),
+            Colors.argb(255, 200, 100, 30)
+        },
+        { // سمی
+            Colors.argb(255, 100, 255, 100),
+            Colors.argb(255, 50, 200, 50),
+            Colors.argb(255, 0, 150, 0)
+        }
+    };
+    private static final int[] DEFAULT_COLORS = {Colors.WHITE};
+
+    // هر نوع ذره بافر و حلقه بروزرسانی مخصوص خود را دارد
+    private final ParticleBuffer advanced;
+    private final ParticleBuffer rings;
+    private final ParticleBuffer shockwaves;
+    private final ParticleBuffer blackHoleParticles;
+    private final ParticleBuffer energyRings;
     private List<Emitter> emitters;
-    private Random random;
-    
-    public ParticleSystem() {
-        particles = new ArrayList<>();
+    private final SimRandom random;
+
+    // کارهای موازی بروزرسانی؛ یک بار ساخته می‌شوند و گام تیک جاری را از stepFrames می‌خوانند
+    private static final int PARTICLE_GRAIN = 512;
+    private final JobSystem.Kernel advancedKernel = this::updateAdvanced;
+    private final JobSystem.Kernel ringKernel = this::updateRings;
+    private final JobSystem.Kernel shockwaveKernel = this::updateShockwaves;
+    private final JobSystem.Kernel blackHoleKernel = this::updateBlackHoleParticles;
+    private final JobSystem.Kernel energyRingKernel = this::updateEnergyRings;
+    private float stepFrames;
+    // اصطکاک هر فریم ۶۰ هرتز به توان تعداد فریم‌های گام تا نتیجه به نرخ تیک بستگی نداشته باشد
+    private float drag99, drag98, drag97;
+    private ViewRect lodView;
+
+    public ParticleSystem(SimRandom random) {
+        this(DEFAULT_ADVANCED_CAPACITY, DEFAULT_EFFECT_CAPACITY, random);
+    }
+
+    public ParticleSystem(int advancedCapacity, int effectCapacity, SimRandom random) {
+        advanced = new ParticleBuffer(advancedCapacity);
+        rings = new ParticleBuffer(effectCapacity);
+        shockwaves = new ParticleBuffer(effectCapacity);
+        blackHoleParticles = new ParticleBuffer(effectCapacity);
+        energyRings = new ParticleBuffer(effectCapacity);
         emitters = new ArrayList<>();
-        random = new Random();
+        this.random = random;
     }
-    
+
     // انفجار سفینه
     public void createSupernova(float x, float y, int count, int[] colors) {
         for (int i = 0; i < count; i++) {
@@ -28,70 +82,55 @@ public class ParticleSystem {
             float size = 3 + random.nextFloat() * 8;
             int life = 40 + random.nextInt(50);
             int color = colors[random.nextInt(colors.length)];
-            
-            particles.add(new AdvancedParticle(
-                x, y,
+
+            addAdvanced(x, y,
                 (float)Math.cos(Math.toRadians(angle)) * speed,
                 (float)Math.sin(Math.toRadians(angle)) * speed,
-                size,
-                color,
-                life,
-                ParticleType.SUPERNOVA
-            ));
+                size, color, life, ParticleType.SUPERNOVA);
         }
-        
+
         // ایجاد امواج شوک
         createShockwave(x, y, 3, 150);
     }
-    
+
     // انفجار سیاره
     public void createPlanetExplosion(float x, float y, int count, int planetType) {
         int[] colors = getPlanetColors(planetType);
-        
+
         for (int i = 0; i < count; i++) {
             float angle = random.nextFloat() * 360;
             float speed = 2 + random.nextFloat() * 10;
             float size = 4 + random.nextFloat() * 10;
             int life = 60 + random.nextInt(80);
             int color = colors[random.nextInt(colors.length)];
-            
-            particles.add(new AdvancedParticle(
-                x, y,
+
+            addAdvanced(x, y,
                 (float)Math.cos(Math.toRadians(angle)) * speed,
                 (float)Math.sin(Math.toRadians(angle)) * speed,
-                size,
-                color,
-                life,
-                ParticleType.PLANET_DEBRIS
-            ));
+                size, color, life, ParticleType.PLANET_DEBRIS);
         }
-        
+
         // حلقه انفجار
         createExplosionRing(x, y, 5, 200);
     }
-    
+
     // تأثیر برخورد با سیاره
     public void createPlanetImpact(float x, float y, int count, int planetType) {
         int[] colors = getPlanetColors(planetType);
-        
+
         for (int i = 0; i < count; i++) {
             float angle = random.nextFloat() * 360;
             float speed = 1 + random.nextFloat() * 6;
             float size = 2 + random.nextFloat() * 5;
             int life = 20 + random.nextInt(30);
-            
-            particles.add(new AdvancedParticle(
-                x, y,
+
+            addAdvanced(x, y,
                 (float)Math.cos(Math.toRadians(angle)) * speed,
                 (float)Math.sin(Math.toRadians(angle)) * speed,
-                size,
-                colors[random.nextInt(colors.length)],
-                life,
-                ParticleType.IMPACT
-            ));
+                size, colors[random.nextInt(colors.length)], life, ParticleType.IMPACT);
         }
     }
-    
+
     // اثر سیاه‌چاله
     public void createBlackHoleEffect(float x, float y, int count) {
         for (int i = 0; i < count; i++) {
@@ -99,16 +138,19 @@ public class ParticleSystem {
             float distance = random.nextFloat() * 100;
             float startX = x + (float)Math.cos(Math.toRadians(angle)) * distance;
             float startY = y + (float)Math.sin(Math.toRadians(angle)) * distance;
-            
-            particles.add(new BlackHoleParticle(
-                startX, startY, x, y,
+
+            // پارامترها: مرکز سیاه‌چاله به عنوان هدف جذب
+            int p = blackHoleParticles.add(startX, startY, 0, 0,
                 2 + random.nextFloat() * 4,
-                Color.argb(255, 100, 50, 200),
-                60 + random.nextInt(60)
-            ));
+                Colors.argb(255, 100, 50, 200),
+                60 + random.nextInt(60));
+            if (p >= 0) {
+                blackHoleParticles.paramA[p] = x;
+                blackHoleParticles.paramB[p] = y;
+            }
         }
     }
-    
+
     // اثر احیای سفینه
     public void createRespawnEffect(float x, float y, int count) {
         for (int i = 0; i < count; i++) {
@@ -116,114 +158,133 @@ public class ParticleSystem {
             float speed = 0.5f + random.nextFloat() * 2;
             float size = 2 + random.nextFloat() * 6;
             int life = 30 + random.nextInt(40);
-            
-            particles.add(new AdvancedParticle(
-                x, y,
+
+            addAdvanced(x, y,
                 (float)Math.cos(Math.toRadians(angle)) * speed,
                 (float)Math.sin(Math.toRadians(angle)) * speed,
-                size,
-                Color.argb(255, 0, 200, 255),
-                life,
-                ParticleType.ENERGY
-            ));
+                size, Colors.argb(255, 0, 200, 255), life, ParticleType.ENERGY);
         }
-        
+
         // ایجاد حلقه انرژی
         createEnergyRing(x, y, 4, 120);
     }
-    
+
     // امواج شوک
     private void createShockwave(float x, float y, int count, float maxSize) {
         for (int i = 0; i < count; i++) {
             float size = maxSize * (i + 1) / count;
             int life = 20 + i * 10;
-            
-            particles.add(new ShockwaveParticle(
-                x, y, size,
-                Color.argb(150, 255, 100, 0),
-                life
-            ));
+
+            // پارامترها: اندازه فعلی و اندازه نهایی موج
+            int p = shockwaves.add(x, y, 0, 0, 1, Colors.argb(150, 255, 100, 0), life);
+            if (p >= 0) {
+                shockwaves.paramA[p] = 1;
+                shockwaves.paramB[p] = size;
+            }
         }
     }
-    
+
     // حلقه انفجار
     private void createExplosionRing(float x, float y, int count, float size) {
         for (int i = 0; i < count; i++) {
             float angle = i * (360f / count);
             float speed = 8 + random.nextFloat() * 4;
-            
-            particles.add(new RingParticle(
-                x, y,
+
+            rings.add(x, y,
                 (float)Math.cos(Math.toRadians(angle)) * speed,
                 (float)Math.sin(Math.toRadians(angle)) * speed,
                 6,
-                Color.argb(255, 255, 200, 0),
-                40
-            ));
+                Colors.argb(255, 255, 200, 0),
+                40);
         }
     }
-    
+
     // حلقه انرژی
     private void createEnergyRing(float x, float y, int count, float size) {
         for (int i = 0; i < count; i++) {
             float angle = i * (360f / count);
-            
-            particles.add(new EnergyRingParticle(
-                x, y, angle, size,
-                Color.argb(200, 0, 150, 255),
-                60
-            ));
+
+            // پارامترها: زاویه فعلی و شعاع حلقه
+            int p = energyRings.add(x, y, 0, 0, 8, Colors.argb(200, 0, 150, 255), 60);
+            if (p >= 0) {
+                energyRings.paramA[p] = angle;
+                energyRings.paramB[p] = size;
+            }
+        }
+    }
+
+    private void addAdvanced(float x, float y, float velocityX, float velocityY,
+                             float size, int color, int life, ParticleType type) {
+        int p = advanced.add(x, y, velocityX, velocityY, size, color, life);
+        if (p < 0) return;
+
+        float rotationSpeed = (random.nextFloat() - 0.5f) * 10;
+        float scale = 1.0f;
+
+        // تنظیمات خاص بر اساس نوع ذره
+        switch (type) {
+            case SUPERNOVA:
+                scale = 1.5f;
+                break;
+            case PLANET_DEBRIS:
+                scale = 1.2f;
+                break;
+            case ENERGY:
+                rotationSpeed *= 2;
+                break;
         }
+
+        advanced.subtype[p] = type.ordinal();
+        advanced.rotation[p] = random.nextFloat() * 360;
+        advanced.paramA[p] = rotationSpeed;
+        advanced.paramB[p] = scale;
     }
-    
+
     // رنگ‌های سیارات بر اساس نوع
     private int[] getPlanetColors(int planetType) {
-        switch (planetType) {
-            case 0: // زمینی
-                return new int[]{
-                    Color.argb(255, 100, 200, 100),
-                    Color.argb(255, 150, 150, 100),
-                    Color.argb(255, 80, 120, 80)
-                };
-            case 1: // آتشی
-                return new int[]{
-                    Color.argb(255, 255, 100, 0),
-                    Color.argb(255, 255, 50, 0),
-                    Color.argb(255, 200, 30, 0)
-                };
-            case 2: // یخی
-                return new int[]{
-                    Color.argb(255, 200, 230, 255),
-                    Color.argb(255, 150, 200, 240),
-                    Color.argb(255, 100, 170, 220)
-                };
-            case 3: // گازی
-                return new int[]{
-                    Color.argb(255, 255, 200, 100),
-                    Color.argb(255, 255, 150, 50),
-                    Color.argb(255, 200, 100, 30)
-                };
-            case 4: // سمی
-                return new int[]{
-                    Color.argb(255, 100, 255, 100),
-                    Color.argb(255, 50, 200, 50),
-                    Color.argb(255, 0, 150, 0)
-                };
-            default:
-                return new int[]{Color.WHITE};
+        if (planetType >= 0 && planetType < PLANET_COLORS.length) {
+            return PLANET_COLORS[planetType];
         }
+        return DEFAULT_COLORS;
     }
-    
+
     public void update(float deltaTime) {
-        // بروزرسانی ذرات
-        for (int i = particles.size() - 1; i >= 0; i--) {
-            Particle p = particles.get(i);
-            p.update(deltaTime);
-            if (p.isDead()) {
-                particles.remove(i);
-            }
+        update(deltaTime, null, null);
+    }
+
+    // حرکت ذرات هر بافر روی بازه‌های جدا (با سیستم کار، موازی) و سپس حذف ترتیبی ذرات مرده؛
+    // ترتیب حذف همیشه یکسان است پس نتیجه به تعداد رشته‌ها بستگی ندارد
+    // ذرات پیشرفته و حلقه که در باقی عمرشان به activeView (سطح جزئیات) نمی‌رسند فقط پیر می‌شوند
+    // و هنگام نزدیک شدن دید، حرکت عقب‌افتاده با فرمول بسته جبران می‌شود
+    public void update(float deltaTime, JobSystem jobs, ViewRect activeView) {
+        stepFrames = deltaTime * 60;
+        drag99 = (float)Math.pow(0.99, stepFrames);
+        drag98 = (float)Math.pow(0.98, stepFrames);
+        drag97 = (float)Math.pow(0.97, stepFrames);
+        lodView = activeView;
+
+        if (jobs != null) {
+            jobs.beginGraph();
+            jobs.add(advancedKernel, advanced.count, PARTICLE_GRAIN);
+            jobs.add(ringKernel, rings.count, PARTICLE_GRAIN);
+            jobs.add(shockwaveKernel, shockwaves.count, PARTICLE_GRAIN);
+            jobs.add(blackHoleKernel, blackHoleParticles.count, PARTICLE_GRAIN);
+            jobs.add(energyRingKernel, energyRings.count, PARTICLE_GRAIN);
+            jobs.run();
+        } else {
+            updateAdvanced(0, advanced.count);
+            updateRings(0, rings.count);
+            updateShockwaves(0, shockwaves.count);
+            updateBlackHoleParticles(0, blackHoleParticles.count);
+            updateEnergyRings(0, energyRings.count);
         }
-        
+
+        advanced.removeDead();
+        rings.removeDead();
+        shockwaves.removeDead();
+        blackHoleParticles.removeDead();
+        energyRings.removeDead();
+
         // بروزرسانی emitterها
         for (int i = emitters.size() - 1; i >= 0; i--) {
             Emitter emitter = emitters.get(i);
@@ -233,17 +294,219 @@ public class ParticleSystem {
             }
         }
     }
-    
-    public void draw(Canvas canvas, Paint paint) {
-        for (Particle p : particles) {
-            p.draw(canvas, paint);
+
+    // ذرات پیشرفته: حرکت با اصطکاک، چرخش و اثر خاص هر نوع
+    private void updateAdvanced(int begin, int end) {
+        ParticleBuffer b = advanced;
+        float frames = stepFrames;
+        float drag = drag99;
+        float supernovaDrag = drag98;
+        // بیشترین مسافت باقی‌مانده به ازای واحد سرعت با ضعیف‌ترین اصطکاک
+        float horizon = frames / (1 - drag);
+        int supernova = ParticleType.SUPERNOVA.ordinal();
+        int energy = ParticleType.ENERGY.ordinal();
+        ViewRect view = lodView;
+        for (int i = begin; i < end; i++) {
+            if (view != null && !canReach(b, i, view, frames, horizon)) {
+                b.life[i] -= frames;
+                b.deferred[i] += frames;
+                continue;
+            }
+            if (b.deferred[i] > 0) {
+                b.rotation[i] += b.paramA[i] * b.deferred[i];
+                if (b.subtype[i] == supernova) {
+                    catchUp(b, i, 0.99f * 0.98f, drag * supernovaDrag, frames);
+                } else {
+                    catchUp(b, i, 0.99f, drag, frames);
+                }
+            }
+            b.x[i] += b.velocityX[i] * frames;
+            b.y[i] += b.velocityY[i] * frames;
+            b.velocityX[i] *= drag;
+            b.velocityY[i] *= drag;
+            b.life[i] -= frames;
+            b.rotation[i] += b.paramA[i] * frames;
+
+            if (b.subtype[i] == energy) {
+                b.paramB[i] = (float)Math.sin(b.life[i] * 0.1f) * 0.3f + 0.7f;
+            } else if (b.subtype[i] == supernova) {
+                b.velocityX[i] *= supernovaDrag;
+                b.velocityY[i] *= supernovaDrag;
+            }
+        }
+    }
+
+    // ذرات حلقه انفجار (شعاعی با کشش کمتر)
+    private void updateRings(int begin, int end) {
+        ParticleBuffer b = rings;
+        float frames = stepFrames;
+        float drag = drag97;
+        float horizon = frames / (1 - drag);
+        ViewRect view = lodView;
+        for (int i = begin; i < end; i++) {
+            if (view != null && !canReach(b, i, view, frames, horizon)) {
+                b.life[i] -= frames;
+                b.deferred[i] += frames;
+                continue;
+            }
+            if (b.deferred[i] > 0) {
+                catchUp(b, i, 0.97f, drag, frames);
+            }
+            b.x[i] += b.velocityX[i] * frames;
+            b.y[i] += b.velocityY[i] * frames;
+            b.velocityX[i] *= drag;
+            b.velocityY[i] *= drag;
+            b.life[i] -= frames;
+        }
+    }
+
+    // امواج شوک: رشد به سمت اندازه نهایی
+    private void updateShockwaves(int begin, int end) {
+        ParticleBuffer b = shockwaves;
+        float frames = stepFrames;
+        for (int i = begin; i < end; i++) {
+            b.life[i] -= frames;
+            b.paramA[i] += (b.paramB[i] - b.paramA[i]) * 0.1f * frames;
+        }
+    }
+
+    // ذرات سیاه‌چاله: حرکت به سمت مرکز سیاه‌چاله
+    // جذب غیرخطی است و جبران بسته ندارد، پس این ذرات همیشه کامل بروز می‌شوند
+    private void updateBlackHoleParticles(int begin, int end) {
+        ParticleBuffer b = blackHoleParticles;
+        float frames = stepFrames;
+        float drag = drag99;
+        for (int i = begin; i < end; i++) {
+            float dx = b.paramA[i] - b.x[i];
+            float dy = b.paramB[i] - b.y[i];
+            float distanceSquared = dx * dx + dy * dy;
+
+            if (distanceSquared > 25) {
+                float scale = 0.1f * frames / (float)Math.sqrt(distanceSquared);
+                b.velocityX[i] += dx * scale;
+                b.velocityY[i] += dy * scale;
+            }
+
+            b.x[i] += b.velocityX[i] * frames;
+            b.y[i] += b.velocityY[i] * frames;
+            b.velocityX[i] *= drag;
+            b.velocityY[i] *= drag;
+            b.life[i] -= frames;
+            b.rotation[i] += 5 * frames;
         }
     }
-    
+
+    // آیا ذره در باقی عمرش ممکن است وارد دید شود؛ حد بالای مسافت: سرعت ضربدر کمینه عمر و افق اصطکاک
+    // سرعت ذره معوق کاهش نیافته، پس این حد برای موقعیت واقعی هم محافظه‌کارانه است
+    private static boolean canReach(ParticleBuffer b, int i, ViewRect view, float frames, float horizon) {
+        float vx = b.velocityX[i];
+        float vy = b.velocityY[i];
+        float reach = (float)Math.sqrt(vx * vx + vy * vy) * Math.min(b.life[i] + frames, horizon);
+        return view.intersectsCircle(b.x[i], b.y[i], reach + b.size[i]);
+    }
+
+    // جبران حرکت عقب‌افتاده: جمع سری هندسی گام‌ها با اصطکاک frameDrag برای هر فریم ۶۰ هرتز
+    private static void catchUp(ParticleBuffer b, int i, float frameDrag, float tickDrag, float frames) {
+        float decay = (float)Math.pow(frameDrag, b.deferred[i]);
+        float travel = frames * (1 - decay) / (1 - tickDrag);
+        b.x[i] += b.velocityX[i] * travel;
+        b.y[i] += b.velocityY[i] * travel;
+        b.velocityX[i] *= decay;
+        b.velocityY[i] *= decay;
+        b.deferred[i] = 0;
+    }
+
+    // حلقه‌های انرژی: چرخش و بزرگ شدن حول مرکز
+    private void updateEnergyRings(int begin, int end) {
+        ParticleBuffer b = energyRings;
+        float frames = stepFrames;
+        for (int i = begin; i < end; i++) {
+            b.life[i] -= frames;
+            b.paramA[i] += 3 * frames;
+            b.paramB[i] += 2 * frames;
+        }
+    }
+
+    // کپی وضعیت ذرات زنده در تصویر رندر
+    // نوشتن ذرات داخل مستطیل دید در فریم رندر (view تهی یعنی بدون حذف)؛ تعداد ذرات حذف شده برگردانده می‌شود
+    public int writeTo(ParticleFrame frame, ViewRect view) {
+        frame.clear();
+        int culled = 0;
+
+        ParticleBuffer b = blackHoleParticles;
+        for (int i = 0; i < b.count; i++) {
+            if (view != null && !view.intersectsCircle(b.x[i], b.y[i], b.size[i] * 1.5f)) {
+                culled++;
+                continue;
+            }
+            frame.add(ParticleFrame.KIND_BLACK_HOLE, 0, b.x[i], b.y[i], b.size[i], b.color[i],
+                      b.life[i] / b.maxLife[i], b.rotation[i], 1);
+        }
+
+        b = shockwaves;
+        for (int i = 0; i < b.count; i++) {
+            if (view != null && !view.intersectsCircle(b.x[i], b.y[i], b.paramA[i])) {
+                culled++;
+                continue;
+            }
+            frame.add(ParticleFrame.KIND_SHOCKWAVE, 0, b.x[i], b.y[i], b.size[i], b.color[i],
+                      b.life[i] / b.maxLife[i], 0, b.paramA[i]);
+        }
+
+        b = advanced;
+        for (int i = 0; i < b.count; i++) {
+            if (view != null && !view.intersectsCircle(b.x[i], b.y[i], b.size[i] * b.paramB[i] * 1.5f)) {
+                culled++;
+                continue;
+            }
+            frame.add(ParticleFrame.KIND_ADVANCED, b.subtype[i], b.x[i], b.y[i], b.size[i], b.color[i],
+                      b.life[i] / b.maxLife[i], b.rotation[i], b.paramB[i]);
+        }
+
+        b = rings;
+        for (int i = 0; i < b.count; i++) {
+            if (view != null && !view.intersectsCircle(b.x[i], b.y[i], b.size[i] * 1.5f)) {
+                culled++;
+                continue;
+            }
+            frame.add(ParticleFrame.KIND_BASIC, 0, b.x[i], b.y[i], b.size[i], b.color[i],
+                      b.life[i] / b.maxLife[i], b.rotation[i], 1);
+        }
+
+        b = energyRings;
+        for (int i = 0; i < b.count; i++) {
+            double angle = Math.toRadians(b.paramA[i]);
+            float particleX = b.x[i] + (float)Math.cos(angle) * b.paramB[i];
+            float particleY = b.y[i] + (float)Math.sin(angle) * b.paramB[i];
+            if (view != null && !view.intersectsCircle(particleX, particleY, b.size[i] * 1.5f)) {
+                culled++;
+                continue;
+            }
+            frame.add(ParticleFrame.KIND_ENERGY_RING, 0, particleX, particleY, b.size[i], b.color[i],
+                      b.life[i] / b.maxLife[i], 0, 1);
+        }
+        return culled;
+    }
+
     public void clear() {
-        particles.clear();
+        advanced.clear();
+        rings.clear();
+        shockwaves.clear();
+        blackHoleParticles.clear();
+        energyRings.clear();
         emitters.clear();
     }
+
+    // متدهای دسترسی
+    public int getParticleCount() {
+        return advanced.count + rings.count + shockwaves.count
+             + blackHoleParticles.count + energyRings.count;
+    }
+
+    public int getCapacity() {
+        return advanced.capacity() + rings.capacity() + shockwaves.capacity()
+             + blackHoleParticles.capacity() + energyRings.capacity();
+    }
 }
 
 // انواع ذرات
@@ -251,283 +514,90 @@ enum ParticleType {
     SUPERNOVA, PLANET_DEBRIS, IMPACT, ENERGY, SHOCKWAVE, BLACK_HOLE
 }
 
-// ذره پیشرفته پایه
-class AdvancedParticle extends Particle {
-    protected ParticleType type;
-    protected float rotation;
-    protected float rotationSpeed;
-    protected float scale = 1.0f;
-    
-    public AdvancedParticle(float x, float y, float velocityX, float velocityY, 
-                          float size, int color, int life, ParticleType type) {
-        super(x, y, velocityX, velocityY, size, color, life);
-        this.type = type;
-        this.rotation = random.nextFloat() * 360;
-        this.rotationSpeed = (random.nextFloat() - 0.5f) * 10;
-        
-        // تنظیمات خاص بر اساس نوع ذره
-        switch (type) {
-            case SUPERNOVA:
-                this.scale = 1.5f;
-                break;
-            case PLANET_DEBRIS:
-                this.scale = 1.2f;
-                break;
-            case ENERGY:
-                this.rotationSpeed *= 2;
-                break;
-        }
-    }
-    
-    @Override
-    public void update(float deltaTime) {
-        super.update(deltaTime);
-        rotation += rotationSpeed * deltaTime * 60;
-        
-        // اثرات خاص بر اساس نوع
-        switch (type) {
-            case ENERGY:
-                scale = (float)Math.sin(life * 0.1f) * 0.3f + 0.7f;
-                break;
-            case SUPERNOVA:
-                velocityX *= 0.98f;
-                velocityY *= 0.98f;
-                break;
-        }
+// بافر ذرات با ظرفیت ثابت؛ حذف با جابجایی آخرین عنصر (O(1))
+class ParticleBuffer {
+    final float[] x, y;
+    final float[] velocityX, velocityY;
+    final float[] size;
+    final float[] life, maxLife;
+    final float[] rotation;
+    // فریم‌های ۶۰ هرتز که ذره بیرون از دید بدون حرکت گذرانده است
+    final float[] deferred;
+    // پارامترهای مخصوص هر نوع (مثلاً سرعت چرخش و مقیاس، یا مرکز جذب)
+    final float[] paramA, paramB;
+    final int[] color;
+    final int[] subtype;
+    int count;
+
+    ParticleBuffer(int capacity) {
+        x = new float[capacity];
+        y = new float[capacity];
+        velocityX = new float[capacity];
+        velocityY = new float[capacity];
+        size = new float[capacity];
+        life = new float[capacity];
+        maxLife = new float[capacity];
+        rotation = new float[capacity];
+        deferred = new float[capacity];
+        paramA = new float[capacity];
+        paramB = new float[capacity];
+        color = new int[capacity];
+        subtype = new int[capacity];
     }
-    
-    @Override
-    public void draw(Canvas canvas, Paint paint) {
-        float lifeRatio = (float)life / maxLife;
-        int alpha = (int)(255 * lifeRatio);
-        
-        // گرادیانت بر اساس نوع ذره
-        RadialGradient gradient = createGradient(lifeRatio);
-        paint.setShader(gradient);
-        
-        // رسم ذره با چرخش و مقیاس
-        canvas.save();
-        canvas.rotate(rotation, x, y);
-        canvas.drawCircle(x, y, size * scale * lifeRatio, paint);
-        canvas.restore();
-        
-        paint.setShader(null);
-        
-        // درخشش
-        paint.setColor(Color.argb(alpha/3, 255, 255, 255));
-        canvas.drawCircle(x, y, size * scale * lifeRatio * 1.5f, paint);
-    }
-    
-    private RadialGradient createGradient(float lifeRatio) {
-        int baseColor = this.color;
-        int r = Color.red(baseColor);
-        int g = Color.green(baseColor);
-        int b = Color.blue(baseColor);
-        
-        int[] colors;
-        float[] positions;
-        
-        switch (type) {
-            case SUPERNOVA:
-                colors = new int[]{
-                    Color.argb((int)(255 * lifeRatio), 255, 255, 200),
-                    Color.argb((int)(200 * lifeRatio), r, g, b),
-                    Color.argb((int)(100 * lifeRatio), r/2, g/2, b/2)
-                };
-                positions = new float[]{0.0f, 0.5f, 1.0f};
-                break;
-                
-            case ENERGY:
-                colors = new int[]{
-                    Color.argb((int)(255 * lifeRatio), 255, 255, 255),
-                    Color.argb((int)(180 * lifeRatio), r, g, b),
-                    Color.argb(0, r, g, b)
-                };
-                positions = new float[]{0.0f, 0.3f, 1.0f};
-                break;
-                
-            default:
-                colors = new int[]{
-                    Color.argb((int)(255 * lifeRatio), r, g, b),
-                    Color.argb((int)(100 * lifeRatio), r/2, g/2, b/2)
-                };
-                positions = new float[]{0.0f, 1.0f};
-        }
-        
-        return new RadialGradient(x, y, size * scale, colors, positions, Shader.TileMode.CLAMP);
+
+    // اندیس ذره جدید، یا -1 اگر بودجه پر باشد
+    int add(float px, float py, float vx, float vy, float particleSize, int particleColor, float particleLife) {
+        if (count == x.length) return -1;
+
+        int i = count++;
+        x[i] = px;
+        y[i] = py;
+        velocityX[i] = vx;
+        velocityY[i] = vy;
+        size[i] = particleSize;
+        color[i] = particleColor;
+        life[i] = particleLife;
+        maxLife[i] = particleLife;
+        rotation[i] = 0;
+        deferred[i] = 0;
+        paramA[i] = 0;
+        paramB[i] = 0;
+        subtype[i] = 0;
+        return i;
     }
-}
 
-// ذره موج شوک
-class ShockwaveParticle extends Particle {
-    private float currentSize;
-    private final float maxSize;
-    
-    public ShockwaveParticle(float x, float y, float maxSize, int color, int life) {
-        super(x, y, 0, 0, 1, color, life);
-        this.maxSize = maxSize;
-        this.currentSize = 1;
-    }
-    
-    @Override
-    public void update(float deltaTime) {
-        life--;
-        currentSize += (maxSize - currentSize) * 0.1f * deltaTime * 60;
-    }
-    
-    @Override
-    public void draw(Canvas canvas, Paint paint) {
-        float lifeRatio = (float)life / maxLife;
-        int alpha = (int)(150 * lifeRatio);
-        
-        paint.setStyle(Paint.Style.STROKE);
-        paint.setStrokeWidth(3);
-        paint.setColor(Color.argb(alpha, Color.red(color), Color.green(color), Color.blue(color)));
-        canvas.drawCircle(x, y, currentSize, paint);
-        
-        paint.setStyle(Paint.Style.FILL);
+    void swapRemove(int i) {
+        int last = --count;
+        if (i == last) return;
+
+        x[i] = x[last];
+        y[i] = y[last];
+        velocityX[i] = velocityX[last];
+        velocityY[i] = velocityY[last];
+        size[i] = size[last];
+        life[i] = life[last];
+        maxLife[i] = maxLife[last];
+        rotation[i] = rotation[last];
+        deferred[i] = deferred[last];
+        paramA[i] = paramA[last];
+        paramB[i] = paramB[last];
+        color[i] = color[last];
+        subtype[i] = subtype[last];
     }
-}
 
-// ذره سیاه‌چاله
-class BlackHoleParticle extends Particle {
-    private final float targetX, targetY;
-    private final float attraction;
-    
-    public BlackHoleParticle(float x, float y, float targetX, float targetY, 
-                           float size, int color, int life) {
-        super(x, y, 0, 0, size, color, life);
-        this.targetX = targetX;
-        this.targetY = targetY;
-        this.attraction = 0.1f;
-    }
-    
-    @Override
-    public void update(float deltaTime) {
-        // حرکت به سمت مرکز سیاه‌چاله
-        float dx = targetX - x;
-        float dy = targetY - y;
-        float distance = (float)Math.sqrt(dx * dx + dy * dy);
-        
-        if (distance > 5) {
-            velocityX += (dx / distance) * attraction * deltaTime * 60;
-            velocityY += (dy / distance) * attraction * deltaTime * 60;
+    // حذف ذرات با عمر تمام شده از انتها به ابتدا (همان ترتیب حذف حین بروزرسانی)
+    void removeDead() {
+        for (int i = count - 1; i >= 0; i--) {
+            if (life[i] <= 0) swapRemove(i);
         }
-        
-        super.update(deltaTime);
-        
-        // چرخش
-        rotation += 5 * deltaTime * 60;
-    }
-    
-    @Override
-    public void draw(Canvas canvas, Paint paint) {
-        float lifeRatio = (float)life / maxLife;
-        int alpha = (int)(255 * lifeRatio);
-        
-        // گرادیانت مارپیچ
-        int[] colors = {
-            Color.argb(alpha, 100, 50, 200),
-            Color.argb(alpha/2, 150, 100, 255),
-            Color.argb(0, 200, 150, 255)
-        };
-        
-        RadialGradient gradient = new RadialGradient(
-            x, y, size * 2,
-            colors,
-            null,
-            Shader.TileMode.CLAMP
-        );
-        paint.setShader(gradient);
-        
-        canvas.save();
-        canvas.rotate(rotation, x, y);
-        canvas.drawCircle(x, y, size * lifeRatio, paint);
-        canvas.restore();
-        
-        paint.setShader(null);
     }
-}
 
-// ذره حلقه انرژی
-class EnergyRingParticle extends Particle {
-    private final float startAngle;
-    private final float radius;
-    private float currentAngle;
-    
-    public EnergyRingParticle(float x, float y, float startAngle, float radius, int color, int life) {
-        super(x, y, 0, 0, 8, color, life);
-        this.startAngle = startAngle;
-        this.currentAngle = startAngle;
-        this.radius = radius;
-    }
-    
-    @Override
-    public void update(float deltaTime) {
-        life--;
-        currentAngle += 3 * deltaTime * 60;
-        radius += 2 * deltaTime * 60;
-    }
-    
-    @Override
-    public void draw(Canvas canvas, Paint paint) {
-        float lifeRatio = (float)life / maxLife;
-        int alpha = (int)(255 * lifeRatio);
-        
-        float particleX = x + (float)Math.cos(Math.toRadians(currentAngle)) * radius;
-        float particleY = y + (float)Math.sin(Math.toRadians(currentAngle)) * radius;
-        
-        paint.setColor(Color.argb(alpha, Color.red(color), Color.green(color), Color.blue(color)));
-        canvas.drawCircle(particleX, particleY, size * lifeRatio, paint);
-        
-        // درخشش
-        paint.setColor(Color.argb(alpha/2, 255, 255, 255));
-        canvas.drawCircle(particleX, particleY, size * lifeRatio * 1.5f, paint);
+    void clear() {
+        count = 0;
     }
-}
 
-// پایه ذره
-class Particle {
-    protected static Random random = new Random();
-    protected float x, y;
-    protected float velocityX, velocityY;
-    protected float size;
-    protected int color;
-    protected int life;
-    protected int maxLife;
-    protected float rotation;
-    
-    public Particle(float x, float y, float velocityX, float velocityY, float size, int color, int life) {
-        this.x = x;
-        this.y = y;
-        this.velocityX = velocityX;
-        this.velocityY = velocityY;
-        this.size = size;
-        this.color = color;
-        this.life = life;
-        this.maxLife = life;
-    }
-    
-    public void update(float deltaTime) {
-        x += velocityX * deltaTime * 60;
-        y += velocityY * deltaTime * 60;
-        velocityX *= 0.99f;
-        velocityY *= 0.99f;
-        life--;
-    }
-    
-    public void draw(Canvas canvas, Paint paint) {
-        float lifeRatio = (float)life / maxLife;
-        int alpha = (int)(255 * lifeRatio);
-        int particleColor = Color.argb(alpha, 
-            Color.red(color), Color.green(color), Color.blue(color));
-        
-        paint.setColor(particleColor);
-        canvas.drawCircle(x, y, size * lifeRatio, paint);
-    }
-    
-    public boolean isDead() {
-        return life <= 0;
+    int capacity() {
+        return x.length;
     }
 }
 
@@ -537,13 +607,13 @@ class Emitter {
     private int particlesPerSecond;
     private float timer;
     private boolean finished;
-    
+
     public Emitter(float x, float y, int particlesPerSecond) {
         this.x = x;
         this.y = y;
         this.particlesPerSecond = particlesPerSecond;
     }
-    
+
     public void update(float deltaTime) {
         timer += deltaTime;
         if (timer >= 1.0f / particlesPerSecond) {
@@ -551,12 +621,12 @@ class Emitter {
             timer = 0;
         }
     }
-    
+
     private void createParticle() {
         // ایجاد ذره جدید
     }
-    
+
     public boolean isFinished() {
         return finished;
     }
-              }
+}
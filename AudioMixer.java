@@ -0,0 +1,201 @@
+package com.space.ship.game;
+
+// صف رویدادهای صوتی بین رشته شبیه‌سازی و SoundPool
+// درخواست‌های یک دور تیک جمع و صداهای تکراری ادغام می‌شوند، سپس یک بار در هر فریم با سقف صدا
+// برای هر دسته و اولویت فرستاده می‌شوند؛ انفجارهای پشت سر هم میکسر را پر نمی‌کنند و صدای
+// مهم (پایان بازی، پایان مرحله) هرگز به خاطر برخوردهای ریز حذف نمی‌شود
+// فقط از یک رشته (شبیه‌سازی) استفاده شود
+class AudioMixer {
+    static final int SOUND_EXPLOSION = 0;
+    static final int SOUND_IMPACT = 1;
+    static final int SOUND_SHIELD = 2;
+    static final int SOUND_LEVEL_START = 3;
+    static final int SOUND_LEVEL_COMPLETE = 4;
+    static final int SOUND_GAME_OVER = 5;
+    static final int SOUND_BLACK_HOLE = 6;
+    static final int SOUND_PLANET_EXPLOSION = 7;
+    static final int SOUND_RESPAWN = 8;
+    static final int SOUND_COUNT = 9;
+
+    static final int CATEGORY_CUE = 0;
+    static final int CATEGORY_EXPLOSION = 1;
+    static final int CATEGORY_IMPACT = 2;
+    static final int CATEGORY_AMBIENT = 3;
+    // حداکثر صدای هم‌زمان هر دسته و کل (صدای موتور جداگانه است)
+    private static final int[] CATEGORY_VOICES = {2, 4, 3, 2};
+    static final int MAX_VOICES = 10;
+
+    // مشخصات هر صدا: دسته، اولویت، پنجره ادغام و طول تقریبی (ثانیه)
+    // SoundPool پایان پخش را اعلام نمی‌کند، پس اشغال صدا با طول تقریبی فایل تخمین زده می‌شود
+    private static final int[] CATEGORY = {
+        CATEGORY_EXPLOSION, CATEGORY_IMPACT, CATEGORY_CUE, CATEGORY_CUE, CATEGORY_CUE,
+        CATEGORY_CUE, CATEGORY_AMBIENT, CATEGORY_EXPLOSION, CATEGORY_CUE
+    };
+    private static final int[] PRIORITY = {7, 2, 4, 8, 9, 10, 3, 5, 6};
+    private static final float[] WINDOW = {0.05f, 0.08f, 0.3f, 0.5f, 0.5f, 0.5f, 0.25f, 0.05f, 0.5f};
+    private static final float[] DURATION = {1.2f, 0.3f, 0.8f, 2.0f, 2.0f, 2.5f, 1.5f, 1.5f, 1.0f};
+    // بلندی اضافه برای هر درخواست ادغام شده در همان فریم
+    private static final float COALESCE_BOOST = 0.1f;
+    // بازه سرعت پخش پذیرفته SoundPool
+    private static final float MIN_RATE = 0.5f;
+    private static final float MAX_RATE = 2.0f;
+
+    // مقصد پخش (SoundPool در AudioSystem)؛ شناسه صفر یعنی پخش نشد
+    interface Output {
+        int play(int sound, float volume, float rate, int priority);
+        void stop(int streamId);
+    }
+
+    // درخواست‌های فریم جاری، یکی برای هر صدا
+    private final int[] pendingCount = new int[SOUND_COUNT];
+    private final float[] pendingVolume = new float[SOUND_COUNT];
+    private final float[] pendingRate = new float[SOUND_COUNT];
+    private final int[] pendingOrder = new int[SOUND_COUNT];
+    private int pendingSize;
+
+    // صداهای در حال پخش (تخمینی)
+    private final int[] voiceStream = new int[MAX_VOICES];
+    private final int[] voiceSound = new int[MAX_VOICES];
+    private final double[] voiceEnd = new double[MAX_VOICES];
+    private int voiceCount;
+    private final int[] categoryVoices = new int[CATEGORY_VOICES.length];
+    private final double[] lastPlayed = new double[SOUND_COUNT];
+
+    // آمار از ابتدا
+    private long requests;
+    private long submitted;
+    private long coalesced;
+    private long dropped;
+    private long stolen;
+
+    public AudioMixer() {
+        java.util.Arrays.fill(lastPlayed, Double.NEGATIVE_INFINITY);
+    }
+
+    // بلندی به [0, 1] و سرعت به بازه SoundPool محدود می‌شوند
+    public void request(int sound, float volume, float rate) {
+        volume = Math.max(0, Math.min(1, volume));
+        rate = Math.max(MIN_RATE, Math.min(MAX_RATE, rate));
+        requests++;
+        if (pendingCount[sound]++ == 0) {
+            pendingVolume[sound] = volume;
+            pendingRate[sound] = rate;
+            insertByPriority(sound);
+        } else {
+            pendingVolume[sound] = Math.max(pendingVolume[sound], volume);
+            coalesced++;
+        }
+    }
+
+    // ترتیب نزولی اولویت؛ حداکثر SOUND_COUNT عنصر
+    private void insertByPriority(int sound) {
+        int i = pendingSize++;
+        while (i > 0 && PRIORITY[pendingOrder[i - 1]] < PRIORITY[sound]) {
+            pendingOrder[i] = pendingOrder[i - 1];
+            i--;
+        }
+        pendingOrder[i] = sound;
+    }
+
+    // یک بار در هر فریم؛ now زمان به ثانیه
+    public void flush(double now, Output output) {
+        expireVoices(now);
+        for (int p = 0; p < pendingSize; p++) {
+            int sound = pendingOrder[p];
+            int count = pendingCount[sound];
+            pendingCount[sound] = 0;
+
+            // همان صدا کمی پیش پخش شده و تکرار آن شنیده نمی‌شود
+            // (تکرارهای همین فریم در request شمرده شده‌اند؛ اینجا فقط نماینده ادغام شده)
+            if (now - lastPlayed[sound] < WINDOW[sound]) {
+                coalesced++;
+                continue;
+            }
+            if (!reserveVoice(sound, output)) {
+                dropped++;
+                continue;
+            }
+            float volume = Math.min(1, pendingVolume[sound] * (1 + COALESCE_BOOST * (count - 1)));
+            int stream = output.play(sound, volume, pendingRate[sound], PRIORITY[sound]);
+            lastPlayed[sound] = now;
+            submitted++;
+            if (stream != 0) {
+                addVoice(stream, sound, now + DURATION[sound]);
+            }
+        }
+        pendingSize = 0;
+    }
+
+    // جای خالی در دسته و کل؛ در صورت نیاز کم‌اولویت‌ترین صدای پایین‌تر از این صدا قطع می‌شود
+    private boolean reserveVoice(int sound, Output output) {
+        int category = CATEGORY[sound];
+        if (categoryVoices[category] >= CATEGORY_VOICES[category]) {
+            return steal(category, PRIORITY[sound], output);
+        }
+        if (voiceCount >= MAX_VOICES) {
+            return steal(-1, PRIORITY[sound], output);
+        }
+        return true;
+    }
+
+    // category منفی یعنی همه دسته‌ها؛ بین هم‌اولویت‌ها قدیمی‌ترین قطع می‌شود
+    private boolean steal(int category, int priority, Output output) {
+        int victim = -1;
+        for (int v = 0; v < voiceCount; v++) {
+            int sound = voiceSound[v];
+            if (category >= 0 && CATEGORY[sound] != category) continue;
+            if (PRIORITY[sound] >= priority) continue;
+            if (victim < 0 || PRIORITY[sound] < PRIORITY[voiceSound[victim]]
+                || (PRIORITY[sound] == PRIORITY[voiceSound[victim]] && voiceEnd[v] < voiceEnd[victim])) {
+                victim = v;
+            }
+        }
+        if (victim < 0) return false;
+        output.stop(voiceStream[victim]);
+        removeVoice(victim);
+        stolen++;
+        return true;
+    }
+
+    private void expireVoices(double now) {
+        for (int v = voiceCount - 1; v >= 0; v--) {
+            if (voiceEnd[v] <= now) removeVoice(v);
+        }
+    }
+
+    private void addVoice(int stream, int sound, double end) {
+        voiceStream[voiceCount] = stream;
+        voiceSound[voiceCount] = sound;
+        voiceEnd[voiceCount] = end;
+        voiceCount++;
+        categoryVoices[CATEGORY[sound]]++;
+    }
+
+    private void removeVoice(int v) {
+        categoryVoices[CATEGORY[voiceSound[v]]]--;
+        int last = --voiceCount;
+        voiceStream[v] = voiceStream[last];
+        voiceSound[v] = voiceSound[last];
+        voiceEnd[v] = voiceEnd[last];
+    }
+
+    // پس از آزادسازی SoundPool همه صداها تمام شده فرض می‌شوند (AudioSystem.release)
+    public void reset() {
+        for (int p = 0; p < pendingSize; p++) {
+            pendingCount[pendingOrder[p]] = 0;
+        }
+        pendingSize = 0;
+        while (voiceCount > 0) {
+            removeVoice(voiceCount - 1);
+        }
+    }
+
+    // متدهای دسترسی
+    public int getVoiceCount() { return voiceCount; }
+    public int getCategoryVoices(int category) { return categoryVoices[category]; }
+    public long getRequests() { return requests; }
+    public long getSubmitted() { return submitted; }
+    public long getCoalesced() { return coalesced; }
+    public long getDropped() { return dropped; }
+    public long getStolen() { return stolen; }
+}
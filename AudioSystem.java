@@ -6,24 +6,17 @@ import android.media.SoundPool;
 import android.util.SparseIntArray;
 import java.util.Random;
 
-public class AudioSystem {
+public class AudioSystem implements AudioMixer.Output {
     private Context context;
     private SoundPool soundPool;
     private SparseIntArray soundMap;
     private MediaPlayer backgroundMusic;
     private Random random;
+    // صداهای رویدادها از رشته شبیه‌سازی در میکسر جمع و هر فریم یک بار پخش می‌شوند
+    private final AudioMixer mixer = new AudioMixer();
     
-    // شناسه صداها
-    private static final int SOUND_ENGINE = 1;
-    private static final int SOUND_EXPLOSION = 2;
-    private static final int SOUND_IMPACT = 3;
-    private static final int SOUND_SHIELD = 4;
-    private static final int SOUND_LEVEL_START = 5;
-    private static final int SOUND_LEVEL_COMPLETE = 6;
-    private static final int SOUND_GAME_OVER = 7;
-    private static final int SOUND_BLACK_HOLE = 8;
-    private static final int SOUND_PLANET_EXPLOSION = 9;
-    private static final int SOUND_RESPAWN = 10;
+    // شناسه صداها (بقیه در AudioMixer)؛ موتور حلقه دائمی است و از بودجه میکسر جداست
+    private static final int SOUND_ENGINE = AudioMixer.SOUND_COUNT;
     
     private int engineSoundId = -1;
     private float engineVolume = 0;
@@ -38,7 +31,7 @@ public class AudioSystem {
     private void initialize() {
         // ایجاد SoundPool با تنظیمات پیشرفته
         soundPool = new SoundPool.Builder()
-                .setMaxStreams(20)
+                .setMaxStreams(AudioMixer.MAX_VOICES + 1)
                 .build();
         
         // بارگذاری صداها
@@ -53,7 +46,7 @@ public class AudioSystem {
         // برای نمونه از صداهای سیستمی استفاده می‌کنیم
         
         // soundMap.put(SOUND_ENGINE, soundPool.load(context, R.raw.engine, 1));
-        // soundMap.put(SOUND_EXPLOSION, soundPool.load(context, R.raw.explosion, 1));
+        // soundMap.put(AudioMixer.SOUND_EXPLOSION, soundPool.load(context, R.raw.explosion, 1));
         // و بقیه صداها...
     }
     
@@ -73,6 +66,12 @@ public class AudioSystem {
         updateEngineSound(ship, deltaTime);
     }
     
+    // یک بار در هر فریم شبیه‌سازی؛ time زمان بازی به ثانیه که در توقف جلو نمی‌رود
+    public void flush(double time) {
+        if (soundPool == null) return;
+        mixer.flush(time, this);
+    }
+    
     private void updateEngineSound(SpaceShip ship, float deltaTime) {
         float targetVolume = calculateEngineVolume(ship);
         float volumeChange = deltaTime * 2.0f;
@@ -110,48 +109,57 @@ public class AudioSystem {
     
     // متدهای پخش صدا
     public void playExplosion() {
-        playSound(SOUND_EXPLOSION, 1.0f, 1.0f);
+        mixer.request(AudioMixer.SOUND_EXPLOSION, 1.0f, 1.0f);
     }
     
     public void playImpact() {
-        playSound(SOUND_IMPACT, 0.7f, 0.8f + random.nextFloat() * 0.4f);
+        mixer.request(AudioMixer.SOUND_IMPACT, 0.7f, 0.8f + random.nextFloat() * 0.4f);
     }
     
     public void playShield() {
-        playSound(SOUND_SHIELD, 0.8f, 1.0f);
+        mixer.request(AudioMixer.SOUND_SHIELD, 0.8f, 1.0f);
     }
     
     public void playLevelStart() {
-        playSound(SOUND_LEVEL_START, 1.0f, 1.0f);
+        mixer.request(AudioMixer.SOUND_LEVEL_START, 1.0f, 1.0f);
     }
     
     public void playLevelComplete() {
-        playSound(SOUND_LEVEL_COMPLETE, 1.0f, 1.0f);
+        mixer.request(AudioMixer.SOUND_LEVEL_COMPLETE, 1.0f, 1.0f);
     }
     
     public void playGameOver() {
-        playSound(SOUND_GAME_OVER, 1.0f, 1.0f);
+        mixer.request(AudioMixer.SOUND_GAME_OVER, 1.0f, 1.0f);
     }
     
     public void playBlackHole() {
-        playSound(SOUND_BLACK_HOLE, 0.9f, 0.7f + random.nextFloat() * 0.6f);
+        mixer.request(AudioMixer.SOUND_BLACK_HOLE, 0.9f, 0.7f + random.nextFloat() * 0.6f);
     }
     
     public void playPlanetExplosion() {
-        playSound(SOUND_PLANET_EXPLOSION, 1.0f, 0.9f + random.nextFloat() * 0.2f);
+        mixer.request(AudioMixer.SOUND_PLANET_EXPLOSION, 1.0f, 0.9f + random.nextFloat() * 0.2f);
     }
     
     public void playRespawn() {
-        playSound(SOUND_RESPAWN, 0.8f, 1.0f);
+        mixer.request(AudioMixer.SOUND_RESPAWN, 0.8f, 1.0f);
     }
     
-    private void playSound(int soundId, float volume, float rate) {
-        int soundResource = soundMap.get(soundId);
-        if (soundResource != 0) {
-            soundPool.play(soundResource, volume, volume, 1, 0, rate);
-        }
+    // خروجی میکسر؛ صدای بارگذاری نشده شناسه صفر برمی‌گرداند
+    @Override
+    public int play(int sound, float volume, float rate, int priority) {
+        int soundResource = soundMap.get(sound);
+        if (soundResource == 0) return 0;
+        return soundPool.play(soundResource, volume, volume, priority, 0, rate);
     }
     
+    @Override
+    public void stop(int streamId) {
+        soundPool.stop(streamId);
+    }
+    
+    // متدهای دسترسی
+    public AudioMixer getMixer() { return mixer; }
+    
     public void startBackgroundMusic() {
         if (backgroundMusic != null && !backgroundMusic.isPlaying()) {
             backgroundMusic.start();
@@ -183,6 +191,8 @@ public class AudioSystem {
             soundPool.release();
             soundPool = null;
         }
+        // صداهای تخمینی با SoundPool تمام شده‌اند؛ موتور آن را پس از خروج رشته شبیه‌سازی صدا می‌زند
+        mixer.reset();
         if (backgroundMusic != null) {
             backgroundMusic.release();
             backgroundMusic = null;
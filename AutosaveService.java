@@ -0,0 +1,111 @@
+package com.space.ship.game;
+
+import java.io.IOException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+// ذخیره خودکار: رشته بازی فقط وضعیت را در یک آرایه تغییرناپذیر رمزگذاری می‌کند (چند میکروثانیه)
+// و نوشتن، CRC و همگام‌سازی دیسک روی یک رشته پس‌زمینه انجام می‌شود
+// درخواست‌هایی که پیش از نوشته شدن قبلی می‌رسند ادغام می‌شوند: فقط تازه‌ترین تصویر نوشته می‌شود
+class AutosaveService {
+    private static final long SHUTDOWN_TIMEOUT_MS = 2000;
+
+    // هر فایل صف یک‌خانه‌ای خودش را دارد تا درخواست یکی جایگزین دیگری نشود
+    private static final class Slot {
+        final SaveFile file;
+        // تصویری که هنوز نوشته نشده؛ null یعنی کاری در صف نیست
+        final AtomicReference<byte[]> pending = new AtomicReference<>();
+
+        Slot(SaveFile file) {
+            this.file = file;
+        }
+    }
+
+    private final ThreadPoolExecutor executor;
+    private final Slot game;
+    private final Slot world;
+
+    // آمار (capture روی رشته بازی، بقیه روی رشته پس‌زمینه)
+    private long requests;
+    private long coalesced;
+    private long lastCaptureNanos;
+    private long maxCaptureNanos;
+    private volatile long writes;
+    private volatile long failures;
+
+    public AutosaveService(SaveFile gameFile, SaveFile worldFile) {
+        this.game = new Slot(gameFile);
+        this.world = new Slot(worldFile);
+        this.executor = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), runnable -> {
+            Thread thread = new Thread(runnable, "Autosave");
+            thread.setDaemon(true);
+            // دیسک کند نباید هسته‌ای از رشته‌های بازی بگیرد
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+        // ساخت رشته در اولین درخواست روی رشته بازی چند میلی‌ثانیه طول می‌کشد
+        executor.prestartAllCoreThreads();
+    }
+
+    // فقط از رشته‌ای که GameState را تغییر می‌دهد صدا زده شود
+    public void request(GameState state) {
+        submit(game, state);
+    }
+
+    // تصویر کامل جهان (هنگام توقف)؛ فقط از رشته شبیه‌سازی
+    public void requestWorld(World state) {
+        submit(world, state);
+    }
+
+    // تصویر جهان با ادامه بازی کهنه می‌شود؛ حذف پس از هر نوشتن در صف انجام می‌شود
+    public void discardWorld() {
+        world.pending.set(null);
+        executor.execute(world.file::delete);
+    }
+
+    private void submit(Slot slot, SaveFile.Payload state) {
+        long start = System.nanoTime();
+        byte[] snapshot = slot.file.snapshot(state);
+        requests++;
+        if (slot.pending.getAndSet(snapshot) == null) {
+            executor.execute(() -> writePending(slot));
+        } else {
+            // تصویر قبلی هنوز در صف بود و جایگزین شد
+            coalesced++;
+        }
+        lastCaptureNanos = System.nanoTime() - start;
+        maxCaptureNanos = Math.max(maxCaptureNanos, lastCaptureNanos);
+    }
+
+    private void writePending(Slot slot) {
+        byte[] snapshot = slot.pending.getAndSet(null);
+        if (snapshot == null) return;
+        try {
+            slot.file.write(snapshot);
+            writes++;
+        } catch (IOException e) {
+            // ذخیره بعدی دوباره تلاش می‌کند؛ فایل قبلی سالم مانده است
+            failures++;
+        }
+    }
+
+    // نوشتن کارهای در صف و توقف رشته؛ پس از آن request نباید صدا زده شود
+    public void shutdown() {
+        executor.shutdown();
+        try {
+            executor.awaitTermination(SHUTDOWN_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // متدهای دسترسی
+    public long getRequests() { return requests; }
+    public long getCoalesced() { return coalesced; }
+    public long getWrites() { return writes; }
+    public long getFailures() { return failures; }
+    public long getLastCaptureNanos() { return lastCaptureNanos; }
+    public long getMaxCaptureNanos() { return maxCaptureNanos; }
+}
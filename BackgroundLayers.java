@@ -0,0 +1,280 @@
+package com.space.ship.game;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.RadialGradient;
+import android.graphics.RectF;
+import android.graphics.Shader;
+
+// لایه‌های پخته شده پس‌زمینه: گرادیانت فضا، سحابی‌ها و لایه‌های ستاره
+// هر لایه یک بار در بیت‌مپ رسم می‌شود و در فریم‌ها فقط جابجا و کشیده می‌شود
+class BackgroundLayers {
+    // گرادیانت نرم است و با فیلتر دوخطی بزرگ شدن آن دیده نمی‌شود
+    private static final float BACKGROUND_SCALE = 0.25f;
+    private static final float NEBULA_SCALE = 0.125f;
+    private static final float STAR_SCALE = 0.5f;
+    // ستاره‌های بزرگ‌تر از این اندازه روی لایه پخته شده سوسو و پرتو می‌گیرند
+    private static final float SPARKLE_SIZE = 4;
+
+    private final GlowSpriteCache sprites;
+    private final EnvironmentRenderer environmentRenderer;
+    private final int starGlow;
+    private final Paint bakePaint = new Paint();
+    private final RectF destination = new RectF();
+    private final float[] rayPoints = new float[16];
+
+    // گرادیانت عمق فضا در مختصات صفحه
+    private Bitmap backgroundBitmap;
+    private int backgroundWidth, backgroundHeight;
+
+    // سحابی‌ها در مختصات جهان
+    private Bitmap nebulaBitmap;
+    private float nebulaLeft, nebulaTop;
+    private float nebulaSignature = Float.NaN;
+
+    // لایه‌های ستاره در ناحیه تکرار
+    private final Bitmap[] starLayers = new Bitmap[StarField.LAYER_COUNT];
+    private Object starLayoutKey;
+    private int[] sparkleStars = new int[0];
+    private int sparkleCount;
+
+    public BackgroundLayers(GlowSpriteCache sprites, EnvironmentRenderer environmentRenderer) {
+        this.sprites = sprites;
+        this.environmentRenderer = environmentRenderer;
+        starGlow = sprites.registerRamp(Color.argb(255, 255, 255, 255), Color.argb(0, 255, 255, 255));
+        bakePaint.setAntiAlias(true);
+        bakePaint.setFilterBitmap(true);
+        bakePaint.setDither(true);
+    }
+
+    // رسم گرادیانت فضا؛ فقط با تغییر اندازه بوم دوباره پخته می‌شود
+    public void drawBackground(Canvas canvas, Paint paint) {
+        int width = canvas.getWidth();
+        int height = canvas.getHeight();
+        if (backgroundBitmap == null || width != backgroundWidth || height != backgroundHeight) {
+            bakeBackground(width, height);
+        }
+        destination.set(0, 0, width, height);
+        canvas.drawBitmap(backgroundBitmap, null, destination, paint);
+    }
+
+    private void bakeBackground(int width, int height) {
+        recycle(backgroundBitmap);
+        backgroundWidth = width;
+        backgroundHeight = height;
+        int bakeWidth = Math.max(1, (int) (width * BACKGROUND_SCALE));
+        int bakeHeight = Math.max(1, (int) (height * BACKGROUND_SCALE));
+        backgroundBitmap = Bitmap.createBitmap(bakeWidth, bakeHeight, Bitmap.Config.ARGB_8888);
+
+        Canvas bakeCanvas = new Canvas(backgroundBitmap);
+        bakePaint.setShader(new RadialGradient(
+            bakeWidth / 2f, bakeHeight / 2f, Math.max(bakeWidth, bakeHeight),
+            new int[]{
+                Color.argb(255, 5, 5, 35),
+                Color.argb(255, 2, 2, 20),
+                Color.argb(255, 0, 0, 10)
+            },
+            null,
+            Shader.TileMode.CLAMP
+        ));
+        bakeCanvas.drawRect(0, 0, bakeWidth, bakeHeight, bakePaint);
+        bakePaint.setShader(null);
+    }
+
+    // رسم همه سحابی‌ها با یک بیت‌مپ؛ سحابی‌ها ثابت‌اند و چرخش گرادیانت متقارن دیده نمی‌شود
+    public void drawNebulas(Canvas canvas, Paint paint, WorldSnapshot snapshot) {
+        if (snapshot.nebulaCount == 0) return;
+
+        float signature = nebulaSignature(snapshot);
+        if (nebulaBitmap == null || signature != nebulaSignature) {
+            bakeNebulas(snapshot);
+            nebulaSignature = signature;
+        }
+        destination.set(nebulaLeft, nebulaTop,
+                        nebulaLeft + nebulaBitmap.getWidth() / NEBULA_SCALE,
+                        nebulaTop + nebulaBitmap.getHeight() / NEBULA_SCALE);
+        canvas.drawBitmap(nebulaBitmap, null, destination, paint);
+    }
+
+    private float nebulaSignature(WorldSnapshot snapshot) {
+        float signature = snapshot.nebulaCount;
+        for (int i = 0; i < snapshot.nebulaCount; i++) {
+            Nebula nebula = snapshot.nebulas.get(i);
+            signature = signature * 31 + nebula.getX() + nebula.getY() * 7 + nebula.getSize() * 13 + nebula.getType();
+        }
+        return signature;
+    }
+
+    private void bakeNebulas(WorldSnapshot snapshot) {
+        float left = Float.MAX_VALUE, top = Float.MAX_VALUE;
+        float right = -Float.MAX_VALUE, bottom = -Float.MAX_VALUE;
+        for (int i = 0; i < snapshot.nebulaCount; i++) {
+            Nebula nebula = snapshot.nebulas.get(i);
+            left = Math.min(left, nebula.getX() - nebula.getSize());
+            top = Math.min(top, nebula.getY() - nebula.getSize());
+            right = Math.max(right, nebula.getX() + nebula.getSize());
+            bottom = Math.max(bottom, nebula.getY() + nebula.getSize());
+        }
+
+        recycle(nebulaBitmap);
+        nebulaLeft = left;
+        nebulaTop = top;
+        int width = Math.max(1, (int) Math.ceil((right - left) * NEBULA_SCALE));
+        int height = Math.max(1, (int) Math.ceil((bottom - top) * NEBULA_SCALE));
+        nebulaBitmap = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+
+        Canvas bakeCanvas = new Canvas(nebulaBitmap);
+        bakeCanvas.scale(NEBULA_SCALE, NEBULA_SCALE);
+        bakeCanvas.translate(-left, -top);
+        for (int i = 0; i < snapshot.nebulaCount; i++) {
+            environmentRenderer.drawNebula(bakeCanvas, bakePaint, snapshot.nebulas.get(i));
+        }
+    }
+
+    // رسم لایه‌های ستاره با جابجایی پارالاکس و افزودن سوسوی ستاره‌های درخشان؛ تعداد فراخوانی رسم برگردانده می‌شود
+    public int drawStars(Canvas canvas, Paint paint, StarField field, float alpha) {
+        if (field.getCount() == 0) return 0;
+        if (field.getLayoutKey() != starLayoutKey) {
+            bakeStars(field);
+        }
+
+        int draws = 0;
+        canvas.save();
+        canvas.clipRect(StarField.WRAP_LEFT, StarField.WRAP_TOP,
+                        StarField.WRAP_LEFT + StarField.WRAP_WIDTH, StarField.WRAP_TOP + StarField.WRAP_HEIGHT);
+        for (int layer = 0; layer < StarField.LAYER_COUNT; layer++) {
+            float offsetX = wrap(field.getRenderOffsetX(layer, alpha), StarField.WRAP_WIDTH);
+            float offsetY = wrap(field.getRenderOffsetY(layer, alpha), StarField.WRAP_HEIGHT);
+
+            // لایه تکرارشونده با چهار کاشی ناحیه را می‌پوشاند
+            for (int tx = -1; tx <= 0; tx++) {
+                for (int ty = -1; ty <= 0; ty++) {
+                    float left = StarField.WRAP_LEFT + offsetX + tx * StarField.WRAP_WIDTH;
+                    float top = StarField.WRAP_TOP + offsetY + ty * StarField.WRAP_HEIGHT;
+                    destination.set(left, top, left + StarField.WRAP_WIDTH, top + StarField.WRAP_HEIGHT);
+                    canvas.drawBitmap(starLayers[layer], null, destination, paint);
+                    draws++;
+                }
+            }
+        }
+        canvas.restore();
+
+        for (int s = 0; s < sparkleCount; s++) {
+            draws += drawSparkle(canvas, paint, field, sparkleStars[s], alpha);
+        }
+        return draws;
+    }
+
+    // لایه پخته شده روشنایی میانگین را دارد؛ نیمه روشن سوسو و پرتوهای چرخان روی آن اضافه می‌شوند
+    private int drawSparkle(Canvas canvas, Paint paint, StarField field, int i, float alpha) {
+        int layer = layerOf(field, i);
+        float x = field.wrapX(i, field.getRenderOffsetX(layer, alpha));
+        float y = field.wrapY(i, field.getRenderOffsetY(layer, alpha));
+        float size = field.getSize(i);
+        float twinkle = field.getTwinkle(i);
+        float wave = (float) Math.sin(twinkle * Math.PI * 2);
+        if (wave <= 0) return 0;
+
+        int sparkleAlpha = (int) (255 * field.getBrightness(i) * wave * 0.3f);
+        sprites.draw(canvas, paint, starGlow, x, y, size * 3, sparkleAlpha);
+
+        int rayAlpha = (int) (255 * field.getBrightness(i) * (0.7f + wave * 0.3f)) / 4;
+        float rayLength = size * 4;
+        for (int r = 0; r < 4; r++) {
+            double angle = Math.toRadians(r * 45 + twinkle * 360);
+            rayPoints[r * 4] = x;
+            rayPoints[r * 4 + 1] = y;
+            rayPoints[r * 4 + 2] = x + (float) Math.cos(angle) * rayLength;
+            rayPoints[r * 4 + 3] = y + (float) Math.sin(angle) * rayLength;
+        }
+        paint.setColor(Color.argb(rayAlpha, 255, 255, 255));
+        paint.setStrokeWidth(size * 0.5f);
+        canvas.drawLines(rayPoints, paint);
+        return 2;
+    }
+
+    private void bakeStars(StarField field) {
+        int width = (int) Math.ceil(StarField.WRAP_WIDTH * STAR_SCALE);
+        int height = (int) Math.ceil(StarField.WRAP_HEIGHT * STAR_SCALE);
+        sparkleStars = new int[field.getCount()];
+        sparkleCount = 0;
+
+        for (int layer = 0; layer < StarField.LAYER_COUNT; layer++) {
+            if (starLayers[layer] == null) {
+                starLayers[layer] = Bitmap.createBitmap(width, height, Bitmap.Config.ARGB_8888);
+            } else {
+                starLayers[layer].eraseColor(Color.TRANSPARENT);
+            }
+            Canvas bakeCanvas = new Canvas(starLayers[layer]);
+            bakeCanvas.scale(STAR_SCALE, STAR_SCALE);
+            bakeCanvas.translate(-StarField.WRAP_LEFT, -StarField.WRAP_TOP);
+
+            for (int i = field.getLayerStart(layer); i < field.getLayerEnd(layer); i++) {
+                // ستاره‌های نزدیک لبه در طرف مقابل هم رسم می‌شوند تا هاله در درز کاشی بریده نشود
+                float x = field.getBaseX(i);
+                float y = field.getBaseY(i);
+                float reach = field.getSize(i) * 3;
+                float wrapX = wrapCopy(x, reach, StarField.WRAP_LEFT, StarField.WRAP_WIDTH);
+                float wrapY = wrapCopy(y, reach, StarField.WRAP_TOP, StarField.WRAP_HEIGHT);
+                bakeStar(bakeCanvas, field, i, x, y);
+                if (wrapX != 0) bakeStar(bakeCanvas, field, i, x + wrapX, y);
+                if (wrapY != 0) bakeStar(bakeCanvas, field, i, x, y + wrapY);
+                if (wrapX != 0 && wrapY != 0) bakeStar(bakeCanvas, field, i, x + wrapX, y + wrapY);
+
+                if (field.getSize(i) > SPARKLE_SIZE) {
+                    sparkleStars[sparkleCount++] = i;
+                }
+            }
+        }
+        starLayoutKey = field.getLayoutKey();
+    }
+
+    // هسته و هاله ستاره با روشنایی میانگین سوسو
+    private void bakeStar(Canvas bakeCanvas, StarField field, int i, float x, float y) {
+        int color = field.getColor(i);
+        float size = field.getSize(i);
+        int alpha = (int) (255 * field.getBrightness(i) * 0.7f);
+        bakePaint.setColor(Color.argb(alpha, Color.red(color), Color.green(color), Color.blue(color)));
+        bakeCanvas.drawCircle(x, y, size, bakePaint);
+        sprites.draw(bakeCanvas, bakePaint, starGlow, x, y, size * 3, alpha / 3);
+    }
+
+    private static float wrapCopy(float value, float reach, float start, float period) {
+        if (value - reach < start) return period;
+        if (value + reach > start + period) return -period;
+        return 0;
+    }
+
+    private static int layerOf(StarField field, int i) {
+        int layer = 0;
+        while (layer < StarField.LAYER_COUNT - 1 && i >= field.getLayerEnd(layer)) {
+            layer++;
+        }
+        return layer;
+    }
+
+    private static float wrap(float value, float period) {
+        float r = value % period;
+        return r < 0 ? r + period : r;
+    }
+
+    private static void recycle(Bitmap bitmap) {
+        if (bitmap != null) bitmap.recycle();
+    }
+
+    // آزادسازی بیت‌مپ‌ها؛ در استفاده بعدی دوباره پخته می‌شوند
+    public void release() {
+        recycle(backgroundBitmap);
+        recycle(nebulaBitmap);
+        backgroundBitmap = null;
+        nebulaBitmap = null;
+        nebulaSignature = Float.NaN;
+        for (int layer = 0; layer < starLayers.length; layer++) {
+            recycle(starLayers[layer]);
+            starLayers[layer] = null;
+        }
+        starLayoutKey = null;
+    }
+}
@@ -1,31 +1,31 @@
 package com.space.ship.game;
 
-import android.graphics.Canvas;
-import android.graphics.Matrix;
+import java.nio.ByteBuffer;
 
 public class CameraSystem {
     private float x, y;
+    private float prevX, prevY;
     private float targetX, targetY;
     private float shakeOffsetX, shakeOffsetY;
     private int screenWidth, screenHeight;
     private float zoom = 1.0f;
-    private Matrix transformMatrix;
-    private Matrix inverseMatrix;
     
     // تنظیمات حرکت نرم دوربین
     private float smoothness = 0.1f;
     private float shakeIntensity = 0;
-    private long lastShakeTime = 0;
+    private float shakeTimer = 0;
+    private final SimRandom random;
     
-    public CameraSystem(int screenWidth, int screenHeight) {
+    public CameraSystem(int screenWidth, int screenHeight, SimRandom random) {
         this.screenWidth = screenWidth;
         this.screenHeight = screenHeight;
+        this.random = random;
         this.x = screenWidth / 2;
         this.y = screenHeight / 2;
         this.targetX = x;
         this.targetY = y;
-        this.transformMatrix = new Matrix();
-        this.inverseMatrix = new Matrix();
+        this.prevX = x;
+        this.prevY = y;
     }
     
     public void update(SpaceShip ship, float deltaTime) {
@@ -47,11 +47,12 @@ public class CameraSystem {
         
         // اعمال لرزش
         if (shakeIntensity > 0) {
-            long currentTime = System.currentTimeMillis();
-            if (currentTime - lastShakeTime > 50) {
-                shakeOffsetX = (float)(Math.random() - 0.5) * shakeIntensity;
-                shakeOffsetY = (float)(Math.random() - 0.5) * shakeIntensity;
-                lastShakeTime = currentTime;
+            // لرزش هر 50 میلی‌ثانیه زمان شبیه‌سازی عوض می‌شود
+            shakeTimer += deltaTime;
+            if (shakeTimer > 0.05f) {
+                shakeOffsetX = (random.nextFloat() - 0.5f) * shakeIntensity;
+                shakeOffsetY = (random.nextFloat() - 0.5f) * shakeIntensity;
+                shakeTimer = 0;
             }
         } else {
             shakeOffsetX = 0;
@@ -62,28 +63,53 @@ public class CameraSystem {
         zoom = 1.0f - Math.min(0.3f, speed * 0.005f);
     }
     
-    public void applyTransform(Canvas canvas) {
-        transformMatrix.reset();
-        
-        // مرکز صفحه
-        float centerX = screenWidth / 2;
-        float centerY = screenHeight / 2;
-        
-        // تبدیل‌ها
-        transformMatrix.postTranslate(-x + centerX + shakeOffsetX, -y + centerY + shakeOffsetY);
-        transformMatrix.postScale(zoom, zoom, centerX, centerY);
-        
-        canvas.concat(transformMatrix);
-        
-        // ذخیره ماتریس معکوس برای تبدیل مختصات
-        transformMatrix.invert(inverseMatrix);
+    public void storePreviousPosition() {
+        prevX = x;
+        prevY = y;
+    }
+    
+    // کپی وضعیت دوربین برای تصویر رندر
+    public void copyFrom(CameraSystem other) {
+        x = other.x;
+        y = other.y;
+        prevX = other.prevX;
+        prevY = other.prevY;
+        targetX = other.targetX;
+        targetY = other.targetY;
+        shakeOffsetX = other.shakeOffsetX;
+        shakeOffsetY = other.shakeOffsetY;
+        zoom = other.zoom;
     }
     
-    public void restoreTransform(Canvas canvas) {
-        // بازگردانی تبدیل‌ها
-        Matrix restoreMatrix = new Matrix();
-        transformMatrix.invert(restoreMatrix);
-        canvas.concat(restoreMatrix);
+    // وضعیت کامل برای تصویر ذخیره جهان
+    public void writeState(ByteBuffer out) {
+        out.putFloat(x);
+        out.putFloat(y);
+        out.putFloat(prevX);
+        out.putFloat(prevY);
+        out.putFloat(targetX);
+        out.putFloat(targetY);
+        out.putFloat(shakeOffsetX);
+        out.putFloat(shakeOffsetY);
+        out.putFloat(zoom);
+        out.putFloat(shakeIntensity);
+        out.putFloat(shakeTimer);
+        out.putLong(random.getState());
+    }
+    
+    public void readState(ByteBuffer in) {
+        x = in.getFloat();
+        y = in.getFloat();
+        prevX = in.getFloat();
+        prevY = in.getFloat();
+        targetX = in.getFloat();
+        targetY = in.getFloat();
+        shakeOffsetX = in.getFloat();
+        shakeOffsetY = in.getFloat();
+        zoom = in.getFloat();
+        shakeIntensity = in.getFloat();
+        shakeTimer = in.getFloat();
+        random.setState(in.getLong());
     }
     
     public void follow(float targetX, float targetY, float velocityX, float velocityY) {
@@ -95,10 +121,61 @@ public class CameraSystem {
         shakeIntensity = Math.max(shakeIntensity, intensity);
     }
     
+    // مستطیل دید در مختصات جهان (وارون تبدیل رسم: جابجایی، لرزش و زوم حول مرکز صفحه)
+    // چون alpha رسم هنگام گرفتن تصویر معلوم نیست، هر دو موقعیت قبلی و فعلی پوشانده می‌شوند
+    public void computeViewRect(ViewRect out, float margin) {
+        float halfWidth = screenWidth / 2f / zoom + margin;
+        float halfHeight = screenHeight / 2f / zoom + margin;
+        out.left = Math.min(prevX, x) + shakeOffsetX - halfWidth;
+        out.right = Math.max(prevX, x) + shakeOffsetX + halfWidth;
+        out.top = Math.min(prevY, y) + shakeOffsetY - halfHeight;
+        out.bottom = Math.max(prevY, y) + shakeOffsetY + halfHeight;
+    }
+    
     // متدهای دسترسی
     public float getX() { return x + shakeOffsetX; }
     public float getY() { return y + shakeOffsetY; }
+    public float getRenderX(float alpha) { return prevX + (x - prevX) * alpha + shakeOffsetX; }
+    public float getRenderY(float alpha) { return prevY + (y - prevY) * alpha + shakeOffsetY; }
     public float getZoom() { return zoom; }
-    public Matrix getTransformMatrix() { return transformMatrix; }
-    public Matrix getInverseMatrix() { return inverseMatrix; }
+    public float getShakeOffsetX() { return shakeOffsetX; }
+    public float getShakeOffsetY() { return shakeOffsetY; }
+    public int getScreenWidth() { return screenWidth; }
+    public int getScreenHeight() { return screenHeight; }
+}
+
+// مستطیل محور-موازی در مختصات جهان برای حذف اشیای خارج از دید
+class ViewRect {
+    float left, top, right, bottom;
+    
+    // آزمون محافظه‌کارانه با جعبه محیطی دایره
+    public boolean intersectsCircle(float x, float y, float radius) {
+        return x + radius >= left && x - radius <= right
+            && y + radius >= top && y - radius <= bottom;
+    }
+    
+    // فاصله لبه دایره تا مستطیل (بیشینه فاصله محوری)؛ صفر یا منفی یعنی دایره مستطیل را قطع می‌کند
+    public float distanceOutside(float x, float y, float radius) {
+        float dx = Math.max(left - x, x - right);
+        float dy = Math.max(top - y, y - bottom);
+        return Math.max(dx, dy) - radius;
+    }
+    
+    public boolean contains(float x, float y) {
+        return x >= left && x <= right && y >= top && y <= bottom;
+    }
+    
+    public void set(ViewRect other) {
+        left = other.left;
+        top = other.top;
+        right = other.right;
+        bottom = other.bottom;
+    }
+    
+    public void expand(float amount) {
+        left -= amount;
+        top -= amount;
+        right += amount;
+        bottom += amount;
+    }
 }
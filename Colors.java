@@ -0,0 +1,21 @@
+package com.space.ship.game;
+
+// کار با رنگ‌های ARGB بدون وابستگی به android.graphics (برای هسته بدون رابط گرافیکی)
+final class Colors {
+    static final int WHITE = 0xFFFFFFFF;
+    static final int RED = 0xFFFF0000;
+    static final int ORANGE = 0xFFFFA500;
+    static final int YELLOW = 0xFFFFFF00;
+
+    private Colors() {
+    }
+
+    static int argb(int alpha, int red, int green, int blue) {
+        return (alpha << 24) | (red << 16) | (green << 8) | blue;
+    }
+
+    static int alpha(int color) { return color >>> 24; }
+    static int red(int color) { return (color >> 16) & 0xFF; }
+    static int green(int color) { return (color >> 8) & 0xFF; }
+    static int blue(int color) { return color & 0xFF; }
+}
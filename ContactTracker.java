@@ -0,0 +1,144 @@
+package com.space.ship.game;
+
+import java.util.Arrays;
+
+// پیگیری تماس‌های یک جسم (سفینه) با اشیای دیگر بین تیک‌ها
+// هر تماس شروع، ادامه یا پایان دارد؛ اثرها به جای هر تیک با ضربه شروع و تیک‌های زمانی اعمال می‌شوند
+// تماسی که کمتر از grace ثانیه قطع شود (سایش لبه) ادامه همان تماس است نه ضربه تازه
+class ContactTracker<T> {
+    static final int NONE = 0;
+    static final int BEGIN = 1;
+    static final int PERSIST = 2;
+
+    private Object[] items = new Object[8];
+    private float[] duration = new float[8];
+    private float[] pending = new float[8];
+    private boolean[] touched = new boolean[8];
+    // زمان گذشته از آخرین لمس برای تماس‌های در مهلت جدایی
+    private float[] separated = new float[8];
+    private int count;
+    private final float grace;
+
+    // آمار تیک جاری
+    private int begun, ended;
+
+    public ContactTracker() {
+        this(0);
+    }
+
+    public ContactTracker(float grace) {
+        this.grace = grace;
+    }
+
+    // شروع تیک: همه تماس‌ها تا لمس دوباره لمس‌نشده علامت می‌خورند
+    public void beginStep() {
+        Arrays.fill(touched, 0, count, false);
+        begun = 0;
+        ended = 0;
+    }
+
+    // ثبت تماس در این تیک؛ اندیس تماس برگردانده می‌شود
+    public int touch(T item, float deltaTime) {
+        for (int i = 0; i < count; i++) {
+            if (items[i] == item) {
+                if (!touched[i]) {
+                    touched[i] = true;
+                    separated[i] = 0;
+                    duration[i] += deltaTime;
+                    pending[i] += deltaTime;
+                }
+                return i;
+            }
+        }
+
+        if (count == items.length) {
+            grow();
+        }
+        int i = count++;
+        items[i] = item;
+        duration[i] = 0;
+        pending[i] = 0;
+        separated[i] = 0;
+        touched[i] = true;
+        begun++;
+        return i;
+    }
+
+    public int getPhase(int i) {
+        return duration[i] == 0 ? BEGIN : PERSIST;
+    }
+
+    // تعداد تیک‌های اثر سررسیده برای تماس ادامه‌دار (interval صفر یعنی فقط ضربه شروع)
+    public int consumeTicks(int i, float interval) {
+        if (interval <= 0 || duration[i] == 0) return 0;
+        int ticks = (int) (pending[i] / interval);
+        pending[i] -= ticks * interval;
+        return ticks;
+    }
+
+    // پایان تیک: تماس‌هایی که لمس نشدند پس از گذشت مهلت جدایی پایان یافته‌اند
+    public void endStep(float deltaTime) {
+        for (int i = count - 1; i >= 0; i--) {
+            if (touched[i]) continue;
+            separated[i] += deltaTime;
+            if (separated[i] > grace) {
+                removeAt(i);
+                ended++;
+            }
+        }
+    }
+
+    // حذف تماس شیئی که از بازی خارج شد (مثلاً سیاره نابود شده که به استخر برمی‌گردد)
+    public void remove(T item) {
+        for (int i = 0; i < count; i++) {
+            if (items[i] == item) {
+                removeAt(i);
+                return;
+            }
+        }
+    }
+
+    // ادامه تماس ذخیره شده (تصویر جهان)؛ تماس در تیک بعد ادامه‌دار شمرده می‌شود نه شروع تازه
+    public void restore(T item, float contactDuration, float pendingTime, float separatedTime) {
+        int i = touch(item, 0);
+        duration[i] = contactDuration;
+        pending[i] = pendingTime;
+        separated[i] = separatedTime;
+        begun = 0;
+    }
+
+    public void clear() {
+        Arrays.fill(items, 0, count, null);
+        count = 0;
+    }
+
+    // جابجایی آخرین تماس به جای حذف شده
+    private void removeAt(int i) {
+        int last = --count;
+        items[i] = items[last];
+        duration[i] = duration[last];
+        pending[i] = pending[last];
+        touched[i] = touched[last];
+        separated[i] = separated[last];
+        items[last] = null;
+    }
+
+    private void grow() {
+        int capacity = items.length * 2;
+        items = Arrays.copyOf(items, capacity);
+        duration = Arrays.copyOf(duration, capacity);
+        pending = Arrays.copyOf(pending, capacity);
+        touched = Arrays.copyOf(touched, capacity);
+        separated = Arrays.copyOf(separated, capacity);
+    }
+
+    // متدهای دسترسی
+    public int size() { return count; }
+    public int getBegunCount() { return begun; }
+    public int getEndedCount() { return ended; }
+    public float getDuration(int i) { return duration[i]; }
+    public float getPending(int i) { return pending[i]; }
+    public float getSeparated(int i) { return separated[i]; }
+    @SuppressWarnings("unchecked")
+    public T get(int i) { return (T) items[i]; }
+}
@@ -0,0 +1,180 @@
+package com.space.ship.game;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+// رسم دشمنان از روی وضعیت آن‌ها
+class EnemyRenderer {
+    // وضعیت دشمنی که در حال رسم است
+    private float x, y;
+    private float radius;
+    private float rotation;
+    private float pulse;
+    
+    // گرادیانت بدنه هر نوع دشمن در اطلس
+    private final GlowSpriteCache sprites;
+    private final int scoutBody;
+    private final int fighterBody;
+    private final int bomberBody;
+    private final int eliteBody;
+    
+    public EnemyRenderer(GlowSpriteCache sprites) {
+        this.sprites = sprites;
+        scoutBody = sprites.registerRamp(new int[]{
+            Color.argb(255, 255, 100, 100),
+            Color.argb(255, 200, 50, 50),
+            Color.argb(255, 150, 0, 0)
+        }, null);
+        fighterBody = sprites.registerRamp(new int[]{
+            Color.argb(255, 255, 150, 100),
+            Color.argb(255, 220, 100, 50),
+            Color.argb(255, 180, 50, 0)
+        }, null);
+        bomberBody = sprites.registerRamp(new int[]{
+            Color.argb(255, 150, 150, 255),
+            Color.argb(255, 100, 100, 220),
+            Color.argb(255, 50, 50, 180)
+        }, null);
+        eliteBody = sprites.registerRamp(new int[]{
+            Color.argb(255, 255, 50, 255),
+            Color.argb(255, 200, 0, 200),
+            Color.argb(255, 150, 0, 150)
+        }, null);
+    }
+    
+    public void draw(Canvas canvas, Paint paint, Enemy enemy, float alpha) {
+        x = enemy.getRenderX(alpha);
+        y = enemy.getRenderY(alpha);
+        radius = enemy.getRadius();
+        rotation = enemy.getRotation();
+        pulse = enemy.getPulse();
+        float healthRatio = enemy.getHealthRatio();
+        
+        switch (enemy.getType()) {
+            case Enemy.TYPE_SCOUT:
+                drawScout(canvas, paint, healthRatio);
+                break;
+            case Enemy.TYPE_FIGHTER:
+                drawFighter(canvas, paint, healthRatio);
+                break;
+            case Enemy.TYPE_BOMBER:
+                drawBomber(canvas, paint, healthRatio);
+                break;
+            case Enemy.TYPE_ELITE:
+                drawElite(canvas, paint, healthRatio);
+                break;
+        }
+        
+        // نمایش سلامت
+        drawHealthBar(canvas, paint, healthRatio);
+    }
+    
+    private void drawScout(Canvas canvas, Paint paint, float healthRatio) {
+        // بدنه اصلی
+        sprites.draw(canvas, paint, scoutBody, x, y, radius * pulse);
+        
+        // جزئیات
+        paint.setColor(Color.argb(255, 255, 200, 200));
+        canvas.drawCircle(x, y, radius * 0.6f * pulse, paint);
+        
+        // باله‌های سریع
+        drawWings(canvas, paint, 4, 15);
+    }
+    
+    private void drawFighter(Canvas canvas, Paint paint, float healthRatio) {
+        // بدنه زرهی
+        sprites.draw(canvas, paint, fighterBody, x, y, radius);
+        
+        // سلاح‌ها
+        drawWeapons(canvas, paint, 2);
+    }
+    
+    private void drawBomber(Canvas canvas, Paint paint, float healthRatio) {
+        // بدنه سنگین
+        sprites.draw(canvas, paint, bomberBody, x, y, radius);
+        
+        // سلاح‌های سنگین
+        drawHeavyWeapons(canvas, paint);
+    }
+    
+    private void drawElite(Canvas canvas, Paint paint, float healthRatio) {
+        // بدنه پیشرفته
+        sprites.draw(canvas, paint, eliteBody, x, y, radius * pulse);
+        
+        // جزئیات پیشرفته
+        drawAdvancedDetails(canvas, paint);
+    }
+    
+    private void drawWings(Canvas canvas, Paint paint, int count, float length) {
+        paint.setColor(Color.argb(255, 200, 0, 0));
+        for (int i = 0; i < count; i++) {
+            float angle = rotation + i * (360f / count);
+            float wingX = x + (float)Math.cos(Math.toRadians(angle)) * length;
+            float wingY = y + (float)Math.sin(Math.toRadians(angle)) * length;
+            canvas.drawCircle(wingX, wingY, 6, paint);
+        }
+    }
+    
+    private void drawWeapons(Canvas canvas, Paint paint, int count) {
+        paint.setColor(Color.argb(255, 255, 255, 0));
+        for (int i = 0; i < count; i++) {
+            float angle = 90 + i * 180;
+            float weaponX = x + (float)Math.cos(Math.toRadians(angle)) * radius * 0.8f;
+            float weaponY = y + (float)Math.sin(Math.toRadians(angle)) * radius * 0.8f;
+            canvas.drawCircle(weaponX, weaponY, 8, paint);
+        }
+    }
+    
+    private void drawHeavyWeapons(Canvas canvas, Paint paint) {
+        paint.setColor(Color.argb(255, 255, 100, 0));
+        for (int i = 0; i < 4; i++) {
+            float angle = rotation + i * 90;
+            float weaponX = x + (float)Math.cos(Math.toRadians(angle)) * radius * 0.7f;
+            float weaponY = y + (float)Math.sin(Math.toRadians(angle)) * radius * 0.7f;
+            canvas.drawCircle(weaponX, weaponY, 10, paint);
+        }
+    }
+    
+    private void drawAdvancedDetails(Canvas canvas, Paint paint) {
+        // حلقه انرژی
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeWidth(3);
+        paint.setColor(Color.argb(150, 255, 100, 255));
+        canvas.drawCircle(x, y, radius * 1.3f, paint);
+        paint.setStyle(Paint.Style.FILL);
+        
+        // نقاط انرژی
+        paint.setColor(Color.argb(255, 255, 255, 100));
+        for (int i = 0; i < 8; i++) {
+            float angle = rotation * 2 + i * 45;
+            float pointX = x + (float)Math.cos(Math.toRadians(angle)) * radius * 1.1f;
+            float pointY = y + (float)Math.sin(Math.toRadians(angle)) * radius * 1.1f;
+            canvas.drawCircle(pointX, pointY, 4, paint);
+        }
+    }
+    
+    private void drawHealthBar(Canvas canvas, Paint paint, float healthRatio) {
+        float barWidth = radius * 2;
+        float barHeight = 6;
+        float barX = x - barWidth / 2;
+        float barY = y - radius - 15;
+        
+        // پس‌زمینه
+        paint.setColor(Color.argb(180, 100, 100, 100));
+        canvas.drawRect(barX, barY, barX + barWidth, barY + barHeight, paint);
+        
+        // سلامت
+        int healthColor;
+        if (healthRatio > 0.7f) {
+            healthColor = Color.argb(220, 0, 255, 0);
+        } else if (healthRatio > 0.3f) {
+            healthColor = Color.argb(220, 255, 255, 0);
+        } else {
+            healthColor = Color.argb(220, 255, 0, 0);
+        }
+        
+        paint.setColor(healthColor);
+        canvas.drawRect(barX, barY, barX + (barWidth * healthRatio), barY + barHeight, paint);
+    }
+}
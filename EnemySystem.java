@@ -1,11 +1,6 @@
 package com.space.ship.game;
 
-import android.graphics.Canvas;
-import android.graphics.Color;
-import android.graphics.Paint;
-import android.graphics.RadialGradient;
-import android.graphics.Shader;
-import java.util.Random;
+import java.nio.ByteBuffer;
 
 // سیستم دشمنان پیشرفته
 class Enemy extends GameObject {
@@ -13,12 +8,22 @@ class Enemy extends GameObject {
     private int screenX, screenY;
     private int level;
     private int type;
-    private Random random;
+    private final SimRandom random;
+    // جریان شخصی رفتار؛ بروزرسانی دشمنان موازی است و جریان مشترک ترتیب اجرا را در نتیجه وارد می‌کرد
+    private final SimRandom behaviorRandom = new SimRandom(0);
     private float rotation;
     private float pulse;
     private float attackTimer;
     private float health;
     private boolean isAttacking;
+    // درخواست شلیک از بروزرسانی موازی؛ در رشته شبیه‌سازی به پرتابه تبدیل می‌شود
+    private boolean fireRequested;
+    
+    // سطح جزئیات شبیه‌سازی؛ پیش از بروزرسانی موازی در رشته شبیه‌سازی تعیین می‌شود
+    private int lodLevel;
+    private boolean lodDue;
+    private int lodPhase;
+    private float deferredTime;
     
     // انواع دشمنان
     public static final int TYPE_SCOUT = 0;      // سریع و ضعیف
@@ -26,15 +31,36 @@ class Enemy extends GameObject {
     public static final int TYPE_BOMBER = 2;     // کند و قوی
     public static final int TYPE_ELITE = 3;      // سریع و قوی
     
-    public Enemy(int screenX, int screenY, int level, int type) {
-        super(0, 0, getEnemyRadius(type, level));
+    public Enemy(int screenX, int screenY, int level, int type, SimRandom random) {
+        this(screenX, screenY, random);
+        reinit(level, type);
+    }
+    
+    // دشمن خام برای استخر یا تصویر رندر؛ پیش از ورود به بازی reinit صدا زده می‌شود
+    public Enemy(int screenX, int screenY, SimRandom random) {
+        super(0, 0, getEnemyRadius(TYPE_SCOUT, 1));
         this.screenX = screenX;
         this.screenY = screenY;
+        this.random = random;
+        this.level = 1;
+        this.type = TYPE_SCOUT;
+    }
+    
+    // مقداردهی دوباره نمونه استخر شده به عنوان دشمن تازه
+    public void reinit(int level, int type) {
         this.level = level;
         this.type = type;
-        this.random = new Random();
+        this.radius = getEnemyRadius(type, level);
         this.health = getMaxHealth(type, level);
+        this.rotation = 0;
+        this.pulse = 0;
+        this.attackTimer = 0;
+        this.isAttacking = false;
+        this.fireRequested = false;
+        this.lodLevel = SimLod.FULL;
+        this.deferredTime = 0;
         initializePosition();
+        behaviorRandom.setState(random.nextLong());
     }
     
     private static int getEnemyRadius(int type, int level) {
@@ -87,6 +113,7 @@ class Enemy extends GameObject {
                 velocityY = (random.nextFloat() - 0.5f) * baseSpeed;
                 break;
         }
+        storePreviousPosition();
     }
     
     private float getBaseSpeed(int type) {
@@ -99,7 +126,7 @@ class Enemy extends GameObject {
         }
     }
     
-    public void update(SpaceShip ship, float deltaTime) {
+    public void update(SpaceShip ship, float deltaTime, SimClock clock) {
         // هوش مصنوعی بر اساس نوع دشمن
         switch (type) {
             case TYPE_SCOUT:
@@ -119,10 +146,110 @@ class Enemy extends GameObject {
         x += velocityX * deltaTime * 60;
         y += velocityY * deltaTime * 60;
         rotation += getRotationSpeed(type) * deltaTime * 60;
-        pulse = (float)Math.sin(System.currentTimeMillis() * 0.005) * 0.2f + 0.8f;
+        pulse = (float)Math.sin(clock.getTime() * 5) * 0.2f + 0.8f;
         attackTimer += deltaTime;
     }
     
+    public void setLodPlan(int level, boolean due) {
+        lodLevel = level;
+        lodDue = due;
+    }
+    
+    public void setLodPhase(int phase) {
+        lodPhase = phase;
+    }
+    
+    public int getLodPhase() { return lodPhase; }
+    
+    // بروزرسانی بر اساس سطح جزئیات: کامل هر تیک، کاهش یافته در نوبت خود با زمان انباشته،
+    // خفته با حرکت خطی بدون هدایت (که نیاز به جبران ندارد)
+    public void updateLod(SpaceShip ship, float deltaTime, SimClock clock) {
+        deferredTime += deltaTime;
+        if (lodLevel == SimLod.DORMANT) {
+            drift(deferredTime, clock);
+            deferredTime = 0;
+        } else if (lodLevel == SimLod.FULL || lodDue) {
+            catchUp(ship, clock);
+        }
+    }
+    
+    // زمان عقب‌افتاده در گام‌های محدود اجرا می‌شود
+    private void catchUp(SpaceShip ship, SimClock clock) {
+        while (deferredTime > 0) {
+            float step = Math.min(deferredTime, SimLod.MAX_CATCH_UP_STEP);
+            update(ship, step, clock);
+            deferredTime = step == deferredTime ? 0 : deferredTime - step;
+        }
+    }
+    
+    private void drift(float deltaTime, SimClock clock) {
+        x += velocityX * deltaTime * 60;
+        y += velocityY * deltaTime * 60;
+        rotation += getRotationSpeed(type) * deltaTime * 60;
+        pulse = (float)Math.sin(clock.getTime() * 5) * 0.2f + 0.8f;
+        attackTimer += deltaTime;
+    }
+    
+    // کپی وضعیت قابل رسم برای تصویر رندر
+    public void copyFrom(Enemy other) {
+        x = other.x;
+        y = other.y;
+        prevX = other.prevX;
+        prevY = other.prevY;
+        radius = other.radius;
+        velocityX = other.velocityX;
+        velocityY = other.velocityY;
+        level = other.level;
+        type = other.type;
+        rotation = other.rotation;
+        pulse = other.pulse;
+        health = other.health;
+        isAttacking = other.isAttacking;
+    }
+    
+    // وضعیت کامل برای تصویر ذخیره جهان (سطح جزئیات در تیک بعد دوباره تعیین می‌شود)
+    public void writeState(ByteBuffer out) {
+        out.putFloat(x);
+        out.putFloat(y);
+        out.putFloat(prevX);
+        out.putFloat(prevY);
+        out.putFloat(velocityX);
+        out.putFloat(velocityY);
+        out.putInt(level);
+        out.putInt(type);
+        out.putFloat(rotation);
+        out.putFloat(pulse);
+        out.putFloat(attackTimer);
+        out.putFloat(health);
+        out.put((byte) ((isAttacking ? 1 : 0) | (fireRequested ? 2 : 0)));
+        out.putInt(lodPhase);
+        out.putFloat(deferredTime);
+        out.putLong(behaviorRandom.getState());
+    }
+    
+    public void readState(ByteBuffer in) {
+        x = in.getFloat();
+        y = in.getFloat();
+        prevX = in.getFloat();
+        prevY = in.getFloat();
+        velocityX = in.getFloat();
+        velocityY = in.getFloat();
+        level = in.getInt();
+        type = in.getInt();
+        radius = getEnemyRadius(type, level);
+        rotation = in.getFloat();
+        pulse = in.getFloat();
+        attackTimer = in.getFloat();
+        health = in.getFloat();
+        int flags = in.get();
+        isAttacking = (flags & 1) != 0;
+        fireRequested = (flags & 2) != 0;
+        lodPhase = in.getInt();
+        deferredTime = in.getFloat();
+        behaviorRandom.setState(in.getLong());
+        lodLevel = SimLod.FULL;
+    }
+    
     private void updateScoutBehavior(SpaceShip ship, float deltaTime) {
         // رفتار: حرکت سریع و غیرقابل پیش‌بینی
         float dx = ship.getX() - x;
@@ -135,9 +262,9 @@ class Enemy extends GameObject {
             velocityY += (dy / distance) * 0.1f * deltaTime * 60;
         } else {
             // حرکت تصادفی برای فرار
-            if (random.nextInt(100) < 5) {
-                velocityX += (random.nextFloat() - 0.5f) * 2;
-                velocityY += (random.nextFloat() - 0.5f) * 2;
+            if (behaviorRandom.nextInt(100) < 5) {
+                velocityX += (behaviorRandom.nextFloat() - 0.5f) * 2;
+                velocityY += (behaviorRandom.nextFloat() - 0.5f) * 2;
             }
         }
         
@@ -158,6 +285,7 @@ class Enemy extends GameObject {
         // حمله در فاصله نزدیک
         if (distance < 150 && attackTimer > 2.0f) {
             isAttacking = true;
+            fireRequested = true;
             attackTimer = 0;
         }
     }
@@ -178,6 +306,7 @@ class Enemy extends GameObject {
         // حمله با تأخیر
         if (distance < 250 && attackTimer > 3.0f) {
             isAttacking = true;
+            fireRequested = true;
             attackTimer = 0;
         }
     }
@@ -203,6 +332,7 @@ class Enemy extends GameObject {
         // حمله سریع
         if (distance < 180 && attackTimer > 1.5f) {
             isAttacking = true;
+            fireRequested = true;
             attackTimer = 0;
         }
     }
@@ -225,187 +355,10 @@ class Enemy extends GameObject {
         }
     }
     
-    @Override
-    public void draw(Canvas canvas, Paint paint) {
-        float healthRatio = health / getMaxHealth(type, level);
-        
-        switch (type) {
-            case TYPE_SCOUT:
-                drawScout(canvas, paint, healthRatio);
-                break;
-            case TYPE_FIGHTER:
-                drawFighter(canvas, paint, healthRatio);
-                break;
-            case TYPE_BOMBER:
-                drawBomber(canvas, paint, healthRatio);
-                break;
-            case TYPE_ELITE:
-                drawElite(canvas, paint, healthRatio);
-                break;
-        }
-        
-        // نمایش سلامت
-        drawHealthBar(canvas, paint, healthRatio);
-    }
-    
-    private void drawScout(Canvas canvas, Paint paint, float healthRatio) {
-        // بدنه اصلی
-        RadialGradient bodyGradient = new RadialGradient(
-            x, y, radius * pulse,
-            new int[]{
-                Color.argb(255, 255, 100, 100),
-                Color.argb(255, 200, 50, 50),
-                Color.argb(255, 150, 0, 0)
-            },
-            null,
-            Shader.TileMode.CLAMP
-        );
-        paint.setShader(bodyGradient);
-        canvas.drawCircle(x, y, radius * pulse, paint);
-        
-        // جزئیات
-        paint.setShader(null);
-        paint.setColor(Color.argb(255, 255, 200, 200));
-        canvas.drawCircle(x, y, radius * 0.6f * pulse, paint);
-        
-        // باله‌های سریع
-        drawWings(canvas, paint, 4, 15);
-    }
-    
-    private void drawFighter(Canvas canvas, Paint paint, float healthRatio) {
-        // بدنه زرهی
-        RadialGradient bodyGradient = new RadialGradient(
-            x, y, radius,
-            new int[]{
-                Color.argb(255, 255, 150, 100),
-                Color.argb(255, 220, 100, 50),
-                Color.argb(255, 180, 50, 0)
-            },
-            null,
-            Shader.TileMode.CLAMP
-        );
-        paint.setShader(bodyGradient);
-        canvas.drawCircle(x, y, radius, paint);
-        
-        // سلاح‌ها
-        drawWeapons(canvas, paint, 2);
-    }
-    
-    private void drawBomber(Canvas canvas, Paint paint, float healthRatio) {
-        // بدنه سنگین
-        RadialGradient bodyGradient = new RadialGradient(
-            x, y, radius,
-            new int[]{
-                Color.argb(255, 150, 150, 255),
-                Color.argb(255, 100, 100, 220),
-                Color.argb(255, 50, 50, 180)
-            },
-            null,
-            Shader.TileMode.CLAMP
-        );
-        paint.setShader(bodyGradient);
-        canvas.drawCircle(x, y, radius, paint);
-        
-        // سلاح‌های سنگین
-        drawHeavyWeapons(canvas, paint);
-    }
-    
-    private void drawElite(Canvas canvas, Paint paint, float healthRatio) {
-        // بدنه پیشرفته
-        RadialGradient bodyGradient = new RadialGradient(
-            x, y, radius * pulse,
-            new int[]{
-                Color.argb(255, 255, 50, 255),
-                Color.argb(255, 200, 0, 200),
-                Color.argb(255, 150, 0, 150)
-            },
-            null,
-            Shader.TileMode.CLAMP
-        );
-        paint.setShader(bodyGradient);
-        canvas.drawCircle(x, y, radius * pulse, paint);
-        
-        // جزئیات پیشرفته
-        drawAdvancedDetails(canvas, paint);
-    }
-    
-    private void drawWings(Canvas canvas, Paint paint, int count, float length) {
-        paint.setColor(Color.argb(255, 200, 0, 0));
-        for (int i = 0; i < count; i++) {
-            float angle = rotation + i * (360f / count);
-            float wingX = x + (float)Math.cos(Math.toRadians(angle)) * length;
-            float wingY = y + (float)Math.sin(Math.toRadians(angle)) * length;
-            canvas.drawCircle(wingX, wingY, 6, paint);
-        }
-    }
-    
-    private void drawWeapons(Canvas canvas, Paint paint, int count) {
-        paint.setColor(Color.argb(255, 255, 255, 0));
-        for (int i = 0; i < count; i++) {
-            float angle = 90 + i * 180;
-            float weaponX = x + (float)Math.cos(Math.toRadians(angle)) * radius * 0.8f;
-            float weaponY = y + (float)Math.sin(Math.toRadians(angle)) * radius * 0.8f;
-            canvas.drawCircle(weaponX, weaponY, 8, paint);
-        }
-    }
-    
-    private void drawHeavyWeapons(Canvas canvas, Paint paint) {
-        paint.setColor(Color.argb(255, 255, 100, 0));
-        for (int i = 0; i < 4; i++) {
-            float angle = rotation + i * 90;
-            float weaponX = x + (float)Math.cos(Math.toRadians(angle)) * radius * 0.7f;
-            float weaponY = y + (float)Math.sin(Math.toRadians(angle)) * radius * 0.7f;
-            canvas.drawCircle(weaponX, weaponY, 10, paint);
-        }
-    }
-    
-    private void drawAdvancedDetails(Canvas canvas, Paint paint) {
-        // حلقه انرژی
-        paint.setStyle(Paint.Style.STROKE);
-        paint.setStrokeWidth(3);
-        paint.setColor(Color.argb(150, 255, 100, 255));
-        canvas.drawCircle(x, y, radius * 1.3f, paint);
-        paint.setStyle(Paint.Style.FILL);
-        
-        // نقاط انرژی
-        paint.setColor(Color.argb(255, 255, 255, 100));
-        for (int i = 0; i < 8; i++) {
-            float angle = rotation * 2 + i * 45;
-            float pointX = x + (float)Math.cos(Math.toRadians(angle)) * radius * 1.1f;
-            float pointY = y + (float)Math.sin(Math.toRadians(angle)) * radius * 1.1f;
-            canvas.drawCircle(pointX, pointY, 4, paint);
-        }
-    }
-    
-    private void drawHealthBar(Canvas canvas, Paint paint, float healthRatio) {
-        float barWidth = radius * 2;
-        float barHeight = 6;
-        float barX = x - barWidth / 2;
-        float barY = y - radius - 15;
-        
-        // پس‌زمینه
-        paint.setColor(Color.argb(180, 100, 100, 100));
-        canvas.drawRect(barX, barY, barX + barWidth, barY + barHeight, paint);
-        
-        // سلامت
-        int healthColor;
-        if (healthRatio > 0.7f) {
-            healthColor = Color.argb(220, 0, 255, 0);
-        } else if (healthRatio > 0.3f) {
-            healthColor = Color.argb(220, 255, 255, 0);
-        } else {
-            healthColor = Color.argb(220, 255, 0, 0);
-        }
-        
-        paint.setColor(healthColor);
-        canvas.drawRect(barX, barY, barX + (barWidth * healthRatio), barY + barHeight, paint);
-    }
-    
+    // برخورد پیوسته در طول مسیر این تیک
     public boolean checkBlackHoleCollision(BlackHole blackHole) {
-        float dx = x - blackHole.getX();
-        float dy = y - blackHole.getY();
-        float distance = (float)Math.sqrt(dx * dx + dy * dy);
-        return distance < (radius + blackHole.getSize());
+        return SweptCircle.segmentCircle(prevX, prevY, x, y, blackHole.getX(), blackHole.getY(),
+                                         radius + blackHole.getSize()) != SweptCircle.MISS;
     }
     
     public boolean isOutOfScreen(int screenX, int screenY) {
@@ -420,7 +373,18 @@ class Enemy extends GameObject {
         return health <= 0;
     }
     
+    // برداشتن درخواست شلیک این تیک (پیشاهنگ سلاح ندارد)
+    public boolean consumeFireRequest() {
+        boolean requested = fireRequested;
+        fireRequested = false;
+        return requested && type != TYPE_SCOUT;
+    }
+    
     public int getType() { return type; }
+    public int getLevel() { return level; }
+    public float getRotation() { return rotation; }
+    public float getPulse() { return pulse; }
+    public float getHealthRatio() { return health / getMaxHealth(type, level); }
     public boolean isAttacking() { return isAttacking; }
     public void setAttacking(boolean attacking) { isAttacking = attacking; }
                            }
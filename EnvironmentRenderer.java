@@ -0,0 +1,117 @@
+package com.space.ship.game;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+// رسم اجرام محیطی: سحابی‌ها و سیاه‌چاله‌ها (ستاره‌ها در BackgroundLayers)
+class EnvironmentRenderer {
+    private final GlowSpriteCache sprites;
+    private final int[] nebulaRamps;
+    private final int blackHoleOuterRing;
+    private final int blackHoleCore;
+    
+    public EnvironmentRenderer(GlowSpriteCache sprites) {
+        this.sprites = sprites;
+        nebulaRamps = new int[]{
+            // سحابی آبی-بنفش
+            sprites.registerRamp(new int[]{
+                Color.argb(40, 80, 80, 255),
+                Color.argb(30, 120, 80, 200),
+                Color.argb(20, 160, 100, 255),
+                Color.argb(0, 200, 150, 255)
+            }, null),
+            // سحابی قرمز-نارنجی
+            sprites.registerRamp(new int[]{
+                Color.argb(35, 255, 80, 50),
+                Color.argb(25, 255, 120, 30),
+                Color.argb(15, 255, 80, 80),
+                Color.argb(0, 255, 150, 100)
+            }, null),
+            // سحابی سبز-آبی
+            sprites.registerRamp(new int[]{
+                Color.argb(30, 50, 255, 150),
+                Color.argb(20, 80, 200, 255),
+                Color.argb(10, 120, 255, 200),
+                Color.argb(0, 150, 255, 255)
+            }, null),
+            // سحابی بنفش-صورتی
+            sprites.registerRamp(new int[]{
+                Color.argb(45, 180, 80, 255),
+                Color.argb(30, 220, 100, 200),
+                Color.argb(15, 255, 120, 180),
+                Color.argb(0, 255, 150, 200)
+            }, null),
+            // سحابی طلایی
+            sprites.registerRamp(new int[]{
+                Color.argb(25, 255, 200, 50),
+                Color.argb(15, 255, 180, 80),
+                Color.argb(10, 255, 220, 100),
+                Color.argb(0, 255, 240, 150)
+            }, null)
+        };
+        
+        blackHoleOuterRing = sprites.registerRamp(new int[]{
+            Color.argb(100, 100, 50, 200),
+            Color.argb(50, 150, 100, 255),
+            Color.argb(0, 200, 150, 255)
+        }, null);
+        blackHoleCore = sprites.registerRamp(new int[]{
+            Color.argb(255, 0, 0, 0),
+            Color.argb(200, 50, 0, 100),
+            Color.argb(100, 100, 0, 200)
+        }, null);
+    }
+    
+    public void drawNebula(Canvas canvas, Paint paint, Nebula nebula) {
+        float x = nebula.getX();
+        float y = nebula.getY();
+        float size = nebula.getSize();
+        int type = nebula.getType();
+        if (type < 0 || type >= nebulaRamps.length) return;
+        
+        // گرادیانت شعاعی متقارن است، پس چرخش سحابی در رسم اثری ندارد
+        sprites.draw(canvas, paint, nebulaRamps[type], x, y, size);
+    }
+    
+    public void drawBlackHole(Canvas canvas, Paint paint, BlackHole blackHole) {
+        float x = blackHole.getX();
+        float y = blackHole.getY();
+        float size = blackHole.getSize();
+        float rotation = blackHole.getRotation();
+        float pulse = blackHole.getPulse();
+        float pulseSize = size * (1.0f + (float)Math.sin(pulse * Math.PI * 2) * 0.1f);
+        
+        // حلقه بیرونی
+        sprites.draw(canvas, paint, blackHoleOuterRing, x, y, pulseSize * 1.5f);
+        
+        // حلقه داخلی چرخان
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeWidth(8);
+        
+        for (int i = 0; i < 3; i++) {
+            float ringSize = pulseSize * (0.8f - i * 0.2f);
+            int alpha = 150 - i * 50;
+            
+            paint.setColor(Color.argb(alpha, 150, 100, 255));
+            canvas.save();
+            canvas.rotate(rotation + i * 120, x, y);
+            canvas.drawCircle(x, y, ringSize, paint);
+            canvas.restore();
+        }
+        
+        // هسته سیاه‌چاله
+        paint.setStyle(Paint.Style.FILL);
+        sprites.draw(canvas, paint, blackHoleCore, x, y, pulseSize * 0.6f);
+        
+        // نقاط انرژی در حال چرخش
+        paint.setColor(Color.argb(200, 200, 150, 255));
+        for (int i = 0; i < 8; i++) {
+            float angle = rotation + i * 45;
+            float distance = pulseSize * 0.8f;
+            float pointX = x + (float)Math.cos(Math.toRadians(angle)) * distance;
+            float pointY = y + (float)Math.sin(Math.toRadians(angle)) * distance;
+            canvas.drawCircle(pointX, pointY, 3, paint);
+        }
+    }
+}
@@ -0,0 +1,251 @@
+package com.space.ship.game;
+
+import java.util.Arrays;
+
+// زمان‌سنج فازهای هر فریم با بافرهای حلقوی (بدون تخصیص پس از ساخت)
+// هر رشته نمونه مخصوص خود را دارد؛ متدها فقط از رشته مالک صدا زده می‌شوند
+class FrameProfiler {
+    // فازهای تیک شبیه‌سازی
+    static final int SIM_CAMERA = 0;
+    static final int SIM_SHIP = 1;
+    static final int SIM_ENEMIES = 2;
+    static final int SIM_COLLISIONS = 3;
+    static final int SIM_PARTICLES = 4;
+    static final int SIM_STARS = 5;
+    static final int SIM_ENVIRONMENT = 6;
+    static final int SIM_AUDIO = 7;
+    static final int SIM_SNAPSHOT = 8;
+    static final int SIM_PROJECTILES = 9;
+    static final String[] SIM_PHASES = {
+        "camera", "ship", "enemies", "collisions", "particles", "stars", "environment", "audio", "snapshot",
+        "projectiles"
+    };
+
+    // لایه‌های رسم
+    static final int DRAW_BACKGROUND = 0;
+    static final int DRAW_STARS = 1;
+    static final int DRAW_NEBULAS = 2;
+    static final int DRAW_BLACK_HOLES = 3;
+    static final int DRAW_PARTICLES = 4;
+    static final int DRAW_PLANETS = 5;
+    static final int DRAW_POWER_UPS = 6;
+    static final int DRAW_ENEMIES = 7;
+    static final int DRAW_SHIP = 8;
+    static final int DRAW_HUD = 9;
+    static final int DRAW_OVERLAY = 10;
+    static final int DRAW_POST = 11;
+    static final int DRAW_PROJECTILES = 12;
+    static final String[] DRAW_PHASES = {
+        "background", "stars", "nebulas", "blackHoles", "particles", "planets",
+        "powerUps", "enemies", "ship", "hud", "overlay", "post", "projectiles"
+    };
+
+    // شمارنده‌های هر فریم
+    static final int COUNT_ENTITIES = 0;
+    static final int COUNT_PARTICLES = 1;
+    static final int COUNT_DRAWN = 2;
+    static final String[] COUNTERS = {"entities", "particles", "drawn"};
+
+    // حدود دو ثانیه در 120 تیک بر ثانیه
+    static final int DEFAULT_HISTORY = 240;
+
+    private final String[] phaseNames;
+    private final int phaseCount;
+    private final int history;
+
+    // فریم جاری
+    private final long[] phaseStart;
+    private final long[] phaseNanos;
+    private final int[] counters;
+    private long frameStart;
+    private boolean enabled = true;
+    private boolean inFrame;
+
+    // تاریخچه حلقوی: [فاز][فریم] و زمان کل فریم
+    private final long[][] phaseHistory;
+    private final long[] frameHistory;
+    private final int[] lastCounters;
+    private int cursor;
+    private int recorded;
+
+    // آرایه کمکی برای محاسبه صدک‌ها
+    private final long[] scratch;
+
+    public FrameProfiler(String[] phaseNames, int history) {
+        this.phaseNames = phaseNames;
+        this.phaseCount = phaseNames.length;
+        this.history = history;
+        phaseStart = new long[phaseCount];
+        phaseNanos = new long[phaseCount];
+        counters = new int[COUNTERS.length];
+        lastCounters = new int[COUNTERS.length];
+        phaseHistory = new long[phaseCount][history];
+        frameHistory = new long[history];
+        scratch = new long[history];
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void beginFrame() {
+        if (!enabled) return;
+        inFrame = true;
+        Arrays.fill(phaseNanos, 0);
+        Arrays.fill(counters, 0);
+        frameStart = System.nanoTime();
+    }
+
+    public void begin(int phase) {
+        if (!inFrame) return;
+        phaseStart[phase] = System.nanoTime();
+    }
+
+    // زمان فاز انباشته می‌شود تا فازهای تکراری در یک فریم جمع شوند
+    public void end(int phase) {
+        if (!inFrame) return;
+        phaseNanos[phase] += System.nanoTime() - phaseStart[phase];
+    }
+
+    public void count(int counter, int amount) {
+        if (!inFrame) return;
+        counters[counter] += amount;
+    }
+
+    // کنار گذاشتن فریم ناتمام (مثلاً وقتی بوم در دسترس نبود)
+    public void cancelFrame() {
+        inFrame = false;
+    }
+
+    public void endFrame() {
+        if (!inFrame) return;
+        inFrame = false;
+
+        frameHistory[cursor] = System.nanoTime() - frameStart;
+        for (int p = 0; p < phaseCount; p++) {
+            phaseHistory[p][cursor] = phaseNanos[p];
+        }
+        System.arraycopy(counters, 0, lastCounters, 0, counters.length);
+        cursor = (cursor + 1) % history;
+        if (recorded < history) recorded++;
+    }
+
+    // خلاصه آماری فازها در out نوشته می‌شود
+    public void summarize(ProfileSummary out) {
+        out.frames = recorded;
+        out.frameP50 = percentile(frameHistory, 0.50);
+        out.frameP95 = percentile(frameHistory, 0.95);
+        out.frameP99 = percentile(frameHistory, 0.99);
+        out.frameWorst = percentile(frameHistory, 1.0);
+
+        // فازهای فریم بدتر را برای تشخیص علت نگه می‌داریم
+        int worst = worstFrameIndex();
+        for (int p = 0; p < phaseCount; p++) {
+            out.p50[p] = percentile(phaseHistory[p], 0.50);
+            out.p95[p] = percentile(phaseHistory[p], 0.95);
+            out.p99[p] = percentile(phaseHistory[p], 0.99);
+            out.worst[p] = percentile(phaseHistory[p], 1.0);
+            out.inWorstFrame[p] = worst >= 0 ? phaseHistory[p][worst] : 0;
+        }
+        System.arraycopy(lastCounters, 0, out.counters, 0, lastCounters.length);
+
+        // تاریخچه زمان فریم به ترتیب قدیمی به جدید برای نمودار
+        out.historyCount = recorded;
+        int start = recorded < history ? 0 : cursor;
+        for (int i = 0; i < recorded; i++) {
+            out.frameHistory[i] = frameHistory[(start + i) % history];
+        }
+    }
+
+    private long percentile(long[] samples, double fraction) {
+        if (recorded == 0) return 0;
+        System.arraycopy(samples, 0, scratch, 0, recorded);
+        Arrays.sort(scratch, 0, recorded);
+        int index = (int) Math.ceil(fraction * recorded) - 1;
+        return scratch[Math.max(0, Math.min(recorded - 1, index))];
+    }
+
+    private int worstFrameIndex() {
+        int worst = -1;
+        long worstNanos = -1;
+        for (int i = 0; i < recorded; i++) {
+            if (frameHistory[i] > worstNanos) {
+                worstNanos = frameHistory[i];
+                worst = i;
+            }
+        }
+        return worst;
+    }
+
+    public ProfileSummary createSummary() {
+        return new ProfileSummary(phaseNames, history);
+    }
+
+    // متدهای دسترسی
+    public boolean isEnabled() { return enabled; }
+    public String[] getPhaseNames() { return phaseNames; }
+    public int getHistorySize() { return history; }
+}
+
+// خلاصه آماری پروفایلر (نانوثانیه)؛ یک بار ساخته و بارها پر می‌شود
+class ProfileSummary {
+    final String[] phaseNames;
+    final long[] p50, p95, p99, worst;
+    final long[] inWorstFrame;
+    final int[] counters = new int[FrameProfiler.COUNTERS.length];
+    final long[] frameHistory;
+    int historyCount;
+    int frames;
+    long frameP50, frameP95, frameP99, frameWorst;
+
+    ProfileSummary(String[] phaseNames, int history) {
+        this.phaseNames = phaseNames;
+        int n = phaseNames.length;
+        p50 = new long[n];
+        p95 = new long[n];
+        p99 = new long[n];
+        worst = new long[n];
+        inWorstFrame = new long[n];
+        frameHistory = new long[history];
+    }
+
+    public void copyFrom(ProfileSummary other) {
+        System.arraycopy(other.p50, 0, p50, 0, p50.length);
+        System.arraycopy(other.p95, 0, p95, 0, p95.length);
+        System.arraycopy(other.p99, 0, p99, 0, p99.length);
+        System.arraycopy(other.worst, 0, worst, 0, worst.length);
+        System.arraycopy(other.inWorstFrame, 0, inWorstFrame, 0, inWorstFrame.length);
+        System.arraycopy(other.counters, 0, counters, 0, counters.length);
+        System.arraycopy(other.frameHistory, 0, frameHistory, 0, other.historyCount);
+        historyCount = other.historyCount;
+        frames = other.frames;
+        frameP50 = other.frameP50;
+        frameP95 = other.frameP95;
+        frameP99 = other.frameP99;
+        frameWorst = other.frameWorst;
+    }
+
+    // فازی که در بدترین فریم بیشترین زمان را گرفته
+    public int slowestPhaseInWorstFrame() {
+        int slowest = 0;
+        for (int p = 1; p < inWorstFrame.length; p++) {
+            if (inWorstFrame[p] > inWorstFrame[slowest]) slowest = p;
+        }
+        return slowest;
+    }
+
+    // گزارش متنی برای لاگ یا اجرای بدون صفحه
+    public String format(String title) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%s frames=%d p50=%.3fms p95=%.3fms p99=%.3fms worst=%.3fms%n",
+            title, frames, frameP50 / 1e6, frameP95 / 1e6, frameP99 / 1e6, frameWorst / 1e6));
+        for (int p = 0; p < phaseNames.length; p++) {
+            sb.append(String.format("  %-12s p50=%.3f p95=%.3f p99=%.3f worst=%.3f inWorst=%.3f%n",
+                phaseNames[p], p50[p] / 1e6, p95[p] / 1e6, p99[p] / 1e6, worst[p] / 1e6, inWorstFrame[p] / 1e6));
+        }
+        for (int c = 0; c < counters.length; c++) {
+            sb.append(String.format("  %s=%d", FrameProfiler.COUNTERS[c], counters[c]));
+        }
+        return sb.append('\n').toString();
+    }
+}
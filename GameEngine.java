@@ -2,513 +2,627 @@ package com.space.ship.game;
 
 import android.content.Context;
 import android.graphics.Canvas;
-import android.graphics.Color;
-import android.graphics.Paint;
-import android.graphics.RadialGradient;
-import android.graphics.Shader;
-import android.graphics.Bitmap;
-import android.graphics.BitmapFactory;
+import android.os.Build;
 import android.view.SurfaceHolder;
 import android.view.SurfaceView;
 import android.view.MotionEvent;
-import java.util.ArrayList;
-import java.util.List;
-import java.util.Random;
-import android.util.Log;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.util.concurrent.locks.LockSupport;
 
-public class GameEngine extends SurfaceView implements Runnable {
+// آداپتور اندرویدی: رشته‌ها، لمس و رسم؛ منطق بازی در World است
+public class GameEngine extends SurfaceView implements Runnable, World.Listener, SurfaceHolder.Callback {
     private static final String TAG = "GameEngine";
+    
+    // چرخه عمر موتور؛ رشته‌ها یک بار ساخته می‌شوند و در توقف یا نبود سطح روی قفل می‌خوابند
+    static final int STATE_CREATED = 0;
+    static final int STATE_RUNNING = 1;
+    static final int STATE_PAUSED = 2;
+    static final int STATE_STOPPED = 3;
+    private final Object lifecycleLock = new Object();
+    private volatile int state = STATE_CREATED;
+    private boolean surfaceReady;
+    private volatile boolean resetClock;
+    // رسم و نابودی سطح هم‌زمان نمی‌شوند
+    private final Object surfaceLock = new Object();
+    
     private Thread gameThread;
-    private volatile boolean playing;
+    private Thread renderThread;
     private SurfaceHolder surfaceHolder;
-    private Paint paint;
     private int screenWidth, screenHeight;
     
-    // سیستم‌های بازی
-    private SpaceShip spaceShip;
-    private VirtualJoystick joystick;
-    private List<Planet> planets;
-    private List<Enemy> enemies;
-    private List<Star> stars;
-    private List<BlackHole> blackHoles;
-    private List<Nebula> nebulas;
-    private GameState gameState;
-    private ParticleSystem particleSystem;
-    private CameraSystem cameraSystem;
+    // شبیه‌سازی بدون اندروید و رسم آن
+    private World world;
+    private JobSystem jobSystem;
+    private WorldRenderer worldRenderer;
     private AudioSystem audioSystem;
-    private Random random;
     
     // زمان‌سنج‌ها
     private long lastTime;
-    private int fps;
     private long gameTime;
-    private boolean isInitialized = false;
+    
+    // گام ثابت شبیه‌سازی (مستقل از نرخ رسم)
+    private static final int DEFAULT_TICK_RATE = 120;
+    private static final int MIN_TICK_RATE = 30;
+    private static final int MAX_TICK_RATE = 240;
+    private static final int MAX_CATCH_UP_TICKS = 8;
+    private volatile long tickNanos;
+    private long accumulatorNanos;
+    
+    // تصویرهای جهان که از رشته شبیه‌سازی به رشته رندر منتقل می‌شوند
+    private SnapshotExchange snapshots;
+    
+    // نمایشگر کارایی: خلاصه شبیه‌سازی هر نیم ثانیه تازه و در تصویرها کپی می‌شود
+    private static final int PROFILE_SUMMARY_TICKS = 60;
+    private static final String LATENCY_REPORT_FILE = "latency-report.csv";
+    private static final String SAVE_FILE = "game.sav";
+    private SaveFile saveFile;
+    // تصویر کامل جهان فقط هنگام توقف یا نابودی موتور وجود دارد و با ادامه بازی حذف می‌شود
+    private static final String WORLD_SAVE_FILE = "world.sav";
+    private SaveFile worldSaveFile;
+    private boolean worldSnapshotSaved;
+    // ذخیره خودکار روی رشته پس‌زمینه: پایان سطح، توقف، پایان بازی و هر 30 ثانیه زمان بازی
+    private static final long AUTOSAVE_INTERVAL_NANOS = 30000000000L;
+    private AutosaveService autosave;
+    private long nextAutosaveTime;
+    private boolean autosaveRequested;
+    // اگر رشته شبیه‌سازی در زمان انتظار destroyGame تمام نشود، ذخیره نهایی در خروج همان رشته انجام می‌شود
+    // (هر دو زیر lifecycleLock)
+    private boolean simThreadExited;
+    private boolean saveOnSimThreadExit;
+    private volatile boolean perfOverlayEnabled;
+    // انگشت سومی که نمایشگر کارایی را روشن/خاموش کرد؛ تا بلند شدن، رویدادهایش به بازی نمی‌رسد (فقط رشته UI)
+    private int overlayGesturePointer = -1;
+    private ProfileSummary simProfile;
+    private int ticksSinceProfileSummary;
 
     public GameEngine(Context context, int screenX, int screenY) {
         super(context);
         this.screenWidth = screenX;
         this.screenHeight = screenY;
         
+        setTickRate(DEFAULT_TICK_RATE);
         initializeEngine();
     }
 
     private void initializeEngine() {
         surfaceHolder = getHolder();
-        paint = new Paint();
-        paint.setAntiAlias(true);
-        paint.setFilterBitmap(true);
-        random = new Random();
-        
-        // ایجاد سیستم‌های اصلی
-        cameraSystem = new CameraSystem(screenWidth, screenHeight);
-        spaceShip = new SpaceShip(screenWidth / 2, screenHeight / 2, screenWidth, screenHeight, cameraSystem);
-        joystick = new VirtualJoystick(screenWidth / 2, screenHeight - 200, 120);
-        planets = new ArrayList<>();
-        enemies = new ArrayList<>();
-        stars = new ArrayList<>();
-        blackHoles = new ArrayList<>();
-        nebulas = new ArrayList<>();
-        gameState = new GameState();
-        particleSystem = new ParticleSystem();
+        surfaceHolder.addCallback(this);
+        snapshots = new SnapshotExchange(screenWidth, screenHeight);
+        worldRenderer = new WorldRenderer(screenWidth, screenHeight);
         audioSystem = new AudioSystem(getContext());
         
-        // ایجاد محیط بازی
-        createGalaxyEnvironment();
-        startNewLevel();
-        
-        isInitialized = true;
-        setFocusable(true);
-        setFocusableInTouchMode(true);
-    }
-
-    private void createGalaxyEnvironment() {
-        // ایجاد ستاره‌ها با تراکم بالا
-        for (int i = 0; i < 500; i++) {
-            stars.add(new Star(
-                random.nextInt(screenWidth * 2) - screenWidth / 2,
-                random.nextInt(screenHeight * 2) - screenHeight / 2,
-                random.nextFloat() * 4 + 1,
-                random.nextFloat() * 0.8f + 0.2f,
-                random.nextFloat() * 0.7f + 0.3f
-            ));
+        // ایجاد جهان بازی: ادامه از تصویر جهان یا مرحله تازه با پیشرفت ذخیره شده
+        File filesDir = getContext().getFilesDir();
+        saveFile = new SaveFile(new File(filesDir, SAVE_FILE));
+        worldSaveFile = new SaveFile(new File(filesDir, WORLD_SAVE_FILE), SaveFile.WORLD_MAGIC,
+                                     SaveFile.WORLD_VERSION);
+        world = resumeWorld();
+        boolean resumed = world != null;
+        if (!resumed) {
+            world = new World(screenWidth, screenHeight);
         }
-        
-        // ایجاد سحابی‌ها
-        for (int i = 0; i < 8; i++) {
-            nebulas.add(new Nebula(
-                random.nextInt(screenWidth * 3) - screenWidth,
-                random.nextInt(screenHeight * 3) - screenHeight,
-                random.nextFloat() * 400 + 200,
-                random.nextInt(5)
-            ));
+        world.setListener(this);
+        jobSystem = new JobSystem(JobSystem.defaultWorkerCount());
+        world.setJobSystem(jobSystem);
+        worldRenderer.setLatencyTracker(world.getLatencyTracker());
+        autosave = new AutosaveService(saveFile, worldSaveFile);
+        nextAutosaveTime = AUTOSAVE_INTERVAL_NANOS;
+        if (!resumed) {
+            loadGameState();
+            world.start();
         }
+        simProfile = world.getProfiler().createSummary();
         
-        // ایجاد سیاه‌چاله‌ها
-        for (int i = 0; i < 3; i++) {
-            blackHoles.add(new BlackHole(
-                random.nextInt(screenWidth * 2) - screenWidth / 2,
-                random.nextInt(screenHeight * 2) - screenHeight / 2,
-                random.nextFloat() * 80 + 40
-            ));
-        }
-    }
-
-    private void startNewLevel() {
-        planets.clear();
-        enemies.clear();
-        
-        int currentLevel = gameState.getCurrentLevel();
-        
-        // ایجاد سیارات - تعداد بر اساس سطح
-        int planetCount = 20 + (currentLevel - 1) * 2;
-        for (int i = 0; i < planetCount; i++) {
-            float x = random.nextFloat() * (screenWidth * 2) - screenWidth / 2;
-            float y = random.nextFloat() * (screenHeight * 2) - screenHeight / 2;
-            int health = currentLevel * 15 + 50;
-            int type = random.nextInt(5);
-            planets.add(new Planet(x, y, health, screenWidth, screenHeight, type, currentLevel));
-        }
-        
-        // ایجاد دشمنان - تعداد بر اساس سطح
-        int enemyCount = 10 + (currentLevel - 1) * 3;
-        for (int i = 0; i < enemyCount; i++) {
-            enemies.add(new Enemy(screenWidth, screenHeight, currentLevel, random.nextInt(4)));
-        }
-        
-        audioSystem.playLevelStart();
+        setFocusable(true);
+        setFocusableInTouchMode(true);
     }
 
+    // رشته شبیه‌سازی: تیک‌های ثابت و انتشار تصویر جهان
     @Override
     public void run() {
-        while (playing) {
-            if (!isInitialized) continue;
+        resetClock = true;
+        
+        while (awaitRunning(false)) {
+            // پس از ادامه از توقف، زمان توقف جبران نمی‌شود
+            if (resetClock) {
+                resetClock = false;
+                lastTime = System.nanoTime();
+                // ادامه بازی تصویر ذخیره شده جهان را کهنه می‌کند
+                if (worldSnapshotSaved) {
+                    worldSnapshotSaved = false;
+                    autosave.discardWorld();
+                }
+                accumulatorNanos = 0;
+            }
+            
+            long step = tickNanos;
+            float stepSeconds = step / 1000000000.0f;
             
-            long currentTime = System.currentTimeMillis();
-            float deltaTime = (currentTime - lastTime) / 1000.0f;
+            long currentTime = System.nanoTime();
+            long frameNanos = currentTime - lastTime;
             lastTime = currentTime;
-            gameTime += (currentTime - lastTime);
             
-            update(deltaTime);
-            draw();
-            controlFPS();
-        }
-    }
-
-    private void update(float deltaTime) {
-        // بروزرسانی سیستم دوربین
-        cameraSystem.update(spaceShip, deltaTime);
-        
-        // بروزرسانی سفینه
-        spaceShip.update(joystick, deltaTime);
-        
-        // بروزرسانی دشمنان
-        for (int i = enemies.size() - 1; i >= 0; i--) {
-            Enemy enemy = enemies.get(i);
-            enemy.update(spaceShip, deltaTime);
+            // محدود کردن جبران عقب‌ماندگی برای جلوگیری از مارپیچ مرگ
+            accumulatorNanos += Math.min(frameNanos, step * MAX_CATCH_UP_TICKS);
             
-            // بررسی برخورد با سفینه
-            if (spaceShip.checkCollision(enemy)) {
-                particleSystem.createSupernova(spaceShip.getX(), spaceShip.getY(), 80, 
-                    new int[]{Color.RED, Color.ORANGE, Color.YELLOW});
-                audioSystem.playExplosion();
-                gameState.shipDestroyed();
-                if (gameState.getLives() <= 0) {
-                    gameOver();
-                    return;
-                } else {
-                    resetShip();
+            FrameProfiler profiler = world.getProfiler();
+            while (accumulatorNanos >= step && state == STATE_RUNNING) {
+                profiler.beginFrame();
+                world.step(stepSeconds);
+                gameTime += step;
+                accumulatorNanos -= step;
+                boolean lastTick = accumulatorNanos < step || state != STATE_RUNNING;
+                
+                profiler.begin(FrameProfiler.SIM_AUDIO);
+                audioSystem.update(world.getSpaceShip(), stepSeconds);
+                // صداهای همه تیک‌های این دور یک بار و پس از ادغام فرستاده می‌شوند
+                if (lastTick) {
+                    audioSystem.flush(gameTime / 1000000000.0);
+                }
+                profiler.end(FrameProfiler.SIM_AUDIO);
+                
+                // آخرین تیک این دور تصویر را منتشر می‌کند تا هزینه انتشار در همان تیک ثبت شود
+                if (lastTick) {
+                    profiler.begin(FrameProfiler.SIM_SNAPSHOT);
+                    publishSnapshot(step);
+                    profiler.end(FrameProfiler.SIM_SNAPSHOT);
                 }
+                profiler.endFrame();
+                ticksSinceProfileSummary++;
             }
             
-            // بررسی برخورد با سیاه‌چاله
-            for (BlackHole blackHole : blackHoles) {
-                if (enemy.checkBlackHoleCollision(blackHole)) {
-                    particleSystem.createBlackHoleEffect(blackHole.getX(), blackHole.getY(), 30);
-                    enemies.remove(i);
-                    audioSystem.playBlackHole();
-                    break;
-                }
+            if (world.isGameOver()) {
+                autosave();
+                // هر دو رشته تا ادامه یا نابودی موتور می‌خوابند
+                transition(STATE_RUNNING, STATE_PAUSED);
+                continue;
             }
-        }
-        
-        // بررسی برخورد با سیارات
-        for (int i = planets.size() - 1; i >= 0; i--) {
-            Planet planet = planets.get(i);
-            if (spaceShip.checkCollision(planet)) {
-                planet.takeDamage(25);
-                particleSystem.createPlanetImpact(planet.getX(), planet.getY(), 25, planet.getType());
-                audioSystem.playImpact();
-                
-                if (planet.isDestroyed()) {
-                    planets.remove(i);
-                    gameState.planetDestroyed(planet.getType());
-                    particleSystem.createPlanetExplosion(planet.getX(), planet.getY(), 100, planet.getType());
-                    audioSystem.playPlanetExplosion();
-                    
-                    // شانس افتادن پاداش
-                    if (random.nextFloat() < 0.3f) {
-                        // ایجاد پاداش
-                    }
-                }
+            waitForNextTick(step);
+            // توقف پیش از خوابیدن رشته اینجا دیده می‌شود؛ وضعیت بازی فقط روی همین رشته خوانده می‌شود
+            if (autosaveRequested || state == STATE_PAUSED || gameTime >= nextAutosaveTime) {
+                autosave();
             }
         }
         
-        // بروزرسانی ذرات
-        particleSystem.update(deltaTime);
-        
-        // بروزرسانی ستاره‌ها (افکت پارالاکس پیشرفته)
-        for (Star star : stars) {
-            star.update(spaceShip.getVelocityX(), spaceShip.getVelocityY(), deltaTime);
-        }
-        
-        // بروزرسانی سیاه‌چاله‌ها
-        for (BlackHole blackHole : blackHoles) {
-            blackHole.update(deltaTime);
+        boolean saveHere;
+        synchronized (lifecycleLock) {
+            simThreadExited = true;
+            saveHere = saveOnSimThreadExit;
         }
-        
-        // بررسی پایان مرحله
-        if (planets.isEmpty()) {
-            gameState.nextLevel();
-            audioSystem.playLevelComplete();
-            startNewLevel();
+        if (saveHere) {
+            finishStop();
         }
-        
-        // مدیریت دشمنان
-        manageEnemies();
-        
-        // بروزرسانی صدا
-        audioSystem.update(spaceShip, deltaTime);
     }
-
-    private void manageEnemies() {
-        // حذف دشمنان خارج از صفحه
-        enemies.removeIf(enemy -> enemy.isOutOfScreen(screenWidth, screenHeight));
-        
-        // اضافه کردن دشمنان جدید
-        int currentLevel = gameState.getCurrentLevel();
-        int maxEnemies = 10 + (currentLevel - 1) * 3;
-        if (enemies.size() < maxEnemies && random.nextInt(100) < (5 + currentLevel * 2)) {
-            enemies.add(new Enemy(screenWidth, screenHeight, currentLevel, random.nextInt(4)));
+    
+    private void autosave() {
+        autosaveRequested = false;
+        nextAutosaveTime = gameTime + AUTOSAVE_INTERVAL_NANOS;
+        autosave.request(world.getGameState());
+        if (state == STATE_PAUSED && !world.isGameOver()) {
+            autosave.requestWorld(world);
+            worldSnapshotSaved = true;
         }
     }
-
-    private void draw() {
-        if (!surfaceHolder.getSurface().isValid() || !isInitialized) {
-            return;
-        }
-        
-        Canvas canvas = surfaceHolder.lockCanvas();
-        if (canvas == null) return;
-        
-        try {
-            // اعمال تبدیل‌های دوربین
-            cameraSystem.applyTransform(canvas);
-            
-            // رسم محیط کهکشانی
-            drawGalaxyBackground(canvas);
-            
-            // رسم سحابی‌ها
-            for (Nebula nebula : nebulas) {
-                nebula.draw(canvas, paint);
-            }
-            
-            // رسم سیاه‌چاله‌ها
-            for (BlackHole blackHole : blackHoles) {
-                blackHole.draw(canvas, paint);
+    
+    // رشته رندر: آخرین تصویر منتشر شده را با نرخ نمایشگر رسم می‌کند
+    private void renderLoop() {
+        while (awaitRunning(true)) {
+            WorldSnapshot snapshot = snapshots.acquire();
+            if (!snapshot.ready || !draw(snapshot)) {
+                LockSupport.parkNanos(tickNanos);
             }
-            
-            // رسم ذرات
-            particleSystem.draw(canvas, paint);
-            
-            // رسم سیارات
-            for (Planet planet : planets) {
-                planet.draw(canvas, paint);
+        }
+    }
+    
+    // تا حالت اجرا (و در صورت نیاز سطح آماده) روی قفل می‌خوابد؛ false یعنی موتور متوقف شده و رشته باید خارج شود
+    private boolean awaitRunning(boolean needSurface) {
+        synchronized (lifecycleLock) {
+            while (state != STATE_STOPPED && (state != STATE_RUNNING || (needSurface && !surfaceReady))) {
+                try {
+                    lifecycleLock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return false;
+                }
             }
-            
-            // رسم دشمنان
-            for (Enemy enemy : enemies) {
-                enemy.draw(canvas, paint);
+            return state == STATE_RUNNING;
+        }
+    }
+    
+    // تغییر حالت فقط اگر حالت فعلی from باشد
+    private boolean transition(int from, int to) {
+        synchronized (lifecycleLock) {
+            if (state != from) return false;
+            state = to;
+            lifecycleLock.notifyAll();
+            return true;
+        }
+    }
+    
+    private void publishSnapshot(long step) {
+        WorldSnapshot snapshot = snapshots.beginWrite();
+        world.captureInto(snapshot);
+        // وضعیت فعلی مربوط به لحظه‌ای است که باقیمانده انباشتگر از آن گذشته
+        snapshot.stateTimeNanos = lastTime - accumulatorNanos;
+        snapshot.tickNanos = step;
+        
+        snapshot.hasSimProfile = perfOverlayEnabled;
+        if (perfOverlayEnabled) {
+            if (ticksSinceProfileSummary >= PROFILE_SUMMARY_TICKS) {
+                world.getProfiler().summarize(simProfile);
+                ticksSinceProfileSummary = 0;
             }
-            
-            // رسم سفینه
-            spaceShip.draw(canvas, paint);
-            
-            // بازگرداندن تبدیل‌های دوربین
-            cameraSystem.restoreTransform(canvas);
-            
-            // رسم رابط کاربری (بدون تأثیر از دوربین)
-            drawHUD(canvas);
-            drawJoystick(canvas);
-            
-        } finally {
-            surfaceHolder.unlockCanvasAndPost(canvas);
+            snapshot.simProfile.copyFrom(simProfile);
         }
+        snapshots.publish();
     }
-
-    private void drawGalaxyBackground(Canvas canvas) {
-        // گرادیانت عمق فضا
-        RadialGradient gradient = new RadialGradient(
-            screenWidth / 2, screenHeight / 2, Math.max(screenWidth, screenHeight),
-            new int[]{
-                Color.argb(255, 5, 5, 35),
-                Color.argb(255, 2, 2, 20),
-                Color.argb(255, 0, 0, 10)
-            },
-            null,
-            Shader.TileMode.CLAMP
-        );
-        paint.setShader(gradient);
-        canvas.drawRect(0, 0, screenWidth, screenHeight, paint);
-        paint.setShader(null);
-        
-        // ستاره‌های درخشان
-        for (Star star : stars) {
-            star.draw(canvas, paint);
+    
+    // تنظیم نرخ تیک شبیه‌سازی (مثلاً 60 برای گوشی‌های ضعیف)
+    public void setTickRate(int ticksPerSecond) {
+        int rate = Math.max(MIN_TICK_RATE, Math.min(MAX_TICK_RATE, ticksPerSecond));
+        tickNanos = 1000000000L / rate;
+    }
+    
+    public int getTickRate() {
+        return (int)(1000000000L / tickNanos);
+    }
+    
+    // نمایش نمودار و آمار زمان‌بندی فریم روی صفحه
+    public void setPerfOverlayEnabled(boolean enabled) {
+        perfOverlayEnabled = enabled;
+        if (worldRenderer != null) {
+            worldRenderer.setPerfOverlayEnabled(enabled);
         }
     }
-
-    private void drawHUD(Canvas canvas) {
-        paint.setColor(Color.WHITE);
-        paint.setTextSize(42);
-        paint.setShadowLayer(5, 3, 3, Color.BLACK);
-        
-        // اطلاعات سطح
-        canvas.drawText("LEVEL " + gameState.getCurrentLevel(), 50, 80, paint);
-        canvas.drawText("PLANETS: " + planets.size(), 50, 140, paint);
-        
-        // اطلاعات امتیاز
-        String scoreText = "SCORE: " + String.format("%,d", gameState.getScore());
-        canvas.drawText(scoreText, screenWidth - 400, 80, paint);
-        
-        String coinsText = "COINS: " + formatCoins(gameState.getCoins());
-        canvas.drawText(coinsText, screenWidth - 400, 140, paint);
-        
-        // سلامت و جان‌ها
-        drawHealthBar(canvas);
-        drawLives(canvas);
-        
-        paint.setShadowLayer(0, 0, 0, 0);
+    
+    public boolean isPerfOverlayEnabled() {
+        return perfOverlayEnabled;
     }
-
-    private void drawHealthBar(Canvas canvas) {
-        float healthPercent = spaceShip.getHealth() / 100.0f;
-        float barWidth = 300;
-        float barHeight = 25;
-        float x = screenWidth - barWidth - 50;
-        float y = screenHeight - 100;
-        
-        // پس‌زمینه سلامت
-        paint.setColor(Color.argb(180, 100, 100, 100));
-        canvas.drawRoundRect(x, y, x + barWidth, y + barHeight, 12, 12, paint);
-        
-        // سلامت فعلی
-        int healthColor;
-        if (healthPercent > 0.7f) {
-            healthColor = Color.argb(220, 0, 255, 100);
-        } else if (healthPercent > 0.3f) {
-            healthColor = Color.argb(220, 255, 255, 0);
-        } else {
-            healthColor = Color.argb(220, 255, 50, 50);
+    
+    private boolean draw(WorldSnapshot snapshot) {
+        synchronized (surfaceLock) {
+            if (!surfaceHolder.getSurface().isValid() || state != STATE_RUNNING) {
+                return false;
+            }
+            return drawLocked(snapshot);
         }
-        
-        paint.setColor(healthColor);
-        canvas.drawRoundRect(x, y, x + (barWidth * healthPercent), y + barHeight, 12, 12, paint);
-        
-        // کادر سلامت
-        paint.setStyle(Paint.Style.STROKE);
-        paint.setStrokeWidth(3);
-        paint.setColor(Color.WHITE);
-        canvas.drawRoundRect(x, y, x + barWidth, y + barHeight, 12, 12, paint);
-        paint.setStyle(Paint.Style.FILL);
-        
-        // متن سلامت
-        paint.setTextSize(20);
-        paint.setColor(Color.WHITE);
-        String healthText = "SHIELD: " + (int)spaceShip.getHealth() + "%";
-        canvas.drawText(healthText, x + 10, y + 18, paint);
-    }
-
-    private void drawLives(Canvas canvas) {
-        int lives = gameState.getLives();
-        float x = 50;
-        float y = screenHeight - 80;
-        float size = 30;
-        float spacing = 40;
-        
-        paint.setColor(Color.argb(255, 0, 200, 255));
-        for (int i = 0; i < lives; i++) {
-            canvas.drawCircle(x + i * spacing, y, size, paint);
-            paint.setColor(Color.argb(150, 0, 150, 255));
-            canvas.drawCircle(x + i * spacing, y, size * 0.6f, paint);
-            paint.setColor(Color.argb(255, 0, 200, 255));
+    }
+    
+    private boolean drawLocked(WorldSnapshot snapshot) {
+        // زمان فریم رندر شامل انتظار برای بوم و ارسال آن است
+        FrameProfiler profiler = worldRenderer.getProfiler();
+        profiler.beginFrame();
+        Canvas canvas = surfaceHolder.lockCanvas();
+        if (canvas == null) {
+            profiler.cancelFrame();
+            return false;
         }
         
-        paint.setTextSize(24);
-        canvas.drawText("LIVES", x, y - 15, paint);
-    }
-
-    private void drawJoystick(Canvas canvas) {
-        joystick.draw(canvas, paint);
-    }
-
-    private String formatCoins(long coins) {
-        if (coins >= 1000000000) {
-            return String.format("%.1fB", coins / 1000000000.0);
-        } else if (coins >= 1000000) {
-            return String.format("%.1fM", coins / 1000000.0);
-        } else if (coins >= 1000) {
-            return String.format("%.1fK", coins / 1000.0);
+        float alpha = snapshot.interpolationAlpha(System.nanoTime());
+        try {
+            worldRenderer.draw(canvas, snapshot, alpha);
+        } finally {
+            profiler.begin(FrameProfiler.DRAW_POST);
+            surfaceHolder.unlockCanvasAndPost(canvas);
+            profiler.end(FrameProfiler.DRAW_POST);
+            profiler.endFrame();
         }
-        return String.valueOf(coins);
+        // نزدیک‌ترین نقطه قابل مشاهده به نمایش؛ نمایشگر حداکثر یک دوره تازه‌سازی بعد آن را نشان می‌دهد
+        world.getLatencyTracker().onPresented(snapshot.tick);
+        return true;
     }
 
     @Override
     public boolean onTouchEvent(MotionEvent event) {
-        if (!isInitialized) return true;
+        if (state == STATE_STOPPED) return true;
         
-        float x = event.getX();
-        float y = event.getY();
+        // لمس سه انگشتی نمایشگر کارایی را روشن/خاموش می‌کند
+        if (event.getActionMasked() == MotionEvent.ACTION_POINTER_DOWN && event.getPointerCount() == 3) {
+            setPerfOverlayEnabled(!perfOverlayEnabled);
+            overlayGesturePointer = event.getPointerId(event.getActionIndex());
+            return true;
+        }
         
-        switch (event.getAction()) {
+        // رشته UI فقط رویدادها را در صف می‌گذارد؛ جویستیک در تیک شبیه‌سازی بروز می‌شود
+        InputQueue queue = world.getInputQueue();
+        int action = event.getActionMasked();
+        switch (action) {
             case MotionEvent.ACTION_DOWN:
-            case MotionEvent.ACTION_MOVE:
-                if (y > screenHeight - 500) { // منطقه جویستیک
-                    joystick.setActive(true, x, y);
-                } else {
-                    // کنترل‌های لمسی اضافی
-                    handleTouchInput(x, y, true);
+            case MotionEvent.ACTION_POINTER_DOWN:
+            case MotionEvent.ACTION_UP:
+            case MotionEvent.ACTION_POINTER_UP: {
+                int index = event.getActionIndex();
+                if (event.getPointerId(index) == overlayGesturePointer) {
+                    // DOWN این انگشت هرگز در صف نرفت
+                    overlayGesturePointer = -1;
+                    break;
                 }
+                boolean down = action == MotionEvent.ACTION_DOWN || action == MotionEvent.ACTION_POINTER_DOWN;
+                queue.offer(event.getPointerId(index), down ? InputQueue.ACTION_DOWN : InputQueue.ACTION_UP,
+                            event.getX(index), event.getY(index), eventTimeNanos(event));
                 break;
-            case MotionEvent.ACTION_UP:
-                joystick.setActive(false, x, y);
-                handleTouchInput(x, y, false);
+            }
+            case MotionEvent.ACTION_MOVE:
+                enqueueMove(queue, event);
+                break;
+            case MotionEvent.ACTION_CANCEL:
+                for (int p = 0; p < event.getPointerCount(); p++) {
+                    if (event.getPointerId(p) == overlayGesturePointer) continue;
+                    queue.offer(event.getPointerId(p), InputQueue.ACTION_CANCEL,
+                                event.getX(p), event.getY(p), eventTimeNanos(event));
+                }
                 break;
         }
+        if (action == MotionEvent.ACTION_UP || action == MotionEvent.ACTION_CANCEL) {
+            overlayGesturePointer = -1;
+        }
         return true;
     }
 
-    private void handleTouchInput(float x, float y, boolean isPressed) {
-        // سیستم کنترل لمسی پیشرفته
-        if (isPressed) {
-            // شلیک یا قابلیت‌های خاص
-            if (x < screenWidth / 2) {
-                spaceShip.activateShield();
+    // نمونه‌های تاریخچه که اندروید در یک رویداد حرکت جمع کرده به ترتیب زمانی فرستاده می‌شوند
+    private void enqueueMove(InputQueue queue, MotionEvent event) {
+        int pointers = event.getPointerCount();
+        int historySize = event.getHistorySize();
+        for (int h = 0; h < historySize; h++) {
+            long time = historicalEventTimeNanos(event, h);
+            for (int p = 0; p < pointers; p++) {
+                if (event.getPointerId(p) == overlayGesturePointer) continue;
+                queue.offer(event.getPointerId(p), InputQueue.ACTION_MOVE,
+                            event.getHistoricalX(p, h), event.getHistoricalY(p, h), time);
             }
         }
+        long time = eventTimeNanos(event);
+        for (int p = 0; p < pointers; p++) {
+            if (event.getPointerId(p) == overlayGesturePointer) continue;
+            queue.offer(event.getPointerId(p), InputQueue.ACTION_MOVE, event.getX(p), event.getY(p), time);
+        }
     }
 
-    private void controlFPS() {
-        try {
-            long currentTime = System.currentTimeMillis();
-            long sleepTime = 16 - (currentTime - lastTime); // ~60 FPS
-            if (sleepTime > 0) {
-                Thread.sleep(sleepTime);
-            }
-            fps = (int)(1000 / (System.currentTimeMillis() - lastTime + 1));
-            lastTime = currentTime;
-        } catch (InterruptedException e) {
-            Log.e(TAG, "Game thread interrupted", e);
+    // زمان رویداد در پایه System.nanoTime؛ از API 34 با دقت نانوثانیه و پیش از آن فقط میلی‌ثانیه
+    // (زمان تا ۱ میلی‌ثانیه به عقب گرد می‌شود و در سطل‌های نیم‌میلی‌ثانیه هیستوگرام تأخیر دیده می‌شود)
+    private static final boolean NANO_EVENT_TIMES = Build.VERSION.SDK_INT >= Build.VERSION_CODES.UPSIDE_DOWN_CAKE;
+
+    private static long eventTimeNanos(MotionEvent event) {
+        return NANO_EVENT_TIMES ? event.getEventTimeNanos() : event.getEventTime() * 1000000L;
+    }
+
+    private static long historicalEventTimeNanos(MotionEvent event, int h) {
+        return NANO_EVENT_TIMES ? event.getHistoricalEventTimeNanos(h) : event.getHistoricalEventTime(h) * 1000000L;
+    }
+
+    // تا موعد تیک بعدی می‌خوابیم تا رشته شبیه‌سازی هسته را بیهوده اشغال نکند
+    private void waitForNextTick(long step) {
+        long sleepNanos = step - accumulatorNanos - (System.nanoTime() - lastTime);
+        if (sleepNanos > 0) {
+            LockSupport.parkNanos(sleepNanos);
         }
     }
 
-    private void resetShip() {
-        spaceShip.reset(screenWidth / 2, screenHeight / 2);
-        particleSystem.createRespawnEffect(screenWidth / 2, screenHeight / 2, 60);
+    // رویدادهای جهان بازی (از رشته شبیه‌سازی)
+    @Override
+    public void onExplosion() {
+        audioSystem.playExplosion();
+    }
+
+    @Override
+    public void onImpact() {
+        audioSystem.playImpact();
+    }
+
+    @Override
+    public void onBlackHole() {
+        audioSystem.playBlackHole();
+    }
+
+    @Override
+    public void onPlanetExplosion() {
+        audioSystem.playPlanetExplosion();
+    }
+
+    @Override
+    public void onLevelStart() {
+        audioSystem.playLevelStart();
+    }
+
+    @Override
+    public void onLevelComplete() {
+        audioSystem.playLevelComplete();
+        // وسط تیک است؛ ذخیره پس از پایان دور تیک‌ها گرفته می‌شود
+        autosaveRequested = true;
+    }
+
+    @Override
+    public void onRespawn() {
         audioSystem.playRespawn();
     }
 
-    private void gameOver() {
-        playing = false;
+    @Override
+    public void onGameOver() {
         audioSystem.playGameOver();
         // نمایش صفحه Game Over
     }
 
+    // رویدادهای سطح: رشته رندر فقط با سطح معتبر بیدار است
+    @Override
+    public void surfaceCreated(SurfaceHolder holder) {
+        synchronized (lifecycleLock) {
+            surfaceReady = true;
+            lifecycleLock.notifyAll();
+        }
+    }
+
+    @Override
+    public void surfaceChanged(SurfaceHolder holder, int format, int width, int height) {
+        surfaceCreated(holder);
+    }
+
+    @Override
+    public void surfaceDestroyed(SurfaceHolder holder) {
+        synchronized (lifecycleLock) {
+            surfaceReady = false;
+        }
+        // پس از بازگشت این متد نباید روی سطح رسم شود؛ منتظر پایان فریم جاری می‌مانیم
+        synchronized (surfaceLock) {
+        }
+    }
+
     public void pauseGame() {
-        playing = false;
-        if (audioSystem != null) {
+        if (transition(STATE_RUNNING, STATE_PAUSED) && audioSystem != null) {
             audioSystem.pauseAll();
         }
     }
 
     public void resumeGame() {
-        if (!playing && isInitialized) {
-            playing = true;
-            gameThread = new Thread(this);
-            gameThread.start();
-            if (audioSystem != null) {
-                audioSystem.resumeAll();
+        synchronized (lifecycleLock) {
+            if (state == STATE_CREATED) {
+                // رشته‌ها فقط یک بار و برای کل عمر موتور ساخته می‌شوند
+                state = STATE_RUNNING;
+                gameThread = new Thread(this, "GameSimulation");
+                renderThread = new Thread(this::renderLoop, "GameRender");
+                gameThread.start();
+                renderThread.start();
+                return;
             }
+            if (state != STATE_PAUSED) return;
+            resetClock = true;
+            state = STATE_RUNNING;
+            lifecycleLock.notifyAll();
+        }
+        if (audioSystem != null) {
+            audioSystem.resumeAll();
         }
     }
 
     public void destroyGame() {
-        playing = false;
-        isInitialized = false;
+        synchronized (lifecycleLock) {
+            if (state == STATE_STOPPED) return;
+            state = STATE_STOPPED;
+            lifecycleLock.notifyAll();
+        }
+        
+        // رشته‌ها از خواب بیدار شده و خارج می‌شوند؛ منابع پس از پایان آن‌ها آزاد می‌شوند
+        joinQuietly(gameThread);
+        joinQuietly(renderThread);
+        if (worldRenderer != null && (renderThread == null || !renderThread.isAlive())) {
+            worldRenderer.release();
+        }
+        // جهان، سیستم کار و صدا متعلق به رشته شبیه‌سازی‌اند و فقط پس از خروج آن ذخیره و آزاد می‌شوند
+        boolean saveHere;
+        synchronized (lifecycleLock) {
+            saveHere = gameThread == null || simThreadExited;
+            saveOnSimThreadExit = !saveHere;
+        }
+        if (saveHere) {
+            finishStop();
+        }
+    }
+    
+    // ذخیره نهایی و آزادسازی؛ روی رشته‌ای که destroyGame را صدا زد یا هنگام خروج دیرهنگام رشته شبیه‌سازی
+    private void finishStop() {
+        if (jobSystem != null) {
+            jobSystem.shutdown();
+        }
         if (audioSystem != null) {
             audioSystem.release();
         }
-        if (gameState != null) {
-            gameState.saveGame(getContext());
+        if (autosave != null) {
+            autosave.shutdown();
+        }
+        if (world != null) {
+            saveGameState();
+            saveWorldSnapshot();
+            // در حالت اندازه‌گیری، گزارش تأخیر ورودی برای برداشتن با adb نوشته می‌شود
+            if (perfOverlayEnabled) {
+                exportLatencyReport(new File(getContext().getFilesDir(), LATENCY_REPORT_FILE));
+            }
         }
     }
-              }
+
+    // پیش از شروع جهان؛ در نبود فایل ذخیره، ذخیره SharedPreferences قدیمی یک بار منتقل می‌شود
+    private void loadGameState() {
+        GameState gameState = world.getGameState();
+        try {
+            if (saveFile.load(gameState)) return;
+        } catch (IOException e) {
+            // فایل خراب: بازی با وضعیت پیش‌فرض ادامه می‌یابد و ذخیره بعدی جایگزینش می‌کند
+            return;
+        }
+        GameStatePreferences legacy = new GameStatePreferences(getContext());
+        if (legacy.exists()) {
+            gameState.loadFrom(legacy);
+            if (saveGameState()) {
+                legacy.clear();
+            }
+        }
+    }
+
+    // ناسازگار یا خراب (مثلاً اندازه صفحه دیگر) کنار گذاشته می‌شود و مرحله تازه شروع می‌شود
+    private World resumeWorld() {
+        try {
+            ByteBuffer data = worldSaveFile.read();
+            if (data == null) return null;
+            World resumed = World.readSave(data, worldSaveFile.getLastVersion());
+            if (resumed.getScreenWidth() == screenWidth && resumed.getScreenHeight() == screenHeight) {
+                // فایل با اولین اجرای رشته شبیه‌سازی حذف می‌شود
+                worldSnapshotSaved = true;
+                return resumed;
+            }
+        } catch (IOException | RuntimeException e) {
+            // به ذخیره پیشرفت برمی‌گردیم
+        }
+        worldSaveFile.delete();
+        return null;
+    }
+
+    // پس از توقف رشته‌ها؛ بازی تمام شده ادامه ندارد
+    private void saveWorldSnapshot() {
+        if (world.isGameOver()) {
+            worldSaveFile.delete();
+            return;
+        }
+        try {
+            worldSaveFile.save(world);
+        } catch (IOException e) {
+            // تصویر قبلی (در صورت وجود) از همین توقف است
+        }
+    }
+
+    private boolean saveGameState() {
+        try {
+            saveFile.save(world.getGameState());
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    // هیستوگرام‌های تأخیر به صورت CSV و خلاصه صدک‌ها؛ فقط پس از توقف رشته‌ها صدا زده شود
+    public boolean exportLatencyReport(File file) {
+        LatencyTracker tracker = world.getLatencyTracker();
+        try (Writer out = new FileWriter(file)) {
+            for (String line : tracker.format("latency").split("\n")) {
+                out.append("# ").append(line).append('\n');
+            }
+            tracker.writeCsv(out);
+            return true;
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private static void joinQuietly(Thread thread) {
+        if (thread == null) return;
+        try {
+            thread.join(500);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // متدهای دسترسی
+    public int getEngineState() { return state; }
+}
@@ -0,0 +1,33 @@
+package com.space.ship.game;
+
+// پایه اشیای بازی (سیاره، دشمن، پاداش)
+abstract class GameObject {
+    protected float x, y;
+    protected float radius;
+
+    // موقعیت تیک قبلی برای درون‌یابی هنگام رسم
+    protected float prevX, prevY;
+
+    public GameObject(float x, float y, float radius) {
+        this.x = x;
+        this.y = y;
+        this.radius = radius;
+        this.prevX = x;
+        this.prevY = y;
+    }
+
+    public void storePreviousPosition() {
+        prevX = x;
+        prevY = y;
+    }
+
+    // موقعیت درون‌یابی شده بین دو تیک (alpha در بازه 0 تا 1)
+    public float getRenderX(float alpha) { return prevX + (x - prevX) * alpha; }
+    public float getRenderY(float alpha) { return prevY + (y - prevY) * alpha; }
+
+    public float getX() { return x; }
+    public float getY() { return y; }
+    public float getPrevX() { return prevX; }
+    public float getPrevY() { return prevY; }
+    public float getRadius() { return radius; }
+}
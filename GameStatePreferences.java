@@ -0,0 +1,35 @@
+package com.space.ship.game;
+
+import android.content.Context;
+import android.content.SharedPreferences;
+
+// وضعیت ذخیره شده نسخه‌های قبل در SharedPreferences؛ فقط یک بار برای انتقال به SaveFile خوانده می‌شود
+class GameStatePreferences implements GameState.Storage {
+    private static final String PREFS_NAME = "SpaceShipGameAdvanced";
+
+    private final SharedPreferences prefs;
+
+    public GameStatePreferences(Context context) {
+        this.prefs = context.getSharedPreferences(PREFS_NAME, Context.MODE_PRIVATE);
+    }
+
+    // ذخیره قدیمی وجود دارد (نصب تازه کلید ندارد)
+    public boolean exists() {
+        return prefs.contains("coins");
+    }
+
+    @Override
+    public long getLong(String key, long defaultValue) {
+        return prefs.getLong(key, defaultValue);
+    }
+
+    @Override
+    public int getInt(String key, int defaultValue) {
+        return prefs.getInt(key, defaultValue);
+    }
+
+    // پس از نوشتن موفق فایل ذخیره، کلیدهای قدیمی پاک می‌شوند
+    public void clear() {
+        prefs.edit().clear().apply();
+    }
+}
@@ -0,0 +1,208 @@
+package com.space.ship.game;
+
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Paint;
+import android.graphics.RadialGradient;
+import android.graphics.Rect;
+import android.graphics.RectF;
+import android.graphics.Shader;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// اطلس اسپرایت‌های درخشش: هر گرادیانت شعاعی یک بار در اندازه کوانتیزه پخته می‌شود
+// و پس از آن با drawBitmap و آلفای قلم رسم می‌شود (بدون ساخت Shader در هر فریم)
+class GlowSpriteCache {
+    private static final int PAGE_SIZE = 1024;
+    private static final int PADDING = 1;
+    // اندازه‌های کوانتیزه: 16، 32، 64، 128، 256 پیکسل
+    private static final int MIN_SPRITE_SHIFT = 4;
+    private static final int BUCKET_COUNT = 5;
+
+    // گرادیانت‌های ثبت شده
+    private final List<int[]> rampColors = new ArrayList<>();
+    private final List<float[]> rampPositions = new ArrayList<>();
+    private Rect[][] spriteRects = new Rect[16][];
+    private Bitmap[][] spritePages = new Bitmap[16][];
+
+    // نگاشت کلید گرادیانت‌های پویا (مثلاً رنگ ذره) به شناسه
+    private long[] dynamicKeys = new long[64];
+    private int[] dynamicIds = new int[64];
+    private int dynamicCount;
+
+    // صفحات اطلس و مکان‌نمای قفسه‌ای فعلی
+    private final List<Bitmap> pages = new ArrayList<>();
+    private Canvas pageCanvas;
+    private int shelfX, shelfY, shelfHeight;
+
+    private final Paint bakePaint = new Paint();
+    private final RectF destination = new RectF();
+
+    public GlowSpriteCache() {
+        bakePaint.setAntiAlias(true);
+        Arrays.fill(dynamicIds, -1);
+    }
+
+    // ثبت گرادیانت ثابت؛ شناسه برای رسم برگردانده می‌شود
+    public int registerRamp(int[] colors, float[] positions) {
+        int id = rampColors.size();
+        rampColors.add(colors.clone());
+        rampPositions.add(positions != null ? positions.clone() : null);
+        if (id == spriteRects.length) {
+            spriteRects = Arrays.copyOf(spriteRects, id * 2);
+            spritePages = Arrays.copyOf(spritePages, id * 2);
+        }
+        spriteRects[id] = new Rect[BUCKET_COUNT];
+        spritePages[id] = new Bitmap[BUCKET_COUNT];
+        return id;
+    }
+
+    // گرادیانت دو رنگ ساده (مثلاً هاله از رنگ تا شفاف)
+    public int registerRamp(int innerColor, int outerColor) {
+        return registerRamp(new int[]{innerColor, outerColor}, null);
+    }
+
+    // شناسه گرادیانت پویا با کلید داده شده، یا -1 اگر هنوز ثبت نشده
+    public int findRamp(long key) {
+        int mask = dynamicKeys.length - 1;
+        for (int slot = mix(key) & mask; dynamicIds[slot] != -1; slot = (slot + 1) & mask) {
+            if (dynamicKeys[slot] == key) return dynamicIds[slot];
+        }
+        return -1;
+    }
+
+    public int registerRamp(long key, int[] colors, float[] positions) {
+        int id = registerRamp(colors, positions);
+        if ((dynamicCount + 1) * 2 > dynamicKeys.length) {
+            growDynamic();
+        }
+        insertDynamic(key, id);
+        dynamicCount++;
+        return id;
+    }
+
+    // رسم اسپرایت گرادیانت با مرکز و شعاع داده شده؛ alpha در بازه 0 تا 255 رنگ‌ها را کم‌رنگ می‌کند
+    public void draw(Canvas canvas, Paint paint, int rampId, float centerX, float centerY, float radius, int alpha) {
+        if (radius <= 0 || alpha <= 0) return;
+
+        int bucket = bucketFor(radius);
+        Rect source = spriteRects[rampId][bucket];
+        if (source == null) {
+            source = bake(rampId, bucket);
+        }
+
+        destination.set(centerX - radius, centerY - radius, centerX + radius, centerY + radius);
+        paint.setAlpha(Math.min(255, alpha));
+        canvas.drawBitmap(spritePages[rampId][bucket], source, destination, paint);
+        paint.setAlpha(255);
+    }
+
+    public void draw(Canvas canvas, Paint paint, int rampId, float centerX, float centerY, float radius) {
+        draw(canvas, paint, rampId, centerX, centerY, radius, 255);
+    }
+
+    // برای رسم دسته‌ای: اسپرایت را در صورت نیاز می‌پزد، مستطیل منبع را در out می‌نویسد و شماره صفحه اطلس را برمی‌گرداند
+    public int resolve(int rampId, float radius, Rect out) {
+        int bucket = bucketFor(radius);
+        Rect source = spriteRects[rampId][bucket];
+        if (source == null) {
+            source = bake(rampId, bucket);
+        }
+        out.set(source);
+        return pages.indexOf(spritePages[rampId][bucket]);
+    }
+
+    private int bucketFor(float radius) {
+        int diameter = (int) Math.ceil(radius * 2);
+        int bucket = 0;
+        while (bucket < BUCKET_COUNT - 1 && (1 << (MIN_SPRITE_SHIFT + bucket)) < diameter) {
+            bucket++;
+        }
+        return bucket;
+    }
+
+    // پختن گرادیانت در صفحه فعلی اطلس (چیدمان قفسه‌ای)
+    private Rect bake(int rampId, int bucket) {
+        int size = 1 << (MIN_SPRITE_SHIFT + bucket);
+        int cell = size + PADDING * 2;
+
+        if (pageCanvas == null || shelfX + cell > PAGE_SIZE) {
+            shelfX = 0;
+            shelfY += shelfHeight;
+            shelfHeight = 0;
+        }
+        if (pageCanvas == null || shelfY + cell > PAGE_SIZE) {
+            Bitmap page = Bitmap.createBitmap(PAGE_SIZE, PAGE_SIZE, Bitmap.Config.ARGB_8888);
+            pages.add(page);
+            pageCanvas = new Canvas(page);
+            shelfX = 0;
+            shelfY = 0;
+            shelfHeight = 0;
+        }
+
+        int left = shelfX + PADDING;
+        int top = shelfY + PADDING;
+        float half = size / 2f;
+        bakePaint.setShader(new RadialGradient(
+            left + half, top + half, half,
+            rampColors.get(rampId),
+            rampPositions.get(rampId),
+            Shader.TileMode.CLAMP
+        ));
+        pageCanvas.drawCircle(left + half, top + half, half, bakePaint);
+        bakePaint.setShader(null);
+
+        shelfX += cell;
+        shelfHeight = Math.max(shelfHeight, cell);
+
+        Rect source = new Rect(left, top, left + size, top + size);
+        spriteRects[rampId][bucket] = source;
+        spritePages[rampId][bucket] = pages.get(pages.size() - 1);
+        return source;
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private void insertDynamic(long key, int id) {
+        int mask = dynamicKeys.length - 1;
+        int slot = mix(key) & mask;
+        while (dynamicIds[slot] != -1) {
+            slot = (slot + 1) & mask;
+        }
+        dynamicKeys[slot] = key;
+        dynamicIds[slot] = id;
+    }
+
+    private void growDynamic() {
+        long[] oldKeys = dynamicKeys;
+        int[] oldIds = dynamicIds;
+        dynamicKeys = new long[oldKeys.length * 2];
+        dynamicIds = new int[oldIds.length * 2];
+        Arrays.fill(dynamicIds, -1);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldIds[i] != -1) insertDynamic(oldKeys[i], oldIds[i]);
+        }
+    }
+
+    // آزادسازی صفحات اطلس (اسپرایت‌ها در استفاده بعدی دوباره پخته می‌شوند)
+    public void release() {
+        for (Bitmap page : pages) {
+            page.recycle();
+        }
+        pages.clear();
+        pageCanvas = null;
+        for (int i = 0; i < rampColors.size(); i++) {
+            Arrays.fill(spriteRects[i], null);
+            Arrays.fill(spritePages[i], null);
+        }
+    }
+
+    // متدهای دسترسی
+    public int getRampCount() { return rampColors.size(); }
+    public int getPageCount() { return pages.size(); }
+    public Bitmap getPage(int index) { return pages.get(index); }
+}
@@ -0,0 +1,251 @@
+package com.space.ship.game;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+
+// اجرای دسته‌ای جلسات بازی روی JVM معمولی، سریع‌تر از زمان واقعی (بدون اندروید)
+// استفاده: java com.space.ship.game.HeadlessSimulation [sessions] [ticksPerSession] [seed] [workerThreads] [tickRate]
+// نتیجه برای هر تعداد رشته کارگر یکسان است
+public class HeadlessSimulation {
+    private static final int SCREEN_WIDTH = 1080;
+    private static final int SCREEN_HEIGHT = 1920;
+
+    public static void main(String[] args) {
+        int sessions = args.length > 0 ? Integer.parseInt(args[0]) : 100;
+        int ticksPerSession = args.length > 1 ? Integer.parseInt(args[1]) : 120 * 60;
+        long seed = args.length > 2 ? Long.parseLong(args[2]) : 1404L;
+        int workers = args.length > 3 ? Integer.parseInt(args[3]) : 0;
+        // نرخ تیک پایین‌تر گام بزرگ‌تر و برخورد پیوسته را می‌آزماید
+        int tickRate = args.length > 4 ? Integer.parseInt(args[4]) : 120;
+        float tickSeconds = 1f / tickRate;
+        JobSystem jobs = workers > 0 ? new JobSystem(workers) : null;
+
+        SimRandom seeds = new SimRandom(seed);
+        long totalTicks = 0;
+        long totalScore = 0;
+        int gameOvers = 0;
+        int maxLevel = 0;
+        ProfileSummary profile = null;
+        long poolHits = 0;
+        long poolMisses = 0;
+        long[] lodEnemyTicks = new long[SimLod.LEVELS.length];
+        long planetsDeferred = 0;
+        long kills = 0;
+        long shotsFired = 0;
+        long shotsHit = 0;
+        // برخوردهای پرتابه به تفکیک هدف؛ خلبان اسکریپتی به سمت سیارات می‌رود پس بیشتر برخوردها به سیاره است
+        long enemyHits = 0;
+        long planetHits = 0;
+        int peakProjectiles = 0;
+        // رفت و برگشت فایل ذخیره پس از هر جلسه
+        SaveFile saveFile = new SaveFile(saveFilePath());
+        long saveMicros = 0;
+        long loadMicros = 0;
+        int saveMismatches = 0;
+
+        long start = System.nanoTime();
+        for (int s = 0; s < sessions; s++) {
+            World world = new World(SCREEN_WIDTH, SCREEN_HEIGHT, seeds.nextLong());
+            world.setJobSystem(jobs);
+            world.start();
+            // ماشه همیشه نگه داشته می‌شود تا سلاح و پرتابه‌ها در بار کاری باشند
+            world.getSpaceShip().setTriggerHeld(true);
+            FrameProfiler profiler = world.getProfiler();
+
+            for (int t = 0; t < ticksPerSession && !world.isGameOver(); t++) {
+                steerToNearestPlanet(world);
+                profiler.beginFrame();
+                world.step(tickSeconds);
+                profiler.endFrame();
+
+                SimLod lod = world.getSimLod();
+                for (int level = 0; level < lodEnemyTicks.length; level++) {
+                    lodEnemyTicks[level] += lod.getEnemyCount(level);
+                }
+                planetsDeferred += lod.getPlanetsDeferred();
+                peakProjectiles = Math.max(peakProjectiles, world.getProjectileSystem().getCount());
+            }
+
+            // آمار فازها برای آخرین تیک‌های آخرین جلسه
+            if (profile == null) profile = profiler.createSummary();
+            profiler.summarize(profile);
+
+            GameState state = world.getGameState();
+            totalTicks += world.getTickCount();
+            totalScore += state.getScore();
+            maxLevel = Math.max(maxLevel, state.getCurrentLevel());
+            kills += state.getDestroyedEnemies();
+            shotsFired += state.getTotalShotsFired();
+            shotsHit += state.getTotalHits();
+            enemyHits += world.getProjectileSystem().getEnemyHitCount();
+            planetHits += world.getProjectileSystem().getPlanetHitCount();
+            if (world.isGameOver()) gameOvers++;
+            if (!roundTrip(saveFile, state)) saveMismatches++;
+            saveMicros += saveFile.getLastSaveMicros();
+            loadMicros += saveFile.getLastLoadMicros();
+            poolHits += world.getEnemyPool().getHits() + world.getPlanetPool().getHits()
+                + world.getPowerUpPool().getHits();
+            poolMisses += world.getEnemyPool().getMisses() + world.getPlanetPool().getMisses()
+                + world.getPowerUpPool().getMisses();
+        }
+        long elapsed = System.nanoTime() - start;
+        if (jobs != null) jobs.shutdown();
+
+        double seconds = elapsed / 1e9;
+        double simulatedSeconds = totalTicks * tickSeconds;
+        System.out.printf("sessions=%d ticks=%d wall=%.2fs workers=%d tickRate=%d%n", sessions, totalTicks, seconds,
+                          workers, tickRate);
+        System.out.printf("ticks/s=%.0f speedup=%.1fx%n", totalTicks / seconds, simulatedSeconds / seconds);
+        System.out.printf("avgScore=%.1f maxLevel=%d gameOvers=%d%n",
+                          (double) totalScore / Math.max(1, sessions), maxLevel, gameOvers);
+        System.out.printf("poolHits=%d poolMisses=%d%n", poolHits, poolMisses);
+        System.out.printf("lod enemy-ticks full=%d reduced=%d dormant=%d planet-ticks deferred=%d%n",
+                          lodEnemyTicks[SimLod.FULL], lodEnemyTicks[SimLod.REDUCED],
+                          lodEnemyTicks[SimLod.DORMANT], planetsDeferred);
+        System.out.printf("kills=%d shots=%d hits=%d accuracy=%.1f%% peakProjectiles=%d%n",
+                          kills, shotsFired, shotsHit, 100.0 * shotsHit / Math.max(1, shotsFired), peakProjectiles);
+        System.out.printf("projectile hits enemy=%d planet=%d pathOrder=%s%n",
+                          enemyHits, planetHits, checkHitOrder() ? "ok" : "FAIL");
+        System.out.printf("save avg=%dus load avg=%dus bytes=%d mismatches=%d%n",
+                          saveMicros / Math.max(1, sessions), loadMicros / Math.max(1, sessions),
+                          saveFile.getLastSize(), saveMismatches);
+        saveFile.getFile().delete();
+        if (profile != null) {
+            System.out.print(profile.format("tick"));
+        }
+    }
+
+    private static File saveFilePath() {
+        try {
+            File file = File.createTempFile("headless", ".sav");
+            file.deleteOnExit();
+            return file;
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    // ذخیره و بارگذاری در وضعیت تازه؛ شمارنده‌های ماندگار باید یکسان باشند
+    private static boolean roundTrip(SaveFile saveFile, GameState state) {
+        GameState loaded = new GameState();
+        try {
+            saveFile.save(state);
+            if (!saveFile.load(loaded)) return false;
+        } catch (IOException e) {
+            return false;
+        }
+        StatTable expected = state.getStats();
+        StatTable actual = loaded.getStats();
+        for (int stat = 0; stat < StatTable.COUNT; stat++) {
+            // سطح، امتیاز و سیارات سطح پس از پایان بازی یا شروع دوباره بازنشانی می‌شوند
+            if (stat == StatTable.LEVEL || stat == StatTable.SCORE || stat == StatTable.LEVEL_PLANETS) continue;
+            if (expected.get(stat) != actual.get(stat)) return false;
+        }
+        int unlocked = 0;
+        for (GameState.Achievement achievement : state.getAchievements()) {
+            if (achievement.isUnlocked()) unlocked++;
+        }
+        for (GameState.Achievement achievement : loaded.getAchievements()) {
+            if (achievement.isUnlocked()) unlocked--;
+        }
+        return unlocked == 0 && loaded.getActiveMissions().size() == state.getActiveMissions().size()
+            && loaded.getLives() > 0;
+    }
+
+    // صحنه ثابت برای ترتیب برخورد پرتابه‌ها روی مسیر:
+    // سیاره جلوی دشمن، گلوله را پیش از دشمن پشت سرش می‌گیرد و لیزر دشمنان را به ترتیب مسیر می‌شکافد
+    private static boolean checkHitOrder() {
+        SimRandom random = new SimRandom(1);
+        List<GameObject> order = new ArrayList<>();
+        ProjectileSystem.HitHandler recorder = new ProjectileSystem.HitHandler() {
+            @Override
+            public boolean onEnemyHit(Enemy enemy, float damage, float x, float y) {
+                order.add(enemy);
+                return true;
+            }
+
+            @Override
+            public boolean onPlanetHit(Planet planet, float damage, float x, float y) {
+                order.add(planet);
+                return true;
+            }
+
+            @Override
+            public void onShipHit(float damage, float x, float y) {
+            }
+        };
+
+        // گلوله از چپ به راست: سیاره در x=200 و دشمن در x=400
+        SpatialHash<Enemy> enemyGrid = new SpatialHash<>(128, 16);
+        SpatialHash<Planet> planetGrid = new SpatialHash<>(128, 16);
+        Enemy behind = place(new Enemy(SCREEN_WIDTH, SCREEN_HEIGHT, 1, Enemy.TYPE_SCOUT, random), 400, 0);
+        Planet planet = place(new Planet(200, 0, 1000, SCREEN_WIDTH, SCREEN_HEIGHT, Planet.TYPE_EARTH, 1, random), 200, 0);
+        enemyGrid.insert(behind, behind.getX(), behind.getY(), behind.getRadius());
+        planetGrid.insert(planet, planet.getX(), planet.getY(), planet.getRadius());
+        ProjectileSystem projectiles = new ProjectileSystem(16);
+        projectiles.spawn(ProjectileSystem.TYPE_BULLET, 0, 0, 0, 1);
+        projectiles.update(30 / 60f, null);
+        projectiles.collide(enemyGrid, planetGrid, null, recorder);
+        boolean planetFirst = order.size() == 1 && order.get(0) == planet;
+
+        // لیزر از راست به چپ از میان سه دشمن؛ ترتیب باید 450، 300، 150 باشد
+        order.clear();
+        enemyGrid.clear();
+        planetGrid.clear();
+        Enemy[] line = new Enemy[3];
+        for (int e = 0; e < line.length; e++) {
+            line[e] = place(new Enemy(SCREEN_WIDTH, SCREEN_HEIGHT, 1, Enemy.TYPE_SCOUT, random), 150 + 150 * e, 0);
+            enemyGrid.insert(line[e], line[e].getX(), line[e].getY(), line[e].getRadius());
+        }
+        projectiles = new ProjectileSystem(16);
+        projectiles.spawn(ProjectileSystem.TYPE_LASER, 600, 0, (float) Math.PI, 1);
+        projectiles.update(10 / 60f, null);
+        projectiles.collide(enemyGrid, planetGrid, null, recorder);
+        boolean pathOrder = order.size() == 3 && order.get(0) == line[2] && order.get(1) == line[1]
+            && order.get(2) == line[0];
+        return planetFirst && pathOrder;
+    }
+
+    // موقعیت ثابت بدون حرکت در تیک جاری (برای صحنه‌های آزمون)
+    private static <T extends GameObject> T place(T object, float x, float y) {
+        object.x = x;
+        object.y = y;
+        object.storePreviousPosition();
+        return object;
+    }
+
+    // ورودی اسکریپتی: جویستیک را به سمت نزدیک‌ترین سیاره می‌برد
+    private static void steerToNearestPlanet(World world) {
+        SpaceShip ship = world.getSpaceShip();
+        VirtualJoystick joystick = world.getJoystick();
+        List<Planet> planets = world.getPlanets();
+
+        Planet nearest = null;
+        float nearestDistance = Float.MAX_VALUE;
+        for (Planet planet : planets) {
+            float dx = planet.getX() - ship.getX();
+            float dy = planet.getY() - ship.getY();
+            float distance = dx * dx + dy * dy;
+            if (distance < nearestDistance) {
+                nearestDistance = distance;
+                nearest = planet;
+            }
+        }
+
+        if (nearest == null) {
+            joystick.setActive(false, 0, 0);
+            return;
+        }
+
+        float dx = nearest.getX() - ship.getX();
+        float dy = nearest.getY() - ship.getY();
+        float length = (float) Math.sqrt(dx * dx + dy * dy);
+        if (length < 1) length = 1;
+        float reach = joystick.getBaseRadius();
+        joystick.setActive(true,
+                           joystick.getCenterX() + dx / length * reach,
+                           joystick.getCenterY() + dy / length * reach);
+    }
+}
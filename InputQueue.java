@@ -0,0 +1,89 @@
+package com.space.ship.game;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+// صف حلقوی بدون قفل برای رویدادهای لمس: یک تولیدکننده (رشته UI) و یک مصرف‌کننده (رشته شبیه‌سازی)
+// رویدادها در آرایه‌های موازی نوشته و با lazySet شاخص نوشتن منتشر می‌شوند
+class InputQueue {
+    static final int ACTION_DOWN = 0;
+    static final int ACTION_MOVE = 1;
+    static final int ACTION_UP = 2;
+    static final int ACTION_CANCEL = 3;
+    // شناسه اشاره‌گر در اندروید کمتر از 32 است
+    private static final int MAX_POINTERS = 32;
+
+    interface Consumer {
+        void onInput(int pointerId, int action, float x, float y, long eventTimeNanos);
+    }
+
+    private final int mask;
+    private final int[] pointerIds;
+    private final int[] actions;
+    private final float[] xs, ys;
+    private final long[] eventTimes;
+
+    // شاخص‌ها همیشه افزایشی‌اند و با mask به خانه نگاشت می‌شوند
+    private final AtomicLong writeIndex = new AtomicLong();
+    private final AtomicLong readIndex = new AtomicLong();
+    // فقط تولیدکننده می‌نویسد
+    private volatile long dropped;
+    // اشاره‌گرهایی که مصرف‌کننده از آن‌ها DOWN یا MOVE گرفته و هنوز رهاسازی‌شان در صف نرفته؛
+    // برای هر کدام یک خانه آزاد نگه داشته می‌شود تا UP و CANCEL هرگز دور ریخته نشوند (فقط تولیدکننده)
+    private int pressedPointers;
+
+    public InputQueue(int capacity) {
+        int size = Integer.highestOneBit(Math.max(MAX_POINTERS + 1, capacity) - 1) << 1;
+        mask = size - 1;
+        pointerIds = new int[size];
+        actions = new int[size];
+        xs = new float[size];
+        ys = new float[size];
+        eventTimes = new long[size];
+    }
+
+    // فقط از رشته تولیدکننده؛ اگر صف (مثلاً هنگام توقف) پر شود DOWN و MOVE دور ریخته می‌شوند
+    // ولی رهاسازی اشاره‌گری که مصرف‌کننده دیده همیشه جا دارد
+    public boolean offer(int pointerId, int action, float x, float y, long eventTimeNanos) {
+        long write = writeIndex.get();
+        long free = mask + 1 - (write - readIndex.get());
+        int bit = 1 << (pointerId & (MAX_POINTERS - 1));
+        if (action == ACTION_UP || action == ACTION_CANCEL) {
+            // رهاسازی اشاره‌گری که هرگز تحویل نشده برای مصرف‌کننده بی‌معناست
+            if ((pressedPointers & bit) == 0) {
+                dropped++;
+                return false;
+            }
+            pressedPointers &= ~bit;
+        } else {
+            if (free - 1 < Integer.bitCount(pressedPointers | bit)) {
+                dropped++;
+                return false;
+            }
+            pressedPointers |= bit;
+        }
+        int slot = (int) (write & mask);
+        pointerIds[slot] = pointerId;
+        actions[slot] = action;
+        xs[slot] = x;
+        ys[slot] = y;
+        eventTimes[slot] = eventTimeNanos;
+        writeIndex.lazySet(write + 1);
+        return true;
+    }
+
+    // فقط از رشته مصرف‌کننده؛ همه رویدادهای منتشر شده به ترتیب تحویل می‌شوند
+    public int drain(Consumer consumer) {
+        long read = readIndex.get();
+        long write = writeIndex.get();
+        for (long i = read; i < write; i++) {
+            int slot = (int) (i & mask);
+            consumer.onInput(pointerIds[slot], actions[slot], xs[slot], ys[slot], eventTimes[slot]);
+        }
+        readIndex.lazySet(write);
+        return (int) (write - read);
+    }
+
+    // متدهای دسترسی
+    public int getCapacity() { return mask + 1; }
+    public long getDroppedCount() { return dropped; }
+}
@@ -0,0 +1,82 @@
+package com.space.ship.game;
+
+// مسیریابی رویدادهای لمس به ازای هر انگشت: یک انگشت جویستیک را در اختیار می‌گیرد
+// و انگشت‌های دیگر به ناحیه‌های عملیاتی (سپر و ماشه) می‌روند؛ فقط در رشته شبیه‌سازی اجرا می‌شود
+class InputRouter implements InputQueue.Consumer {
+    private static final int NO_POINTER = -1;
+    // ارتفاع ناحیه جویستیک از پایین صفحه
+    private static final float JOYSTICK_ZONE_HEIGHT = 500;
+
+    private final VirtualJoystick joystick;
+    private final SpaceShip ship;
+    private final int screenWidth, screenHeight;
+    private int joystickPointer = NO_POINTER;
+    // انگشتی که ماشه را نگه داشته است
+    private int firePointer = NO_POINTER;
+
+    // هر رویداد مصرف شده با تیک و زمان مصرفش برای سنجش تأخیر ثبت می‌شود
+    private final LatencyTracker latencyTracker;
+    private long drainTick;
+    private long drainNanos;
+    private int eventsThisTick;
+
+    public InputRouter(VirtualJoystick joystick, SpaceShip ship, int screenWidth, int screenHeight,
+                       LatencyTracker latencyTracker) {
+        this.joystick = joystick;
+        this.ship = ship;
+        this.screenWidth = screenWidth;
+        this.screenHeight = screenHeight;
+        this.latencyTracker = latencyTracker;
+    }
+
+    public void drain(InputQueue queue, long tick) {
+        drainTick = tick;
+        drainNanos = latencyTracker.now();
+        eventsThisTick = queue.drain(this);
+    }
+
+    @Override
+    public void onInput(int pointerId, int action, float x, float y, long eventTimeNanos) {
+        latencyTracker.onConsumed(eventTimeNanos, drainNanos, drainTick);
+
+        switch (action) {
+            case InputQueue.ACTION_DOWN:
+            case InputQueue.ACTION_MOVE:
+                if (pointerId == joystickPointer) {
+                    joystick.setActive(true, x, y);
+                } else if (joystickPointer == NO_POINTER && y > screenHeight - JOYSTICK_ZONE_HEIGHT) {
+                    // اولین انگشت در ناحیه جویستیک مالک آن می‌شود
+                    joystickPointer = pointerId;
+                    joystick.setActive(true, x, y);
+                } else if (pointerId != firePointer) {
+                    handleActionRegion(pointerId, action, x, y);
+                }
+                break;
+            case InputQueue.ACTION_UP:
+            case InputQueue.ACTION_CANCEL:
+                if (pointerId == joystickPointer) {
+                    joystickPointer = NO_POINTER;
+                    joystick.setActive(false, x, y);
+                } else if (pointerId == firePointer) {
+                    firePointer = NO_POINTER;
+                    ship.setTriggerHeld(false);
+                }
+                break;
+        }
+    }
+
+    // کنترل‌های لمسی خارج از جویستیک: نیمه چپ صفحه سپر را فعال می‌کند
+    // و لمس نیمه راست ماشه را تا بلند شدن همان انگشت نگه می‌دارد
+    private void handleActionRegion(int pointerId, int action, float x, float y) {
+        if (x < screenWidth / 2) {
+            ship.activateShield();
+        } else if (action == InputQueue.ACTION_DOWN && firePointer == NO_POINTER
+                   && y <= screenHeight - JOYSTICK_ZONE_HEIGHT) {
+            firePointer = pointerId;
+            ship.setTriggerHeld(true);
+        }
+    }
+
+    // متدهای دسترسی
+    public int getEventsThisTick() { return eventsThisTick; }
+}
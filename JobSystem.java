@@ -0,0 +1,229 @@
+package com.space.ship.game;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.locks.LockSupport;
+
+// سیستم کار موازی سبک برای تیک شبیه‌سازی: گراف کارهای هر تیک با وابستگی، تقسیم به تکه‌های بازه‌ای
+// و اجرای تکه‌ها توسط رشته فراخواننده و چند رشته کارگر ثابت (بدون تخصیص پس از ساخت)
+// هر تکه روی بازه جدای خود کار می‌کند، پس نتیجه به تعداد رشته‌ها و ترتیب اجرا بستگی ندارد
+class JobSystem {
+    // بدنه کار؛ بازه [begin, end) از شاخص‌ها را پردازش می‌کند
+    interface Kernel {
+        void run(int begin, int end);
+    }
+
+    private static final int MAX_JOBS = 32;
+    private static final int MAX_DEPENDENTS = 8;
+    private static final int INLINE_CHUNKS = 2;
+    // چرخش کوتاه پیش از پارک کردن کارگر بیکار؛ گراف‌های یک تیک پشت سر هم می‌آیند
+    private static final int SPIN_ITERATIONS = 2000;
+
+    // گراف کار فعلی؛ فقط بین beginGraph و run از رشته فراخواننده نوشته می‌شود
+    private final Kernel[] kernels = new Kernel[MAX_JOBS];
+    private final int[] counts = new int[MAX_JOBS];
+    private final int[] grains = new int[MAX_JOBS];
+    private final int[] chunkCounts = new int[MAX_JOBS];
+    private final int[][] dependents = new int[MAX_JOBS][MAX_DEPENDENTS];
+    private final int[] dependentCounts = new int[MAX_JOBS];
+    private final int[] dependencyCounts = new int[MAX_JOBS];
+    private int jobCount;
+
+    // وضعیت اجرا، مشترک بین رشته‌ها
+    private final AtomicIntegerArray nextChunk = new AtomicIntegerArray(MAX_JOBS);
+    private final AtomicIntegerArray remainingChunks = new AtomicIntegerArray(MAX_JOBS);
+    private final AtomicIntegerArray pendingDependencies = new AtomicIntegerArray(MAX_JOBS);
+    private final AtomicInteger remainingJobs = new AtomicInteger();
+    // کارگرهایی که ممکن است در حال خواندن گراف باشند
+    private final AtomicInteger busyWorkers = new AtomicInteger();
+    private volatile int generation;
+    private volatile boolean running = true;
+    private volatile Throwable failure;
+
+    private final Thread[] workers;
+
+    public JobSystem(int workerCount) {
+        workers = new Thread[Math.max(0, workerCount)];
+        for (int i = 0; i < workers.length; i++) {
+            workers[i] = new Thread(this::workerLoop, "SimWorker-" + i);
+            workers[i].setDaemon(true);
+            workers[i].start();
+        }
+    }
+
+    // نیمی از هسته‌ها (تقریب هسته‌های بزرگ در پردازنده‌های big.LITTLE) منهای رشته شبیه‌سازی
+    // و رشته رندر که خودشان هسته می‌گیرند
+    public static int defaultWorkerCount() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        return Math.max(0, Math.min(4, cores / 2 - 1));
+    }
+
+    public void beginGraph() {
+        jobCount = 0;
+    }
+
+    // افزودن کار روی count شاخص در تکه‌های grain تایی؛ شناسه کار برای تعریف وابستگی برمی‌گردد
+    public int add(Kernel kernel, int count, int grain) {
+        if (jobCount == MAX_JOBS) {
+            throw new IllegalStateException("too many jobs in one graph");
+        }
+        int job = jobCount++;
+        kernels[job] = kernel;
+        counts[job] = count;
+        grains[job] = Math.max(1, grain);
+        chunkCounts[job] = (count + grains[job] - 1) / grains[job];
+        dependentCounts[job] = 0;
+        dependencyCounts[job] = 0;
+        return job;
+    }
+
+    // کار job پس از پایان prerequisite شروع می‌شود؛ پیش‌نیاز باید زودتر افزوده شده باشد (گراف بدون حلقه)
+    public void dependsOn(int job, int prerequisite) {
+        if (prerequisite >= job) {
+            throw new IllegalArgumentException("prerequisite must be added before job " + job);
+        }
+        if (dependentCounts[prerequisite] == MAX_DEPENDENTS) {
+            throw new IllegalStateException("too many dependents for job " + prerequisite);
+        }
+        dependents[prerequisite][dependentCounts[prerequisite]++] = job;
+        dependencyCounts[job]++;
+    }
+
+    // اجرای گراف تا پایان همه کارها؛ رشته فراخواننده هم تکه‌ها را اجرا می‌کند
+    public void run() {
+        if (jobCount == 0) return;
+
+        // گراف کوچک (حداکثر یک تکه برای همه) بیدار کردن کارگرها را نمی‌ارزد
+        int totalChunks = 0;
+        for (int job = 0; job < jobCount; job++) {
+            totalChunks += chunkCounts[job];
+        }
+        if (totalChunks <= INLINE_CHUNKS || workers.length == 0) {
+            runInline();
+            return;
+        }
+
+        int active = 0;
+        for (int job = 0; job < jobCount; job++) {
+            nextChunk.set(job, 0);
+            remainingChunks.set(job, chunkCounts[job]);
+            pendingDependencies.set(job, dependencyCounts[job]);
+            if (chunkCounts[job] > 0) active++;
+        }
+        // کارهای خالی بلافاصله تمام می‌شوند و وابسته‌هایشان را آزاد می‌کنند
+        remainingJobs.set(active);
+        for (int job = 0; job < jobCount; job++) {
+            if (chunkCounts[job] == 0) completeDependents(job);
+        }
+        if (active == 0) return;
+
+        // انتشار گراف به کارگرها؛ نوشتن generation پس از همه نوشتن‌های بالا انجام می‌شود
+        generation++;
+        for (Thread worker : workers) {
+            LockSupport.unpark(worker);
+        }
+
+        while (remainingJobs.get() > 0) {
+            if (!runOneChunk()) {
+                Thread.yield();
+            }
+        }
+        // پیش از آن‌که گراف بعدی نوشته شود هیچ کارگری نباید هنوز آرایه‌های این گراف را بخواند
+        while (busyWorkers.get() > 0) {
+            Thread.yield();
+        }
+
+        Throwable error = failure;
+        if (error != null) {
+            failure = null;
+            throw new IllegalStateException("job failed", error);
+        }
+    }
+
+    // اجرای ترتیبی به ترتیب افزودن، که وابستگی‌ها را هم رعایت می‌کند
+    private void runInline() {
+        for (int job = 0; job < jobCount; job++) {
+            if (counts[job] > 0) kernels[job].run(0, counts[job]);
+        }
+    }
+
+    // اجرای یک تکه از اولین کار آماده؛ false یعنی فعلاً کاری برای برداشتن نبود
+    private boolean runOneChunk() {
+        for (int job = 0; job < jobCount; job++) {
+            if (pendingDependencies.get(job) > 0) continue;
+            if (nextChunk.get(job) >= chunkCounts[job]) continue;
+
+            int chunk = nextChunk.getAndIncrement(job);
+            if (chunk >= chunkCounts[job]) continue;
+
+            int begin = chunk * grains[job];
+            int end = Math.min(counts[job], begin + grains[job]);
+            try {
+                kernels[job].run(begin, end);
+            } catch (Throwable t) {
+                failure = t;
+            }
+            if (remainingChunks.decrementAndGet(job) == 0) {
+                completeDependents(job);
+                remainingJobs.decrementAndGet();
+            }
+            return true;
+        }
+        return false;
+    }
+
+    private void completeDependents(int job) {
+        for (int d = 0; d < dependentCounts[job]; d++) {
+            pendingDependencies.decrementAndGet(dependents[job][d]);
+        }
+    }
+
+    private void workerLoop() {
+        int seen = 0;
+        while (running) {
+            busyWorkers.incrementAndGet();
+            int current = generation;
+            boolean fresh = current != seen;
+            if (fresh) {
+                seen = current;
+                while (running && remainingJobs.get() > 0) {
+                    if (!runOneChunk()) {
+                        Thread.yield();
+                    }
+                }
+            }
+            busyWorkers.decrementAndGet();
+            if (!fresh) {
+                idle(seen);
+            }
+        }
+    }
+
+    private void idle(int seen) {
+        for (int i = 0; i < SPIN_ITERATIONS && generation == seen && running; i++) {
+            Thread.yield();
+        }
+        if (generation == seen && running) {
+            LockSupport.park(this);
+        }
+    }
+
+    public void shutdown() {
+        running = false;
+        for (Thread worker : workers) {
+            LockSupport.unpark(worker);
+        }
+        for (Thread worker : workers) {
+            try {
+                worker.join(500);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    // متدهای دسترسی
+    public int getWorkerCount() { return workers.length; }
+    public int getThreadCount() { return workers.length + 1; }
+}
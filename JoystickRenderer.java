@@ -0,0 +1,74 @@
+package com.space.ship.game;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+// رسم جویستیک مجازی از روی وضعیت آن
+class JoystickRenderer {
+    private final GlowSpriteCache sprites;
+    private final int baseRamp;
+    private final int handleRamp;
+    
+    public JoystickRenderer(GlowSpriteCache sprites) {
+        this.sprites = sprites;
+        baseRamp = sprites.registerRamp(new int[]{
+            Color.argb(150, 80, 80, 80),
+            Color.argb(100, 60, 60, 60),
+            Color.argb(50, 40, 40, 40)
+        }, null);
+        // آلفای دسته هنگام رسم اعمال می‌شود
+        handleRamp = sprites.registerRamp(new int[]{
+            Color.argb(255, 220, 220, 220),
+            Color.argb(178, 180, 180, 180),
+            Color.argb(102, 140, 140, 140)
+        }, null);
+    }
+    
+    public void draw(Canvas canvas, Paint paint, VirtualJoystick joystick) {
+        float centerX = joystick.getCenterX();
+        float centerY = joystick.getCenterY();
+        float handleX = joystick.getHandleX();
+        float handleY = joystick.getHandleY();
+        float baseRadius = joystick.getBaseRadius();
+        float handleRadius = joystick.getHandleRadius();
+        float activationAnim = joystick.getActivationAnim();
+        float pulseAnim = joystick.getPulseAnim();
+        boolean isActive = joystick.isActive();
+        
+        float currentBaseRadius = baseRadius * (0.9f + activationAnim * 0.1f);
+        float currentHandleRadius = handleRadius * (0.8f + activationAnim * 0.2f);
+        float pulseEffect = (float)Math.sin(pulseAnim * Math.PI * 2) * 0.1f + 0.9f;
+        
+        // پایه جویستیک با گرادیانت
+        sprites.draw(canvas, paint, baseRamp, centerX, centerY, currentBaseRadius * pulseEffect);
+        
+        // حلقه بیرونی
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeWidth(3);
+        paint.setColor(Color.argb(200, 120, 120, 120));
+        canvas.drawCircle(centerX, centerY, currentBaseRadius, paint);
+        
+        // دسته جویستیک
+        if (isActive) {
+            float handleAlpha = 200 + activationAnim * 55;
+            paint.setStyle(Paint.Style.FILL);
+            sprites.draw(canvas, paint, handleRamp, handleX, handleY, currentHandleRadius, (int)handleAlpha);
+            
+            // درخشش دسته
+            paint.setColor(Color.argb(100, 255, 255, 255));
+            canvas.drawCircle(handleX, handleY, currentHandleRadius * 1.3f, paint);
+        } else {
+            paint.setStyle(Paint.Style.FILL);
+            paint.setColor(Color.argb(150, 180, 180, 180));
+            canvas.drawCircle(handleX, handleY, currentHandleRadius, paint);
+        }
+        
+        // مرکز دسته
+        paint.setColor(Color.argb(255, 100, 100, 100));
+        canvas.drawCircle(handleX, handleY, currentHandleRadius * 0.5f, paint);
+        
+        paint.setStyle(Paint.Style.FILL);
+        paint.setShader(null);
+    }
+}
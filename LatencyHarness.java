@@ -0,0 +1,129 @@
+package com.space.ship.game;
+
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.Writer;
+
+// اندازه‌گیری تأخیر ورودی بدون اندروید با ساعت مصنوعی؛ خروجی برای یک بذر و پیکربندی همیشه یکسان است
+// لمس، تیک شبیه‌سازی، همگام‌سازی عمودی و ارسال فریم به صورت رویدادهای زمان‌دار مدل می‌شوند
+// استفاده: java com.space.ship.game.LatencyHarness [seconds] [seed] [tickRate] [touchRate]
+//          [refreshRate] [renderMillis] [budgetP95Millis] [csvPath]
+// اگر بودجه داده شود و صدک 95 تأخیر کل از آن بیشتر باشد، خروجی با کد 1 تمام می‌شود
+public class LatencyHarness {
+    private static final int SCREEN_WIDTH = 1080;
+    private static final int SCREEN_HEIGHT = 1920;
+    private static final int JOYSTICK_POINTER = 0;
+    private static final int SHIELD_POINTER = 1;
+    // هر دو ثانیه یک ضربه کوتاه انگشت دوم روی ناحیه سپر
+    private static final long SHIELD_TAP_PERIOD = 2000000000L;
+    private static final long SHIELD_TAP_LENGTH = 100000000L;
+
+    // ساعت مصنوعی مشترک بین ورودی، ردیاب تأخیر و مدل نمایش
+    private static class SyntheticClock implements LatencyTracker.TimeSource {
+        long nanos;
+
+        @Override
+        public long nanoTime() {
+            return nanos;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        double seconds = args.length > 0 ? Double.parseDouble(args[0]) : 60;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 1404L;
+        int tickRate = args.length > 2 ? Integer.parseInt(args[2]) : 120;
+        int touchRate = args.length > 3 ? Integer.parseInt(args[3]) : 120;
+        int refreshRate = args.length > 4 ? Integer.parseInt(args[4]) : 60;
+        double renderMillis = args.length > 5 ? Double.parseDouble(args[5]) : 6;
+        double budgetMillis = args.length > 6 ? Double.parseDouble(args[6]) : 0;
+        String csvPath = args.length > 7 ? args[7] : null;
+
+        SyntheticClock clock = new SyntheticClock();
+        World world = new World(SCREEN_WIDTH, SCREEN_HEIGHT, seed);
+        world.start();
+        LatencyTracker tracker = world.getLatencyTracker();
+        tracker.setTimeSource(clock);
+        InputQueue queue = world.getInputQueue();
+        VirtualJoystick joystick = world.getJoystick();
+
+        long endNanos = (long) (seconds * 1e9);
+        long tickPeriod = 1000000000L / tickRate;
+        long touchPeriod = 1000000000L / touchRate;
+        long refreshPeriod = 1000000000L / refreshRate;
+        long renderNanos = (long) (renderMillis * 1e6);
+        float stepSeconds = tickPeriod / 1e9f;
+
+        // فاز لمس نسبت به تیک‌ها تصادفی است، مثل سخت‌افزار واقعی
+        SimRandom phase = new SimRandom(seed).stream(0);
+        long nextTouch = (long) (phase.nextDouble() * touchPeriod);
+        long nextTick = tickPeriod;
+        long nextVsync = refreshPeriod;
+        long nextShieldTap = SHIELD_TAP_PERIOD;
+        long shieldUpAt = -1;
+        long presentAt = -1;
+        long presentTick = 0;
+        long publishedTick = 0;
+        boolean joystickDown = false;
+        long frames = 0;
+
+        while (clock.nanos < endNanos && !world.isGameOver()) {
+            long t = Math.min(Math.min(nextTouch, nextTick), Math.min(nextVsync, nextShieldTap));
+            if (presentAt >= 0) t = Math.min(t, presentAt);
+            if (shieldUpAt >= 0) t = Math.min(t, shieldUpAt);
+            clock.nanos = t;
+
+            if (t == nextTouch) {
+                // انگشت اول دور مرکز جویستیک می‌چرخد (نیم دور در ثانیه)
+                double angle = t / 1e9 * Math.PI;
+                float reach = joystick.getBaseRadius() * 0.8f;
+                float x = joystick.getCenterX() + (float) Math.cos(angle) * reach;
+                float y = joystick.getCenterY() + (float) Math.sin(angle) * reach;
+                queue.offer(JOYSTICK_POINTER, joystickDown ? InputQueue.ACTION_MOVE : InputQueue.ACTION_DOWN, x, y, t);
+                joystickDown = true;
+                nextTouch += touchPeriod;
+            } else if (t == shieldUpAt) {
+                queue.offer(SHIELD_POINTER, InputQueue.ACTION_UP, SCREEN_WIDTH / 4f, SCREEN_HEIGHT / 4f, t);
+                shieldUpAt = -1;
+            } else if (t == nextShieldTap) {
+                queue.offer(SHIELD_POINTER, InputQueue.ACTION_DOWN, SCREEN_WIDTH / 4f, SCREEN_HEIGHT / 4f, t);
+                shieldUpAt = t + SHIELD_TAP_LENGTH;
+                nextShieldTap += SHIELD_TAP_PERIOD;
+            } else if (t == nextTick) {
+                world.step(stepSeconds);
+                publishedTick = world.getTickCount();
+                nextTick += tickPeriod;
+            } else if (t == presentAt) {
+                tracker.onPresented(presentTick);
+                presentAt = -1;
+                frames++;
+            } else {
+                // رسم با همگام‌سازی عمودی شروع می‌شود و آخرین تصویر منتشر شده را می‌کشد؛ فریم در حال رسم رد می‌شود
+                if (presentAt < 0) {
+                    presentTick = publishedTick;
+                    presentAt = t + renderNanos;
+                }
+                nextVsync += refreshPeriod;
+            }
+        }
+
+        System.out.printf("simulated=%.2fs ticks=%d frames=%d tickRate=%d touchRate=%d refresh=%d render=%.1fms%n",
+                          clock.nanos / 1e9, world.getTickCount(), frames, tickRate, touchRate, refreshRate, renderMillis);
+        if (world.isGameOver()) {
+            System.out.println("note: game over before the end of the run");
+        }
+        System.out.print(tracker.format("latency"));
+
+        if (csvPath != null) {
+            try (Writer out = new FileWriter(csvPath)) {
+                tracker.writeCsv(out);
+            }
+        }
+
+        if (budgetMillis > 0) {
+            long p95 = tracker.getHistogram(LatencyTracker.STAGE_TOTAL).percentile(0.95);
+            boolean pass = p95 <= budgetMillis * 1e6;
+            System.out.printf("budget p95 %.2f ms: %s (%.2f ms)%n", budgetMillis, pass ? "PASS" : "FAIL", p95 / 1e6);
+            if (!pass) System.exit(1);
+        }
+    }
+}
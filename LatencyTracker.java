@@ -0,0 +1,195 @@
+package com.space.ship.game;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+
+// سنجش تأخیر ورودی تا نمایش: زمان رویداد لمس، تیکی که آن را مصرف کرد و ارسال فریمی که نتیجه را نشان داد
+// رشته شبیه‌سازی مصرف رویدادها را در یک صف حلقوی می‌نویسد و رشته رندر پس از ارسال فریم آن‌ها را برمی‌دارد
+class LatencyTracker {
+    // منبع زمان؛ روی دستگاه System.nanoTime (هم‌پایه با زمان رویدادهای MotionEvent) و در اجرای بدون صفحه ساعت مصنوعی
+    // زمان رویداد پیش از API 34 فقط دقت میلی‌ثانیه دارد و مراحل input->tick و input->post را تا ۱ میلی‌ثانیه بیشتر نشان می‌دهد
+    interface TimeSource {
+        long nanoTime();
+    }
+
+    static final TimeSource SYSTEM_TIME = System::nanoTime;
+
+    // مراحل مسیر ورودی
+    static final int STAGE_QUEUE = 0;
+    static final int STAGE_FRAME = 1;
+    static final int STAGE_TOTAL = 2;
+    static final String[] STAGES = {"input->tick", "tick->post", "input->post"};
+
+    // نمونه‌هایی که بیش از این منتظر مانده‌اند مربوط به توقف بازی‌اند نه تأخیر واقعی
+    private static final long STALE_NANOS = 1000000000L;
+
+    private final int mask;
+    private final long[] eventTimes;
+    private final long[] consumeTimes;
+    private final long[] ticks;
+    private final AtomicLong writeIndex = new AtomicLong();
+    private final AtomicLong readIndex = new AtomicLong();
+    private volatile long dropped;
+
+    // فقط رشته رندر می‌نویسد
+    private final LatencyHistogram[] histograms = new LatencyHistogram[STAGES.length];
+    private long stale;
+
+    private volatile TimeSource timeSource = SYSTEM_TIME;
+
+    public LatencyTracker(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity) - 1) << 1;
+        mask = size - 1;
+        eventTimes = new long[size];
+        consumeTimes = new long[size];
+        ticks = new long[size];
+        for (int i = 0; i < histograms.length; i++) {
+            histograms[i] = new LatencyHistogram();
+        }
+    }
+
+    public void setTimeSource(TimeSource timeSource) {
+        this.timeSource = timeSource;
+    }
+
+    public long now() {
+        return timeSource.nanoTime();
+    }
+
+    // رشته شبیه‌سازی: رویدادی با زمان eventNanos در تیک tick مصرف شد
+    public void onConsumed(long eventNanos, long consumeNanos, long tick) {
+        long write = writeIndex.get();
+        if (write - readIndex.get() > mask) {
+            dropped++;
+            return;
+        }
+        int slot = (int) (write & mask);
+        eventTimes[slot] = eventNanos;
+        consumeTimes[slot] = consumeNanos;
+        ticks[slot] = tick;
+        writeIndex.lazySet(write + 1);
+    }
+
+    // رشته رندر: فریمی با وضعیت تیک tick همین حالا ارسال شد؛ تعداد نمونه‌های ثبت شده برمی‌گردد
+    public int onPresented(long tick) {
+        long presentNanos = now();
+        long read = readIndex.get();
+        long write = writeIndex.get();
+        int recorded = 0;
+        // رویدادهای تیک‌های بعدی هنوز در هیچ فریمی دیده نشده‌اند
+        while (read < write) {
+            int slot = (int) (read & mask);
+            if (ticks[slot] > tick) break;
+            long total = presentNanos - eventTimes[slot];
+            if (total > STALE_NANOS) {
+                stale++;
+            } else {
+                histograms[STAGE_QUEUE].record(consumeTimes[slot] - eventTimes[slot]);
+                histograms[STAGE_FRAME].record(presentNanos - consumeTimes[slot]);
+                histograms[STAGE_TOTAL].record(total);
+                recorded++;
+            }
+            read++;
+        }
+        readIndex.lazySet(read);
+        return recorded;
+    }
+
+    // فقط از رشته رندر یا پس از توقف رشته‌ها
+    public void resetStats() {
+        for (LatencyHistogram histogram : histograms) {
+            histogram.reset();
+        }
+        stale = 0;
+    }
+
+    // گزارش متنی صدک‌ها برای لاگ، نمایشگر کارایی یا اجرای بدون صفحه
+    public String format(String title) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format("%s samples=%d dropped=%d stale=%d%n",
+            title, histograms[STAGE_TOTAL].getCount(), dropped, stale));
+        for (int s = 0; s < STAGES.length; s++) {
+            LatencyHistogram h = histograms[s];
+            sb.append(String.format("  %-12s mean=%.2f p50=%.2f p95=%.2f p99=%.2f max=%.2f ms%n",
+                STAGES[s], h.getMean() / 1e6, h.percentile(0.50) / 1e6, h.percentile(0.95) / 1e6,
+                h.percentile(0.99) / 1e6, h.getMax() / 1e6));
+        }
+        return sb.toString();
+    }
+
+    // خروجی CSV هیستوگرام‌ها: یک سطر برای هر سطل با تعداد هر مرحله
+    public void writeCsv(Appendable out) throws IOException {
+        out.append("bucket_ms");
+        for (String stage : STAGES) {
+            out.append(',').append(stage);
+        }
+        out.append('\n');
+        for (int b = 0; b < LatencyHistogram.BUCKETS + 1; b++) {
+            if (b < LatencyHistogram.BUCKETS) {
+                out.append(String.format("%.1f", LatencyHistogram.bucketUpperNanos(b) / 1e6));
+            } else {
+                out.append("overflow");
+            }
+            for (LatencyHistogram histogram : histograms) {
+                out.append(',').append(Long.toString(histogram.getBucket(b)));
+            }
+            out.append('\n');
+        }
+    }
+
+    // متدهای دسترسی
+    public LatencyHistogram getHistogram(int stage) { return histograms[stage]; }
+    public long getDroppedCount() { return dropped; }
+    public long getStaleCount() { return stale; }
+    public int getCapacity() { return mask + 1; }
+}
+
+// هیستوگرام با سطل‌های ثابت نیم میلی‌ثانیه‌ای تا 100 میلی‌ثانیه؛ بیشتر از آن در سطل سرریز
+class LatencyHistogram {
+    static final int BUCKETS = 200;
+    static final long BUCKET_NANOS = 500000L;
+
+    private final long[] buckets = new long[BUCKETS + 1];
+    private long count;
+    private long sum;
+    private long max;
+
+    public void record(long nanos) {
+        if (nanos < 0) nanos = 0;
+        int bucket = (int) Math.min(BUCKETS, nanos / BUCKET_NANOS);
+        buckets[bucket]++;
+        count++;
+        sum += nanos;
+        if (nanos > max) max = nanos;
+    }
+
+    public void reset() {
+        Arrays.fill(buckets, 0);
+        count = 0;
+        sum = 0;
+        max = 0;
+    }
+
+    // مرز بالای سطلی که صدک در آن است؛ برای سطل سرریز بیشینه واقعی برمی‌گردد
+    public long percentile(double fraction) {
+        if (count == 0) return 0;
+        long target = Math.max(1, (long) Math.ceil(fraction * count));
+        long seen = 0;
+        for (int b = 0; b < BUCKETS; b++) {
+            seen += buckets[b];
+            if (seen >= target) return Math.min(max, bucketUpperNanos(b));
+        }
+        return max;
+    }
+
+    static long bucketUpperNanos(int bucket) {
+        return (bucket + 1) * BUCKET_NANOS;
+    }
+
+    // متدهای دسترسی
+    public long getCount() { return count; }
+    public long getMax() { return max; }
+    public long getMean() { return count == 0 ? 0 : sum / count; }
+    public long getBucket(int bucket) { return buckets[bucket]; }
+}
@@ -0,0 +1,56 @@
+package com.space.ship.game;
+
+import java.util.Arrays;
+
+// استخر اشیای قابل استفاده مجدد؛ اشیای گرفته شده باید پیش از استفاده با reinit مقداردهی شوند
+// فقط از رشته شبیه‌سازی استفاده می‌شود (بدون همگام‌سازی)
+class ObjectPool<T> {
+    interface Factory<T> {
+        T create();
+    }
+
+    private final Factory<T> factory;
+    private Object[] free;
+    private int freeCount;
+
+    // آمار استفاده: hit یعنی شیء از استخر آمد، miss یعنی ساخته شد
+    private long hits;
+    private long misses;
+
+    public ObjectPool(Factory<T> factory, int prewarm) {
+        this.factory = factory;
+        free = new Object[Math.max(8, prewarm)];
+        for (int i = 0; i < prewarm; i++) {
+            free[freeCount++] = factory.create();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public T obtain() {
+        if (freeCount > 0) {
+            hits++;
+            T item = (T) free[--freeCount];
+            free[freeCount] = null;
+            return item;
+        }
+        misses++;
+        return factory.create();
+    }
+
+    public void release(T item) {
+        if (freeCount == free.length) {
+            free = Arrays.copyOf(free, freeCount * 2);
+        }
+        free[freeCount++] = item;
+    }
+
+    public void resetStats() {
+        hits = 0;
+        misses = 0;
+    }
+
+    // متدهای دسترسی
+    public long getHits() { return hits; }
+    public long getMisses() { return misses; }
+    public int getFreeCount() { return freeCount; }
+}
@@ -0,0 +1,85 @@
+package com.space.ship.game;
+
+// تصویر فشرده ذرات برای رشته رندر (آرایه‌های اولیه، بدون تخصیص پس از گرم شدن)
+class ParticleFrame {
+    static final int KIND_BASIC = 0;
+    static final int KIND_ADVANCED = 1;
+    static final int KIND_SHOCKWAVE = 2;
+    static final int KIND_BLACK_HOLE = 3;
+    static final int KIND_ENERGY_RING = 4;
+
+    private int count;
+    private int[] kind;
+    private int[] subtype;
+    private int[] color;
+    private float[] x, y;
+    private float[] size;
+    private float[] lifeRatio;
+    private float[] rotation;
+    // مقیاس ذره پیشرفته یا اندازه فعلی موج شوک
+    private float[] extent;
+
+    public ParticleFrame(int initialCapacity) {
+        allocate(Math.max(16, initialCapacity));
+    }
+
+    private void allocate(int capacity) {
+        kind = grow(kind, capacity);
+        subtype = grow(subtype, capacity);
+        color = grow(color, capacity);
+        x = grow(x, capacity);
+        y = grow(y, capacity);
+        size = grow(size, capacity);
+        lifeRatio = grow(lifeRatio, capacity);
+        rotation = grow(rotation, capacity);
+        extent = grow(extent, capacity);
+    }
+
+    private int[] grow(int[] old, int capacity) {
+        int[] array = new int[capacity];
+        if (old != null) System.arraycopy(old, 0, array, 0, count);
+        return array;
+    }
+
+    private float[] grow(float[] old, int capacity) {
+        float[] array = new float[capacity];
+        if (old != null) System.arraycopy(old, 0, array, 0, count);
+        return array;
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    public int size() {
+        return count;
+    }
+
+    public void add(int particleKind, int particleSubtype, float px, float py, float particleSize,
+                    int particleColor, float ratio, float particleRotation, float particleExtent) {
+        if (count == kind.length) {
+            allocate(count * 2);
+        }
+        kind[count] = particleKind;
+        subtype[count] = particleSubtype;
+        x[count] = px;
+        y[count] = py;
+        size[count] = particleSize;
+        color[count] = particleColor;
+        lifeRatio[count] = ratio;
+        rotation[count] = particleRotation;
+        extent[count] = particleExtent;
+        count++;
+    }
+
+    // متدهای دسترسی
+    public int getKind(int i) { return kind[i]; }
+    public int getSubtype(int i) { return subtype[i]; }
+    public int getColor(int i) { return color[i]; }
+    public float getX(int i) { return x[i]; }
+    public float getY(int i) { return y[i]; }
+    public float getSize(int i) { return size[i]; }
+    public float getLifeRatio(int i) { return lifeRatio[i]; }
+    public float getRotation(int i) { return rotation[i]; }
+    public float getExtent(int i) { return extent[i]; }
+}
@@ -0,0 +1,395 @@
+package com.space.ship.game;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapShader;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Rect;
+import android.graphics.Shader;
+import java.util.Arrays;
+
+// رسم تصویر فشرده ذرات روی بوم
+// مسیر دسته‌ای: اسپرایت‌های گرادیانت به ازای هر صفحه اطلس و دایره‌های توپر با یک بافت دایره سفید
+// (رنگ هر ذره در رنگ رأس‌ها) هر کدام با چند drawVertices رسم می‌شوند؛ موج شوک (حلقه خطی) تک‌تک رسم می‌شود
+class ParticleRenderer {
+    private static final int DISC_TEXTURE_SIZE = 64;
+
+    private final GlowSpriteCache sprites;
+    private final int blackHoleRamp;
+    private volatile boolean batching = true;
+
+    private final VertexBatch batch = new VertexBatch();
+    private final Paint batchPaint = new Paint(Paint.FILTER_BITMAP_FLAG);
+    private Bitmap discTexture;
+    private BitmapShader discShader;
+    private Bitmap[] pageBitmaps = new Bitmap[2];
+    private BitmapShader[] pageShaders = new BitmapShader[2];
+
+    // اسپرایت‌های حل شده این فریم: صفحه اطلس، مستطیل منبع، مرکز، شعاع و آلفا
+    private int spriteCount;
+    private int[] spritePage = new int[256];
+    private int[] spriteAlpha = new int[256];
+    private static final int SPRITE_STRIDE = 7;
+    private float[] spriteData = new float[256 * SPRITE_STRIDE];
+    private final Rect spriteSource = new Rect();
+
+    public ParticleRenderer(GlowSpriteCache sprites) {
+        this.sprites = sprites;
+        blackHoleRamp = sprites.registerRamp(new int[]{
+            Color.argb(255, 100, 50, 200),
+            Color.argb(127, 150, 100, 255)
+        }, null);
+    }
+
+    // خاموش کردن مسیر دسته‌ای برای مقایسه کارایی با رسم تک‌تک
+    public void setBatchingEnabled(boolean enabled) {
+        batching = enabled;
+    }
+
+    // تعداد فراخوانی‌های رسم برگردانده می‌شود
+    public int draw(Canvas canvas, Paint paint, ParticleFrame frame) {
+        if (!batching) {
+            drawEach(canvas, paint, frame);
+            return frame.size();
+        }
+        int calls = drawSprites(canvas, frame);
+        calls += drawDiscs(canvas, frame);
+        for (int i = 0; i < frame.size(); i++) {
+            if (frame.getKind(i) == ParticleFrame.KIND_SHOCKWAVE) {
+                drawShockwave(canvas, paint, frame, i);
+                calls++;
+            }
+        }
+        return calls;
+    }
+
+    // گرادیانت ذرات پیشرفته و سیاه‌چاله: ابتدا همه اسپرایت‌ها حل و سپس به ترتیب صفحه اطلس ارسال می‌شوند
+    private int drawSprites(Canvas canvas, ParticleFrame frame) {
+        spriteCount = 0;
+        int lastPage = -1;
+        for (int i = 0; i < frame.size(); i++) {
+            int kind = frame.getKind(i);
+            float ratio = frame.getLifeRatio(i);
+            int ramp;
+            float radius;
+            if (kind == ParticleFrame.KIND_ADVANCED) {
+                ramp = advancedRamp(frame.getSubtype(i), frame.getColor(i));
+                radius = frame.getSize(i) * frame.getExtent(i) * ratio;
+            } else if (kind == ParticleFrame.KIND_BLACK_HOLE) {
+                ramp = blackHoleRamp;
+                radius = frame.getSize(i) * ratio;
+            } else {
+                continue;
+            }
+            int alpha = Math.min(255, (int)(255 * ratio));
+            if (radius <= 0 || alpha <= 0) continue;
+
+            int page = sprites.resolve(ramp, radius, spriteSource);
+            addSprite(page, alpha, frame.getX(i), frame.getY(i), radius);
+            lastPage = Math.max(lastPage, page);
+        }
+
+        int calls = 0;
+        for (int page = 0; page <= lastPage; page++) {
+            batchPaint.setShader(pageShader(page));
+            for (int s = 0; s < spriteCount; s++) {
+                if (spritePage[s] != page) continue;
+                if (batch.isFull()) {
+                    calls += batch.flush(canvas, batchPaint);
+                }
+                int o = s * SPRITE_STRIDE;
+                int a = spriteAlpha[s];
+                batch.add(spriteData[o], spriteData[o + 1], spriteData[o + 2],
+                          spriteData[o + 3], spriteData[o + 4], spriteData[o + 5], spriteData[o + 6],
+                          Color.argb(a, 255, 255, 255));
+            }
+            calls += batch.flush(canvas, batchPaint);
+        }
+        batchPaint.setShader(null);
+        return calls;
+    }
+
+    private void addSprite(int page, int alpha, float x, float y, float radius) {
+        if (spriteCount == spritePage.length) {
+            int capacity = spriteCount * 2;
+            spritePage = Arrays.copyOf(spritePage, capacity);
+            spriteAlpha = Arrays.copyOf(spriteAlpha, capacity);
+            spriteData = Arrays.copyOf(spriteData, capacity * SPRITE_STRIDE);
+        }
+        int o = spriteCount * SPRITE_STRIDE;
+        spritePage[spriteCount] = page;
+        spriteAlpha[spriteCount] = alpha;
+        spriteData[o] = x;
+        spriteData[o + 1] = y;
+        spriteData[o + 2] = radius;
+        spriteData[o + 3] = spriteSource.left;
+        spriteData[o + 4] = spriteSource.top;
+        spriteData[o + 5] = spriteSource.right;
+        spriteData[o + 6] = spriteSource.bottom;
+        spriteCount++;
+    }
+
+    // دایره‌های توپر (ذره ساده، حلقه انرژی و درخشش‌ها) با بافت دایره سفید و رنگ رأس
+    private int drawDiscs(Canvas canvas, ParticleFrame frame) {
+        batchPaint.setShader(discShader());
+        float t0 = 0;
+        float t1 = DISC_TEXTURE_SIZE;
+        int calls = 0;
+        for (int i = 0; i < frame.size(); i++) {
+            int kind = frame.getKind(i);
+            if (kind == ParticleFrame.KIND_SHOCKWAVE || kind == ParticleFrame.KIND_BLACK_HOLE) continue;
+            if (batch.isFull()) {
+                calls += batch.flush(canvas, batchPaint);
+            }
+
+            float ratio = frame.getLifeRatio(i);
+            int alpha = Math.min(255, (int)(255 * ratio));
+            int c = frame.getColor(i);
+            float x = frame.getX(i);
+            float y = frame.getY(i);
+            if (kind == ParticleFrame.KIND_ADVANCED) {
+                // درخشش روی گرادیانت
+                batch.add(x, y, frame.getSize(i) * frame.getExtent(i) * ratio * 1.5f, t0, t0, t1, t1,
+                          Color.argb(alpha / 3, 255, 255, 255));
+            } else if (kind == ParticleFrame.KIND_ENERGY_RING) {
+                float radius = frame.getSize(i) * ratio;
+                batch.add(x, y, radius, t0, t0, t1, t1, Color.argb(alpha, Color.red(c), Color.green(c), Color.blue(c)));
+                if (batch.isFull()) {
+                    calls += batch.flush(canvas, batchPaint);
+                }
+                batch.add(x, y, radius * 1.5f, t0, t0, t1, t1, Color.argb(alpha / 2, 255, 255, 255));
+            } else {
+                batch.add(x, y, frame.getSize(i) * ratio, t0, t0, t1, t1,
+                          Color.argb(alpha, Color.red(c), Color.green(c), Color.blue(c)));
+            }
+        }
+        calls += batch.flush(canvas, batchPaint);
+        batchPaint.setShader(null);
+        return calls;
+    }
+
+    // بافت دایره سفید لبه‌نرم؛ رنگ و آلفا از رنگ رأس‌ها ضرب می‌شود
+    private BitmapShader discShader() {
+        if (discShader == null) {
+            discTexture = Bitmap.createBitmap(DISC_TEXTURE_SIZE, DISC_TEXTURE_SIZE, Bitmap.Config.ARGB_8888);
+            Paint bakePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+            bakePaint.setColor(Color.WHITE);
+            float half = DISC_TEXTURE_SIZE / 2f;
+            new Canvas(discTexture).drawCircle(half, half, half - 0.5f, bakePaint);
+            discShader = new BitmapShader(discTexture, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP);
+        }
+        return discShader;
+    }
+
+    // سایه‌زن هر صفحه اطلس؛ اگر اطلس آزاد و دوباره ساخته شده باشد نو می‌شود
+    private BitmapShader pageShader(int page) {
+        if (page >= pageShaders.length) {
+            pageShaders = Arrays.copyOf(pageShaders, page + 1);
+            pageBitmaps = Arrays.copyOf(pageBitmaps, page + 1);
+        }
+        Bitmap bitmap = sprites.getPage(page);
+        if (pageBitmaps[page] != bitmap) {
+            pageBitmaps[page] = bitmap;
+            pageShaders[page] = new BitmapShader(bitmap, Shader.TileMode.CLAMP, Shader.TileMode.CLAMP);
+        }
+        return pageShaders[page];
+    }
+
+    public void release() {
+        if (discTexture != null) {
+            discTexture.recycle();
+            discTexture = null;
+            discShader = null;
+        }
+        Arrays.fill(pageBitmaps, null);
+        Arrays.fill(pageShaders, null);
+    }
+
+    // مسیر تک‌تک (مرجع مقایسه)
+    private void drawEach(Canvas canvas, Paint paint, ParticleFrame frame) {
+        for (int i = 0; i < frame.size(); i++) {
+            switch (frame.getKind(i)) {
+                case ParticleFrame.KIND_ADVANCED:
+                    drawAdvanced(canvas, paint, frame, i);
+                    break;
+                case ParticleFrame.KIND_SHOCKWAVE:
+                    drawShockwave(canvas, paint, frame, i);
+                    break;
+                case ParticleFrame.KIND_BLACK_HOLE:
+                    drawBlackHole(canvas, paint, frame, i);
+                    break;
+                case ParticleFrame.KIND_ENERGY_RING:
+                    drawEnergyRing(canvas, paint, frame, i);
+                    break;
+                default:
+                    drawBasic(canvas, paint, frame, i);
+            }
+        }
+    }
+
+    private void drawBasic(Canvas canvas, Paint paint, ParticleFrame frame, int i) {
+        int alpha = (int)(255 * frame.getLifeRatio(i));
+        int c = frame.getColor(i);
+        paint.setColor(Color.argb(alpha, Color.red(c), Color.green(c), Color.blue(c)));
+        canvas.drawCircle(frame.getX(i), frame.getY(i), frame.getSize(i) * frame.getLifeRatio(i), paint);
+    }
+
+    private void drawAdvanced(Canvas canvas, Paint paint, ParticleFrame frame, int i) {
+        float ratio = frame.getLifeRatio(i);
+        float scale = frame.getExtent(i);
+        int alpha = (int)(255 * ratio);
+
+        // گرادیانت بر اساس نوع ذره (متقارن، پس چرخش ذره اثری در رسم ندارد)
+        int ramp = advancedRamp(frame.getSubtype(i), frame.getColor(i));
+        sprites.draw(canvas, paint, ramp, frame.getX(i), frame.getY(i), frame.getSize(i) * scale * ratio, alpha);
+
+        // درخشش
+        paint.setColor(Color.argb(alpha/3, 255, 255, 255));
+        canvas.drawCircle(frame.getX(i), frame.getY(i), frame.getSize(i) * scale * ratio * 1.5f, paint);
+    }
+
+    // گرادیانت هر ترکیب نوع و رنگ یک بار ساخته و در اطلس ثبت می‌شود؛ آلفای عمر هنگام رسم اعمال می‌شود
+    private int advancedRamp(int subtype, int baseColor) {
+        int group;
+        if (subtype == ParticleType.SUPERNOVA.ordinal()) {
+            group = 0;
+        } else if (subtype == ParticleType.ENERGY.ordinal()) {
+            group = 1;
+        } else {
+            group = 2;
+        }
+
+        long key = ((long) group << 32) | (baseColor & 0xFFFFFFFFL);
+        int ramp = sprites.findRamp(key);
+        if (ramp >= 0) return ramp;
+
+        int r = Color.red(baseColor);
+        int g = Color.green(baseColor);
+        int b = Color.blue(baseColor);
+
+        int[] colors;
+        float[] positions;
+
+        if (group == 0) {
+            colors = new int[]{
+                Color.argb(255, 255, 255, 200),
+                Color.argb(200, r, g, b),
+                Color.argb(100, r/2, g/2, b/2)
+            };
+            positions = new float[]{0.0f, 0.5f, 1.0f};
+        } else if (group == 1) {
+            colors = new int[]{
+                Color.argb(255, 255, 255, 255),
+                Color.argb(180, r, g, b),
+                Color.argb(0, r, g, b)
+            };
+            positions = new float[]{0.0f, 0.3f, 1.0f};
+        } else {
+            colors = new int[]{
+                Color.argb(255, r, g, b),
+                Color.argb(100, r/2, g/2, b/2)
+            };
+            positions = new float[]{0.0f, 1.0f};
+        }
+
+        return sprites.registerRamp(key, colors, positions);
+    }
+
+    private void drawShockwave(Canvas canvas, Paint paint, ParticleFrame frame, int i) {
+        int alpha = (int)(150 * frame.getLifeRatio(i));
+        int c = frame.getColor(i);
+
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeWidth(3);
+        paint.setColor(Color.argb(alpha, Color.red(c), Color.green(c), Color.blue(c)));
+        canvas.drawCircle(frame.getX(i), frame.getY(i), frame.getExtent(i), paint);
+
+        paint.setStyle(Paint.Style.FILL);
+    }
+
+    private void drawBlackHole(Canvas canvas, Paint paint, ParticleFrame frame, int i) {
+        int alpha = (int)(255 * frame.getLifeRatio(i));
+
+        // گرادیانت مارپیچ با شعاع دو برابر اندازه ذره که تا شعاع عمر بریده می‌شود؛
+        // اسپرایت نیمه داخلی گرادیانت را نگه می‌دارد
+        sprites.draw(canvas, paint, blackHoleRamp, frame.getX(i), frame.getY(i),
+                     frame.getSize(i) * frame.getLifeRatio(i), alpha);
+    }
+
+    private void drawEnergyRing(Canvas canvas, Paint paint, ParticleFrame frame, int i) {
+        int alpha = (int)(255 * frame.getLifeRatio(i));
+        int c = frame.getColor(i);
+
+        paint.setColor(Color.argb(alpha, Color.red(c), Color.green(c), Color.blue(c)));
+        canvas.drawCircle(frame.getX(i), frame.getY(i), frame.getSize(i) * frame.getLifeRatio(i), paint);
+
+        // درخشش
+        paint.setColor(Color.argb(alpha/2, 255, 255, 255));
+        canvas.drawCircle(frame.getX(i), frame.getY(i), frame.getSize(i) * frame.getLifeRatio(i) * 1.5f, paint);
+    }
+}
+
+// دسته مربع‌های بافت‌دار با رنگ هر رأس که با یک drawVertices (مثلث‌های اندیس‌دار) ارسال می‌شود
+// اندیس‌ها 16 بیتی‌اند، پس هر ارسال حداکثر 16384 رأس (4096 مربع) دارد
+class VertexBatch {
+    static final int MAX_QUADS = 4096;
+    private static final short[] QUAD_INDICES = buildIndices(MAX_QUADS);
+
+    private float[] verts = new float[256 * 8];
+    private float[] texs = new float[256 * 8];
+    private int[] colors = new int[256 * 4];
+    private int quads;
+
+    private static short[] buildIndices(int quadCount) {
+        short[] indices = new short[quadCount * 6];
+        for (int q = 0; q < quadCount; q++) {
+            int v = q * 4;
+            int o = q * 6;
+            indices[o] = (short) v;
+            indices[o + 1] = (short) (v + 1);
+            indices[o + 2] = (short) (v + 2);
+            indices[o + 3] = (short) v;
+            indices[o + 4] = (short) (v + 2);
+            indices[o + 5] = (short) (v + 3);
+        }
+        return indices;
+    }
+
+    // مربع به مرکز (x, y) و نیم‌ضلع radius با مختصات بافت (u0, v0)-(u1, v1) بر حسب پیکسل بیت‌مپ
+    public void add(float x, float y, float radius, float u0, float v0, float u1, float v1, int color) {
+        if (quads * 8 == verts.length) {
+            int capacity = Math.min(MAX_QUADS, quads * 2);
+            verts = Arrays.copyOf(verts, capacity * 8);
+            texs = Arrays.copyOf(texs, capacity * 8);
+            colors = Arrays.copyOf(colors, capacity * 4);
+        }
+        int o = quads * 8;
+        float left = x - radius, top = y - radius, right = x + radius, bottom = y + radius;
+        verts[o] = left;      verts[o + 1] = top;
+        verts[o + 2] = right; verts[o + 3] = top;
+        verts[o + 4] = right; verts[o + 5] = bottom;
+        verts[o + 6] = left;  verts[o + 7] = bottom;
+        texs[o] = u0;     texs[o + 1] = v0;
+        texs[o + 2] = u1; texs[o + 3] = v0;
+        texs[o + 4] = u1; texs[o + 5] = v1;
+        texs[o + 6] = u0; texs[o + 7] = v1;
+        int c = quads * 4;
+        colors[c] = color;
+        colors[c + 1] = color;
+        colors[c + 2] = color;
+        colors[c + 3] = color;
+        quads++;
+    }
+
+    // ارسال و خالی کردن دسته؛ تعداد فراخوانی رسم (0 یا 1) برمی‌گردد
+    public int flush(Canvas canvas, Paint paint) {
+        if (quads == 0) return 0;
+        canvas.drawVertices(Canvas.VertexMode.TRIANGLES, quads * 8, verts, 0, texs, 0, colors, 0,
+                            QUAD_INDICES, 0, quads * 6, paint);
+        quads = 0;
+        return 1;
+    }
+
+    public boolean isFull() { return quads == MAX_QUADS; }
+}
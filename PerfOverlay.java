@@ -0,0 +1,133 @@
+package com.space.ship.game;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+
+// نمایشگر کارایی روی صفحه: نمودار زمان فریم رندر و صدک‌های رندر و شبیه‌سازی
+// متن‌ها فقط هنگام تازه‌سازی خلاصه (حدود دو بار در ثانیه) ساخته می‌شوند
+class PerfOverlay {
+    private static final int REFRESH_FRAMES = 30;
+    private static final float WIDTH = 560;
+    private static final float GRAPH_HEIGHT = 120;
+    private static final float LINE_HEIGHT = 26;
+    private static final float PADDING = 12;
+    // بودجه فریم 60 هرتز؛ نمودار تا دو برابر آن را نشان می‌دهد
+    private static final long BUDGET_NANOS = 16666667L;
+
+    private final float left, top;
+    private final ProfileSummary renderSummary =
+        new ProfileSummary(FrameProfiler.DRAW_PHASES, FrameProfiler.DEFAULT_HISTORY);
+    private final String[] lines = new String[7];
+    private final StringBuilder cullText = new StringBuilder();
+    private int framesSinceRefresh = REFRESH_FRAMES;
+
+    public PerfOverlay(float left, float top) {
+        this.left = left;
+        this.top = top;
+    }
+
+    public void draw(Canvas canvas, Paint paint, FrameProfiler renderProfiler, WorldSnapshot snapshot,
+                     LatencyTracker latency) {
+        if (++framesSinceRefresh >= REFRESH_FRAMES) {
+            framesSinceRefresh = 0;
+            renderProfiler.summarize(renderSummary);
+            rebuildLines(snapshot, latency);
+        }
+
+        float height = GRAPH_HEIGHT + PADDING * 3 + LINE_HEIGHT * lines.length;
+        paint.setStyle(Paint.Style.FILL);
+        paint.setColor(Color.argb(170, 0, 0, 0));
+        canvas.drawRect(left, top, left + WIDTH, top + height, paint);
+
+        drawGraph(canvas, paint);
+
+        paint.setColor(Color.WHITE);
+        paint.setTextSize(20);
+        float y = top + PADDING * 2 + GRAPH_HEIGHT + LINE_HEIGHT - 6;
+        for (String line : lines) {
+            if (line != null) {
+                canvas.drawText(line, left + PADDING, y, paint);
+            }
+            y += LINE_HEIGHT;
+        }
+    }
+
+    // ستون‌های زمان فریم؛ سبز داخل بودجه، زرد تا دو برابر، قرمز بیشتر
+    private void drawGraph(Canvas canvas, Paint paint) {
+        float graphLeft = left + PADDING;
+        float graphBottom = top + PADDING + GRAPH_HEIGHT;
+        float graphWidth = WIDTH - PADDING * 2;
+        int count = renderSummary.historyCount;
+        float barWidth = graphWidth / FrameProfiler.DEFAULT_HISTORY;
+
+        paint.setStrokeWidth(Math.max(1f, barWidth));
+        for (int i = 0; i < count; i++) {
+            long nanos = renderSummary.frameHistory[i];
+            float fraction = Math.min(1f, nanos / (float) (BUDGET_NANOS * 2));
+            if (nanos <= BUDGET_NANOS) {
+                paint.setColor(Color.argb(220, 0, 220, 100));
+            } else if (nanos <= BUDGET_NANOS * 2) {
+                paint.setColor(Color.argb(220, 255, 220, 0));
+            } else {
+                paint.setColor(Color.argb(220, 255, 60, 60));
+            }
+            float x = graphLeft + i * barWidth;
+            canvas.drawLine(x, graphBottom, x, graphBottom - fraction * GRAPH_HEIGHT, paint);
+        }
+
+        // خط بودجه فریم
+        paint.setStrokeWidth(2);
+        paint.setColor(Color.argb(200, 255, 255, 255));
+        float budgetY = graphBottom - GRAPH_HEIGHT / 2;
+        canvas.drawLine(graphLeft, budgetY, graphLeft + graphWidth, budgetY, paint);
+    }
+
+    private void rebuildLines(WorldSnapshot snapshot, LatencyTracker latency) {
+        ProfileSummary render = renderSummary;
+        int renderSlowest = render.slowestPhaseInWorstFrame();
+        lines[0] = String.format("draw %.0f fps  p50 %.2f  p95 %.2f  p99 %.2f  max %.2f ms",
+            1e9 / Math.max(1, render.frameP50), render.frameP50 / 1e6, render.frameP95 / 1e6,
+            render.frameP99 / 1e6, render.frameWorst / 1e6);
+        lines[1] = String.format("  worst frame: %s %.2f ms",
+            render.phaseNames[renderSlowest], render.inWorstFrame[renderSlowest] / 1e6);
+
+        if (snapshot.hasSimProfile) {
+            ProfileSummary sim = snapshot.simProfile;
+            int simSlowest = sim.slowestPhaseInWorstFrame();
+            lines[2] = String.format("tick  p50 %.2f  p95 %.2f  p99 %.2f  max %.2f ms",
+                sim.frameP50 / 1e6, sim.frameP95 / 1e6, sim.frameP99 / 1e6, sim.frameWorst / 1e6);
+            lines[3] = String.format("  worst tick: %s %.2f ms",
+                sim.phaseNames[simSlowest], sim.inWorstFrame[simSlowest] / 1e6);
+        } else {
+            lines[2] = "tick  (waiting for simulation stats)";
+            lines[3] = null;
+        }
+
+        lines[4] = String.format("entities %d  particles %d  draws ~%d",
+            render.counters[FrameProfiler.COUNT_ENTITIES],
+            render.counters[FrameProfiler.COUNT_PARTICLES],
+            render.counters[FrameProfiler.COUNT_DRAWN]);
+
+        // حذف خارج از دید: رسم شده/کل برای هر لایه
+        cullText.setLength(0);
+        cullText.append("drawn/total");
+        for (int layer = 0; layer < WorldSnapshot.CULL_LAYERS.length; layer++) {
+            int total = snapshot.totalCounts[layer];
+            cullText.append("  ").append(WorldSnapshot.CULL_LAYERS[layer]).append(' ')
+                .append(total - snapshot.culledCounts[layer]).append('/').append(total);
+        }
+        lines[5] = cullText.toString();
+
+        // تأخیر لمس تا ارسال فریم
+        if (latency != null && latency.getHistogram(LatencyTracker.STAGE_TOTAL).getCount() > 0) {
+            LatencyHistogram total = latency.getHistogram(LatencyTracker.STAGE_TOTAL);
+            LatencyHistogram queue = latency.getHistogram(LatencyTracker.STAGE_QUEUE);
+            lines[6] = String.format("input->post  p50 %.1f  p95 %.1f  p99 %.1f ms  (to tick p95 %.1f)",
+                total.percentile(0.50) / 1e6, total.percentile(0.95) / 1e6,
+                total.percentile(0.99) / 1e6, queue.percentile(0.95) / 1e6);
+        } else {
+            lines[6] = "input->post  (no touch samples)";
+        }
+    }
+}
@@ -0,0 +1,216 @@
+package com.space.ship.game;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Path;
+
+// رسم قدرت‌آپگریدها از روی وضعیت آن‌ها
+class PowerUpRenderer {
+    // وضعیت پاداشی که در حال رسم است
+    private float x, y;
+    private float radius;
+    private int type;
+    
+    // گرادیانت بدنه و هاله هر نوع (شش نوع و یک حالت پیش‌فرض)
+    private static final int TYPE_COUNT = 7;
+    private final GlowSpriteCache sprites;
+    private final int[] bodyRamps = new int[TYPE_COUNT];
+    private final int[] glowRamps = new int[TYPE_COUNT];
+    
+    public PowerUpRenderer(GlowSpriteCache sprites) {
+        this.sprites = sprites;
+        for (int t = 0; t < TYPE_COUNT; t++) {
+            int glowColor = getGlowColor(t);
+            bodyRamps[t] = sprites.registerRamp(getPowerUpColors(t), null);
+            glowRamps[t] = sprites.registerRamp(
+                Color.argb(80, Color.red(glowColor), Color.green(glowColor), Color.blue(glowColor)),
+                Color.argb(0, Color.red(glowColor), Color.green(glowColor), Color.blue(glowColor)));
+        }
+    }
+    
+    private int rampIndex() {
+        return type >= 0 && type < TYPE_COUNT - 1 ? type : TYPE_COUNT - 1;
+    }
+    
+    public void draw(Canvas canvas, Paint paint, PowerUp powerUp, float alpha) {
+        if (powerUp.isCollected()) return;
+        
+        x = powerUp.getRenderX(alpha);
+        y = powerUp.getRenderY(alpha);
+        radius = powerUp.getRadius();
+        type = powerUp.getType();
+        float floatOffset = powerUp.getFloatOffset();
+        float pulse = (float)Math.sin(floatOffset * 0.05f) * 0.2f + 0.8f;
+        float currentRadius = radius * pulse;
+        
+        // بدنه اصلی
+        drawMainBody(canvas, paint, currentRadius);
+        
+        // نماد قدرت‌آپگرید
+        drawSymbol(canvas, paint, currentRadius);
+        
+        // درخشش
+        drawGlow(canvas, paint, currentRadius);
+    }
+    
+    private void drawMainBody(Canvas canvas, Paint paint, float currentRadius) {
+        sprites.draw(canvas, paint, bodyRamps[rampIndex()], x, y, currentRadius);
+        
+        // حلقه بیرونی
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeWidth(3);
+        paint.setColor(Color.argb(200, 255, 255, 255));
+        canvas.drawCircle(x, y, currentRadius, paint);
+        paint.setStyle(Paint.Style.FILL);
+    }
+    
+    private void drawSymbol(Canvas canvas, Paint paint, float currentRadius) {
+        paint.setColor(Color.WHITE);
+        
+        switch (type) {
+            case PowerUp.TYPE_HEALTH:
+                // علامت بعلاوه
+                float crossSize = currentRadius * 0.4f;
+                paint.setStrokeWidth(4);
+                canvas.drawLine(x - crossSize, y, x + crossSize, y, paint);
+                canvas.drawLine(x, y - crossSize, x, y + crossSize, paint);
+                break;
+                
+            case PowerUp.TYPE_SHIELD:
+                // علامت سپر
+                paint.setStyle(Paint.Style.STROKE);
+                paint.setStrokeWidth(4);
+                canvas.drawCircle(x, y, currentRadius * 0.6f, paint);
+                paint.setStyle(Paint.Style.FILL);
+                break;
+                
+            case PowerUp.TYPE_SPEED:
+                // علامت صاعقه
+                drawLightning(canvas, paint, currentRadius);
+                break;
+                
+            case PowerUp.TYPE_WEAPON:
+                // علامت سلاح
+                drawWeaponSymbol(canvas, paint, currentRadius);
+                break;
+                
+            case PowerUp.TYPE_COIN:
+                // علامت سکه
+                drawCoinSymbol(canvas, paint, currentRadius);
+                break;
+                
+            case PowerUp.TYPE_MULTIPLIER:
+                // علامت ضرب
+                drawMultiplierSymbol(canvas, paint, currentRadius);
+                break;
+        }
+    }
+    
+    private void drawLightning(Canvas canvas, Paint paint, float currentRadius) {
+        float size = currentRadius * 0.6f;
+        Path lightning = new Path();
+        lightning.moveTo(x - size * 0.3f, y - size);
+        lightning.lineTo(x, y - size * 0.2f);
+        lightning.lineTo(x - size * 0.2f, y);
+        lightning.lineTo(x + size * 0.3f, y + size);
+        lightning.lineTo(x, y + size * 0.2f);
+        lightning.lineTo(x + size * 0.2f, y);
+        lightning.close();
+        
+        paint.setStyle(Paint.Style.FILL);
+        canvas.drawPath(lightning, paint);
+    }
+    
+    private void drawWeaponSymbol(Canvas canvas, Paint paint, float currentRadius) {
+        float size = currentRadius * 0.5f;
+        paint.setStrokeWidth(4);
+        canvas.drawLine(x - size, y, x + size, y, paint);
+        canvas.drawLine(x, y - size, x, y + size, paint);
+        
+        // نقاط انتهایی
+        canvas.drawCircle(x - size, y, 3, paint);
+        canvas.drawCircle(x + size, y, 3, paint);
+        canvas.drawCircle(x, y - size, 3, paint);
+        canvas.drawCircle(x, y + size, 3, paint);
+    }
+    
+    private void drawCoinSymbol(Canvas canvas, Paint paint, float currentRadius) {
+        paint.setColor(Color.argb(255, 255, 215, 0)); // رنگ طلایی
+        canvas.drawCircle(x, y, currentRadius * 0.4f, paint);
+        
+        paint.setColor(Color.argb(255, 255, 255, 100));
+        canvas.drawCircle(x, y, currentRadius * 0.3f, paint);
+        
+        // علامت دلار
+        paint.setColor(Color.argb(255, 100, 80, 0));
+        paint.setTextSize(currentRadius * 0.8f);
+        paint.setTextAlign(Paint.Align.CENTER);
+        canvas.drawText("$", x, y + currentRadius * 0.3f, paint);
+    }
+    
+    private void drawMultiplierSymbol(Canvas canvas, Paint paint, float currentRadius) {
+        paint.setTextSize(currentRadius * 0.8f);
+        paint.setTextAlign(Paint.Align.CENTER);
+        canvas.drawText("×", x, y + currentRadius * 0.3f, paint);
+    }
+    
+    private void drawGlow(Canvas canvas, Paint paint, float currentRadius) {
+        sprites.draw(canvas, paint, glowRamps[rampIndex()], x, y, currentRadius * 2);
+    }
+    
+    private int[] getPowerUpColors(int type) {
+        switch (type) {
+            case PowerUp.TYPE_HEALTH:
+                return new int[]{
+                    Color.argb(255, 255, 50, 50),
+                    Color.argb(255, 200, 30, 30),
+                    Color.argb(255, 150, 20, 20)
+                };
+            case PowerUp.TYPE_SHIELD:
+                return new int[]{
+                    Color.argb(255, 50, 150, 255),
+                    Color.argb(255, 30, 100, 200),
+                    Color.argb(255, 20, 70, 150)
+                };
+            case PowerUp.TYPE_SPEED:
+                return new int[]{
+                    Color.argb(255, 50, 255, 50),
+                    Color.argb(255, 30, 200, 30),
+                    Color.argb(255, 20, 150, 20)
+                };
+            case PowerUp.TYPE_WEAPON:
+                return new int[]{
+                    Color.argb(255, 255, 255, 50),
+                    Color.argb(255, 200, 200, 30),
+                    Color.argb(255, 150, 150, 20)
+                };
+            case PowerUp.TYPE_COIN:
+                return new int[]{
+                    Color.argb(255, 255, 215, 0),
+                    Color.argb(255, 255, 200, 0),
+                    Color.argb(255, 255, 180, 0)
+                };
+            case PowerUp.TYPE_MULTIPLIER:
+                return new int[]{
+                    Color.argb(255, 255, 100, 255),
+                    Color.argb(255, 220, 70, 220),
+                    Color.argb(255, 180, 50, 180)
+                };
+            default:
+                return new int[]{Color.WHITE, Color.GRAY};
+        }
+    }
+    
+    private int getGlowColor(int type) {
+        switch (type) {
+            case PowerUp.TYPE_HEALTH: return Color.RED;
+            case PowerUp.TYPE_SHIELD: return Color.BLUE;
+            case PowerUp.TYPE_SPEED: return Color.GREEN;
+            case PowerUp.TYPE_WEAPON: return Color.YELLOW;
+            case PowerUp.TYPE_COIN: return Color.argb(255, 255, 215, 0);
+            case PowerUp.TYPE_MULTIPLIER: return Color.MAGENTA;
+            default: return Color.WHITE;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.space.ship.game;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import java.util.Arrays;
+
+// رسم پرتابه‌ها به صورت خط‌های کوتاه (دنباله در جهت حرکت)؛ برای هر نوع یک drawLines
+// سر هر خط بین موقعیت قبلی و فعلی درون‌یابی می‌شود
+class ProjectileRenderer {
+    private static final int[] COLORS = {
+        Color.rgb(255, 240, 120),   // گلوله سفینه
+        Color.rgb(255, 80, 60),     // گلوله دشمن
+        Color.rgb(120, 220, 255),   // لیزر
+        Color.rgb(255, 170, 60),    // موشک سفینه
+        Color.rgb(255, 60, 160)     // موشک دشمن
+    };
+    private static final float[] WIDTHS = {4, 6, 3, 7, 8};
+
+    private final Paint linePaint = new Paint(Paint.ANTI_ALIAS_FLAG);
+    // نقاط خط‌های هر نوع (چهار عدد برای هر پرتابه)
+    private final float[][] points = new float[ProjectileSystem.TYPE_COUNT][];
+    private final int[] pointCounts = new int[ProjectileSystem.TYPE_COUNT];
+
+    public ProjectileRenderer() {
+        linePaint.setStyle(Paint.Style.STROKE);
+        linePaint.setStrokeCap(Paint.Cap.ROUND);
+        for (int t = 0; t < points.length; t++) {
+            points[t] = new float[64 * 4];
+        }
+    }
+
+    // تعداد فراخوانی‌های رسم برگردانده می‌شود
+    public int draw(Canvas canvas, ProjectileFrame frame, float alpha) {
+        for (int t = 0; t < pointCounts.length; t++) {
+            pointCounts[t] = 0;
+        }
+        for (int i = 0; i < frame.size(); i++) {
+            int type = frame.getType(i);
+            float headX = frame.getPrevX(i) + (frame.getX(i) - frame.getPrevX(i)) * alpha;
+            float headY = frame.getPrevY(i) + (frame.getY(i) - frame.getPrevY(i)) * alpha;
+            float streak = ProjectileSystem.STREAK[type];
+            append(type, headX - frame.getVelocityX(i) * streak, headY - frame.getVelocityY(i) * streak,
+                   headX, headY);
+        }
+
+        int calls = 0;
+        for (int t = 0; t < pointCounts.length; t++) {
+            if (pointCounts[t] == 0) continue;
+            linePaint.setColor(COLORS[t]);
+            linePaint.setStrokeWidth(WIDTHS[t]);
+            canvas.drawLines(points[t], 0, pointCounts[t], linePaint);
+            calls++;
+        }
+        return calls;
+    }
+
+    private void append(int type, float x0, float y0, float x1, float y1) {
+        float[] buffer = points[type];
+        int n = pointCounts[type];
+        if (n + 4 > buffer.length) {
+            buffer = Arrays.copyOf(buffer, buffer.length * 2);
+            points[type] = buffer;
+        }
+        buffer[n] = x0;
+        buffer[n + 1] = y0;
+        buffer[n + 2] = x1;
+        buffer[n + 3] = y1;
+        pointCounts[type] = n + 4;
+    }
+}
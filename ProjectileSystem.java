@@ -0,0 +1,464 @@
+package com.space.ship.game;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// سیستم پرتابه‌ها با آرایه‌های اولیه (SoA) و ظرفیت ثابت؛ گلوله، لیزر و موشک سفینه و دشمنان
+// حرکت هر تیک موازی‌پذیر است و آزمون برخورد روی پاره‌خط حرکت تیک (از موقعیت قبلی تا فعلی) انجام می‌شود
+// تا پرتابه‌های سریع از اهداف کوچک رد نشوند
+class ProjectileSystem {
+    static final int TYPE_BULLET = 0;
+    static final int TYPE_ENEMY_BULLET = 1;
+    static final int TYPE_LASER = 2;
+    static final int TYPE_MISSILE = 3;
+    static final int TYPE_ENEMY_MISSILE = 4;
+    static final int TYPE_COUNT = 5;
+
+    // مشخصات هر نوع: سرعت (واحد در فریم 60 هرتز)، عمر (ثانیه)، شعاع، آسیب پایه، تعداد هدف قابل عبور
+    private static final float[] SPEED = {22, 9, 60, 11, 7};
+    private static final float[] LIFE = {1.2f, 3.0f, 0.35f, 3.0f, 4.0f};
+    private static final float[] RADIUS = {4, 6, 3, 7, 8};
+    private static final float[] DAMAGE = {25, 12, 18, 60, 25};
+    private static final int[] PIERCE = {1, 1, 3, 1, 1};
+    // سرعت چرخش موشک‌ها (رادیان در فریم 60 هرتز)
+    private static final float[] TURN_RATE = {0, 0, 0, 0.08f, 0.04f};
+    // طول دنباله رسم شده نسبت به سرعت
+    static final float[] STREAK = {1.0f, 0.8f, 1.5f, 1.2f, 1.2f};
+
+    static final int DEFAULT_CAPACITY = 4096;
+    private static final int PROJECTILE_GRAIN = 1024;
+
+    // مقصد برخوردها در جهان بازی
+    interface HitHandler {
+        // true یعنی دشمن/سیاره هنوز هدف معتبر است و آسیب اعمال شد
+        boolean onEnemyHit(Enemy enemy, float damage, float x, float y);
+        boolean onPlanetHit(Planet planet, float damage, float x, float y);
+        void onShipHit(float damage, float x, float y);
+    }
+
+    private final float[] x, y, prevX, prevY;
+    private final float[] velocityX, velocityY;
+    private final float[] life;
+    private final float[] damage;
+    private final int[] type;
+    private final int[] pierceLeft;
+    private int count;
+
+    // هدف موشک‌های هر طرف در تیک جاری
+    private float playerTargetX, playerTargetY;
+    private boolean hasPlayerTarget;
+    private float enemyTargetX, enemyTargetY;
+
+    private float stepFrames;
+    private final JobSystem.Kernel moveKernel = this::move;
+    private final List<Enemy> enemyHits = new ArrayList<>();
+    private final List<Planet> planetHits = new ArrayList<>();
+    // برخوردهای پاره‌خط پرتابه جاری، مرتب بر اساس زمان برخورد روی مسیر
+    private static final int TARGET_ENEMY = 0;
+    private static final int TARGET_PLANET = 1;
+    private static final int TARGET_SHIP = 2;
+    private float[] candidateTimes = new float[16];
+    private GameObject[] candidateTargets = new GameObject[16];
+    private int[] candidateKinds = new int[16];
+    private int candidateCount;
+    private long fired, hits;
+    private long enemyHitCount, planetHitCount;
+
+    public ProjectileSystem(int capacity) {
+        x = new float[capacity];
+        y = new float[capacity];
+        prevX = new float[capacity];
+        prevY = new float[capacity];
+        velocityX = new float[capacity];
+        velocityY = new float[capacity];
+        life = new float[capacity];
+        damage = new float[capacity];
+        type = new int[capacity];
+        pierceLeft = new int[capacity];
+    }
+
+    // پرتاب در جهت زاویه (رادیان) با ضریب آسیب؛ اگر ظرفیت پر باشد -1 برمی‌گردد
+    public int spawn(int projectileType, float px, float py, float angle, float damageScale) {
+        if (count == x.length) return -1;
+        int i = count++;
+        float speed = SPEED[projectileType];
+        x[i] = px;
+        y[i] = py;
+        prevX[i] = px;
+        prevY[i] = py;
+        velocityX[i] = (float)Math.cos(angle) * speed;
+        velocityY[i] = (float)Math.sin(angle) * speed;
+        life[i] = LIFE[projectileType];
+        damage[i] = DAMAGE[projectileType] * damageScale;
+        type[i] = projectileType;
+        pierceLeft[i] = PIERCE[projectileType];
+        fired++;
+        return i;
+    }
+
+    public static boolean isPlayerType(int projectileType) {
+        return projectileType == TYPE_BULLET || projectileType == TYPE_LASER || projectileType == TYPE_MISSILE;
+    }
+
+    public void setPlayerTarget(boolean hasTarget, float targetX, float targetY) {
+        hasPlayerTarget = hasTarget;
+        playerTargetX = targetX;
+        playerTargetY = targetY;
+    }
+
+    public void setEnemyTarget(float targetX, float targetY) {
+        enemyTargetX = targetX;
+        enemyTargetY = targetY;
+    }
+
+    // حرکت همه پرتابه‌ها (با سیستم کار، موازی) و حذف پرتابه‌های تمام شده
+    public void update(float deltaTime, JobSystem jobs) {
+        stepFrames = deltaTime * 60;
+        if (jobs != null) {
+            jobs.beginGraph();
+            jobs.add(moveKernel, count, PROJECTILE_GRAIN);
+            jobs.run();
+        } else {
+            move(0, count);
+        }
+        removeExpired();
+    }
+
+    private void move(int begin, int end) {
+        float frames = stepFrames;
+        float seconds = frames / 60;
+        for (int i = begin; i < end; i++) {
+            prevX[i] = x[i];
+            prevY[i] = y[i];
+            float turn = TURN_RATE[type[i]];
+            if (turn > 0) {
+                steer(i, turn * frames);
+            }
+            x[i] += velocityX[i] * frames;
+            y[i] += velocityY[i] * frames;
+            life[i] -= seconds;
+        }
+    }
+
+    // چرخش بردار سرعت موشک به سمت هدف طرف خود، حداکثر به اندازه maxTurn
+    private void steer(int i, float maxTurn) {
+        float targetX, targetY;
+        if (isPlayerType(type[i])) {
+            if (!hasPlayerTarget) return;
+            targetX = playerTargetX;
+            targetY = playerTargetY;
+        } else {
+            targetX = enemyTargetX;
+            targetY = enemyTargetY;
+        }
+        float heading = (float)Math.atan2(velocityY[i], velocityX[i]);
+        float desired = (float)Math.atan2(targetY - y[i], targetX - x[i]);
+        float delta = desired - heading;
+        if (delta > Math.PI) delta -= 2 * Math.PI;
+        if (delta < -Math.PI) delta += 2 * Math.PI;
+        heading += Math.max(-maxTurn, Math.min(maxTurn, delta));
+        float speed = SPEED[type[i]];
+        velocityX[i] = (float)Math.cos(heading) * speed;
+        velocityY[i] = (float)Math.sin(heading) * speed;
+    }
+
+    // آزمون برخورد پاره‌خط حرکت این تیک با دشمنان، سیارات و سفینه؛ ترتیبی و قطعی
+    // برخوردها به ترتیب زمان روی مسیر اعمال می‌شوند: سیاره جلوی دشمن پشت سرش را می‌گیرد و لیزر
+    // دشمنان را به ترتیب مسیر می‌شکافد (نه به ترتیب خانه‌های شبکه)
+    // تعداد پرتابه‌های سفینه که در این تیک اولین برخوردشان را داشتند برمی‌گردد (برای دقت شلیک)
+    public int collide(SpatialHash<Enemy> enemyGrid, SpatialHash<Planet> planetGrid,
+                       SpaceShip ship, HitHandler handler) {
+        int landed = 0;
+        for (int i = 0; i < count; i++) {
+            if (life[i] <= 0) continue;
+            float r = RADIUS[type[i]];
+            float left = Math.min(prevX[i], x[i]) - r;
+            float top = Math.min(prevY[i], y[i]) - r;
+            float right = Math.max(prevX[i], x[i]) + r;
+            float bottom = Math.max(prevY[i], y[i]) + r;
+            boolean player = isPlayerType(type[i]);
+            candidateCount = 0;
+
+            if (player) {
+                enemyHits.clear();
+                enemyGrid.queryRect(left, top, right, bottom, enemyHits);
+                for (int h = 0; h < enemyHits.size(); h++) {
+                    Enemy enemy = enemyHits.get(h);
+                    // دشمن هم در این تیک حرکت کرده است: زمان برخورد با حرکت نسبی
+                    float t = SweptCircle.timeOfImpact(prevX[i], prevY[i], x[i], y[i], r, enemy);
+                    if (t != SweptCircle.MISS) addCandidate(t, enemy, TARGET_ENEMY);
+                }
+            }
+
+            // سیارات جلوی همه پرتابه‌ها را می‌گیرند؛ فقط پرتابه‌های سفینه به آن‌ها آسیب می‌زنند
+            planetHits.clear();
+            planetGrid.queryRect(left, top, right, bottom, planetHits);
+            for (int h = 0; h < planetHits.size(); h++) {
+                Planet planet = planetHits.get(h);
+                if (planet.isDestroyed()) continue;
+                float t = SweptCircle.sweepStatic(prevX[i], prevY[i], x[i], y[i], r, planet);
+                if (t != SweptCircle.MISS) addCandidate(t, planet, TARGET_PLANET);
+            }
+
+            if (!player) {
+                float t = SweptCircle.timeOfImpact(prevX[i], prevY[i], x[i], y[i],
+                                                   ship.getPrevX(), ship.getPrevY(), ship.getX(), ship.getY(),
+                                                   SpaceShip.COLLISION_RADIUS + r);
+                if (t != SweptCircle.MISS) addCandidate(t, null, TARGET_SHIP);
+            }
+
+            for (int c = 0; c < candidateCount && life[i] > 0; c++) {
+                float t = candidateTimes[c];
+                switch (candidateKinds[c]) {
+                    case TARGET_ENEMY:
+                        if (handler.onEnemyHit((Enemy) candidateTargets[c], damage[i], hitX(i, t), hitY(i, t))) {
+                            enemyHitCount++;
+                            if (registerHit(i)) landed++;
+                        }
+                        break;
+                    case TARGET_PLANET:
+                        if (player && handler.onPlanetHit((Planet) candidateTargets[c], damage[i], hitX(i, t), hitY(i, t))) {
+                            planetHitCount++;
+                            if (registerHit(i)) landed++;
+                        }
+                        life[i] = 0;
+                        break;
+                    default:
+                        handler.onShipHit(damage[i], hitX(i, t), hitY(i, t));
+                        life[i] = 0;
+                        break;
+                }
+            }
+            Arrays.fill(candidateTargets, 0, candidateCount, null);
+        }
+        removeExpired();
+        return landed;
+    }
+
+    // درج مرتب (پایدار) بر اساس زمان برخورد؛ تعداد نامزدهای یک پرتابه کم است
+    private void addCandidate(float t, GameObject target, int kind) {
+        if (candidateCount == candidateTimes.length) {
+            int capacity = candidateCount * 2;
+            candidateTimes = Arrays.copyOf(candidateTimes, capacity);
+            candidateTargets = Arrays.copyOf(candidateTargets, capacity);
+            candidateKinds = Arrays.copyOf(candidateKinds, capacity);
+        }
+        int c = candidateCount++;
+        while (c > 0 && candidateTimes[c - 1] > t) {
+            candidateTimes[c] = candidateTimes[c - 1];
+            candidateTargets[c] = candidateTargets[c - 1];
+            candidateKinds[c] = candidateKinds[c - 1];
+            c--;
+        }
+        candidateTimes[c] = t;
+        candidateTargets[c] = target;
+        candidateKinds[c] = kind;
+    }
+
+    // true اگر این اولین برخورد پرتابه باشد؛ لیزر چند هدف را می‌شکافد ولی یک شلیک حساب می‌شود
+    private boolean registerHit(int i) {
+        boolean first = pierceLeft[i] == PIERCE[type[i]];
+        if (first) hits++;
+        if (--pierceLeft[i] <= 0) life[i] = 0;
+        return first;
+    }
+
+    private float hitX(int i, float t) { return prevX[i] + (x[i] - prevX[i]) * t; }
+    private float hitY(int i, float t) { return prevY[i] + (y[i] - prevY[i]) * t; }
+
+    // حذف با جابجایی آخرین عنصر، از انتها به ابتدا تا ترتیب قطعی بماند
+    private void removeExpired() {
+        for (int i = count - 1; i >= 0; i--) {
+            if (life[i] > 0) continue;
+            int last = --count;
+            if (i == last) continue;
+            x[i] = x[last];
+            y[i] = y[last];
+            prevX[i] = prevX[last];
+            prevY[i] = prevY[last];
+            velocityX[i] = velocityX[last];
+            velocityY[i] = velocityY[last];
+            life[i] = life[last];
+            damage[i] = damage[last];
+            type[i] = type[last];
+            pierceLeft[i] = pierceLeft[last];
+        }
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    // پرتابه‌های در پرواز برای تصویر ذخیره جهان؛ اهداف موشک‌ها هر تیک دوباره تعیین می‌شوند
+    public void writeState(ByteBuffer out) {
+        out.putInt(count);
+        for (int i = 0; i < count; i++) {
+            out.put((byte) type[i]);
+            out.putFloat(x[i]);
+            out.putFloat(y[i]);
+            out.putFloat(prevX[i]);
+            out.putFloat(prevY[i]);
+            out.putFloat(velocityX[i]);
+            out.putFloat(velocityY[i]);
+            out.putFloat(life[i]);
+            out.putFloat(damage[i]);
+            out.put((byte) pierceLeft[i]);
+        }
+    }
+
+    public void readState(ByteBuffer in) {
+        int saved = in.getInt();
+        if (saved < 0 || saved > x.length) {
+            throw new IllegalArgumentException("bad projectile count " + saved);
+        }
+        count = saved;
+        for (int i = 0; i < count; i++) {
+            type[i] = in.get();
+            x[i] = in.getFloat();
+            y[i] = in.getFloat();
+            prevX[i] = in.getFloat();
+            prevY[i] = in.getFloat();
+            velocityX[i] = in.getFloat();
+            velocityY[i] = in.getFloat();
+            life[i] = in.getFloat();
+            damage[i] = in.getFloat();
+            pierceLeft[i] = in.get();
+            // مقدار خارج از بازه در تیک بعدی خطای اندیس می‌داد؛ اینجا بارگذاری را رد می‌کنیم
+            if (type[i] < 0 || type[i] >= TYPE_COUNT || pierceLeft[i] < 0) {
+                count = 0;
+                throw new IllegalArgumentException("bad projectile " + type[i] + "/" + pierceLeft[i]);
+            }
+        }
+    }
+
+    // نوشتن پرتابه‌های داخل دید در فریم رندر؛ تعداد حذف شده برمی‌گردد
+    public int writeTo(ProjectileFrame frame, ViewRect view) {
+        frame.clear();
+        int culled = 0;
+        for (int i = 0; i < count; i++) {
+            float reach = (Math.abs(velocityX[i]) + Math.abs(velocityY[i])) * STREAK[type[i]] + RADIUS[type[i]];
+            if (view != null && !view.intersectsCircle(x[i], y[i], reach)) {
+                culled++;
+                continue;
+            }
+            frame.add(type[i], prevX[i], prevY[i], x[i], y[i], velocityX[i], velocityY[i]);
+        }
+        return culled;
+    }
+
+    // متدهای دسترسی
+    public int getCount() { return count; }
+    public int getCapacity() { return x.length; }
+    public long getFiredCount() { return fired; }
+    public long getHitCount() { return hits; }
+    public long getEnemyHitCount() { return enemyHitCount; }
+    public long getPlanetHitCount() { return planetHitCount; }
+}
+
+// سلاح سفینه: تا وقتی ماشه نگه داشته شده با فاصله خنک‌شدن در جهت سفینه شلیک می‌کند
+// الگو با سطح قدرت سلاح بزرگ می‌شود: تک گلوله، دو گلوله، لیزر و سپس موشک در هر چند رگبار
+class PlayerWeapon {
+    private static final float COOLDOWN = 0.18f;
+    private static final float BARREL_OFFSET = 10;
+    private static final int MISSILE_EVERY = 4;
+
+    private float cooldown;
+    private int volleys;
+
+    // تعداد پرتابه‌های شلیک شده در این تیک برگردانده می‌شود
+    public int update(float deltaTime, SpaceShip ship, int powerLevel, ProjectileSystem projectiles) {
+        cooldown = Math.max(0, cooldown - deltaTime);
+        if (!ship.isTriggerHeld() || cooldown > 0) return 0;
+        cooldown = COOLDOWN;
+        volleys++;
+
+        float angle = (float)Math.toRadians(ship.getRotation());
+        float cos = (float)Math.cos(angle);
+        float sin = (float)Math.sin(angle);
+        float noseX = ship.getX() + cos * SpaceShip.COLLISION_RADIUS;
+        float noseY = ship.getY() + sin * SpaceShip.COLLISION_RADIUS;
+        float damageScale = 1 + (powerLevel - 1) * 0.15f;
+
+        int shots = 0;
+        if (powerLevel >= 2) {
+            // دو لوله موازی عمود بر جهت شلیک
+            shots += fire(projectiles, ProjectileSystem.TYPE_BULLET,
+                          noseX - sin * BARREL_OFFSET, noseY + cos * BARREL_OFFSET, angle, damageScale);
+            shots += fire(projectiles, ProjectileSystem.TYPE_BULLET,
+                          noseX + sin * BARREL_OFFSET, noseY - cos * BARREL_OFFSET, angle, damageScale);
+        } else {
+            shots += fire(projectiles, ProjectileSystem.TYPE_BULLET, noseX, noseY, angle, damageScale);
+        }
+        if (powerLevel >= 3) {
+            shots += fire(projectiles, ProjectileSystem.TYPE_LASER, noseX, noseY, angle, damageScale);
+        }
+        if (powerLevel >= 4 && volleys % MISSILE_EVERY == 0) {
+            shots += fire(projectiles, ProjectileSystem.TYPE_MISSILE, noseX, noseY, angle, damageScale);
+        }
+        return shots;
+    }
+
+    private static int fire(ProjectileSystem projectiles, int type, float x, float y, float angle, float damageScale) {
+        return projectiles.spawn(type, x, y, angle, damageScale) >= 0 ? 1 : 0;
+    }
+
+    public void reset() {
+        cooldown = 0;
+        volleys = 0;
+    }
+
+    public void writeState(ByteBuffer out) {
+        out.putFloat(cooldown);
+        out.putInt(volleys);
+    }
+
+    public void readState(ByteBuffer in) {
+        cooldown = in.getFloat();
+        volleys = in.getInt();
+    }
+}
+
+// تصویر فشرده پرتابه‌ها برای رشته رندر
+class ProjectileFrame {
+    private int count;
+    private int[] type = new int[0];
+    private float[] data = new float[0];
+    static final int STRIDE = 6;
+
+    public ProjectileFrame(int initialCapacity) {
+        type = new int[Math.max(16, initialCapacity)];
+        data = new float[type.length * STRIDE];
+    }
+
+    public void clear() {
+        count = 0;
+    }
+
+    public void add(int projectileType, float px, float py, float cx, float cy, float vx, float vy) {
+        if (count == type.length) {
+            type = Arrays.copyOf(type, count * 2);
+            data = Arrays.copyOf(data, count * 2 * STRIDE);
+        }
+        type[count] = projectileType;
+        int o = count * STRIDE;
+        data[o] = px;
+        data[o + 1] = py;
+        data[o + 2] = cx;
+        data[o + 3] = cy;
+        data[o + 4] = vx;
+        data[o + 5] = vy;
+        count++;
+    }
+
+    // متدهای دسترسی
+    public int size() { return count; }
+    public int getType(int i) { return type[i]; }
+    public float getPrevX(int i) { return data[i * STRIDE]; }
+    public float getPrevY(int i) { return data[i * STRIDE + 1]; }
+    public float getX(int i) { return data[i * STRIDE + 2]; }
+    public float getY(int i) { return data[i * STRIDE + 3]; }
+    public float getVelocityX(int i) { return data[i * STRIDE + 4]; }
+    public float getVelocityY(int i) { return data[i * STRIDE + 5]; }
+}
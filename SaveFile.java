@@ -0,0 +1,212 @@
+package com.space.ship.game;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.zip.CRC32;
+
+// فایل ذخیره دودویی: سرآیند (نشانه، نسخه، طول و CRC32 بدنه) و بدنه‌ای که GameState یا World می‌نویسد
+// نوشتن در فایل موقت، همگام‌سازی با دیسک و سپس تغییر نام اتمی؛ مرگ فرایند در میانه نوشتن
+// فایل قبلی را دست‌نخورده می‌گذارد و فایل ناقص با CRC رد می‌شود
+// snapshot فقط روی رشته‌ای که وضعیت را تغییر می‌دهد صدا زده شود؛ write از هر رشته‌ای امن است
+class SaveFile {
+    // پیشرفت بازیکن (GameState)
+    static final int GAME_MAGIC = 0x53534753; // "SSGS"
+    static final int GAME_VERSION = 1;
+    // تصویر کامل جهان برای ادامه پس از مرگ فرایند
+    static final int WORLD_MAGIC = 0x53534757; // "SSGW"
+    static final int WORLD_VERSION = 2;
+    static final int HEADER_BYTES = 16;
+    private static final int INITIAL_CAPACITY = 1024;
+
+    // وضعیتی که بدنه فایل را می‌نویسد
+    interface Payload {
+        void writeSave(ByteBuffer out);
+    }
+
+    private final File file;
+    private final File temp;
+    private final int magic;
+    private final int version;
+    private ByteBuffer buffer = ByteBuffer.allocate(INITIAL_CAPACITY);
+    // نگاشت حافظه برای فایل‌های بزرگ سودمند است؛ برای فایل چند صد بایتی خواندن مستقیم ارزان‌تر است
+    private boolean memoryMapped;
+
+    // زمان آخرین عملیات (میکروثانیه) و اندازه فایل
+    private volatile long lastSaveMicros;
+    private volatile long lastLoadMicros;
+    private volatile int lastSize;
+    private int lastVersion;
+
+    public SaveFile(File file) {
+        this(file, GAME_MAGIC, GAME_VERSION);
+    }
+
+    public SaveFile(File file, int magic, int version) {
+        this.file = file;
+        this.temp = new File(file.getPath() + ".tmp");
+        this.magic = magic;
+        this.version = version;
+    }
+
+    public void setMemoryMapped(boolean memoryMapped) {
+        this.memoryMapped = memoryMapped;
+    }
+
+    public boolean exists() {
+        return file.isFile();
+    }
+
+    public void save(Payload state) throws IOException {
+        write(snapshot(state));
+    }
+
+    public void delete() {
+        file.delete();
+        temp.delete();
+    }
+
+    // بدنه رمزگذاری شده وضعیت؛ آرایه برگشتی تغییرناپذیر است و می‌تواند به رشته دیگری سپرده شود
+    public byte[] snapshot(Payload state) {
+        while (true) {
+            buffer.clear();
+            try {
+                state.writeSave(buffer);
+                break;
+            } catch (BufferOverflowException e) {
+                buffer = ByteBuffer.allocate(buffer.capacity() * 2);
+            }
+        }
+        return Arrays.copyOf(buffer.array(), buffer.position());
+    }
+
+    // سرآیند و CRC اینجا ساخته می‌شوند تا هزینه آن‌ها هم از رشته بازی بیرون باشد
+    public synchronized void write(byte[] payload) throws IOException {
+        long start = System.nanoTime();
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES);
+        header.putInt(magic);
+        header.putInt(version);
+        header.putInt(payload.length);
+        header.putInt((int) crc.getValue());
+        header.flip();
+        writeAtomically(new ByteBuffer[] {header, ByteBuffer.wrap(payload)});
+        lastSize = HEADER_BYTES + payload.length;
+        lastSaveMicros = (System.nanoTime() - start) / 1000;
+    }
+
+    // false اگر فایل نباشد؛ فایل خراب یا نسخه ناشناخته IOException می‌دهد و وضعیت دست نمی‌خورد
+    // (GameState.readSave پیش از جایگزینی وضعیت کل بدنه را می‌خواند)
+    public boolean load(GameState state) throws IOException {
+        long start = System.nanoTime();
+        ByteBuffer data = read();
+        if (data == null) return false;
+        try {
+            state.readSave(data, lastVersion);
+        } catch (RuntimeException e) {
+            throw new IOException("corrupt save file", e);
+        }
+        lastLoadMicros = (System.nanoTime() - start) / 1000;
+        return true;
+    }
+
+    // بدنه بررسی شده (null اگر فایل نباشد)؛ نسخه آن با getLastVersion خوانده می‌شود
+    public ByteBuffer read() throws IOException {
+        if (!file.isFile()) return null;
+        ByteBuffer data = memoryMapped ? map() : readFully();
+        lastVersion = verify(data);
+        lastSize = data.limit();
+        return data;
+    }
+
+    private void writeAtomically(ByteBuffer[] data) throws IOException {
+        try (FileOutputStream out = new FileOutputStream(temp)) {
+            FileChannel channel = out.getChannel();
+            while (data[data.length - 1].hasRemaining()) {
+                channel.write(data);
+            }
+            // پیش از تغییر نام، داده باید روی دیسک باشد وگرنه پس از قطع برق فایل خالی جایگزین می‌شود
+            out.getFD().sync();
+        }
+        if (!temp.renameTo(file)) {
+            // روی سیستم‌هایی که تغییر نام روی فایل موجود ممکن نیست
+            if (!file.delete() || !temp.renameTo(file)) {
+                throw new IOException("cannot replace " + file);
+            }
+        }
+    }
+
+    private ByteBuffer readFully() throws IOException {
+        try (FileInputStream in = new FileInputStream(file)) {
+            FileChannel channel = in.getChannel();
+            long size = channel.size();
+            if (size > Integer.MAX_VALUE) throw new IOException("save file too large");
+            ByteBuffer data = ByteBuffer.allocate((int) size);
+            while (data.hasRemaining()) {
+                if (channel.read(data) < 0) break;
+            }
+            data.flip();
+            return data;
+        }
+    }
+
+    private MappedByteBuffer map() throws IOException {
+        try (FileInputStream in = new FileInputStream(file)) {
+            FileChannel channel = in.getChannel();
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    // بررسی سرآیند و CRC؛ موقعیت بافر روی ابتدای بدنه قرار می‌گیرد
+    private int verify(ByteBuffer data) throws IOException {
+        if (data.limit() < HEADER_BYTES || data.getInt(0) != magic) {
+            throw new IOException("not a save file");
+        }
+        int fileVersion = data.getInt(4);
+        if (fileVersion < 1 || fileVersion > version) {
+            throw new IOException("unsupported save version " + fileVersion);
+        }
+        int payload = data.getInt(8);
+        if (payload < 0 || HEADER_BYTES + payload > data.limit()) {
+            throw new IOException("truncated save file");
+        }
+        CRC32 crc = new CRC32();
+        ByteBuffer body = data.duplicate();
+        body.position(HEADER_BYTES);
+        body.limit(HEADER_BYTES + payload);
+        crc.update(body);
+        if ((int) crc.getValue() != data.getInt(12)) {
+            throw new IOException("save file checksum mismatch");
+        }
+        data.position(HEADER_BYTES);
+        data.limit(HEADER_BYTES + payload);
+        return fileVersion;
+    }
+
+    static void putString(ByteBuffer out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.putShort((short) bytes.length);
+        out.put(bytes);
+    }
+
+    static String getString(ByteBuffer in) {
+        byte[] bytes = new byte[in.getShort() & 0xFFFF];
+        in.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    // متدهای دسترسی
+    public File getFile() { return file; }
+    public long getLastSaveMicros() { return lastSaveMicros; }
+    public long getLastLoadMicros() { return lastLoadMicros; }
+    public int getLastSize() { return lastSize; }
+    public int getLastVersion() { return lastVersion; }
+}
@@ -0,0 +1,216 @@
+package com.space.ship.game;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Paint;
+import android.graphics.Shader;
+import android.graphics.LinearGradient;
+import android.graphics.Path;
+
+// رسم سفینه از روی وضعیت آن (بخش اندرویدی جدا از شبیه‌سازی)
+class ShipRenderer {
+    // وضعیت سفینه‌ای که در حال رسم است
+    private float rotation;
+    private float engineGlow;
+    private float shieldGlow;
+    private float[] engineParticles;
+    
+    // گرادیانت‌های پخته شده در اطلس
+    private final GlowSpriteCache sprites;
+    private final int engineParticleRamp;
+    private final int shieldRamp;
+    private final int bodyRamp;
+    private final int cockpitRamp;
+    private final int glowRamp;
+    
+    public ShipRenderer(GlowSpriteCache sprites) {
+        this.sprites = sprites;
+        // آلفای هر ذره موتور هنگام رسم اعمال می‌شود
+        engineParticleRamp = sprites.registerRamp(new int[]{
+            Color.argb(255, 255, 200, 0),
+            Color.argb(178, 255, 100, 0),
+            Color.argb(76, 255, 50, 0)
+        }, null);
+        shieldRamp = sprites.registerRamp(new int[]{
+            Color.argb(80, 0, 200, 255),
+            Color.argb(40, 0, 150, 255),
+            Color.argb(0, 0, 100, 200)
+        }, null);
+        bodyRamp = sprites.registerRamp(new int[]{
+            Color.argb(255, 0, 220, 255),
+            Color.argb(255, 0, 150, 220),
+            Color.argb(255, 0, 100, 180)
+        }, null);
+        cockpitRamp = sprites.registerRamp(new int[]{
+            Color.argb(220, 200, 240, 255),
+            Color.argb(180, 150, 200, 240),
+            Color.argb(100, 100, 150, 200)
+        }, null);
+        glowRamp = sprites.registerRamp(Color.argb(60, 0, 150, 255), Color.argb(0, 0, 100, 200));
+    }
+    
+    public void draw(Canvas canvas, Paint paint, SpaceShip ship, float alpha) {
+        rotation = ship.getRotation();
+        engineGlow = ship.getEngineGlow();
+        shieldGlow = ship.getShieldGlow();
+        engineParticles = ship.getEngineParticles();
+        
+        // موقعیت درون‌یابی شده در مختصات جهان (تبدیل دوربین روی بوم اعمال شده است)
+        float drawX = ship.getRenderX(alpha);
+        float drawY = ship.getRenderY(alpha);
+        
+        // ذرات موتور
+        drawEngineParticles(canvas, paint, drawX, drawY);
+        
+        // محافظ (اگر فعال باشد)
+        if (ship.isShieldActive()) {
+            drawShield(canvas, paint, drawX, drawY);
+        }
+        
+        // بدنه اصلی سفینه
+        drawShipBody(canvas, paint, drawX, drawY);
+        
+        // موتورهای اصلی
+        drawMainEngines(canvas, paint, drawX, drawY);
+        
+        // جزئیات و نورپردازی
+        drawShipDetails(canvas, paint, drawX, drawY);
+    }
+    
+    private void drawEngineParticles(Canvas canvas, Paint paint, float x, float y) {
+        float enginePower = engineGlow;
+        
+        for (int i = 0; i < engineParticles.length; i++) {
+            float progress = engineParticles[i];
+            float particleX = x - (float)Math.cos(Math.toRadians(rotation)) * (40 + progress * 60);
+            float particleY = y - (float)Math.sin(Math.toRadians(rotation)) * (40 + progress * 60);
+            
+            float size = (1 - progress) * (8 + enginePower * 12);
+            float alpha = (1 - progress) * (150 + enginePower * 105);
+            
+            // ذرات رنگی
+            sprites.draw(canvas, paint, engineParticleRamp, particleX, particleY, size, (int)alpha);
+        }
+    }
+    
+    private void drawShield(Canvas canvas, Paint paint, float x, float y) {
+        float shieldSize = 70 + shieldGlow * 10;
+        
+        sprites.draw(canvas, paint, shieldRamp, x, y, shieldSize);
+        
+        // حلقه‌های انرژی
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeWidth(3);
+        paint.setColor(Color.argb(150, 0, 200, 255));
+        
+        for (int i = 0; i < 3; i++) {
+            float ringSize = shieldSize * (0.7f + i * 0.15f);
+            float ringAlpha = 100 - i * 30;
+            paint.setAlpha((int)ringAlpha);
+            canvas.drawCircle(x, y, ringSize, paint);
+        }
+        
+        paint.setStyle(Paint.Style.FILL);
+        paint.setAlpha(255);
+    }
+    
+    private void drawShipBody(Canvas canvas, Paint paint, float x, float y) {
+        // بدنه اصلی با گرادیانت سه بعدی
+        sprites.draw(canvas, paint, bodyRamp, x, y, 40);
+        
+        // کابین خلبان
+        sprites.draw(canvas, paint, cockpitRamp, x, y, 25);
+        
+        // جزئیات کابین
+        paint.setColor(Color.argb(255, 100, 180, 255));
+        canvas.drawCircle(x, y, 18, paint);
+        
+        // نور مرکزی
+        paint.setColor(Color.argb(200, 255, 255, 255));
+        canvas.drawCircle(x, y, 10, paint);
+    }
+    
+    private void drawMainEngines(Canvas canvas, Paint paint, float x, float y) {
+        float enginePower = engineGlow;
+        
+        // موتور چپ
+        drawEngine(canvas, paint, x, y, -35, -15, enginePower, rotation);
+        drawEngine(canvas, paint, x, y, -35, 15, enginePower, rotation);
+        
+        // موتور راست
+        drawEngine(canvas, paint, x, y, 35, -15, enginePower, rotation);
+        drawEngine(canvas, paint, x, y, 35, 15, enginePower, rotation);
+    }
+    
+    private void drawEngine(Canvas canvas, Paint paint, float shipX, float shipY, 
+                          float offsetX, float offsetY, float power, float rotation) {
+        
+        // محاسبه موقعیت موتور با چرخش
+        float cos = (float)Math.cos(Math.toRadians(rotation));
+        float sin = (float)Math.sin(Math.toRadians(rotation));
+        float engineX = shipX + offsetX * cos - offsetY * sin;
+        float engineY = shipY + offsetX * sin + offsetY * cos;
+        
+        // بدنه موتور
+        paint.setColor(Color.argb(255, 80, 120, 160));
+        canvas.drawCircle(engineX, engineY, 12, paint);
+        
+        // شعله موتور
+        if (power > 0) {
+            float flameLength = 15 + power * 25;
+            float flameWidth = 8 + power * 8;
+            
+            Path flamePath = new Path();
+            flamePath.moveTo(engineX - flameWidth, engineY);
+            flamePath.lineTo(engineX + (float)Math.cos(Math.toRadians(rotation)) * flameLength, 
+                           engineY + (float)Math.sin(Math.toRadians(rotation)) * flameLength);
+            flamePath.lineTo(engineX + flameWidth, engineY);
+            flamePath.close();
+            
+            int[] flameColors = {
+                Color.argb(255, 255, 255, 100),
+                Color.argb(200, 255, 150, 0),
+                Color.argb(150, 255, 50, 0),
+                Color.argb(0, 255, 0, 0)
+            };
+            
+            LinearGradient flameGradient = new LinearGradient(
+                engineX, engineY,
+                engineX + (float)Math.cos(Math.toRadians(rotation)) * flameLength,
+                engineY + (float)Math.sin(Math.toRadians(rotation)) * flameLength,
+                flameColors,
+                null,
+                Shader.TileMode.CLAMP
+            );
+            paint.setShader(flameGradient);
+            canvas.drawPath(flamePath, paint);
+            paint.setShader(null);
+        }
+    }
+    
+    private void drawShipDetails(Canvas canvas, Paint paint, float x, float y) {
+        // باله‌ها
+        drawWing(canvas, paint, x, y, -50, -25, rotation);
+        drawWing(canvas, paint, x, y, -50, 25, rotation);
+        drawWing(canvas, paint, x, y, 50, -25, rotation);
+        drawWing(canvas, paint, x, y, 50, 25, rotation);
+        
+        // نورپردازی محیطی
+        sprites.draw(canvas, paint, glowRamp, x, y, 60);
+    }
+    
+    private void drawWing(Canvas canvas, Paint paint, float shipX, float shipY, 
+                         float offsetX, float offsetY, float rotation) {
+        
+        float cos = (float)Math.cos(Math.toRadians(rotation));
+        float sin = (float)Math.sin(Math.toRadians(rotation));
+        float wingX = shipX + offsetX * cos - offsetY * sin;
+        float wingY = shipY + offsetX * sin + offsetY * cos;
+        
+        paint.setColor(Color.argb(255, 0, 120, 200));
+        canvas.drawCircle(wingX, wingY, 8, paint);
+        
+        paint.setColor(Color.argb(200, 0, 180, 255));
+        canvas.drawCircle(wingX, wingY, 5, paint);
+    }
+}
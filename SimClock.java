@@ -0,0 +1,34 @@
+package com.space.ship.game;
+
+// ساعت شبیه‌سازی: فقط با تیک‌های World جلو می‌رود، نه با ساعت دیواری
+// افکت‌های زمانی (تپش، لرزش) از این ساعت می‌خوانند تا اجرا تکرارپذیر بماند
+class SimClock {
+    private long tick;
+    private double time;
+    private float deltaTime;
+
+    public void advance(float deltaTime) {
+        this.deltaTime = deltaTime;
+        time += deltaTime;
+        tick++;
+    }
+
+    // ادامه از تصویر ذخیره جهان
+    public void restore(long tick, double time) {
+        this.tick = tick;
+        this.time = time;
+        this.deltaTime = 0;
+    }
+
+    public void reset() {
+        tick = 0;
+        time = 0;
+        deltaTime = 0;
+    }
+
+    // متدهای دسترسی
+    public long getTick() { return tick; }
+    public double getTime() { return time; }
+    public long getTimeMillis() { return (long) (time * 1000); }
+    public float getDeltaTime() { return deltaTime; }
+}
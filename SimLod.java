@@ -0,0 +1,87 @@
+package com.space.ship.game;
+
+// سطح جزئیات شبیه‌سازی بر اساس فاصله تا مستطیل دید دوربین
+// نزدیک دید: هر تیک کامل؛ دورتر: هر چند تیک یک بار با گام انباشته؛ خیلی دور: بدون هدایت (حرکت خطی)
+// همه تصمیم‌ها فقط به وضعیت شبیه‌سازی (دوربین و شماره تیک) بستگی دارند، پس اجرا قطعی می‌ماند
+class SimLod {
+    static final int FULL = 0;
+    static final int REDUCED = 1;
+    static final int DORMANT = 2;
+    static final String[] LEVELS = {"full", "reduced", "dormant"};
+
+    // بیشینه گام هنگام جبران زمان عقب‌افتاده تا هدایت دشمن ناپایدار نشود
+    static final float MAX_CATCH_UP_STEP = 1f / 15;
+
+    // فاصله از لبه دید (بدون حاشیه حذف رندر) که هر سطح از آن شروع می‌شود
+    private float reducedDistance = 400;
+    private float dormantDistance = 1600;
+    private int reducedInterval = 4;
+    private boolean enabled = true;
+
+    private final ViewRect view = new ViewRect();
+    private final ViewRect activeView = new ViewRect();
+    private long tick;
+    private final int[] enemyCounts = new int[LEVELS.length];
+    private int planetsDeferred;
+
+    // شروع تیک: مستطیل دید دوربین پس از بروزرسانی آن
+    public void begin(CameraSystem camera, long currentTick) {
+        camera.computeViewRect(view, 0);
+        activeView.set(view);
+        activeView.expand(reducedDistance);
+        tick = currentTick;
+        for (int i = 0; i < enemyCounts.length; i++) {
+            enemyCounts[i] = 0;
+        }
+        planetsDeferred = 0;
+    }
+
+    public int classify(float x, float y, float radius) {
+        if (!enabled) return FULL;
+        float distance = view.distanceOutside(x, y, radius);
+        if (distance < reducedDistance) return FULL;
+        if (distance < dormantDistance) return REDUCED;
+        return DORMANT;
+    }
+
+    // دشمن در سطح کاهش یافته فقط در تیک‌های نوبت خود بروز می‌شود؛ فاز باعث پخش بار بین تیک‌ها می‌شود
+    public boolean isDue(int phase) {
+        return (tick + phase) % reducedInterval == 0;
+    }
+
+    public int classifyEnemy(Enemy enemy) {
+        int level = classify(enemy.getX(), enemy.getY(), enemy.getRadius());
+        enemyCounts[level]++;
+        return level;
+    }
+
+    // سیارات فقط انیمیشن دارند: بیرون از ناحیه فعال زمانشان انباشته و هنگام ورود یک‌جا اعمال می‌شود
+    public boolean isPlanetActive(Planet planet) {
+        if (!enabled || activeView.intersectsCircle(planet.getX(), planet.getY(), planet.getRadius())) {
+            return true;
+        }
+        planetsDeferred++;
+        return false;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void setDistances(float reduced, float dormant) {
+        reducedDistance = Math.max(0, reduced);
+        dormantDistance = Math.max(reducedDistance, dormant);
+    }
+
+    public void setReducedInterval(int ticks) {
+        reducedInterval = Math.max(1, ticks);
+    }
+
+    // متدهای دسترسی
+    public boolean isEnabled() { return enabled; }
+    public int getReducedInterval() { return reducedInterval; }
+    public int getEnemyCount(int level) { return enemyCounts[level]; }
+    public int getPlanetsDeferred() { return planetsDeferred; }
+    // ذرات بیرون از این مستطیل فقط پیر می‌شوند؛ null یعنی سطح جزئیات خاموش است
+    public ViewRect getParticleView() { return enabled ? activeView : null; }
+}
@@ -0,0 +1,93 @@
+package com.space.ship.game;
+
+// مولد تصادفی قطعی و قابل انشعاب (SplitMix64) برای شبیه‌سازی
+// هر زیرسیستم جریان مستقل خود را از بذر جلسه می‌گیرد تا اجرا با (بذر، ورودی‌ها) تکرارپذیر باشد
+class SimRandom {
+    private static final long GOLDEN_GAMMA = 0x9E3779B97F4A7C15L;
+
+    private final long seed;
+    private final long gamma;
+    private long state;
+
+    public SimRandom(long seed) {
+        this(seed, GOLDEN_GAMMA);
+    }
+
+    private SimRandom(long seed, long gamma) {
+        this.seed = seed;
+        this.gamma = gamma;
+        this.state = seed;
+    }
+
+    // جریان نام‌دار؛ فقط به بذر و شناسه بستگی دارد نه به مصرف جریان‌های دیگر
+    public SimRandom stream(int streamId) {
+        return new SimRandom(mix64(seed ^ mix64((streamId + 1) * GOLDEN_GAMMA)), GOLDEN_GAMMA);
+    }
+
+    // جریان فرزند با وضعیت و گام مستقل؛ وضعیت این جریان جلو می‌رود
+    public SimRandom split() {
+        long childSeed = mix64(nextSeed());
+        return new SimRandom(childSeed, mixGamma(nextSeed()));
+    }
+
+    // بردن جریان به وضعیت داده شده (مثلاً جریان شخصی شیء استخر شده)؛ بذر جریان‌های نام‌دار تغییر نمی‌کند
+    public void setState(long state) {
+        this.state = state;
+    }
+
+    // وضعیت فعلی برای ذخیره تصویر جهان؛ با setState بازگردانده می‌شود
+    public long getState() {
+        return state;
+    }
+
+    public long nextLong() {
+        return mix64(nextSeed());
+    }
+
+    public int nextInt() {
+        return (int) (nextLong() >>> 32);
+    }
+
+    // عدد صحیح در بازه [0, bound)
+    public int nextInt(int bound) {
+        if (bound <= 0) {
+            throw new IllegalArgumentException("bound must be positive");
+        }
+        return (int) (((nextLong() >>> 33) * bound) >>> 31);
+    }
+
+    // عدد اعشاری در بازه [0, 1)
+    public float nextFloat() {
+        return (nextLong() >>> 40) * 0x1.0p-24f;
+    }
+
+    public double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    public boolean nextBoolean() {
+        return nextLong() < 0;
+    }
+
+    private long nextSeed() {
+        return state += gamma;
+    }
+
+    private static long mix64(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // گام باید فرد باشد و بیت‌های کافی تغییر کند
+    private static long mixGamma(long z) {
+        z = (z ^ (z >>> 33)) * 0xFF51AFD7ED558CCDL;
+        z = (z ^ (z >>> 33)) * 0xC4CEB9FE1A85EC53L;
+        z = (z ^ (z >>> 33)) | 1L;
+        int transitions = Long.bitCount(z ^ (z >>> 1));
+        return transitions < 24 ? z ^ 0xAAAAAAAAAAAAAAAAL : z;
+    }
+
+    // متدهای دسترسی
+    public long getSeed() { return seed; }
+}
@@ -0,0 +1,41 @@
+package com.space.ship.game;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// تبادل بدون قفل تصویر جهان بین رشته شبیه‌سازی و رشته رندر (بافر سه‌گانه).
+// نویسنده همیشه در بافر پشتی می‌نویسد و خواننده فقط بافر جلویی را می‌خواند،
+// پس هیچ بافری همزمان نوشته و خوانده نمی‌شود.
+class SnapshotExchange {
+    private static final int INDEX_MASK = 0x3;
+    private static final int FRESH = 0x4;
+
+    private final WorldSnapshot[] buffers;
+    private final AtomicInteger middle = new AtomicInteger(1);
+    private int back = 0;   // فقط رشته شبیه‌سازی
+    private int front = 2;  // فقط رشته رندر
+
+    public SnapshotExchange(int screenWidth, int screenHeight) {
+        buffers = new WorldSnapshot[3];
+        for (int i = 0; i < buffers.length; i++) {
+            buffers[i] = new WorldSnapshot(screenWidth, screenHeight);
+        }
+    }
+
+    // بافری که رشته شبیه‌سازی باید پر کند
+    public WorldSnapshot beginWrite() {
+        return buffers[back];
+    }
+
+    // انتشار بافر پر شده و گرفتن بافر آزاد بعدی
+    public void publish() {
+        back = middle.getAndSet(back | FRESH) & INDEX_MASK;
+    }
+
+    // آخرین تصویر منتشر شده؛ اگر تصویر تازه‌ای نباشد همان قبلی برمی‌گردد
+    public WorldSnapshot acquire() {
+        if ((middle.get() & FRESH) != 0) {
+            front = middle.getAndSet(front) & INDEX_MASK;
+        }
+        return buffers[front];
+    }
+}
@@ -0,0 +1,268 @@
+package com.space.ship.game;
+
+import java.util.Arrays;
+import java.util.List;
+
+// شبکه درهم‌سازی فضایی یکنواخت برای پرس‌وجوی برخورد دایره‌ها
+// هر شیء در همه خانه‌هایی که جعبه محیطی‌اش می‌پوشاند ثبت می‌شود؛ پس از گرم شدن تخصیصی ندارد
+// اشیای متحرک با جعبه محیطی کل مسیر تیک (insertSwept) ثبت می‌شوند تا مرحله دقیق برخورد پیوسته آن‌ها را ببیند
+class SpatialHash<T> {
+    private final float cellSize;
+    private final float inverseCellSize;
+
+    // اشیای ثبت شده
+    private Object[] items;
+    private float[] itemX, itemY, itemRadius;
+    // جعبه محیطی مسیر برای اشیای ثبت شده با insertSwept
+    private float[] itemLeft, itemTop, itemRight, itemBottom;
+    private boolean[] itemSwept;
+    private int[] itemStamp;
+    private int itemCount;
+
+    // ورودی‌های خانه‌ها به صورت لیست پیوندی در آرایه‌ها
+    private int[] buckets;
+    private int[] entryNext;
+    private int[] entryItem;
+    private int[] entryHash;
+    private int entryCount;
+
+    // برای جلوگیری از تکرار شیء در یک پرس‌وجو
+    private int queryStamp;
+
+    // اندیس‌های یافته شده در پرس‌وجوی مستطیلی، برای برگرداندن به ترتیب درج
+    private int[] rectHits = new int[16];
+
+    public SpatialHash(float cellSize, int initialCapacity) {
+        this.cellSize = cellSize;
+        this.inverseCellSize = 1f / cellSize;
+
+        int capacity = Math.max(16, initialCapacity);
+        items = new Object[capacity];
+        itemX = new float[capacity];
+        itemY = new float[capacity];
+        itemRadius = new float[capacity];
+        itemLeft = new float[capacity];
+        itemTop = new float[capacity];
+        itemRight = new float[capacity];
+        itemBottom = new float[capacity];
+        itemSwept = new boolean[capacity];
+        itemStamp = new int[capacity];
+
+        int entries = Integer.highestOneBit(capacity * 4 - 1) << 1;
+        buckets = new int[entries];
+        entryNext = new int[entries];
+        entryItem = new int[entries];
+        entryHash = new int[entries];
+        clear();
+    }
+
+    public void clear() {
+        for (int i = 0; i < itemCount; i++) {
+            items[i] = null;
+        }
+        itemCount = 0;
+        entryCount = 0;
+        Arrays.fill(buckets, -1);
+    }
+
+    public void insert(T item, float x, float y, float radius) {
+        int index = add(item, x, y, radius, false);
+        addCells(index, x - radius, y - radius, x + radius, y + radius);
+    }
+
+    // دایره‌ای که در این تیک از (x0, y0) به (x1, y1) رفته است؛ پرس‌وجوها با جعبه محیطی کل مسیر آزموده می‌شوند
+    public void insertSwept(T item, float x0, float y0, float x1, float y1, float radius) {
+        int index = add(item, x1, y1, radius, true);
+        itemLeft[index] = Math.min(x0, x1) - radius;
+        itemTop[index] = Math.min(y0, y1) - radius;
+        itemRight[index] = Math.max(x0, x1) + radius;
+        itemBottom[index] = Math.max(y0, y1) + radius;
+        addCells(index, itemLeft[index], itemTop[index], itemRight[index], itemBottom[index]);
+    }
+
+    private int add(T item, float x, float y, float radius, boolean swept) {
+        if (itemCount == items.length) {
+            growItems();
+        }
+        int index = itemCount++;
+        items[index] = item;
+        itemX[index] = x;
+        itemY[index] = y;
+        itemRadius[index] = radius;
+        itemSwept[index] = swept;
+        itemStamp[index] = queryStamp;
+        return index;
+    }
+
+    private void addCells(int index, float left, float top, float right, float bottom) {
+        int minX = cell(left), maxX = cell(right);
+        int minY = cell(top), maxY = cell(bottom);
+        for (int cy = minY; cy <= maxY; cy++) {
+            for (int cx = minX; cx <= maxX; cx++) {
+                addEntry(index, hash(cx, cy));
+            }
+        }
+    }
+
+    // همه اشیایی که دایره‌شان با دایره داده شده هم‌پوشانی دارد به out اضافه می‌شوند
+    @SuppressWarnings("unchecked")
+    public void query(float x, float y, float radius, List<T> out) {
+        queryStamp++;
+        if (queryStamp == 0) {
+            Arrays.fill(itemStamp, 0, itemCount, 0);
+            queryStamp = 1;
+        }
+
+        int mask = buckets.length - 1;
+        int minX = cell(x - radius), maxX = cell(x + radius);
+        int minY = cell(y - radius), maxY = cell(y + radius);
+        for (int cy = minY; cy <= maxY; cy++) {
+            for (int cx = minX; cx <= maxX; cx++) {
+                int h = hash(cx, cy);
+                for (int e = buckets[h & mask]; e != -1; e = entryNext[e]) {
+                    // خانه‌های دیگری که در همین سطل افتاده‌اند با آزمون دقیق رد می‌شوند
+                    if (entryHash[e] != h) continue;
+                    int index = entryItem[e];
+                    if (itemStamp[index] == queryStamp) continue;
+                    itemStamp[index] = queryStamp;
+
+                    if (overlapsCircle(index, x, y, radius)) {
+                        out.add((T) items[index]);
+                    }
+                }
+            }
+        }
+    }
+
+    // همه اشیایی که دایره‌شان با مستطیل داده شده هم‌پوشانی دارد به ترتیب درج به out اضافه می‌شوند
+    // (ترتیب پایدار برای رسم لازم است)؛ اگر مستطیل از تعداد اشیا خانه بیشتری بپوشاند، پیمایش مستقیم اشیا ارزان‌تر است
+    @SuppressWarnings("unchecked")
+    public void queryRect(float left, float top, float right, float bottom, List<T> out) {
+        int minX = cell(left), maxX = cell(right);
+        int minY = cell(top), maxY = cell(bottom);
+        long cells = (long) (maxX - minX + 1) * (maxY - minY + 1);
+        if (cells > itemCount) {
+            for (int index = 0; index < itemCount; index++) {
+                if (overlapsRect(index, left, top, right, bottom)) {
+                    out.add((T) items[index]);
+                }
+            }
+            return;
+        }
+
+        queryStamp++;
+        if (queryStamp == 0) {
+            Arrays.fill(itemStamp, 0, itemCount, 0);
+            queryStamp = 1;
+        }
+
+        int hitCount = 0;
+        int mask = buckets.length - 1;
+        for (int cy = minY; cy <= maxY; cy++) {
+            for (int cx = minX; cx <= maxX; cx++) {
+                int h = hash(cx, cy);
+                for (int e = buckets[h & mask]; e != -1; e = entryNext[e]) {
+                    if (entryHash[e] != h) continue;
+                    int index = entryItem[e];
+                    if (itemStamp[index] == queryStamp) continue;
+                    itemStamp[index] = queryStamp;
+
+                    if (overlapsRect(index, left, top, right, bottom)) {
+                        if (hitCount == rectHits.length) {
+                            rectHits = Arrays.copyOf(rectHits, hitCount * 2);
+                        }
+                        rectHits[hitCount++] = index;
+                    }
+                }
+            }
+        }
+
+        Arrays.sort(rectHits, 0, hitCount);
+        for (int i = 0; i < hitCount; i++) {
+            out.add((T) items[rectHits[i]]);
+        }
+    }
+
+    private boolean overlapsCircle(int index, float x, float y, float radius) {
+        if (itemSwept[index]) {
+            // نزدیک‌ترین نقطه جعبه مسیر به مرکز دایره پرس‌وجو
+            float dx = x - Math.max(itemLeft[index], Math.min(x, itemRight[index]));
+            float dy = y - Math.max(itemTop[index], Math.min(y, itemBottom[index]));
+            return dx * dx + dy * dy <= radius * radius;
+        }
+        float dx = itemX[index] - x;
+        float dy = itemY[index] - y;
+        float reach = itemRadius[index] + radius;
+        return dx * dx + dy * dy < reach * reach;
+    }
+
+    // نزدیک‌ترین نقطه مستطیل به مرکز دایره؛ برای اشیای متحرک هم‌پوشانی دو جعبه
+    private boolean overlapsRect(int index, float left, float top, float right, float bottom) {
+        if (itemSwept[index]) {
+            return itemLeft[index] <= right && itemRight[index] >= left
+                && itemTop[index] <= bottom && itemBottom[index] >= top;
+        }
+        float x = itemX[index];
+        float y = itemY[index];
+        float dx = x - Math.max(left, Math.min(x, right));
+        float dy = y - Math.max(top, Math.min(y, bottom));
+        float r = itemRadius[index];
+        return dx * dx + dy * dy <= r * r;
+    }
+
+    private int cell(float coordinate) {
+        return (int) Math.floor(coordinate * inverseCellSize);
+    }
+
+    private static int hash(int cx, int cy) {
+        int h = cx * 73856093 ^ cy * 19349663;
+        return h ^ (h >>> 16);
+    }
+
+    private void addEntry(int index, int h) {
+        if (entryCount == entryNext.length) {
+            growEntries();
+        }
+        int bucket = h & (buckets.length - 1);
+        int e = entryCount++;
+        entryItem[e] = index;
+        entryHash[e] = h;
+        entryNext[e] = buckets[bucket];
+        buckets[bucket] = e;
+    }
+
+    private void growItems() {
+        int capacity = items.length * 2;
+        items = Arrays.copyOf(items, capacity);
+        itemX = Arrays.copyOf(itemX, capacity);
+        itemY = Arrays.copyOf(itemY, capacity);
+        itemRadius = Arrays.copyOf(itemRadius, capacity);
+        itemLeft = Arrays.copyOf(itemLeft, capacity);
+        itemTop = Arrays.copyOf(itemTop, capacity);
+        itemRight = Arrays.copyOf(itemRight, capacity);
+        itemBottom = Arrays.copyOf(itemBottom, capacity);
+        itemSwept = Arrays.copyOf(itemSwept, capacity);
+        itemStamp = Arrays.copyOf(itemStamp, capacity);
+    }
+
+    // دو برابر کردن ورودی‌ها و سطل‌ها و پیوند دوباره زنجیره‌ها
+    private void growEntries() {
+        int capacity = entryNext.length * 2;
+        entryNext = Arrays.copyOf(entryNext, capacity);
+        entryItem = Arrays.copyOf(entryItem, capacity);
+        entryHash = Arrays.copyOf(entryHash, capacity);
+        buckets = new int[capacity];
+        Arrays.fill(buckets, -1);
+
+        int mask = capacity - 1;
+        for (int e = 0; e < entryCount; e++) {
+            int bucket = entryHash[e] & mask;
+            entryNext[e] = buckets[bucket];
+            buckets[bucket] = e;
+        }
+    }
+
+    // متدهای دسترسی
+    public float getCellSize() { return cellSize; }
+    public int size() { return itemCount; }
+}
@@ -0,0 +1,176 @@
+package com.space.ship.game;
+
+import java.nio.ByteBuffer;
+
+// میدان ستاره‌ها در چند لایه پارالاکس؛ همه ستاره‌های یک لایه با هم جابجا می‌شوند
+// پس هر تیک فقط جابجایی لایه‌ها جلو می‌رود و رسم‌کننده می‌تواند هر لایه را یک بار بپزد
+class StarField {
+    // ناحیه تکرار ستاره‌ها در مختصات جهان (محدوده بازگشت ستاره‌ها)
+    static final float WRAP_LEFT = -100;
+    static final float WRAP_TOP = -100;
+    static final float WRAP_WIDTH = 2300;
+    static final float WRAP_HEIGHT = 1400;
+
+    static final int LAYER_COUNT = 3;
+    // ضریب پارالاکس هر لایه (دور به نزدیک)
+    private static final float[] LAYER_SPEEDS = {0.3f, 0.6f, 0.9f};
+
+    private static final int[] STAR_COLORS = {
+        Colors.argb(255, 200, 220, 255), // سفید-آبی
+        Colors.argb(255, 255, 250, 200), // سفید-زرد
+        Colors.argb(255, 255, 200, 200), // سفید-قرمز
+        Colors.argb(255, 200, 255, 200)  // سفید-سبز
+    };
+
+    // داده ثابت ستاره‌ها، مرتب بر اساس لایه؛ پس از ساخت تغییر نمی‌کند و بین تصویرها مشترک است
+    private int count;
+    private int[] layerStart = new int[LAYER_COUNT + 1];
+    private float[] baseX = new float[0];
+    private float[] baseY = new float[0];
+    private float[] size = new float[0];
+    private float[] brightness = new float[0];
+    private float[] twinklePhase = new float[0];
+    private float[] twinkleSpeed = new float[0];
+    private int[] color = new int[0];
+
+    // جابجایی لایه‌ها، همیشه در بازه [0, عرض/ارتفاع ناحیه)
+    private final float[] offsetX = new float[LAYER_COUNT];
+    private final float[] offsetY = new float[LAYER_COUNT];
+    private final float[] prevOffsetX = new float[LAYER_COUNT];
+    private final float[] prevOffsetY = new float[LAYER_COUNT];
+    private double time;
+
+    // میدان خالی برای تصویر رندر
+    public StarField() {
+    }
+
+    public StarField(int count, SimRandom random) {
+        this.count = count;
+        baseX = new float[count];
+        baseY = new float[count];
+        size = new float[count];
+        brightness = new float[count];
+        twinklePhase = new float[count];
+        twinkleSpeed = new float[count];
+        color = new int[count];
+
+        for (int layer = 0; layer <= LAYER_COUNT; layer++) {
+            layerStart[layer] = layer * count / LAYER_COUNT;
+        }
+        for (int i = 0; i < count; i++) {
+            baseX[i] = WRAP_LEFT + random.nextFloat() * WRAP_WIDTH;
+            baseY[i] = WRAP_TOP + random.nextFloat() * WRAP_HEIGHT;
+            size[i] = random.nextFloat() * 4 + 1;
+            brightness[i] = random.nextFloat() * 0.7f + 0.3f;
+            twinklePhase[i] = random.nextFloat();
+            twinkleSpeed[i] = random.nextFloat() * 0.02f + 0.01f;
+            color[i] = STAR_COLORS[random.nextInt(STAR_COLORS.length)];
+        }
+    }
+
+    public void update(float shipVelX, float shipVelY, float deltaTime) {
+        for (int layer = 0; layer < LAYER_COUNT; layer++) {
+            float factor = LAYER_SPEEDS[layer] * 0.15f * deltaTime * 60;
+            offsetX[layer] -= shipVelX * factor;
+            offsetY[layer] -= shipVelY * factor;
+
+            // نگه داشتن جابجایی در یک دور؛ مقدار قبلی هم همراه آن منتقل می‌شود تا درون‌یابی نپرد
+            float wrapX = wrapShift(offsetX[layer], WRAP_WIDTH);
+            float wrapY = wrapShift(offsetY[layer], WRAP_HEIGHT);
+            offsetX[layer] += wrapX;
+            prevOffsetX[layer] += wrapX;
+            offsetY[layer] += wrapY;
+            prevOffsetY[layer] += wrapY;
+        }
+        time += deltaTime;
+    }
+
+    private static float wrapShift(float value, float period) {
+        if (value < 0) return period;
+        if (value >= period) return -period;
+        return 0;
+    }
+
+    public void storePreviousOffsets() {
+        System.arraycopy(offsetX, 0, prevOffsetX, 0, LAYER_COUNT);
+        System.arraycopy(offsetY, 0, prevOffsetY, 0, LAYER_COUNT);
+    }
+
+    // ستاره‌ها از بذر جهان ساخته می‌شوند؛ فقط جابجایی لایه‌ها و زمان چشمک ذخیره می‌شود
+    public void writeState(ByteBuffer out) {
+        for (int layer = 0; layer < LAYER_COUNT; layer++) {
+            out.putFloat(offsetX[layer]);
+            out.putFloat(offsetY[layer]);
+        }
+        out.putDouble(time);
+    }
+
+    public void readState(ByteBuffer in) {
+        for (int layer = 0; layer < LAYER_COUNT; layer++) {
+            offsetX[layer] = in.getFloat();
+            offsetY[layer] = in.getFloat();
+        }
+        storePreviousOffsets();
+        time = in.getDouble();
+    }
+
+    // کپی وضعیت برای تصویر رندر؛ داده ثابت ستاره‌ها فقط به اشتراک گذاشته می‌شود
+    public void copyFrom(StarField other) {
+        count = other.count;
+        layerStart = other.layerStart;
+        baseX = other.baseX;
+        baseY = other.baseY;
+        size = other.size;
+        brightness = other.brightness;
+        twinklePhase = other.twinklePhase;
+        twinkleSpeed = other.twinkleSpeed;
+        color = other.color;
+        System.arraycopy(other.offsetX, 0, offsetX, 0, LAYER_COUNT);
+        System.arraycopy(other.offsetY, 0, offsetY, 0, LAYER_COUNT);
+        System.arraycopy(other.prevOffsetX, 0, prevOffsetX, 0, LAYER_COUNT);
+        System.arraycopy(other.prevOffsetY, 0, prevOffsetY, 0, LAYER_COUNT);
+        time = other.time;
+    }
+
+    // موقعیت ستاره در جهان با جابجایی داده شده لایه
+    public float wrapX(int i, float layerOffsetX) {
+        return WRAP_LEFT + wrap(baseX[i] - WRAP_LEFT + layerOffsetX, WRAP_WIDTH);
+    }
+
+    public float wrapY(int i, float layerOffsetY) {
+        return WRAP_TOP + wrap(baseY[i] - WRAP_TOP + layerOffsetY, WRAP_HEIGHT);
+    }
+
+    private static float wrap(float value, float period) {
+        float r = value % period;
+        return r < 0 ? r + period : r;
+    }
+
+    // فاز سوسو در بازه [0, 1) از روی زمان شبیه‌سازی (بدون بروزرسانی هر ستاره)
+    public float getTwinkle(int i) {
+        double phase = twinklePhase[i] + twinkleSpeed[i] * time * 60;
+        return (float) (phase - Math.floor(phase));
+    }
+
+    public float getRenderOffsetX(int layer, float alpha) {
+        return prevOffsetX[layer] + (offsetX[layer] - prevOffsetX[layer]) * alpha;
+    }
+
+    public float getRenderOffsetY(int layer, float alpha) {
+        return prevOffsetY[layer] + (offsetY[layer] - prevOffsetY[layer]) * alpha;
+    }
+
+    // متدهای دسترسی
+    public int getCount() { return count; }
+    public int getLayerStart(int layer) { return layerStart[layer]; }
+    public int getLayerEnd(int layer) { return layerStart[layer + 1]; }
+    public float getBaseX(int i) { return baseX[i]; }
+    public float getBaseY(int i) { return baseY[i]; }
+    public float getSize(int i) { return size[i]; }
+    public float getBrightness(int i) { return brightness[i]; }
+    public int getColor(int i) { return color[i]; }
+    public double getTime() { return time; }
+
+    // شناسه داده ثابت؛ تا وقتی عوض نشود لایه‌های پخته شده معتبرند
+    public Object getLayoutKey() { return baseX; }
+}
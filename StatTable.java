@@ -0,0 +1,293 @@
+package com.space.ship.game;
+
+import java.util.Arrays;
+
+// جدول شمارنده‌های آمار بازی با ناظرهای شرط به تفکیک آمار
+// شرط‌های آستانه (آمار >= مقدار) در یک هرم کمینه برای هر آمار نگه داشته می‌شوند، پس هر تغییر
+// فقط شرط‌هایی را بررسی می‌کند که همین حالا برآورده شده‌اند؛ شرط‌های نسبتی (مثل دقت) در لیست کوچک
+// جداگانه‌ای برای هر دو آمار صورت و مخرج هستند
+class StatTable {
+    static final int COINS = 0;
+    static final int SCORE = 1;
+    static final int LEVEL = 2;
+    static final int PLANETS_DESTROYED = 3;
+    static final int ENEMIES_DESTROYED = 4;
+    static final int SHOTS_FIRED = 5;
+    static final int SHOTS_HIT = 6;
+    static final int MAX_COMBO = 7;
+    static final int COINS_EARNED = 8;
+    static final int LEVEL_PLANETS = 9;
+    static final String[] NAMES = {
+        "coins", "score", "level", "planets", "enemies", "shots", "hits", "combo", "earned", "levelPlanets"
+    };
+    static final int COUNT = NAMES.length;
+
+    // مالک شرط؛ وقتی شرط برآورده شود یک بار صدا زده می‌شود و ناظر حذف می‌شود
+    interface Watcher {
+        void onConditionMet();
+    }
+
+    private static final int KIND_THRESHOLD = 0;
+    private static final int KIND_RATIO = 1;
+
+    private final long[] values = new long[COUNT];
+
+    // ناظرها در آرایه‌های موازی؛ شناسه‌های آزاد دوباره استفاده می‌شوند
+    private Watcher[] owners = new Watcher[16];
+    private int[] kinds = new int[16];
+    private int[] stats = new int[16];
+    private int[] denominators = new int[16];
+    private long[] targets = new long[16];
+    private long[] minimums = new long[16];
+    private boolean[] active = new boolean[16];
+    private int watcherCount;
+    private int[] free = new int[16];
+    private int freeCount;
+
+    // هرم کمینه شناسه‌های آستانه برای هر آمار (بر اساس targets)
+    private final int[][] heaps = new int[COUNT][4];
+    private final int[] heapSizes = new int[COUNT];
+    // ناظرهای نسبتی هر آمار
+    private final int[][] ratios = new int[COUNT][2];
+    private final int[] ratioCounts = new int[COUNT];
+
+    // صف ناظرهای برآورده شده؛ پاداش‌ها خودشان آمار را تغییر می‌دهند، پس اعلان پس از بروزرسانی انجام می‌شود
+    private int[] pending = new int[16];
+    private int pendingHead, pendingTail;
+    private boolean dispatching;
+    private long evaluations;
+
+    public long get(int stat) {
+        return values[stat];
+    }
+
+    public void add(int stat, long delta) {
+        set(stat, values[stat] + delta);
+    }
+
+    public void set(int stat, long value) {
+        long previous = values[stat];
+        values[stat] = value;
+        if (value > previous) {
+            collectThresholds(stat);
+        }
+        collectRatios(stat);
+        dispatch();
+    }
+
+    // بیشینه: فقط در صورت بزرگ‌تر بودن تغییر می‌کند (مثل بیشترین ترکیب)
+    public void max(int stat, long value) {
+        if (value > values[stat]) set(stat, value);
+    }
+
+    // شرط stat >= target؛ اگر از قبل برقرار باشد بلافاصله اعلان می‌شود
+    public int watchAtLeast(int stat, long target, Watcher owner) {
+        int id = allocate(owner, KIND_THRESHOLD, stat, -1, target, 0);
+        push(stat, id);
+        collectThresholds(stat);
+        dispatch();
+        return id;
+    }
+
+    // شرط numerator * 100 >= percent * denominator پس از حداقل minDenominator نمونه
+    public int watchPercent(int numerator, int denominator, long percent, long minDenominator, Watcher owner) {
+        int id = allocate(owner, KIND_RATIO, numerator, denominator, percent, Math.max(1, minDenominator));
+        if (ratioMet(id)) {
+            active[id] = false;
+            enqueue(id);
+        } else {
+            addRatio(numerator, id);
+            addRatio(denominator, id);
+        }
+        dispatch();
+        return id;
+    }
+
+    // لغو ناظر (مثلاً مأموریت جایگزین شده)؛ ورودی‌های هرم تنبل حذف می‌شوند
+    public void cancel(int id) {
+        if (id < 0 || !active[id]) return;
+        release(id);
+    }
+
+    private int allocate(Watcher owner, int kind, int stat, int denominator, long target, long minimum) {
+        int id;
+        if (freeCount > 0) {
+            id = free[--freeCount];
+        } else {
+            if (watcherCount == owners.length) growWatchers();
+            id = watcherCount++;
+        }
+        owners[id] = owner;
+        kinds[id] = kind;
+        stats[id] = stat;
+        denominators[id] = denominator;
+        targets[id] = target;
+        minimums[id] = minimum;
+        active[id] = true;
+        return id;
+    }
+
+    private void release(int id) {
+        active[id] = false;
+        owners[id] = null;
+        if (kinds[id] == KIND_RATIO) {
+            removeRatio(stats[id], id);
+            removeRatio(denominators[id], id);
+            recycle(id);
+        }
+        // شناسه آستانه هنوز در هرم است و هنگام رسیدن به سر هرم بازیافت می‌شود
+    }
+
+    private void recycle(int id) {
+        if (freeCount == free.length) free = Arrays.copyOf(free, freeCount * 2);
+        free[freeCount++] = id;
+    }
+
+    private void collectThresholds(int stat) {
+        long value = values[stat];
+        while (heapSizes[stat] > 0) {
+            int top = heaps[stat][0];
+            if (!active[top]) {
+                // ناظر لغو شده
+                pop(stat);
+                recycle(top);
+                continue;
+            }
+            if (targets[top] > value) break;
+            pop(stat);
+            active[top] = false;
+            evaluations++;
+            enqueue(top);
+        }
+    }
+
+    private void collectRatios(int stat) {
+        for (int i = 0; i < ratioCounts[stat]; i++) {
+            int id = ratios[stat][i];
+            evaluations++;
+            if (ratioMet(id)) {
+                removeRatio(stats[id], id);
+                removeRatio(denominators[id], id);
+                active[id] = false;
+                enqueue(id);
+                i--;
+            }
+        }
+    }
+
+    private boolean ratioMet(int id) {
+        long numerator = values[stats[id]];
+        long denominator = values[denominators[id]];
+        return denominator >= minimums[id] && numerator * 100 >= targets[id] * denominator;
+    }
+
+    private void enqueue(int id) {
+        if (pendingTail == pending.length) {
+            // فشرده کردن یا بزرگ کردن صف
+            int size = pendingTail - pendingHead;
+            int[] target = size * 2 > pending.length ? new int[pending.length * 2] : pending;
+            System.arraycopy(pending, pendingHead, target, 0, size);
+            pending = target;
+            pendingHead = 0;
+            pendingTail = size;
+        }
+        pending[pendingTail++] = id;
+    }
+
+    private void dispatch() {
+        if (dispatching) return;
+        dispatching = true;
+        try {
+            while (pendingHead < pendingTail) {
+                int id = pending[pendingHead++];
+                Watcher owner = owners[id];
+                owners[id] = null;
+                // شناسه از هرم یا لیست نسبتی خارج شده و آزاد است
+                recycle(id);
+                if (owner != null) owner.onConditionMet();
+            }
+            pendingHead = 0;
+            pendingTail = 0;
+        } finally {
+            dispatching = false;
+        }
+    }
+
+    private void push(int stat, int id) {
+        int[] heap = heaps[stat];
+        int size = heapSizes[stat];
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, size * 2);
+            heaps[stat] = heap;
+        }
+        int i = size;
+        heap[i] = id;
+        while (i > 0) {
+            int parent = (i - 1) >> 1;
+            if (targets[heap[parent]] <= targets[heap[i]]) break;
+            int swap = heap[parent];
+            heap[parent] = heap[i];
+            heap[i] = swap;
+            i = parent;
+        }
+        heapSizes[stat] = size + 1;
+    }
+
+    private void pop(int stat) {
+        int[] heap = heaps[stat];
+        int size = --heapSizes[stat];
+        heap[0] = heap[size];
+        int i = 0;
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) break;
+            int child = left + 1 < size && targets[heap[left + 1]] < targets[heap[left]] ? left + 1 : left;
+            if (targets[heap[i]] <= targets[heap[child]]) break;
+            int swap = heap[child];
+            heap[child] = heap[i];
+            heap[i] = swap;
+            i = child;
+        }
+    }
+
+    private void addRatio(int stat, int id) {
+        if (ratioCounts[stat] == ratios[stat].length) {
+            ratios[stat] = Arrays.copyOf(ratios[stat], ratioCounts[stat] * 2);
+        }
+        ratios[stat][ratioCounts[stat]++] = id;
+    }
+
+    private void removeRatio(int stat, int id) {
+        int[] list = ratios[stat];
+        for (int i = 0; i < ratioCounts[stat]; i++) {
+            if (list[i] == id) {
+                list[i] = list[--ratioCounts[stat]];
+                return;
+            }
+        }
+    }
+
+    private void growWatchers() {
+        int capacity = owners.length * 2;
+        owners = Arrays.copyOf(owners, capacity);
+        kinds = Arrays.copyOf(kinds, capacity);
+        stats = Arrays.copyOf(stats, capacity);
+        denominators = Arrays.copyOf(denominators, capacity);
+        targets = Arrays.copyOf(targets, capacity);
+        minimums = Arrays.copyOf(minimums, capacity);
+        active = Arrays.copyOf(active, capacity);
+    }
+
+    static int statForName(String name) {
+        for (int i = 0; i < NAMES.length; i++) {
+            if (NAMES[i].equals(name)) return i;
+        }
+        return -1;
+    }
+
+    // متدهای دسترسی
+    public boolean isActive(int id) { return id >= 0 && active[id]; }
+    public int getWatcherCount() { return watcherCount - freeCount; }
+    // تعداد بررسی شرط‌ها از ابتدا (برای سنجش هزینه هر رویداد)
+    public long getEvaluations() { return evaluations; }
+}
@@ -0,0 +1,49 @@
+package com.space.ship.game;
+
+// آزمون پیوسته برخورد دایره‌های متحرک (زمان برخورد در طول یک تیک)
+// هر جسم در طول تیک خطی از موقعیت قبلی به فعلی حرکت فرض می‌شود؛ آزمون نقطه پایانی
+// در گام‌های بزرگ (سرعت بالا، افت فریم یا نرخ تیک پایین) اجسام کوچک را جا می‌انداخت
+final class SweptCircle {
+    // برخورد ندارد
+    static final float MISS = -1;
+
+    private SweptCircle() {
+    }
+
+    // اولین کسر t در [0, 1] که نقطه متحرک از (x0, y0) به (x1, y1) به دایره ثابت می‌رسد؛ MISS اگر نرسد
+    // اگر از ابتدا درون دایره باشد صفر برمی‌گردد
+    static float segmentCircle(float x0, float y0, float x1, float y1, float cx, float cy, float radius) {
+        float fx = x0 - cx;
+        float fy = y0 - cy;
+        float c = fx * fx + fy * fy - radius * radius;
+        if (c <= 0) return 0;
+        float dx = x1 - x0;
+        float dy = y1 - y0;
+        float a = dx * dx + dy * dy;
+        if (a == 0) return MISS;
+        float b = fx * dx + fy * dy;
+        if (b >= 0) return MISS;
+        float discriminant = b * b - a * c;
+        if (discriminant < 0) return MISS;
+        float t = (-b - (float)Math.sqrt(discriminant)) / a;
+        return t <= 1 ? t : MISS;
+    }
+
+    // زمان برخورد دو دایره که هر دو در طول تیک حرکت می‌کنند؛ radius مجموع شعاع‌هاست
+    // با حرکت نسبی A نسبت به B به آزمون پاره‌خط در برابر دایره ثابت در مبدأ تبدیل می‌شود
+    static float timeOfImpact(float ax0, float ay0, float ax1, float ay1,
+                              float bx0, float by0, float bx1, float by1, float radius) {
+        return segmentCircle(ax0 - bx0, ay0 - by0, ax1 - bx1, ay1 - by1, 0, 0, radius);
+    }
+
+    // دایره متحرک در برابر شیء بازی متحرک (با موقعیت تیک قبلی آن)
+    static float timeOfImpact(float x0, float y0, float x1, float y1, float radius, GameObject other) {
+        return timeOfImpact(x0, y0, x1, y1, other.getPrevX(), other.getPrevY(), other.getX(), other.getY(),
+                            radius + other.getRadius());
+    }
+
+    // دایره متحرک در برابر شیء بازی ثابت (سیاره، پاداش) در موقعیت فعلی آن
+    static float sweepStatic(float x0, float y0, float x1, float y1, float radius, GameObject other) {
+        return segmentCircle(x0, y0, x1, y1, other.getX(), other.getY(), radius + other.getRadius());
+    }
+}
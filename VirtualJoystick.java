@@ -1,11 +1,5 @@
 package com.space.ship.game;
 
-import android.graphics.Canvas;
-import android.graphics.Color;
-import android.graphics.Paint;
-import android.graphics.RadialGradient;
-import android.graphics.Shader;
-
 public class VirtualJoystick {
     private float centerX, centerY;
     private float baseRadius, handleRadius;
@@ -50,6 +44,19 @@ public class VirtualJoystick {
         }
     }
     
+    // کپی وضعیت جویستیک برای تصویر رندر
+    public void copyFrom(VirtualJoystick other) {
+        centerX = other.centerX;
+        centerY = other.centerY;
+        baseRadius = other.baseRadius;
+        handleRadius = other.handleRadius;
+        handleX = other.handleX;
+        handleY = other.handleY;
+        isActive = other.isActive;
+        activationAnim = other.activationAnim;
+        pulseAnim = other.pulseAnim;
+    }
+    
     private void resetHandle() {
         handleX = centerX;
         handleY = centerY;
@@ -70,67 +77,6 @@ public class VirtualJoystick {
         if (pulseAnim > 1) pulseAnim = 0;
     }
     
-    public void draw(Canvas canvas, Paint paint) {
-        float currentBaseRadius = baseRadius * (0.9f + activationAnim * 0.1f);
-        float currentHandleRadius = handleRadius * (0.8f + activationAnim * 0.2f);
-        float pulseEffect = (float)Math.sin(pulseAnim * Math.PI * 2) * 0.1f + 0.9f;
-        
-        // پایه جویستیک با گرادیانت
-        RadialGradient baseGradient = new RadialGradient(
-            centerX, centerY, currentBaseRadius * pulseEffect,
-            new int[]{
-                Color.argb(150, 80, 80, 80),
-                Color.argb(100, 60, 60, 60),
-                Color.argb(50, 40, 40, 40)
-            },
-            null,
-            Shader.TileMode.CLAMP
-        );
-        paint.setShader(baseGradient);
-        canvas.drawCircle(centerX, centerY, currentBaseRadius * pulseEffect, paint);
-        
-        // حلقه بیرونی
-        paint.setShader(null);
-        paint.setStyle(Paint.Style.STROKE);
-        paint.setStrokeWidth(3);
-        paint.setColor(Color.argb(200, 120, 120, 120));
-        canvas.drawCircle(centerX, centerY, currentBaseRadius, paint);
-        
-        // دسته جویستیک
-        if (isActive) {
-            float handleAlpha = 200 + activationAnim * 55;
-            RadialGradient handleGradient = new RadialGradient(
-                handleX, handleY, currentHandleRadius,
-                new int[]{
-                    Color.argb((int)handleAlpha, 220, 220, 220),
-                    Color.argb((int)(handleAlpha * 0.7f), 180, 180, 180),
-                    Color.argb((int)(handleAlpha * 0.4f), 140, 140, 140)
-                },
-                null,
-                Shader.TileMode.CLAMP
-            );
-            paint.setStyle(Paint.Style.FILL);
-            paint.setShader(handleGradient);
-            canvas.drawCircle(handleX, handleY, currentHandleRadius, paint);
-            
-            // درخشش دسته
-            paint.setShader(null);
-            paint.setColor(Color.argb(100, 255, 255, 255));
-            canvas.drawCircle(handleX, handleY, currentHandleRadius * 1.3f, paint);
-        } else {
-            paint.setStyle(Paint.Style.FILL);
-            paint.setColor(Color.argb(150, 180, 180, 180));
-            canvas.drawCircle(handleX, handleY, currentHandleRadius, paint);
-        }
-        
-        // مرکز دسته
-        paint.setColor(Color.argb(255, 100, 100, 100));
-        canvas.drawCircle(handleX, handleY, currentHandleRadius * 0.5f, paint);
-        
-        paint.setStyle(Paint.Style.FILL);
-        paint.setShader(null);
-    }
-    
     public float getForceX() {
         if (!isActive) return 0;
         
@@ -182,4 +128,13 @@ public class VirtualJoystick {
     public float getDeadZone() {
         return deadZone;
     }
+    
+    public float getCenterX() { return centerX; }
+    public float getCenterY() { return centerY; }
+    public float getHandleX() { return handleX; }
+    public float getHandleY() { return handleY; }
+    public float getBaseRadius() { return baseRadius; }
+    public float getHandleRadius() { return handleRadius; }
+    public float getActivationAnim() { return activationAnim; }
+    public float getPulseAnim() { return pulseAnim; }
               }
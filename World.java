@@ -0,0 +1,904 @@
+package com.space.ship.game;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+// هسته شبیه‌سازی بدون وابستگی به اندروید: موجودیت‌ها، برخوردها، امتیاز و روند مراحل
+public class World implements SaveFile.Payload {
+    // رویدادهای شبیه‌سازی برای صدا و افکت‌های بیرونی
+    public interface Listener {
+        void onExplosion();
+        void onImpact();
+        void onBlackHole();
+        void onPlanetExplosion();
+        void onLevelStart();
+        void onLevelComplete();
+        void onRespawn();
+        void onGameOver();
+    }
+
+    // شنونده خالی برای اجرای بدون صدا (مثلاً شبیه‌سازی دسته‌ای)
+    public static final Listener SILENT = new Listener() {
+        @Override public void onExplosion() {}
+        @Override public void onImpact() {}
+        @Override public void onBlackHole() {}
+        @Override public void onPlanetExplosion() {}
+        @Override public void onLevelStart() {}
+        @Override public void onLevelComplete() {}
+        @Override public void onRespawn() {}
+        @Override public void onGameOver() {}
+    };
+
+    private final int screenWidth, screenHeight;
+    private Listener listener = SILENT;
+
+    // جریان‌های تصادفی زیرسیستم‌ها که همه از بذر جلسه مشتق می‌شوند
+    static final int STREAM_LEVEL = 0;
+    static final int STREAM_ENEMIES = 1;
+    static final int STREAM_ENVIRONMENT = 2;
+    static final int STREAM_PARTICLES = 3;
+    static final int STREAM_CAMERA = 4;
+    static final int STREAM_SHIP = 5;
+    static final int STREAM_POWER_UPS = 6;
+    private final long seed;
+    private final SimRandom random;
+    private final SimRandom enemyRandom;
+    private final SimRandom environmentRandom;
+    private final SimRandom powerUpRandom;
+    private final SimClock clock = new SimClock();
+
+    // سیستم‌های بازی
+    private final CameraSystem cameraSystem;
+    private final SpaceShip spaceShip;
+    private final VirtualJoystick joystick;
+    // ورودی لمس از رشته UI فقط از این صف به شبیه‌سازی می‌رسد
+    private final InputQueue inputQueue = new InputQueue(INPUT_QUEUE_CAPACITY);
+    private final InputRouter inputRouter;
+    private final LatencyTracker latencyTracker = new LatencyTracker(LATENCY_SAMPLE_CAPACITY);
+    private final List<Planet> planets;
+    private final List<Enemy> enemies;
+    private final StarField starField;
+    private final List<BlackHole> blackHoles;
+    private final List<Nebula> nebulas;
+    private final List<PowerUp> powerUps;
+    private final ParticleSystem particleSystem;
+    private final GameState gameState;
+
+    // سلاح‌ها و پرتابه‌ها؛ برخوردها به صورت ترتیبی از این مقصد به جهان بازی برمی‌گردند
+    private final ProjectileSystem projectileSystem = new ProjectileSystem(ProjectileSystem.DEFAULT_CAPACITY);
+    private final PlayerWeapon playerWeapon = new PlayerWeapon();
+    private final ProjectileSystem.HitHandler projectileHits = new ProjectileSystem.HitHandler() {
+        @Override
+        public boolean onEnemyHit(Enemy enemy, float damage, float x, float y) {
+            return hitEnemy(enemy, damage, x, y);
+        }
+
+        @Override
+        public boolean onPlanetHit(Planet planet, float damage, float x, float y) {
+            return hitPlanet(planet, damage, x, y);
+        }
+
+        @Override
+        public void onShipHit(float damage, float x, float y) {
+            hitShip(damage, x, y);
+        }
+    };
+
+    // شبکه‌های برخورد؛ سیارات ثابت‌اند و فقط پس از تغییر لیست دوباره ساخته می‌شوند
+    private static final float COLLISION_CELL_SIZE = 128;
+    private final SpatialHash<Planet> planetGrid;
+    private final SpatialHash<Enemy> enemyGrid;
+    private final SpatialHash<PowerUp> powerUpGrid;
+    private boolean planetGridDirty = true;
+    private final List<Planet> planetHits = new ArrayList<>();
+    private final List<Enemy> enemyHits = new ArrayList<>();
+    private final List<PowerUp> powerUpHits = new ArrayList<>();
+
+    // استخرهای اشیا تا تغییر مرحله و ظهور دشمن در میانه تیک تخصیص نداشته باشند
+    private final ObjectPool<Enemy> enemyPool;
+    private final ObjectPool<Planet> planetPool;
+    private final ObjectPool<PowerUp> powerUpPool;
+
+    // حذف اشیای خارج از دید هنگام گرفتن تصویر؛ حاشیه جابجایی یک تیک و درون‌یابی را می‌پوشاند
+    private static final float CULL_MARGIN = 64;
+    private final ViewRect viewRect = new ViewRect();
+    private final ViewRect planetViewRect = new ViewRect();
+    private final List<Planet> visiblePlanets = new ArrayList<>();
+    private final List<Enemy> visibleEnemies = new ArrayList<>();
+    private final List<PowerUp> visiblePowerUps = new ArrayList<>();
+    private final List<BlackHole> visibleBlackHoles = new ArrayList<>();
+    private float maxPlanetRadius;
+
+    // تماس سفینه با سیارات: ضربه در شروع تماس و سپس آسیب در فواصل زمانی ثابت (مستقل از نرخ تیک)
+    private static final int PLANET_CONTACT_DAMAGE = 25;
+    private static final int PLANET_IMPACT_PARTICLES = 25;
+    private static final int PLANET_GRAZE_PARTICLES = 6;
+    // سفینه‌ای که لبه سیاره را می‌ساید تماس را تیک به تیک قطع و وصل می‌کند؛ این مهلت آن را یک تماس نگه می‌دارد
+    private static final float PLANET_CONTACT_GRACE = 0.15f;
+    private final ContactTracker<Planet> planetContacts = new ContactTracker<>(PLANET_CONTACT_GRACE);
+    private float planetContactInterval = 0.1f;
+
+    private static final int STAR_COUNT = 500;
+    // سیستم کار اختیاری و کارهای ثابت بروزرسانی (گام تیک جاری از stepDeltaTime خوانده می‌شود)
+    private static final int ENTITY_GRAIN = 16;
+    private JobSystem jobSystem;
+    private final JobSystem.Kernel enemyKernel = this::updateEnemies;
+    private final JobSystem.Kernel planetKernel = this::updatePlanets;
+    private float stepDeltaTime;
+
+    // سطح جزئیات شبیه‌سازی بر اساس فاصله تا دید دوربین
+    private final SimLod simLod = new SimLod();
+    private boolean[] planetActive = new boolean[64];
+    private int enemySpawnCount;
+    // چند ثانیه لمس پرتکرار (با نمونه‌های تاریخچه) بین دو تیک
+    private static final int INPUT_QUEUE_CAPACITY = 256;
+    // نمونه‌های تأخیر مصرف شده که هنوز به فریم ارسال شده نرسیده‌اند
+    private static final int LATENCY_SAMPLE_CAPACITY = 1024;
+    private static final int[] SHIP_EXPLOSION_COLORS = {Colors.RED, Colors.ORANGE, Colors.YELLOW};
+    private static final int[] ENEMY_EXPLOSION_COLORS = {Colors.ORANGE, Colors.YELLOW, Colors.WHITE};
+    private static final int[] PROJECTILE_SPARK_COLORS = {Colors.YELLOW, Colors.WHITE};
+    private static final int PROJECTILE_SPARK_PARTICLES = 4;
+    // پخش سه گلوله دشمن نخبه (رادیان)
+    private static final float ELITE_SPREAD = 0.15f;
+
+    private boolean gameOver;
+    // سقف تعداد هر نوع موجودیت در تصویر ذخیره؛ عدد بزرگ‌تر یعنی فایل خراب است
+    private static final int MAX_SAVED_ENTITIES = 1024;
+
+    // زمان‌سنج فازهای تیک؛ فریم‌ها توسط اجراکننده (GameEngine یا شبیه‌سازی بدون صفحه) باز و بسته می‌شوند
+    private final FrameProfiler profiler = new FrameProfiler(FrameProfiler.SIM_PHASES, FrameProfiler.DEFAULT_HISTORY);
+
+    public World(int screenWidth, int screenHeight) {
+        this(screenWidth, screenHeight, System.nanoTime());
+    }
+
+    // جلسه با بذر یکسان و ورودی یکسان، تیک به تیک یکسان اجرا می‌شود
+    public World(int screenWidth, int screenHeight, long seed) {
+        this.screenWidth = screenWidth;
+        this.screenHeight = screenHeight;
+        this.seed = seed;
+
+        SimRandom root = new SimRandom(seed);
+        random = root.stream(STREAM_LEVEL);
+        enemyRandom = root.stream(STREAM_ENEMIES);
+        environmentRandom = root.stream(STREAM_ENVIRONMENT);
+        powerUpRandom = root.stream(STREAM_POWER_UPS);
+
+        cameraSystem = new CameraSystem(screenWidth, screenHeight, root.stream(STREAM_CAMERA));
+        spaceShip = new SpaceShip(screenWidth / 2, screenHeight / 2, screenWidth, screenHeight, cameraSystem,
+                                  root.stream(STREAM_SHIP));
+        joystick = new VirtualJoystick(screenWidth / 2, screenHeight - 200, 120);
+        inputRouter = new InputRouter(joystick, spaceShip, screenWidth, screenHeight, latencyTracker);
+        planets = new ArrayList<>();
+        enemies = new ArrayList<>();
+        blackHoles = new ArrayList<>();
+        nebulas = new ArrayList<>();
+        powerUps = new ArrayList<>();
+        planetGrid = new SpatialHash<>(COLLISION_CELL_SIZE, 64);
+        enemyGrid = new SpatialHash<>(COLLISION_CELL_SIZE, 64);
+        powerUpGrid = new SpatialHash<>(COLLISION_CELL_SIZE, 16);
+        particleSystem = new ParticleSystem(root.stream(STREAM_PARTICLES));
+        // ستاره‌ها با تراکم بالا در لایه‌های پارالاکس
+        starField = new StarField(STAR_COUNT, environmentRandom);
+        enemyPool = new ObjectPool<>(() -> new Enemy(screenWidth, screenHeight, enemyRandom), 32);
+        planetPool = new ObjectPool<>(() -> new Planet(screenWidth, screenHeight, environmentRandom), 48);
+        powerUpPool = new ObjectPool<>(() -> new PowerUp(powerUpRandom), 16);
+        gameState = new GameState();
+
+        createGalaxyEnvironment();
+    }
+
+    // بروزرسانی موازی دشمنان، سیارات و ذرات؛ null یعنی اجرای ترتیبی در رشته شبیه‌سازی (نتیجه یکسان)
+    public void setJobSystem(JobSystem jobSystem) {
+        this.jobSystem = jobSystem;
+    }
+
+    public void setListener(Listener listener) {
+        this.listener = listener != null ? listener : SILENT;
+    }
+
+    // فاصله تیک‌های آسیب تماس ادامه‌دار با سیاره (ثانیه)؛ صفر یعنی فقط ضربه شروع تماس
+    public void setPlanetContactInterval(float seconds) {
+        planetContactInterval = Math.max(0, seconds);
+    }
+
+    // شروع بازی؛ جدا از سازنده تا شنونده پیش از اولین رویداد تنظیم شود
+    public void start() {
+        gameOver = false;
+        startNewLevel();
+    }
+
+    private void createGalaxyEnvironment() {
+        // ایجاد سحابی‌ها
+        for (int i = 0; i < 8; i++) {
+            nebulas.add(new Nebula(
+                random.nextInt(screenWidth * 3) - screenWidth,
+                random.nextInt(screenHeight * 3) - screenHeight,
+                random.nextFloat() * 400 + 200,
+                random.nextInt(5),
+                environmentRandom
+            ));
+        }
+
+        // ایجاد سیاه‌چاله‌ها
+        for (int i = 0; i < 3; i++) {
+            blackHoles.add(new BlackHole(
+                random.nextInt(screenWidth * 2) - screenWidth / 2,
+                random.nextInt(screenHeight * 2) - screenHeight / 2,
+                random.nextFloat() * 80 + 40,
+                environmentRandom
+            ));
+        }
+    }
+
+    private void startNewLevel() {
+        planetContacts.clear();
+        releaseAll(planets, planetPool);
+        releaseAll(enemies, enemyPool);
+        releaseAll(powerUps, powerUpPool);
+        projectileSystem.clear();
+        planetGridDirty = true;
+
+        int currentLevel = gameState.getCurrentLevel();
+
+        // ایجاد سیارات - تعداد بر اساس سطح
+        int planetCount = 20 + (currentLevel - 1) * 2;
+        for (int i = 0; i < planetCount; i++) {
+            float x = random.nextFloat() * (screenWidth * 2) - screenWidth / 2;
+            float y = random.nextFloat() * (screenHeight * 2) - screenHeight / 2;
+            int health = currentLevel * 15 + 50;
+            int type = random.nextInt(5);
+            Planet planet = planetPool.obtain();
+            planet.reinit(x, y, health, type, currentLevel);
+            planets.add(planet);
+        }
+
+        // ایجاد دشمنان - تعداد بر اساس سطح
+        int enemyCount = 10 + (currentLevel - 1) * 3;
+        for (int i = 0; i < enemyCount; i++) {
+            spawnEnemy(currentLevel);
+        }
+
+        listener.onLevelStart();
+    }
+
+    private void spawnEnemy(int level) {
+        Enemy enemy = enemyPool.obtain();
+        enemy.reinit(level, random.nextInt(4));
+        enemy.setLodPhase(enemySpawnCount++);
+        enemies.add(enemy);
+    }
+
+    private static <T> void releaseAll(List<T> items, ObjectPool<T> pool) {
+        for (int i = 0; i < items.size(); i++) {
+            pool.release(items.get(i));
+        }
+        items.clear();
+    }
+
+    // یک تیک ثابت شبیه‌سازی
+    public void step(float deltaTime) {
+        if (gameOver) return;
+
+        clock.advance(deltaTime);
+        // همه رویدادهای لمس رسیده پیش از بروزرسانی یک جا اعمال می‌شوند
+        inputRouter.drain(inputQueue, clock.getTick());
+        storePreviousState();
+        update(deltaTime);
+
+        profiler.count(FrameProfiler.COUNT_ENTITIES, planets.size() + enemies.size() + powerUps.size() + 1);
+        profiler.count(FrameProfiler.COUNT_PARTICLES, particleSystem.getParticleCount());
+    }
+
+    private void storePreviousState() {
+        cameraSystem.storePreviousPosition();
+        spaceShip.storePreviousPosition();
+        for (Enemy enemy : enemies) {
+            enemy.storePreviousPosition();
+        }
+        // پاداش‌ها شناورند؛ سیارات ثابت‌اند و موقعیت قبلی آن‌ها فقط در reinit تنظیم می‌شود
+        for (PowerUp powerUp : powerUps) {
+            powerUp.storePreviousPosition();
+        }
+        starField.storePreviousOffsets();
+    }
+
+    private void update(float deltaTime) {
+        // بروزرسانی سیستم دوربین
+        profiler.begin(FrameProfiler.SIM_CAMERA);
+        cameraSystem.update(spaceShip, deltaTime);
+        profiler.end(FrameProfiler.SIM_CAMERA);
+
+        // بروزرسانی سفینه
+        profiler.begin(FrameProfiler.SIM_SHIP);
+        spaceShip.update(joystick, deltaTime, clock);
+        profiler.end(FrameProfiler.SIM_SHIP);
+
+        // بروزرسانی دشمنان و سیارات؛ هر دو فقط وضعیت خود را تغییر می‌دهند و با هم موازی اجرا می‌شوند
+        // سطح جزئیات هر شیء پیش از آن در همین رشته از فاصله تا دید دوربین تعیین می‌شود
+        profiler.begin(FrameProfiler.SIM_ENEMIES);
+        stepDeltaTime = deltaTime;
+        simLod.begin(cameraSystem, clock.getTick());
+        for (int i = 0; i < enemies.size(); i++) {
+            Enemy enemy = enemies.get(i);
+            enemy.setLodPlan(simLod.classifyEnemy(enemy), simLod.isDue(enemy.getLodPhase()));
+        }
+        if (planetActive.length < planets.size()) {
+            planetActive = new boolean[planets.size() * 2];
+        }
+        for (int i = 0; i < planets.size(); i++) {
+            planetActive[i] = simLod.isPlanetActive(planets.get(i));
+        }
+        if (jobSystem != null) {
+            jobSystem.beginGraph();
+            jobSystem.add(enemyKernel, enemies.size(), ENTITY_GRAIN);
+            jobSystem.add(planetKernel, planets.size(), ENTITY_GRAIN);
+            jobSystem.run();
+        } else {
+            updateEnemies(0, enemies.size());
+            updatePlanets(0, planets.size());
+        }
+        profiler.end(FrameProfiler.SIM_ENEMIES);
+
+        profiler.begin(FrameProfiler.SIM_COLLISIONS);
+        rebuildEnemyGrid();
+
+        // بررسی برخورد با سفینه در طول مسیر تیک هر دو
+        enemyHits.clear();
+        queryShipPath(enemyGrid, enemyHits);
+        for (int i = 0; i < enemyHits.size(); i++) {
+            if (!spaceShip.checkMovingCollision(enemyHits.get(i))) continue;
+            if (destroyShip()) {
+                profiler.end(FrameProfiler.SIM_COLLISIONS);
+                return;
+            }
+            break;
+        }
+
+        // بررسی برخورد دشمنان با سیاه‌چاله
+        for (BlackHole blackHole : blackHoles) {
+            enemyHits.clear();
+            enemyGrid.query(blackHole.getX(), blackHole.getY(), blackHole.getSize(), enemyHits);
+            for (Enemy enemy : enemyHits) {
+                if (enemy.checkBlackHoleCollision(blackHole) && enemies.remove(enemy)) {
+                    particleSystem.createBlackHoleEffect(blackHole.getX(), blackHole.getY(), 30);
+                    listener.onBlackHole();
+                    enemyPool.release(enemy);
+                }
+            }
+        }
+
+        if (planetGridDirty) {
+            rebuildPlanetGrid();
+        }
+
+        // بررسی برخورد با سیارات
+        planetHits.clear();
+        queryShipPath(planetGrid, planetHits);
+        planetContacts.beginStep();
+        for (Planet planet : planetHits) {
+            // مسیر تیک سفینه از موقعیت قبلی تا فعلی؛ سپر فعال برخورد با سیاره را خنثی می‌کند
+            if (spaceShip.isShieldActive() || spaceShip.sweepStatic(planet) == SweptCircle.MISS) continue;
+
+            int contact = planetContacts.touch(planet, deltaTime);
+            if (planetContacts.getPhase(contact) == ContactTracker.BEGIN) {
+                // ضربه شروع تماس با افکت و صدای کامل
+                planet.takeDamage(PLANET_CONTACT_DAMAGE);
+                particleSystem.createPlanetImpact(planet.getX(), planet.getY(), PLANET_IMPACT_PARTICLES, planet.getType());
+                listener.onImpact();
+            } else {
+                // سایش ادامه‌دار: آسیب در تیک‌های زمانی با افکت سبک و بدون صدا
+                int ticks = planetContacts.consumeTicks(contact, planetContactInterval);
+                if (ticks == 0) continue;
+                planet.takeDamage(PLANET_CONTACT_DAMAGE * ticks);
+                particleSystem.createPlanetImpact(planet.getX(), planet.getY(), PLANET_GRAZE_PARTICLES, planet.getType());
+            }
+
+            if (planet.isDestroyed()) {
+                destroyPlanet(planet);
+            }
+        }
+
+        planetContacts.endStep(deltaTime);
+
+        // بروزرسانی و جمع‌آوری پاداش‌ها
+        updatePowerUps(deltaTime);
+        profiler.end(FrameProfiler.SIM_COLLISIONS);
+
+        // سلاح‌ها و پرتابه‌ها
+        profiler.begin(FrameProfiler.SIM_PROJECTILES);
+        boolean ended = updateProjectiles(deltaTime);
+        profiler.end(FrameProfiler.SIM_PROJECTILES);
+        if (ended) return;
+
+        // بروزرسانی ذرات
+        profiler.begin(FrameProfiler.SIM_PARTICLES);
+        particleSystem.update(deltaTime, jobSystem, simLod.getParticleView());
+        profiler.end(FrameProfiler.SIM_PARTICLES);
+
+        // بروزرسانی ستاره‌ها (افکت پارالاکس پیشرفته)
+        profiler.begin(FrameProfiler.SIM_STARS);
+        starField.update(spaceShip.getVelocityX(), spaceShip.getVelocityY(), deltaTime);
+        profiler.end(FrameProfiler.SIM_STARS);
+
+        // بروزرسانی سیاه‌چاله‌ها
+        profiler.begin(FrameProfiler.SIM_ENVIRONMENT);
+        for (BlackHole blackHole : blackHoles) {
+            blackHole.update(deltaTime);
+        }
+
+        // چرخش سحابی‌ها
+        for (Nebula nebula : nebulas) {
+            nebula.update(deltaTime);
+        }
+        profiler.end(FrameProfiler.SIM_ENVIRONMENT);
+
+        // بررسی پایان مرحله
+        if (planets.isEmpty()) {
+            gameState.nextLevel();
+            listener.onLevelComplete();
+            startNewLevel();
+        }
+
+        // مدیریت دشمنان
+        manageEnemies();
+    }
+
+    // شلیک سفینه و دشمنان، حرکت پرتابه‌ها و برخورد آن‌ها؛ true یعنی سفینه نابود شد و بازی تمام شد
+    private boolean updateProjectiles(float deltaTime) {
+        fireEnemyWeapons();
+        int shots = playerWeapon.update(deltaTime, spaceShip, gameState.getWeaponPowerLevel(), projectileSystem);
+        for (int i = 0; i < shots; i++) {
+            gameState.shotFired();
+        }
+        if (projectileSystem.getCount() == 0) return false;
+
+        aimMissiles();
+        projectileSystem.update(deltaTime, jobSystem);
+
+        // دشمنان از برخوردهای قبلی این تیک جابجا یا حذف شده‌اند
+        rebuildEnemyGrid();
+        if (planetGridDirty) {
+            rebuildPlanetGrid();
+        }
+        int landed = projectileSystem.collide(enemyGrid, planetGrid, spaceShip, projectileHits);
+        for (int i = 0; i < landed; i++) {
+            gameState.shotHit();
+        }
+
+        for (int i = enemies.size() - 1; i >= 0; i--) {
+            if (enemies.get(i).isDestroyed()) {
+                enemyPool.release(enemies.remove(i));
+            }
+        }
+        return spaceShip.getHealth() <= 0 && destroyShip();
+    }
+
+    // دشمنان مهاجم به سمت سفینه شلیک می‌کنند: جنگنده گلوله، بمب‌افکن موشک و نخبه سه گلوله پخش
+    private void fireEnemyWeapons() {
+        for (int i = 0; i < enemies.size(); i++) {
+            Enemy enemy = enemies.get(i);
+            if (!enemy.consumeFireRequest()) continue;
+
+            float angle = (float)Math.atan2(spaceShip.getY() - enemy.getY(), spaceShip.getX() - enemy.getX());
+            float muzzleX = enemy.getX() + (float)Math.cos(angle) * enemy.getRadius();
+            float muzzleY = enemy.getY() + (float)Math.sin(angle) * enemy.getRadius();
+            float damageScale = 1 + (enemy.getLevel() - 1) * 0.1f;
+            switch (enemy.getType()) {
+                case Enemy.TYPE_FIGHTER:
+                    projectileSystem.spawn(ProjectileSystem.TYPE_ENEMY_BULLET, muzzleX, muzzleY, angle, damageScale);
+                    break;
+                case Enemy.TYPE_BOMBER:
+                    projectileSystem.spawn(ProjectileSystem.TYPE_ENEMY_MISSILE, muzzleX, muzzleY, angle, damageScale);
+                    break;
+                case Enemy.TYPE_ELITE:
+                    for (int s = -1; s <= 1; s++) {
+                        projectileSystem.spawn(ProjectileSystem.TYPE_ENEMY_BULLET, muzzleX, muzzleY,
+                                               angle + s * ELITE_SPREAD, damageScale);
+                    }
+                    break;
+            }
+        }
+    }
+
+    // موشک‌های سفینه نزدیک‌ترین دشمن را دنبال می‌کنند و موشک‌های دشمن خود سفینه را
+    private void aimMissiles() {
+        Enemy nearest = null;
+        float nearestDistance = Float.MAX_VALUE;
+        for (int i = 0; i < enemies.size(); i++) {
+            Enemy enemy = enemies.get(i);
+            float dx = enemy.getX() - spaceShip.getX();
+            float dy = enemy.getY() - spaceShip.getY();
+            float distance = dx * dx + dy * dy;
+            if (distance < nearestDistance) {
+                nearestDistance = distance;
+                nearest = enemy;
+            }
+        }
+        if (nearest != null) {
+            projectileSystem.setPlayerTarget(true, nearest.getX(), nearest.getY());
+        } else {
+            projectileSystem.setPlayerTarget(false, 0, 0);
+        }
+        projectileSystem.setEnemyTarget(spaceShip.getX(), spaceShip.getY());
+    }
+
+    private boolean hitEnemy(Enemy enemy, float damage, float x, float y) {
+        // دشمنی که پرتابه دیگری در همین تیک نابودش کرده هنوز در شبکه است
+        if (enemy.isDestroyed()) return false;
+        enemy.takeDamage(damage);
+        particleSystem.createSupernova(x, y, PROJECTILE_SPARK_PARTICLES, PROJECTILE_SPARK_COLORS);
+        if (enemy.isDestroyed()) {
+            gameState.enemyDestroyed(enemy.getType());
+            particleSystem.createSupernova(enemy.getX(), enemy.getY(), 40, ENEMY_EXPLOSION_COLORS);
+            listener.onExplosion();
+        }
+        return true;
+    }
+
+    private boolean hitPlanet(Planet planet, float damage, float x, float y) {
+        planet.takeDamage(Math.round(damage));
+        particleSystem.createPlanetImpact(x, y, PROJECTILE_SPARK_PARTICLES, planet.getType());
+        if (planet.isDestroyed()) {
+            destroyPlanet(planet);
+        }
+        return true;
+    }
+
+    // سپر فعال آسیب را جذب می‌کند (takeDamage سفینه)
+    private void hitShip(float damage, float x, float y) {
+        spaceShip.takeDamage(damage);
+        particleSystem.createSupernova(x, y, PROJECTILE_SPARK_PARTICLES, SHIP_EXPLOSION_COLORS);
+        listener.onImpact();
+    }
+
+    private void destroyPlanet(Planet planet) {
+        planetContacts.remove(planet);
+        planets.remove(planet);
+        planetGridDirty = true;
+        gameState.planetDestroyed(planet.getType());
+        particleSystem.createPlanetExplosion(planet.getX(), planet.getY(), 100, planet.getType());
+        listener.onPlanetExplosion();
+
+        // شانس افتادن پاداش
+        if (random.nextFloat() < 0.3f) {
+            PowerUp powerUp = powerUpPool.obtain();
+            powerUp.reinit(planet.getX(), planet.getY(), random.nextInt(6));
+            powerUps.add(powerUp);
+        }
+        planetPool.release(planet);
+    }
+
+    // انفجار سفینه و کم شدن جان؛ true یعنی جانی نماند و بازی تمام شد
+    private boolean destroyShip() {
+        particleSystem.createSupernova(spaceShip.getX(), spaceShip.getY(), 80, SHIP_EXPLOSION_COLORS);
+        listener.onExplosion();
+        gameState.shipDestroyed();
+        if (gameState.getLives() <= 0) {
+            endGame();
+            return true;
+        }
+        resetShip();
+        return false;
+    }
+
+    private void updateEnemies(int begin, int end) {
+        for (int i = begin; i < end; i++) {
+            enemies.get(i).updateLod(spaceShip, stepDeltaTime, clock);
+        }
+    }
+
+    private void updatePlanets(int begin, int end) {
+        for (int i = begin; i < end; i++) {
+            planets.get(i).updateLod(stepDeltaTime, planetActive[i]);
+        }
+    }
+
+    // دشمنان با جعبه مسیر تیک ثبت می‌شوند تا دشمن سریع در آزمون پیوسته از دست نرود
+    private void rebuildEnemyGrid() {
+        enemyGrid.clear();
+        for (Enemy enemy : enemies) {
+            enemyGrid.insertSwept(enemy, enemy.getPrevX(), enemy.getPrevY(), enemy.getX(), enemy.getY(),
+                                  enemy.getRadius());
+        }
+    }
+
+    // نامزدهای برخورد با مسیر سفینه در این تیک (جعبه محیطی از موقعیت قبلی تا فعلی)
+    private <T> void queryShipPath(SpatialHash<T> grid, List<T> out) {
+        float radius = SpaceShip.COLLISION_RADIUS;
+        grid.queryRect(Math.min(spaceShip.getPrevX(), spaceShip.getX()) - radius,
+                       Math.min(spaceShip.getPrevY(), spaceShip.getY()) - radius,
+                       Math.max(spaceShip.getPrevX(), spaceShip.getX()) + radius,
+                       Math.max(spaceShip.getPrevY(), spaceShip.getY()) + radius, out);
+    }
+
+    private void rebuildPlanetGrid() {
+        planetGrid.clear();
+        maxPlanetRadius = 0;
+        for (Planet planet : planets) {
+            planetGrid.insert(planet, planet.getX(), planet.getY(), planet.getRadius());
+            maxPlanetRadius = Math.max(maxPlanetRadius, planet.getRadius());
+        }
+        planetGridDirty = false;
+    }
+
+    private void updatePowerUps(float deltaTime) {
+        if (powerUps.isEmpty()) return;
+
+        powerUpGrid.clear();
+        for (PowerUp powerUp : powerUps) {
+            powerUp.update(deltaTime);
+            powerUpGrid.insert(powerUp, powerUp.getX(), powerUp.getY(), powerUp.getRadius());
+        }
+
+        powerUpHits.clear();
+        queryShipPath(powerUpGrid, powerUpHits);
+        for (PowerUp powerUp : powerUpHits) {
+            if (spaceShip.sweepStatic(powerUp) == SweptCircle.MISS) continue;
+            powerUp.collect();
+            powerUp.applyEffect(spaceShip, gameState);
+            powerUps.remove(powerUp);
+            powerUpPool.release(powerUp);
+        }
+    }
+
+    private void manageEnemies() {
+        // حذف دشمنان خارج از صفحه و بازگرداندن به استخر
+        for (int i = enemies.size() - 1; i >= 0; i--) {
+            if (enemies.get(i).isOutOfScreen(screenWidth, screenHeight)) {
+                enemyPool.release(enemies.remove(i));
+            }
+        }
+
+        // اضافه کردن دشمنان جدید
+        int currentLevel = gameState.getCurrentLevel();
+        int maxEnemies = 10 + (currentLevel - 1) * 3;
+        if (enemies.size() < maxEnemies && random.nextInt(100) < (5 + currentLevel * 2)) {
+            spawnEnemy(currentLevel);
+        }
+    }
+
+    private void resetShip() {
+        spaceShip.reset(screenWidth / 2, screenHeight / 2);
+        particleSystem.createRespawnEffect(screenWidth / 2, screenHeight / 2, 60);
+        listener.onRespawn();
+    }
+
+    private void endGame() {
+        gameOver = true;
+        listener.onGameOver();
+    }
+
+    // تصویر کامل جهان برای ادامه پس از مرگ فرایند بدون ساخت دوباره مرحله
+    // محیط ثابت (ستاره‌ها، سحابی‌ها، سیاه‌چاله‌ها) از بذر ساخته می‌شود و فقط وضعیت متغیر آن ذخیره می‌شود؛
+    // ذرات فقط نمایشی‌اند و ذخیره نمی‌شوند. ترتیب فیلدها بخشی از SaveFile.WORLD_VERSION است
+    @Override
+    public void writeSave(ByteBuffer out) {
+        out.putLong(seed);
+        out.putInt(screenWidth);
+        out.putInt(screenHeight);
+        out.putInt(SaveFile.GAME_VERSION);
+        gameState.writeSave(out);
+        out.putLong(gameState.getDestroyedPlanets());
+        out.putInt(gameState.getCurrentCombo());
+
+        out.putLong(clock.getTick());
+        out.putDouble(clock.getTime());
+        out.putLong(random.getState());
+        out.putLong(enemyRandom.getState());
+        out.putLong(environmentRandom.getState());
+        out.putLong(powerUpRandom.getState());
+        out.putInt(enemySpawnCount);
+
+        cameraSystem.writeState(out);
+        spaceShip.writeState(out);
+        playerWeapon.writeState(out);
+        starField.writeState(out);
+        out.putInt(nebulas.size());
+        for (Nebula nebula : nebulas) {
+            nebula.writeState(out);
+        }
+        out.putInt(blackHoles.size());
+        for (BlackHole blackHole : blackHoles) {
+            blackHole.writeState(out);
+        }
+
+        out.putInt(planets.size());
+        for (Planet planet : planets) {
+            planet.writeState(out);
+        }
+        out.putInt(enemies.size());
+        for (Enemy enemy : enemies) {
+            enemy.writeState(out);
+        }
+        out.putInt(powerUps.size());
+        for (PowerUp powerUp : powerUps) {
+            powerUp.writeState(out);
+        }
+        projectileSystem.writeState(out);
+
+        // تماس جاری سفینه با سیارات با اندیس سیاره
+        out.putInt(planetContacts.size());
+        for (int i = 0; i < planetContacts.size(); i++) {
+            out.putInt(planets.indexOf(planetContacts.get(i)));
+            out.putFloat(planetContacts.getDuration(i));
+            out.putFloat(planetContacts.getPending(i));
+            out.putFloat(planetContacts.getSeparated(i));
+        }
+    }
+
+    // جهان با همان بذر ساخته و وضعیت ذخیره شده روی آن نوشته می‌شود؛ به جای start() استفاده شود
+    // داده ناسازگار IllegalArgumentException می‌دهد
+    // تصویر جهان فقط بین توقف و ادامه زنده است، پس چیدمان قدیمی‌تر تبدیل نمی‌شود و کنار گذاشته می‌شود
+    // (موتور به ذخیره پیشرفت برمی‌گردد)؛ تغییر چیدمان writeSave نیازمند افزایش SaveFile.WORLD_VERSION است
+    public static World readSave(ByteBuffer in, int version) {
+        if (version != SaveFile.WORLD_VERSION) {
+            throw new IllegalArgumentException("unsupported world snapshot version " + version);
+        }
+        long seed = in.getLong();
+        int width = in.getInt();
+        int height = in.getInt();
+        World world = new World(width, height, seed);
+        world.readState(in);
+        return world;
+    }
+
+    private void readState(ByteBuffer in) {
+        int gameVersion = in.getInt();
+        if (gameVersion < 1 || gameVersion > SaveFile.GAME_VERSION) {
+            throw new IllegalArgumentException("unsupported game state version " + gameVersion);
+        }
+        gameState.readSave(in, gameVersion);
+        long levelPlanets = in.getLong();
+        gameState.resumeRun(levelPlanets, in.getInt());
+
+        long tick = in.getLong();
+        clock.restore(tick, in.getDouble());
+        random.setState(in.getLong());
+        enemyRandom.setState(in.getLong());
+        environmentRandom.setState(in.getLong());
+        powerUpRandom.setState(in.getLong());
+        enemySpawnCount = in.getInt();
+
+        cameraSystem.readState(in);
+        spaceShip.readState(in);
+        playerWeapon.readState(in);
+        starField.readState(in);
+        expectCount(in, nebulas.size());
+        for (Nebula nebula : nebulas) {
+            nebula.readState(in);
+        }
+        expectCount(in, blackHoles.size());
+        for (BlackHole blackHole : blackHoles) {
+            blackHole.readState(in);
+        }
+
+        int planetCount = readCount(in);
+        for (int i = 0; i < planetCount; i++) {
+            Planet planet = planetPool.obtain();
+            planet.readState(in);
+            planets.add(planet);
+        }
+        int enemyCount = readCount(in);
+        for (int i = 0; i < enemyCount; i++) {
+            Enemy enemy = enemyPool.obtain();
+            enemy.readState(in);
+            enemies.add(enemy);
+        }
+        int powerUpCount = readCount(in);
+        for (int i = 0; i < powerUpCount; i++) {
+            PowerUp powerUp = powerUpPool.obtain();
+            powerUp.readState(in);
+            powerUps.add(powerUp);
+        }
+        projectileSystem.readState(in);
+
+        int contacts = readCount(in);
+        for (int i = 0; i < contacts; i++) {
+            int index = in.getInt();
+            float duration = in.getFloat();
+            float pending = in.getFloat();
+            float separated = in.getFloat();
+            if (index >= 0 && index < planets.size()) {
+                planetContacts.restore(planets.get(index), duration, pending, separated);
+            }
+        }
+        planetGridDirty = true;
+        gameOver = false;
+    }
+
+    private static int readCount(ByteBuffer in) {
+        int count = in.getInt();
+        if (count < 0 || count > MAX_SAVED_ENTITIES) {
+            throw new IllegalArgumentException("bad entity count " + count);
+        }
+        return count;
+    }
+
+    private static void expectCount(ByteBuffer in, int expected) {
+        int count = in.getInt();
+        if (count != expected) {
+            throw new IllegalArgumentException("environment mismatch " + count + " != " + expected);
+        }
+    }
+
+    // کپی وضعیت فعلی در تصویر رندر
+    // فقط اشیای داخل مستطیل دید دوربین کپی می‌شوند؛ سحابی‌ها یک‌جا پخته می‌شوند و حذف نمی‌شوند
+    public void captureInto(WorldSnapshot snapshot) {
+        cameraSystem.computeViewRect(viewRect, CULL_MARGIN);
+
+        // سیارات از شبکه برخورد پرس‌وجو می‌شوند؛ هاله تا دو برابر شعاع می‌رسد
+        if (planetGridDirty) {
+            rebuildPlanetGrid();
+        }
+        visiblePlanets.clear();
+        planetViewRect.set(viewRect);
+        planetViewRect.expand(maxPlanetRadius);
+        planetGrid.queryRect(planetViewRect.left, planetViewRect.top,
+                             planetViewRect.right, planetViewRect.bottom, visiblePlanets);
+
+        cullObjects(enemies, visibleEnemies, 2);
+        cullObjects(powerUps, visiblePowerUps, 2);
+
+        visibleBlackHoles.clear();
+        for (BlackHole blackHole : blackHoles) {
+            // حلقه بیرونی با تپش تا حدود 1.65 برابر اندازه می‌رسد
+            if (viewRect.intersectsCircle(blackHole.getX(), blackHole.getY(), blackHole.getSize() * 2)) {
+                visibleBlackHoles.add(blackHole);
+            }
+        }
+
+        snapshot.capture(cameraSystem, spaceShip, joystick, visiblePlanets, visibleEnemies, starField,
+                         visibleBlackHoles, nebulas, visiblePowerUps, particleSystem, projectileSystem, viewRect,
+                         gameState);
+        snapshot.tick = clock.getTick();
+
+        setCullCounts(snapshot, WorldSnapshot.CULL_PLANETS, planets.size(), visiblePlanets.size());
+        setCullCounts(snapshot, WorldSnapshot.CULL_ENEMIES, enemies.size(), visibleEnemies.size());
+        setCullCounts(snapshot, WorldSnapshot.CULL_POWER_UPS, powerUps.size(), visiblePowerUps.size());
+        setCullCounts(snapshot, WorldSnapshot.CULL_BLACK_HOLES, blackHoles.size(), visibleBlackHoles.size());
+    }
+
+    private <T extends GameObject> void cullObjects(List<T> source, List<T> visible, float reachScale) {
+        visible.clear();
+        for (int i = 0; i < source.size(); i++) {
+            T item = source.get(i);
+            if (viewRect.intersectsCircle(item.getX(), item.getY(), item.getRadius() * reachScale)) {
+                visible.add(item);
+            }
+        }
+    }
+
+    private static void setCullCounts(WorldSnapshot snapshot, int layer, int total, int visible) {
+        snapshot.totalCounts[layer] = total;
+        snapshot.culledCounts[layer] = total - visible;
+    }
+
+    // متدهای دسترسی
+    public boolean isGameOver() { return gameOver; }
+    public long getTickCount() { return clock.getTick(); }
+    public long getSeed() { return seed; }
+    public SimClock getClock() { return clock; }
+    public ObjectPool<Enemy> getEnemyPool() { return enemyPool; }
+    public ObjectPool<Planet> getPlanetPool() { return planetPool; }
+    public ObjectPool<PowerUp> getPowerUpPool() { return powerUpPool; }
+    public FrameProfiler getProfiler() { return profiler; }
+    public JobSystem getJobSystem() { return jobSystem; }
+    public SimLod getSimLod() { return simLod; }
+    public int getScreenWidth() { return screenWidth; }
+    public int getScreenHeight() { return screenHeight; }
+    public SpaceShip getSpaceShip() { return spaceShip; }
+    public VirtualJoystick getJoystick() { return joystick; }
+    public InputQueue getInputQueue() { return inputQueue; }
+    public InputRouter getInputRouter() { return inputRouter; }
+    public LatencyTracker getLatencyTracker() { return latencyTracker; }
+    public CameraSystem getCameraSystem() { return cameraSystem; }
+    public List<Planet> getPlanets() { return planets; }
+    public List<Enemy> getEnemies() { return enemies; }
+    public StarField getStarField() { return starField; }
+    public List<PowerUp> getPowerUps() { return powerUps; }
+    public ParticleSystem getParticleSystem() { return particleSystem; }
+    public ProjectileSystem getProjectileSystem() { return projectileSystem; }
+    public GameState getGameState() { return gameState; }
+}
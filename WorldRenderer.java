@@ -0,0 +1,256 @@
+package com.space.ship.game;
+
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.graphics.Matrix;
+import android.graphics.Paint;
+
+// رسم تصویر جهان روی بوم اندروید؛ فقط در رشته رندر استفاده می‌شود
+class WorldRenderer {
+    private final int screenWidth, screenHeight;
+    private final Paint paint;
+    private final Matrix transformMatrix = new Matrix();
+
+    // اطلس مشترک اسپرایت‌های درخشش برای همه رسم‌کننده‌ها
+    private final GlowSpriteCache glowSprites = new GlowSpriteCache();
+    private final ShipRenderer shipRenderer = new ShipRenderer(glowSprites);
+    private final EnemyRenderer enemyRenderer = new EnemyRenderer(glowSprites);
+    private final PlanetRenderer planetRenderer = new PlanetRenderer(glowSprites);
+    private final EnvironmentRenderer environmentRenderer = new EnvironmentRenderer(glowSprites);
+    private final ParticleRenderer particleRenderer = new ParticleRenderer(glowSprites);
+    private final PowerUpRenderer powerUpRenderer = new PowerUpRenderer(glowSprites);
+    private final ProjectileRenderer projectileRenderer = new ProjectileRenderer();
+    private final JoystickRenderer joystickRenderer = new JoystickRenderer(glowSprites);
+    private final BackgroundLayers backgroundLayers = new BackgroundLayers(glowSprites, environmentRenderer);
+
+    // زمان‌سنج لایه‌های رسم و نمایشگر کارایی
+    private final FrameProfiler profiler = new FrameProfiler(FrameProfiler.DRAW_PHASES, FrameProfiler.DEFAULT_HISTORY);
+    private final PerfOverlay perfOverlay;
+    private volatile boolean perfOverlayEnabled;
+    private LatencyTracker latencyTracker;
+
+    public WorldRenderer(int screenWidth, int screenHeight) {
+        this.screenWidth = screenWidth;
+        this.screenHeight = screenHeight;
+        this.paint = new Paint();
+        paint.setAntiAlias(true);
+        paint.setFilterBitmap(true);
+        perfOverlay = new PerfOverlay(50, 180);
+    }
+
+    public void draw(Canvas canvas, WorldSnapshot snapshot, float alpha) {
+        // رسم محیط کهکشانی
+        profiler.begin(FrameProfiler.DRAW_BACKGROUND);
+        backgroundLayers.drawBackground(canvas, paint);
+        profiler.end(FrameProfiler.DRAW_BACKGROUND);
+
+        // اعمال تبدیل‌های دوربین
+        canvas.save();
+        applyCameraTransform(canvas, snapshot.camera, alpha);
+
+        // لایه‌های پارالاکس ستاره‌ها
+        profiler.begin(FrameProfiler.DRAW_STARS);
+        int starDraws = backgroundLayers.drawStars(canvas, paint, snapshot.stars, alpha);
+        profiler.end(FrameProfiler.DRAW_STARS);
+
+        // رسم سحابی‌ها از بیت‌مپ پخته شده
+        profiler.begin(FrameProfiler.DRAW_NEBULAS);
+        backgroundLayers.drawNebulas(canvas, paint, snapshot);
+        profiler.end(FrameProfiler.DRAW_NEBULAS);
+
+        // رسم سیاه‌چاله‌ها
+        profiler.begin(FrameProfiler.DRAW_BLACK_HOLES);
+        for (int i = 0; i < snapshot.blackHoleCount; i++) {
+            environmentRenderer.drawBlackHole(canvas, paint, snapshot.blackHoles.get(i));
+        }
+        profiler.end(FrameProfiler.DRAW_BLACK_HOLES);
+
+        // رسم ذرات
+        profiler.begin(FrameProfiler.DRAW_PARTICLES);
+        int particleDraws = particleRenderer.draw(canvas, paint, snapshot.particles);
+        profiler.end(FrameProfiler.DRAW_PARTICLES);
+
+        // رسم سیارات
+        profiler.begin(FrameProfiler.DRAW_PLANETS);
+        for (int i = 0; i < snapshot.planetCount; i++) {
+            planetRenderer.draw(canvas, paint, snapshot.planets.get(i));
+        }
+        profiler.end(FrameProfiler.DRAW_PLANETS);
+
+        // رسم پاداش‌ها در موقعیت درون‌یابی شده
+        profiler.begin(FrameProfiler.DRAW_POWER_UPS);
+        for (int i = 0; i < snapshot.powerUpCount; i++) {
+            powerUpRenderer.draw(canvas, paint, snapshot.powerUps.get(i), alpha);
+        }
+        profiler.end(FrameProfiler.DRAW_POWER_UPS);
+
+        // رسم دشمنان در موقعیت درون‌یابی شده
+        profiler.begin(FrameProfiler.DRAW_ENEMIES);
+        for (int i = 0; i < snapshot.enemyCount; i++) {
+            enemyRenderer.draw(canvas, paint, snapshot.enemies.get(i), alpha);
+        }
+        profiler.end(FrameProfiler.DRAW_ENEMIES);
+
+        // رسم پرتابه‌ها
+        profiler.begin(FrameProfiler.DRAW_PROJECTILES);
+        int projectileDraws = projectileRenderer.draw(canvas, snapshot.projectiles, alpha);
+        profiler.end(FrameProfiler.DRAW_PROJECTILES);
+
+        // رسم سفینه
+        profiler.begin(FrameProfiler.DRAW_SHIP);
+        shipRenderer.draw(canvas, paint, snapshot.ship, alpha);
+        profiler.end(FrameProfiler.DRAW_SHIP);
+
+        // بازگرداندن تبدیل‌های دوربین
+        canvas.restore();
+
+        // رسم رابط کاربری (بدون تأثیر از دوربین)
+        profiler.begin(FrameProfiler.DRAW_HUD);
+        drawHUD(canvas, snapshot);
+        joystickRenderer.draw(canvas, paint, snapshot.joystick);
+        profiler.end(FrameProfiler.DRAW_HUD);
+
+        // تعداد اشیای رسم شده (تخمینی از تعداد فراخوانی‌های رسم)
+        int entities = snapshot.planetCount + snapshot.enemyCount + snapshot.powerUpCount
+            + snapshot.blackHoleCount + snapshot.nebulaCount + 1;
+        int particles = snapshot.particles.size();
+        profiler.count(FrameProfiler.COUNT_ENTITIES, entities);
+        profiler.count(FrameProfiler.COUNT_PARTICLES, particles);
+        profiler.count(FrameProfiler.COUNT_DRAWN, entities + particleDraws + starDraws + projectileDraws);
+
+        if (perfOverlayEnabled) {
+            profiler.begin(FrameProfiler.DRAW_OVERLAY);
+            perfOverlay.draw(canvas, paint, profiler, snapshot, latencyTracker);
+            profiler.end(FrameProfiler.DRAW_OVERLAY);
+        }
+    }
+
+    private void applyCameraTransform(Canvas canvas, CameraSystem camera, float alpha) {
+        transformMatrix.reset();
+
+        // مرکز صفحه
+        float centerX = screenWidth / 2;
+        float centerY = screenHeight / 2;
+
+        // موقعیت درون‌یابی شده بین دو تیک شبیه‌سازی (همراه با لرزش)
+        float renderX = camera.getRenderX(alpha);
+        float renderY = camera.getRenderY(alpha);
+
+        transformMatrix.postTranslate(-renderX + centerX, -renderY + centerY);
+        transformMatrix.postScale(camera.getZoom(), camera.getZoom(), centerX, centerY);
+
+        canvas.concat(transformMatrix);
+    }
+
+    private void drawHUD(Canvas canvas, WorldSnapshot snapshot) {
+        paint.setColor(Color.WHITE);
+        paint.setTextSize(42);
+        paint.setShadowLayer(5, 3, 3, Color.BLACK);
+
+        // اطلاعات سطح
+        canvas.drawText("LEVEL " + snapshot.level, 50, 80, paint);
+        // تصویر فقط سیارات داخل دید را دارد؛ شمار کل از آمار حذف خوانده می‌شود
+        canvas.drawText("PLANETS: " + snapshot.totalCounts[WorldSnapshot.CULL_PLANETS], 50, 140, paint);
+
+        // اطلاعات امتیاز
+        String scoreText = "SCORE: " + String.format("%,d", snapshot.score);
+        canvas.drawText(scoreText, screenWidth - 400, 80, paint);
+
+        String coinsText = "COINS: " + formatCoins(snapshot.coins);
+        canvas.drawText(coinsText, screenWidth - 400, 140, paint);
+
+        // سلامت و جان‌ها
+        drawHealthBar(canvas, snapshot.ship);
+        drawLives(canvas, snapshot.lives);
+
+        paint.setShadowLayer(0, 0, 0, 0);
+    }
+
+    private void drawHealthBar(Canvas canvas, SpaceShip ship) {
+        float healthPercent = ship.getHealth() / 100.0f;
+        float barWidth = 300;
+        float barHeight = 25;
+        float x = screenWidth - barWidth - 50;
+        float y = screenHeight - 100;
+
+        // پس‌زمینه سلامت
+        paint.setColor(Color.argb(180, 100, 100, 100));
+        canvas.drawRoundRect(x, y, x + barWidth, y + barHeight, 12, 12, paint);
+
+        // سلامت فعلی
+        int healthColor;
+        if (healthPercent > 0.7f) {
+            healthColor = Color.argb(220, 0, 255, 100);
+        } else if (healthPercent > 0.3f) {
+            healthColor = Color.argb(220, 255, 255, 0);
+        } else {
+            healthColor = Color.argb(220, 255, 50, 50);
+        }
+
+        paint.setColor(healthColor);
+        canvas.drawRoundRect(x, y, x + (barWidth * healthPercent), y + barHeight, 12, 12, paint);
+
+        // کادر سلامت
+        paint.setStyle(Paint.Style.STROKE);
+        paint.setStrokeWidth(3);
+        paint.setColor(Color.WHITE);
+        canvas.drawRoundRect(x, y, x + barWidth, y + barHeight, 12, 12, paint);
+        paint.setStyle(Paint.Style.FILL);
+
+        // متن سلامت
+        paint.setTextSize(20);
+        paint.setColor(Color.WHITE);
+        String healthText = "SHIELD: " + (int)ship.getHealth() + "%";
+        canvas.drawText(healthText, x + 10, y + 18, paint);
+    }
+
+    private void drawLives(Canvas canvas, int lives) {
+        float x = 50;
+        float y = screenHeight - 80;
+        float size = 30;
+        float spacing = 40;
+
+        paint.setColor(Color.argb(255, 0, 200, 255));
+        for (int i = 0; i < lives; i++) {
+            canvas.drawCircle(x + i * spacing, y, size, paint);
+            paint.setColor(Color.argb(150, 0, 150, 255));
+            canvas.drawCircle(x + i * spacing, y, size * 0.6f, paint);
+            paint.setColor(Color.argb(255, 0, 200, 255));
+        }
+
+        paint.setTextSize(24);
+        canvas.drawText("LIVES", x, y - 15, paint);
+    }
+
+    private String formatCoins(long coins) {
+        if (coins >= 1000000000) {
+            return String.format("%.1fB", coins / 1000000000.0);
+        } else if (coins >= 1000000) {
+            return String.format("%.1fM", coins / 1000000.0);
+        } else if (coins >= 1000) {
+            return String.format("%.1fK", coins / 1000.0);
+        }
+        return String.valueOf(coins);
+    }
+
+    public void setPerfOverlayEnabled(boolean enabled) {
+        perfOverlayEnabled = enabled;
+    }
+
+    // آمار تأخیر ورودی در نمایشگر کارایی (پیش از شروع رشته رندر تنظیم می‌شود)
+    public void setLatencyTracker(LatencyTracker latencyTracker) {
+        this.latencyTracker = latencyTracker;
+    }
+
+    // آزادسازی بیت‌مپ‌های اطلس هنگام نابودی سطح
+    public void release() {
+        glowSprites.release();
+        backgroundLayers.release();
+        particleRenderer.release();
+    }
+
+    // متدهای دسترسی
+    public FrameProfiler getProfiler() { return profiler; }
+    public ParticleRenderer getParticleRenderer() { return particleRenderer; }
+    public boolean isPerfOverlayEnabled() { return perfOverlayEnabled; }
+}
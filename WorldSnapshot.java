@@ -0,0 +1,136 @@
+package com.space.ship.game;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// تصویر کامل جهان در پایان یک تیک؛ رشته رندر فقط از این کپی می‌خواند
+class WorldSnapshot {
+    final CameraSystem camera;
+    final SpaceShip ship;
+    final VirtualJoystick joystick;
+    final ArrayList<Planet> planets = new ArrayList<>();
+    final ArrayList<Enemy> enemies = new ArrayList<>();
+    final StarField stars = new StarField();
+    final ArrayList<BlackHole> blackHoles = new ArrayList<>();
+    final ArrayList<Nebula> nebulas = new ArrayList<>();
+    final ArrayList<PowerUp> powerUps = new ArrayList<>();
+    final ParticleFrame particles = new ParticleFrame(256);
+    final ProjectileFrame projectiles = new ProjectileFrame(256);
+    int planetCount;
+    int enemyCount;
+    int blackHoleCount;
+    int nebulaCount;
+    int powerUpCount;
+
+    // آمار حذف خارج از دید برای هر لایه (تعداد کل و تعداد حذف شده هنگام گرفتن تصویر)
+    static final int CULL_PLANETS = 0;
+    static final int CULL_ENEMIES = 1;
+    static final int CULL_POWER_UPS = 2;
+    static final int CULL_BLACK_HOLES = 3;
+    static final int CULL_PARTICLES = 4;
+    static final int CULL_PROJECTILES = 5;
+    static final String[] CULL_LAYERS = {"planets", "enemies", "powerUps", "blackHoles", "particles", "projectiles"};
+    final int[] totalCounts = new int[CULL_LAYERS.length];
+    final int[] culledCounts = new int[CULL_LAYERS.length];
+
+    // اطلاعات رابط کاربری
+    int level;
+    int score;
+    long coins;
+    int lives;
+
+    // زمان وضعیت شبیه‌سازی برای درون‌یابی در رشته رندر
+    long stateTimeNanos;
+    long tickNanos;
+    // شماره آخرین تیک این وضعیت؛ ورودی‌های مصرف شده تا این تیک با ارسال این فریم دیده می‌شوند
+    long tick;
+    boolean ready;
+
+    // آخرین خلاصه پروفایلر شبیه‌سازی (فقط وقتی نمایشگر کارایی روشن است پر می‌شود)
+    final ProfileSummary simProfile = new ProfileSummary(FrameProfiler.SIM_PHASES, FrameProfiler.DEFAULT_HISTORY);
+    boolean hasSimProfile;
+
+    private final int screenWidth, screenHeight;
+    // فقط برای ساخت نمونه‌های جای‌نگهدار؛ وضعیت آن‌ها بلافاصله با copyFrom بازنویسی می‌شود
+    private final SimRandom placeholderRandom = new SimRandom(0);
+
+    public WorldSnapshot(int screenWidth, int screenHeight) {
+        this.screenWidth = screenWidth;
+        this.screenHeight = screenHeight;
+        this.camera = new CameraSystem(screenWidth, screenHeight, placeholderRandom);
+        this.ship = new SpaceShip(0, 0, screenWidth, screenHeight, camera, placeholderRandom);
+        this.joystick = new VirtualJoystick(0, 0, 1);
+    }
+
+    public void capture(CameraSystem sourceCamera, SpaceShip sourceShip, VirtualJoystick sourceJoystick,
+                        List<Planet> sourcePlanets, List<Enemy> sourceEnemies, StarField sourceStars,
+                        List<BlackHole> sourceBlackHoles, List<Nebula> sourceNebulas,
+                        List<PowerUp> sourcePowerUps, ParticleSystem particleSystem,
+                        ProjectileSystem projectileSystem, ViewRect view, GameState gameState) {
+        camera.copyFrom(sourceCamera);
+        ship.copyFrom(sourceShip);
+        joystick.copyFrom(sourceJoystick);
+
+        planetCount = sourcePlanets.size();
+        while (planets.size() < planetCount) {
+            planets.add(new Planet(screenWidth, screenHeight, placeholderRandom));
+        }
+        for (int i = 0; i < planetCount; i++) {
+            planets.get(i).copyFrom(sourcePlanets.get(i));
+        }
+
+        enemyCount = sourceEnemies.size();
+        while (enemies.size() < enemyCount) {
+            enemies.add(new Enemy(screenWidth, screenHeight, placeholderRandom));
+        }
+        for (int i = 0; i < enemyCount; i++) {
+            enemies.get(i).copyFrom(sourceEnemies.get(i));
+        }
+
+        stars.copyFrom(sourceStars);
+
+        blackHoleCount = sourceBlackHoles.size();
+        while (blackHoles.size() < blackHoleCount) {
+            blackHoles.add(new BlackHole(0, 0, 1, placeholderRandom));
+        }
+        for (int i = 0; i < blackHoleCount; i++) {
+            blackHoles.get(i).copyFrom(sourceBlackHoles.get(i));
+        }
+
+        nebulaCount = sourceNebulas.size();
+        while (nebulas.size() < nebulaCount) {
+            nebulas.add(new Nebula(0, 0, 1, 0, placeholderRandom));
+        }
+        for (int i = 0; i < nebulaCount; i++) {
+            nebulas.get(i).copyFrom(sourceNebulas.get(i));
+        }
+
+        powerUpCount = sourcePowerUps.size();
+        while (powerUps.size() < powerUpCount) {
+            powerUps.add(new PowerUp(placeholderRandom));
+        }
+        for (int i = 0; i < powerUpCount; i++) {
+            powerUps.get(i).copyFrom(sourcePowerUps.get(i));
+        }
+
+        int particlesCulled = particleSystem.writeTo(particles, view);
+        totalCounts[CULL_PARTICLES] = particles.size() + particlesCulled;
+        culledCounts[CULL_PARTICLES] = particlesCulled;
+
+        int projectilesCulled = projectileSystem.writeTo(projectiles, view);
+        totalCounts[CULL_PROJECTILES] = projectiles.size() + projectilesCulled;
+        culledCounts[CULL_PROJECTILES] = projectilesCulled;
+
+        level = gameState.getCurrentLevel();
+        score = gameState.getScore();
+        coins = gameState.getCoins();
+        lives = gameState.getLives();
+        ready = true;
+    }
+
+    // کسر تیک سپری شده از زمان این وضعیت، محدود به بازه 0 تا 1
+    public float interpolationAlpha(long nowNanos) {
+        float alpha = (float)(nowNanos - stateTimeNanos) / tickNanos;
+        return Math.max(0f, Math.min(1f, alpha));
+    }
+}